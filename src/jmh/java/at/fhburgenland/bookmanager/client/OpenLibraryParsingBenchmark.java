@@ -0,0 +1,92 @@
+package at.fhburgenland.bookmanager.client;
+
+import at.fhburgenland.bookmanager.dto.BookMetadata;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vergleicht das Auslesen einer OpenLibrary-Antwort über einen {@link JsonNode}-Baum
+ * (bisheriges Verfahren: Body als String, dann {@code readTree}) mit dem
+ * {@link OpenLibraryResponseParser}, der direkt aus dem Stream liest.
+ *
+ * Ausführen mit {@code ./gradlew jmh}; die Allokationsraten liefert der {@code gc}-Profiler.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class OpenLibraryParsingBenchmark {
+
+    /** Anzahl der Bücher pro Antwort: Einzelabruf bzw. ein Block des Massenimports. */
+    @Param({"1", "25"})
+    private int books;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final OpenLibraryResponseParser streamingParser = new OpenLibraryResponseParser(objectMapper.getFactory());
+
+    private byte[] body;
+    private List<String> isbns;
+
+    @Setup
+    public void setUp() throws IOException {
+        String book;
+        try (InputStream in = Objects.requireNonNull(
+                getClass().getResourceAsStream("/openlibrary-book.json"), "openlibrary-book.json fehlt")) {
+            book = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        isbns = new ArrayList<>();
+        StringBuilder json = new StringBuilder("{");
+        for (int i = 0; i < books; i++) {
+            String isbn = String.format("978014032%04d", i);
+            isbns.add(isbn);
+            json.append(i == 0 ? "" : ",").append("\"ISBN:").append(isbn).append("\":").append(book);
+        }
+        body = json.append('}').toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public Map<String, BookMetadata> tree() throws IOException {
+        JsonNode root = objectMapper.readTree(new String(body, StandardCharsets.UTF_8));
+        Map<String, BookMetadata> result = new LinkedHashMap<>();
+        for (String isbn : isbns) {
+            JsonNode data = root.path("ISBN:" + isbn);
+            if (!data.isMissingNode() && !data.isEmpty()) {
+                result.put(isbn, new BookMetadata(
+                        isbn,
+                        data.path("title").asText(""),
+                        data.path("publishers").isArray() && !data.path("publishers").isEmpty()
+                                ? data.path("publishers").get(0).path("name").asText("")
+                                : "",
+                        data.path("publish_date").asText(""),
+                        data.path("description").has("value")
+                                ? data.path("description").path("value").asText("")
+                                : data.path("description").asText(""),
+                        "https://covers.openlibrary.org/b/isbn/" + isbn + "-L.jpg"));
+            }
+        }
+        return result;
+    }
+
+    @Benchmark
+    public Map<String, BookMetadata> streaming() throws IOException {
+        return streamingParser.parse(new ByteArrayInputStream(body), isbns);
+    }
+}
@@ -0,0 +1,114 @@
+package at.fhburgenland.bookmanager.model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vergleicht Inserts mit zufälligen UUIDv4- und zeitlich geordneten UUIDv7-Primärschlüsseln.
+ *
+ * Jeder Aufruf fügt einen Block von Zeilen in eine wachsende Tabelle ein; je größer der
+ * Primärschlüssel-Index wird, desto stärker fallen die über den ganzen B-Baum verteilten
+ * v4-Inserts ins Gewicht. Am Ende jedes Laufs wird die Größe des Index ausgegeben.
+ *
+ * Standardmäßig läuft der Vergleich gegen eine H2-Datenbank im Arbeitsspeicher. Aussagekräftig
+ * für den Betrieb ist PostgreSQL: nach {@code ./gradlew jmhJar} etwa mit
+ * {@code java -jar build/libs/bookmanager-0.0.1-SNAPSHOT-jmh.jar UuidInsertBenchmark
+ * -p url=jdbc:postgresql://localhost:5432/bench -p user=... -p password=...}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class UuidInsertBenchmark {
+
+    private static final int ROWS_PER_CALL = 1000;
+
+    /** {@code v4} für zufällige, {@code v7} für zeitlich geordnete Schlüssel. */
+    @Param({"v4", "v7"})
+    private String keys;
+
+    @Param("jdbc:h2:mem:uuid-insert-bench;DB_CLOSE_DELAY=-1")
+    private String url;
+
+    @Param("sa")
+    private String user;
+
+    @Param("")
+    private String password;
+
+    private Connection connection;
+    private PreparedStatement insert;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection(url, user, password);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("drop table if exists uuid_insert_bench");
+            statement.execute("create table uuid_insert_bench (id uuid primary key, payload varchar(64) not null)");
+        }
+        connection.setAutoCommit(false);
+        insert = connection.prepareStatement("insert into uuid_insert_bench (id, payload) values (?, ?)");
+    }
+
+    /**
+     * Fügt {@value #ROWS_PER_CALL} Zeilen in einem JDBC-Batch und einer Transaktion ein.
+     */
+    @Benchmark
+    @OperationsPerInvocation(ROWS_PER_CALL)
+    public void insert() throws SQLException {
+        boolean ordered = "v7".equals(keys);
+        for (int i = 0; i < ROWS_PER_CALL; i++) {
+            insert.setObject(1, ordered ? UuidV7Generator.next() : UUID.randomUUID());
+            insert.setString(2, "Buch " + i);
+            insert.addBatch();
+        }
+        insert.executeBatch();
+        connection.commit();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            System.out.printf("%n%s: %d Zeilen, Primärschlüssel-Index %s%n", keys, count(statement), indexSize(statement));
+            statement.execute("drop table uuid_insert_bench");
+        }
+        connection.commit();
+        insert.close();
+        connection.close();
+    }
+
+    private static long count(Statement statement) throws SQLException {
+        try (ResultSet rows = statement.executeQuery("select count(*) from uuid_insert_bench")) {
+            rows.next();
+            return rows.getLong(1);
+        }
+    }
+
+    /** Größe des Primärschlüssel-Index; H2 kennt nur die Größe der Tabelle samt Indizes. */
+    private String indexSize(Statement statement) throws SQLException {
+        String query = url.startsWith("jdbc:postgresql:")
+                ? "select pg_size_pretty(pg_relation_size('uuid_insert_bench_pkey'))"
+                : "select disk_space_used('UUID_INSERT_BENCH') || ' Bytes (Tabelle und Index)'";
+        try (ResultSet size = statement.executeQuery(query)) {
+            size.next();
+            return size.getString(1);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package at.fhburgenland.bookmanager.client;
+
+import at.fhburgenland.bookmanager.dto.BookMetadata;
+import at.fhburgenland.bookmanager.exception.InvalidBookException;
+import at.fhburgenland.bookmanager.exception.MetadataUnavailableException;
+import at.fhburgenland.bookmanager.exception.UnknownIsbnException;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Quelle für Buch-Metadaten zu ISBNs.
+ *
+ * Alle Spring-Beans dieses Typs werden in der Reihenfolge ihrer {@code @Order} vom
+ * {@link at.fhburgenland.bookmanager.service.HedgedMetadataFetcher} verwendet: der erste
+ * Anbieter wird immer gefragt, der zweite erhält die abgesicherte Zweitanfrage, wenn der
+ * erste zu lange braucht oder scheitert.
+ */
+public interface BookMetadataProvider {
+
+    /**
+     * Kurzer Name des Anbieters für Logs.
+     *
+     * @return Name, z. B. {@code openlibrary}
+     */
+    String name();
+
+    /**
+     * Ruft die Metadaten zu genau einer ISBN ab.
+     *
+     * @param isbn normalisierte ISBN-13
+     * @return die Metadaten
+     * @throws UnknownIsbnException         wenn der Anbieter keine Daten zur ISBN kennt
+     * @throws InvalidBookException         wenn der Abruf fehlschlägt
+     * @throws MetadataUnavailableException wenn der Anbieter nicht verfügbar ist
+     */
+    BookMetadata fetch(String isbn);
+
+    /**
+     * Ruft die Metadaten mehrerer ISBNs ab. Unbekannte ISBNs fehlen in der Ergebnis-Map.
+     *
+     * @param isbns normalisierte ISBN-13
+     * @return Map von ISBN auf Metadaten
+     * @throws InvalidBookException         wenn der Abruf fehlschlägt
+     * @throws MetadataUnavailableException wenn der Anbieter nicht verfügbar ist
+     */
+    Map<String, BookMetadata> fetchAll(Collection<String> isbns);
+}
@@ -0,0 +1,167 @@
+package at.fhburgenland.bookmanager.client;
+
+import at.fhburgenland.bookmanager.dto.BookMetadata;
+import at.fhburgenland.bookmanager.dto.MetadataRevalidation;
+import at.fhburgenland.bookmanager.exception.InvalidBookException;
+import at.fhburgenland.bookmanager.exception.MetadataUnavailableException;
+import at.fhburgenland.bookmanager.exception.UnknownIsbnException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.ResponseExtractor;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Client für die OpenLibrary Books API.
+ *
+ * Kapselt den HTTP-Abruf und das Auslesen der JSON-Antwort. Mehrere ISBNs können
+ * in einer Anfrage abgefragt werden, da die API kommagetrennte {@code bibkeys} unterstützt.
+ * Die Antwort wird direkt aus dem Stream mit dem {@link OpenLibraryResponseParser} gelesen.
+ * Das verwendete {@link RestTemplate} kommt aus {@code OpenLibraryHttpConfig} und ist
+ * gepoolt und zeitlich begrenzt. Das Token beim {@link OpenLibraryRateLimiter}, mit dem alle
+ * Instanzen zusammen unter dem Limit bleiben, holen die Aufrufer vor jeder Anfrage selbst,
+ * und zwar vor dem Circuit Breaker, damit die Wartezeit nicht als langsamer Aufruf zählt.
+ *
+ * Als {@link BookMetadataProvider} ist der Client der primäre Anbieter für Metadaten.
+ */
+@Component
+@Order(0)
+public class OpenLibraryClient implements BookMetadataProvider {
+
+    private final RestTemplate restTemplate;
+    private final String apiUrl;
+    private final OpenLibraryResponseParser responseParser;
+
+    /**
+     * Erstellt den Client.
+     *
+     * @param restTemplate HTTP-Client für die OpenLibrary API
+     * @param apiUrl       Basis-URL der OpenLibrary Books API
+     * @param objectMapper Jackson-ObjectMapper zum Parsen der Antworten
+     */
+    public OpenLibraryClient(@Qualifier("openLibraryRestTemplate") RestTemplate restTemplate,
+                             @Value("${book.api.url}") String apiUrl,
+                             ObjectMapper objectMapper) {
+        this.restTemplate = restTemplate;
+        this.apiUrl = apiUrl;
+        this.responseParser = new OpenLibraryResponseParser(objectMapper.getFactory());
+    }
+
+    @Override
+    public String name() {
+        return "openlibrary";
+    }
+
+    /**
+     * Ruft die Metadaten zu genau einer ISBN ab.
+     *
+     * @param isbn normalisierte ISBN
+     * @return die abgerufenen Metadaten
+     * @throws InvalidBookException wenn der Abruf fehlschlägt oder OpenLibrary keine Daten kennt
+     */
+    @Override
+    public BookMetadata fetch(String isbn) {
+        BookMetadata metadata = fetchAll(List.of(isbn)).get(isbn);
+        if (metadata == null) {
+            throw new UnknownIsbnException(isbn);
+        }
+        return metadata;
+    }
+
+    /**
+     * Ruft die Metadaten mehrerer ISBNs mit einer einzigen Anfrage ab.
+     *
+     * ISBNs, zu denen OpenLibrary keine Daten liefert, fehlen in der Ergebnis-Map.
+     *
+     * @param isbns normalisierte ISBNs
+     * @return Map von ISBN auf Metadaten in der Reihenfolge der Anfrage
+     * @throws InvalidBookException         wenn der Abruf oder das Parsen der Antwort fehlschlägt
+     * @throws MetadataUnavailableException wenn OpenLibrary nicht rechtzeitig erreichbar ist oder einen Serverfehler meldet
+     */
+    @Override
+    public Map<String, BookMetadata> fetchAll(Collection<String> isbns) {
+        String bibkeys = isbns.stream()
+                .map(isbn -> "ISBN:" + isbn)
+                .collect(Collectors.joining(","));
+        String url = String.format("%s?bibkeys=%s&format=json&jscmd=data", apiUrl, bibkeys);
+        return execute(url, null, response -> readResponse(response, isbns), isbns);
+    }
+
+    /**
+     * Fragt die Metadaten einer bereits gespeicherten ISBN bedingt erneut ab.
+     *
+     * Die beim letzten Abruf gemerkten Validatoren werden als {@code If-None-Match} bzw.
+     * {@code If-Modified-Since} mitgeschickt. Antwortet OpenLibrary mit {@code 304 Not Modified},
+     * wird kein Body übertragen oder geparst.
+     *
+     * @param isbn         normalisierte ISBN
+     * @param etag         zuletzt erhaltener {@code ETag}, darf {@code null} sein
+     * @param lastModified zuletzt erhaltener {@code Last-Modified}-Wert, darf {@code null} sein
+     * @return Ergebnis der Revalidierung
+     * @throws InvalidBookException         wenn der Abruf oder das Parsen der Antwort fehlschlägt
+     * @throws MetadataUnavailableException wenn OpenLibrary nicht rechtzeitig erreichbar ist oder einen Serverfehler meldet
+     */
+    public MetadataRevalidation revalidate(String isbn, String etag, String lastModified) {
+        String url = String.format("%s?bibkeys=ISBN:%s&format=json&jscmd=data", apiUrl, isbn);
+        RequestCallback conditional = request -> {
+            if (etag != null) {
+                request.getHeaders().setIfNoneMatch(etag);
+            }
+            if (lastModified != null) {
+                request.getHeaders().set(HttpHeaders.IF_MODIFIED_SINCE, lastModified);
+            }
+        };
+        return execute(url, conditional, response -> {
+            if (response.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+                return MetadataRevalidation.notModified();
+            }
+            BookMetadata metadata = readResponse(response, List.of(isbn)).get(isbn);
+            if (metadata == null) {
+                return MetadataRevalidation.unknown();
+            }
+            HttpHeaders headers = response.getHeaders();
+            return MetadataRevalidation.modified(metadata, headers.getETag(), headers.getFirst(HttpHeaders.LAST_MODIFIED));
+        }, List.of(isbn));
+    }
+
+    private <T> T execute(String url, RequestCallback callback, ResponseExtractor<T> extractor, Collection<String> isbns) {
+        try {
+            return restTemplate.execute(url, HttpMethod.GET, callback, extractor);
+        } catch (ResourceAccessException e) {
+            throw new MetadataUnavailableException("OpenLibrary ist nicht erreichbar: " + e.getMessage());
+        } catch (HttpServerErrorException e) {
+            throw new MetadataUnavailableException("OpenLibrary antwortet mit " + e.getStatusCode());
+        } catch (HttpClientErrorException e) {
+            throw new InvalidBookException("Fehler beim Abruf der Buchdaten für ISBN: " + String.join(", ", isbns));
+        }
+    }
+
+    private Map<String, BookMetadata> readResponse(ClientHttpResponse response, Collection<String> isbns)
+            throws IOException {
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            throw new InvalidBookException("Fehler beim Abruf der Buchdaten für ISBN: " + String.join(", ", isbns));
+        }
+        try {
+            return responseParser.parse(response.getBody(), isbns);
+        } catch (JsonProcessingException e) {
+            throw new InvalidBookException("Fehler beim Parsen der Buchdaten: " + e.getOriginalMessage());
+        }
+    }
+}
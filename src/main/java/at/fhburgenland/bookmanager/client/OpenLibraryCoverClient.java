@@ -0,0 +1,73 @@
+package at.fhburgenland.bookmanager.client;
+
+import at.fhburgenland.bookmanager.dto.CoverImage;
+import at.fhburgenland.bookmanager.exception.MetadataUnavailableException;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Optional;
+
+/**
+ * Client für die OpenLibrary Covers API.
+ *
+ * Verwendet denselben gepoolten HTTP-Client wie {@link OpenLibraryClient}. Die Quell-URL wird
+ * mit {@code default=false} aufgerufen, damit OpenLibrary für unbekannte Cover 404 statt eines
+ * Platzhalterbildes liefert.
+ */
+@Component
+public class OpenLibraryCoverClient {
+
+    private final RestTemplate restTemplate;
+    private final String sourceUrl;
+    private final long maxImageBytes;
+
+    /**
+     * Erstellt den Client.
+     *
+     * @param restTemplate HTTP-Client für OpenLibrary
+     * @param sourceUrl    URL-Vorlage mit Platzhalter {@code {isbn}}
+     * @param maxImageSize maximale Größe eines Coverbildes
+     */
+    public OpenLibraryCoverClient(@Qualifier("openLibraryRestTemplate") RestTemplate restTemplate,
+                                  @Value("${book.covers.source-url:https://covers.openlibrary.org/b/isbn/{isbn}-L.jpg?default=false}") String sourceUrl,
+                                  @Value("${book.covers.max-image-size:5MB}") DataSize maxImageSize) {
+        this.restTemplate = restTemplate;
+        this.sourceUrl = sourceUrl;
+        this.maxImageBytes = maxImageSize.toBytes();
+    }
+
+    /**
+     * Lädt das große Coverbild zu einer ISBN.
+     *
+     * @param isbn normalisierte ISBN
+     * @return das Bild oder leer, wenn OpenLibrary kein (brauchbares) Cover kennt
+     * @throws MetadataUnavailableException wenn OpenLibrary nicht rechtzeitig erreichbar ist
+     */
+    public Optional<CoverImage> fetch(String isbn) {
+        ResponseEntity<byte[]> response;
+        try {
+            response = restTemplate.getForEntity(sourceUrl, byte[].class, isbn);
+        } catch (HttpClientErrorException e) {
+            return Optional.empty();
+        } catch (ResourceAccessException e) {
+            throw new MetadataUnavailableException("OpenLibrary Covers ist nicht erreichbar: " + e.getMessage());
+        } catch (HttpServerErrorException e) {
+            throw new MetadataUnavailableException("OpenLibrary Covers antwortet mit " + e.getStatusCode());
+        }
+        byte[] content = response.getBody();
+        MediaType contentType = response.getHeaders().getContentType();
+        if (content == null || content.length == 0 || content.length > maxImageBytes
+                || contentType == null || !"image".equals(contentType.getType())) {
+            return Optional.empty();
+        }
+        return Optional.of(new CoverImage(content, contentType.toString()));
+    }
+}
@@ -0,0 +1,125 @@
+package at.fhburgenland.bookmanager.client;
+
+import at.fhburgenland.bookmanager.dto.CatalogProjection;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Komprimiert gespeicherte OpenLibrary-Rohantworten und leitet Katalogfelder daraus ab.
+ *
+ * Gespeichert wird das JSON-Objekt einer einzelnen ISBN aus der Antwort der Books API
+ * ({@code jscmd=data}), gzip-komprimiert. {@link #project(byte[])} liest daraus Autoren,
+ * Schlagwörter und Seitenzahl, ohne OpenLibrary erneut zu fragen.
+ */
+public final class OpenLibraryPayloads {
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private OpenLibraryPayloads() {
+    }
+
+    /**
+     * @param json Rohantwort einer ISBN
+     * @return gzip-komprimierte Rohantwort
+     */
+    public static byte[] compress(byte[] json) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(json.length / 3 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+
+    /**
+     * @param payload gzip-komprimierte Rohantwort
+     * @return die Rohantwort als JSON
+     * @throws IOException wenn die Daten kein gültiges gzip sind
+     */
+    public static byte[] decompress(byte[] payload) throws IOException {
+        try (InputStream gzip = new GZIPInputStream(new ByteArrayInputStream(payload))) {
+            return gzip.readAllBytes();
+        }
+    }
+
+    /**
+     * Leitet die Katalogfelder aus einer gespeicherten Rohantwort ab.
+     *
+     * @param payload gzip-komprimierte Rohantwort einer ISBN
+     * @return die abgeleiteten Felder
+     * @throws IOException wenn die Rohantwort nicht gelesen werden kann
+     */
+    public static CatalogProjection project(byte[] payload) throws IOException {
+        List<String> authors = List.of();
+        List<String> subjects = List.of();
+        Integer numberOfPages = null;
+        try (JsonParser parser = JSON.createParser(decompress(payload))) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return new CatalogProjection(authors, subjects, numberOfPages);
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "authors" -> authors = names(parser, value);
+                    case "subjects" -> subjects = names(parser, value);
+                    case "number_of_pages" -> numberOfPages = value == JsonToken.VALUE_NUMBER_INT
+                            ? Integer.valueOf(parser.getIntValue()) : null;
+                    default -> parser.skipChildren();
+                }
+            }
+        }
+        return new CatalogProjection(authors, subjects, numberOfPages);
+    }
+
+    /** Listen aus Strings oder aus Objekten mit {@code name}, wie bei Autoren und Schlagwörtern. */
+    private static List<String> names(JsonParser parser, JsonToken value) throws IOException {
+        if (value != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return List.of();
+        }
+        List<String> names = new ArrayList<>();
+        JsonToken element;
+        while ((element = parser.nextToken()) != JsonToken.END_ARRAY) {
+            String name = element == JsonToken.START_OBJECT ? name(parser) : scalar(parser, element);
+            if (!name.isBlank()) {
+                names.add(name);
+            }
+        }
+        return names;
+    }
+
+    private static String name(JsonParser parser) throws IOException {
+        String name = "";
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("name".equals(field)) {
+                name = scalar(parser, value);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return name;
+    }
+
+    private static String scalar(JsonParser parser, JsonToken value) throws IOException {
+        if (value.isScalarValue()) {
+            return parser.getValueAsString("");
+        }
+        parser.skipChildren();
+        return "";
+    }
+}
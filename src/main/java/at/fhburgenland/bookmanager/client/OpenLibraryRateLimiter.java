@@ -0,0 +1,201 @@
+package at.fhburgenland.bookmanager.client;
+
+import at.fhburgenland.bookmanager.exception.MetadataUnavailableException;
+import at.fhburgenland.bookmanager.exception.RateLimitExceededException;
+import at.fhburgenland.bookmanager.model.RateLimitBucket;
+import at.fhburgenland.bookmanager.repository.RateLimitBucketRepository;
+import at.fhburgenland.bookmanager.service.RequestDeadline;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.function.Supplier;
+
+/**
+ * Begrenzt die Metadaten-Anfragen an OpenLibrary über alle Instanzen der Anwendung hinweg.
+ *
+ * Das Budget ist ein Token-Bucket in der gemeinsamen Datenbank ({@link RateLimitBucket}),
+ * dessen Zeile bei jeder Reservierung kurz gesperrt wird. Jeder Aufruf reserviert ein Token;
+ * ist keines frei, wird das nächste freiwerdende reserviert und entsprechend gewartet, statt
+ * OpenLibrary mit einer Anfrage zu überholen, die mit 429 abgewiesen würde. Die Anfragen
+ * stauen sich so beim Aufrufer (Gegendruck). Nur wenn die Wartezeit die konfigurierte
+ * Höchstwartezeit oder die Frist der Anfrage überschreiten würde, scheitert der Aufruf sofort
+ * mit einer {@link RateLimitExceededException}.
+ *
+ * Aufrufer holen das Token über {@link #throttled} vor dem Circuit Breaker: Die Wartezeit
+ * zählt so weder als langsamer Aufruf noch in die Antwortzeiten, nach denen Zweitanfragen
+ * gestellt werden, und eine Abweisung öffnet den Breaker nicht. Zweitanfragen nutzen
+ * {@link #tryAcquire()} und unterbleiben, statt auf ein Token zu warten.
+ *
+ * Wartezeiten und Abweisungen sind als {@value #WAIT_METRIC} bzw. {@value #REJECTED_METRIC} sichtbar.
+ */
+@Component
+public class OpenLibraryRateLimiter {
+
+    /** Name des Buckets in der Datenbank. */
+    public static final String BUCKET = "openlibrary";
+
+    /** Wartezeit bis zum Versand einer Anfrage. */
+    public static final String WAIT_METRIC = "book.api.rate-limit.wait";
+
+    /** Anzahl abgewiesener Anfragen, deren Wartezeit zu lang gewesen wäre. */
+    public static final String REJECTED_METRIC = "book.api.rate-limit.rejected";
+
+    private final RateLimitBucketRepository bucketRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final double permitsPerSecond;
+    private final double burst;
+    private final Duration maxWait;
+    private final Timer waitTimer;
+    private final Counter rejected;
+    private final Clock clock = Clock.systemUTC();
+
+    /**
+     * Erstellt den Limiter.
+     *
+     * @param bucketRepository   Repository des gemeinsamen Buckets
+     * @param transactionManager Transaktionsmanager für die kurze Sperre des Buckets
+     * @param enabled            ob ausgehende Anfragen begrenzt werden
+     * @param permitsPerSecond   erlaubte Anfragen pro Sekunde für den gesamten Cluster
+     * @param burst              Anzahl Anfragen, die nach einer Pause ohne Wartezeit erlaubt sind
+     * @param maxWait            längste Wartezeit auf ein freies Token
+     * @param meterRegistry      Registry für Wartezeiten und Abweisungen
+     */
+    public OpenLibraryRateLimiter(RateLimitBucketRepository bucketRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${book.api.rate-limit.enabled:true}") boolean enabled,
+                                  @Value("${book.api.rate-limit.requests-per-second:10}") double permitsPerSecond,
+                                  @Value("${book.api.rate-limit.burst:20}") double burst,
+                                  @Value("${book.api.rate-limit.max-wait:PT5S}") Duration maxWait,
+                                  MeterRegistry meterRegistry) {
+        if (enabled && (permitsPerSecond <= 0 || burst < 1)) {
+            throw new IllegalArgumentException("requests-per-second muss positiv und burst mindestens 1 sein");
+        }
+        this.bucketRepository = bucketRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.enabled = enabled;
+        this.permitsPerSecond = permitsPerSecond;
+        this.burst = burst;
+        this.maxWait = maxWait;
+        this.waitTimer = Timer.builder(WAIT_METRIC).publishPercentiles(0.5, 0.95, 0.99).register(meterRegistry);
+        this.rejected = Counter.builder(REJECTED_METRIC).register(meterRegistry);
+    }
+
+    /**
+     * Führt eine Anfrage an OpenLibrary über den Circuit Breaker aus und holt das Token dafür
+     * vorher. Der Breaker misst nur die Anfrage selbst; ist er offen, wird kein Token verbraucht.
+     *
+     * @param circuitBreaker Circuit Breaker für OpenLibrary-Aufrufe
+     * @param request        die eigentliche Anfrage
+     * @param <T>            Ergebnistyp der Anfrage
+     * @return Ergebnis der Anfrage
+     * @throws CallNotPermittedException   wenn der Circuit Breaker offen ist
+     * @throws RateLimitExceededException  wenn die Wartezeit auf ein Token zu lang wäre
+     */
+    public <T> T throttled(CircuitBreaker circuitBreaker, Supplier<T> request) {
+        circuitBreaker.acquirePermission();
+        try {
+            acquire();
+        } catch (RuntimeException e) {
+            circuitBreaker.releasePermission();
+            throw e;
+        }
+        long start = circuitBreaker.getCurrentTimestamp();
+        try {
+            T result = request.get();
+            circuitBreaker.onResult(circuitBreaker.getCurrentTimestamp() - start, circuitBreaker.getTimestampUnit(), result);
+            return result;
+        } catch (RuntimeException e) {
+            circuitBreaker.onError(circuitBreaker.getCurrentTimestamp() - start, circuitBreaker.getTimestampUnit(), e);
+            throw e;
+        }
+    }
+
+    /**
+     * Reserviert ein Token für eine Anfrage an OpenLibrary und wartet, bis es gültig ist.
+     *
+     * @throws RateLimitExceededException  wenn die Wartezeit zu lang wäre
+     * @throws MetadataUnavailableException wenn das Warten unterbrochen wird
+     */
+    public void acquire() {
+        if (!enabled) {
+            return;
+        }
+        Duration wait = reserve(RequestDeadline.bound(maxWait));
+        waitTimer.record(wait);
+        if (wait.isZero()) {
+            return;
+        }
+        try {
+            Thread.sleep(wait);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MetadataUnavailableException("Warten auf das OpenLibrary-Ratenlimit wurde unterbrochen");
+        }
+    }
+
+    /**
+     * Reserviert ein Token nur, wenn es sofort gültig ist.
+     *
+     * @return {@code true}, wenn ein Token reserviert wurde
+     */
+    public boolean tryAcquire() {
+        if (!enabled) {
+            return true;
+        }
+        try {
+            reserve(Duration.ZERO);
+            return true;
+        } catch (RateLimitExceededException e) {
+            return false;
+        }
+    }
+
+    private Duration reserve(Duration allowedWait) {
+        try {
+            return transactionTemplate.execute(status -> reserveLocked(allowedWait));
+        } catch (DataIntegrityViolationException e) {
+            // Eine andere Instanz hat den Bucket gleichzeitig angelegt, jetzt existiert er.
+            return transactionTemplate.execute(status -> reserveLocked(allowedWait));
+        }
+    }
+
+    /**
+     * Füllt den gesperrten Bucket für die seit der letzten Reservierung vergangene Zeit auf und
+     * entnimmt ein Token. Reicht der Bestand nicht, wird er negativ und die Wartezeit ergibt sich
+     * aus dem Fehlbetrag; spätere Aufrufer reihen sich dahinter ein.
+     */
+    private Duration reserveLocked(Duration allowedWait) {
+        Instant now = clock.instant();
+        RateLimitBucket bucket = bucketRepository.findForUpdate(BUCKET)
+                .orElseGet(() -> bucketRepository.saveAndFlush(new RateLimitBucket(BUCKET, burst, now)));
+
+        // Uhren der Instanzen können leicht abweichen; der Bucket wird nie zurückdatiert.
+        Instant refilledUntil = now.isAfter(bucket.getUpdatedAt()) ? now : bucket.getUpdatedAt();
+        double elapsedSeconds = Duration.between(bucket.getUpdatedAt(), refilledUntil).toNanos() / 1e9;
+        double remaining = Math.min(burst, bucket.getTokens() + elapsedSeconds * permitsPerSecond) - 1;
+
+        Duration wait = remaining >= 0 ? Duration.ZERO : Duration.ofNanos((long) (-remaining / permitsPerSecond * 1e9));
+        if (wait.compareTo(allowedWait) > 0) {
+            rejected.increment();
+            throw new RateLimitExceededException(
+                    "Ratenlimit für OpenLibrary ausgeschöpft, Wartezeit " + wait.toMillis() + " ms");
+        }
+        bucket.setTokens(remaining);
+        bucket.setUpdatedAt(refilledUntil);
+        return wait;
+    }
+}
@@ -0,0 +1,168 @@
+package at.fhburgenland.bookmanager.client;
+
+import at.fhburgenland.bookmanager.dto.BookMetadata;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Liest Antworten der OpenLibrary Books API ({@code jscmd=data}) im Streaming-Verfahren.
+ *
+ * Der Antwort-Stream wird genau einmal mit einem {@link JsonParser} durchlaufen. Das Objekt
+ * jeder angefragten ISBN wird dabei als Rohantwort kopiert und komprimiert mitgeliefert
+ * ({@link BookMetadata#payload()}), damit später weitere Felder ohne erneuten Abruf abgeleitet
+ * werden können. Aus der Kopie werden nur die benötigten Felder ausgelesen; nicht angefragte
+ * ISBNs werden übersprungen, ohne Objekte dafür anzulegen.
+ */
+public class OpenLibraryResponseParser {
+
+    private static final String BIBKEY_PREFIX = "ISBN:";
+
+    private final JsonFactory jsonFactory;
+
+    /**
+     * Erstellt den Parser.
+     *
+     * @param jsonFactory Jackson-Factory zum Erzeugen der Parser
+     */
+    public OpenLibraryResponseParser(JsonFactory jsonFactory) {
+        this.jsonFactory = jsonFactory;
+    }
+
+    /**
+     * Liest die Metadaten der angefragten ISBNs aus einer Antwort.
+     *
+     * ISBNs, zu denen die Antwort kein oder nur ein leeres Objekt enthält, fehlen im Ergebnis.
+     *
+     * @param body  Antwort-Stream, wird nicht geschlossen
+     * @param isbns angefragte, normalisierte ISBNs
+     * @return Map von ISBN auf Metadaten in der Reihenfolge der Anfrage
+     * @throws IOException wenn der Stream nicht gelesen werden kann oder kein gültiges JSON enthält
+     */
+    public Map<String, BookMetadata> parse(InputStream body, Collection<String> isbns) throws IOException {
+        Set<String> requested = isbns.stream().map(isbn -> BIBKEY_PREFIX + isbn).collect(Collectors.toSet());
+        Map<String, BookMetadata> found = new HashMap<>();
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return Map.of();
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String bibkey = parser.currentName();
+                if (parser.nextToken() == JsonToken.START_OBJECT && requested.contains(bibkey)) {
+                    String isbn = bibkey.substring(BIBKEY_PREFIX.length());
+                    BookMetadata metadata = readBook(copyObject(parser), isbn);
+                    if (metadata != null) {
+                        found.put(isbn, metadata);
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+
+        Map<String, BookMetadata> result = new LinkedHashMap<>();
+        for (String isbn : isbns) {
+            BookMetadata metadata = found.get(isbn);
+            if (metadata != null) {
+                result.put(isbn, metadata);
+            }
+        }
+        return result;
+    }
+
+    /** Kopiert das Objekt, auf dessen {@code START_OBJECT} der Parser steht, als JSON-Bytes. */
+    private byte[] copyObject(JsonParser parser) throws IOException {
+        ByteArrayOutputStream raw = new ByteArrayOutputStream(2048);
+        try (JsonGenerator generator = jsonFactory.createGenerator(raw)) {
+            generator.copyCurrentStructure(parser);
+        }
+        return raw.toByteArray();
+    }
+
+    private BookMetadata readBook(byte[] raw, String isbn) throws IOException {
+        String title = "";
+        String publisher = "";
+        String publishDate = "";
+        String description = "";
+        boolean empty = true;
+        try (JsonParser parser = jsonFactory.createParser(raw)) {
+            parser.nextToken();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                empty = false;
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "title" -> title = text(parser, value);
+                    case "publishers" -> publisher = firstPublisher(parser, value);
+                    case "publish_date" -> publishDate = text(parser, value);
+                    case "description" -> description = description(parser, value);
+                    default -> parser.skipChildren();
+                }
+            }
+        }
+        if (empty) {
+            return null;
+        }
+        return new BookMetadata(isbn, title, publisher, publishDate, description,
+                "https://covers.openlibrary.org/b/isbn/" + isbn + "-L.jpg", OpenLibraryPayloads.compress(raw));
+    }
+
+    private static String text(JsonParser parser, JsonToken value) throws IOException {
+        if (value.isScalarValue()) {
+            return parser.getValueAsString("");
+        }
+        parser.skipChildren();
+        return "";
+    }
+
+    /** Verlage kommen je nach API-Variante als Strings oder als Objekte mit {@code name}. */
+    private static String firstPublisher(JsonParser parser, JsonToken value) throws IOException {
+        if (value != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return "";
+        }
+        String publisher = null;
+        JsonToken element;
+        while ((element = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (publisher != null) {
+                parser.skipChildren();
+            } else if (element == JsonToken.START_OBJECT) {
+                publisher = field(parser, "name");
+            } else {
+                publisher = text(parser, element);
+            }
+        }
+        return publisher == null ? "" : publisher;
+    }
+
+    private static String description(JsonParser parser, JsonToken value) throws IOException {
+        return value == JsonToken.START_OBJECT ? field(parser, "value") : text(parser, value);
+    }
+
+    /** Liest ein Feld des aktuellen Objekts und überspringt den Rest bis zu dessen Ende. */
+    private static String field(JsonParser parser, String name) throws IOException {
+        String result = "";
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String current = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (name.equals(current)) {
+                result = text(parser, value);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return result;
+    }
+}
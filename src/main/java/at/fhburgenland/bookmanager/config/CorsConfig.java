@@ -1,5 +1,6 @@
 package at.fhburgenland.bookmanager.config;
 
+import at.fhburgenland.bookmanager.controller.PageResponses;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
@@ -18,7 +19,8 @@ public class CorsConfig {
             public void addCorsMappings(final CorsRegistry registry) {
                 registry.addMapping("/**")
                         .allowedOrigins("*")
-                        .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS");
+                        .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
+                        .exposedHeaders(PageResponses.NEXT_CURSOR_HEADER);
             }
         };
     }
@@ -0,0 +1,32 @@
+package at.fhburgenland.bookmanager.config;
+
+import at.fhburgenland.bookmanager.service.RequestDeadline;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+/**
+ * JPA-Transaktionsmanager, der die {@link RequestDeadline} der aktuellen Anfrage beachtet.
+ *
+ * Eine Transaktion wird nach Ablauf der Frist gar nicht mehr begonnen. Ansonsten wird ihr
+ * Timeout auf die verbleibende Zeit (in ganzen Sekunden, mindestens eine) gesetzt; Hibernate
+ * überträgt es als Query-Timeout auf jedes JDBC-Statement der Transaktion.
+ */
+public class DeadlineAwareTransactionManager extends JpaTransactionManager {
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        RequestDeadline.checkNotExpired();
+        super.doBegin(transaction, definition);
+    }
+
+    @Override
+    protected int determineTimeout(TransactionDefinition definition) {
+        int configured = super.determineTimeout(definition);
+        return RequestDeadline.current()
+                .map(deadline -> {
+                    int remaining = (int) Math.max(1, (deadline.remaining().toMillis() + 999) / 1000);
+                    return configured == TransactionDefinition.TIMEOUT_DEFAULT ? remaining : Math.min(configured, remaining);
+                })
+                .orElse(configured);
+    }
+}
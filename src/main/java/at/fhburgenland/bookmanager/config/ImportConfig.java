@@ -0,0 +1,23 @@
+package at.fhburgenland.bookmanager.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Stellt den Executor für asynchrone Import-Aufträge bereit.
+ *
+ * Jeder Block eines Imports läuft auf einem eigenen virtuellen Thread, sodass
+ * Tomcat-Request-Threads durch lange Importe nicht blockiert werden. Wie viele Blöcke
+ * gleichzeitig laufen, begrenzt der {@code BulkWorkScheduler}.
+ */
+@Configuration
+public class ImportConfig {
+
+    @Bean(destroyMethod = "close")
+    public ExecutorService importExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("book-import-", 0).factory());
+    }
+}
@@ -0,0 +1,23 @@
+package at.fhburgenland.bookmanager.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Stellt den Executor für abgesicherte Metadaten-Anfragen bereit.
+ *
+ * Die Anfragen warten fast nur auf das Netzwerk und laufen daher auf virtuellen Threads.
+ * Der Executor selbst ist unbegrenzt; jede Anfrage an einen Anbieter belegt aber im
+ * {@link at.fhburgenland.bookmanager.service.HedgedMetadataFetcher} einen Platz im Bulkhead.
+ */
+@Configuration
+public class MetadataHedgingConfig {
+
+    @Bean(destroyMethod = "close")
+    public ExecutorService metadataHedgeExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("metadata-hedge-", 0).factory());
+    }
+}
@@ -0,0 +1,33 @@
+package at.fhburgenland.bookmanager.config;
+
+import at.fhburgenland.bookmanager.offline.OfflineIsbnIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Lädt den optionalen Offline-ISBN-Index.
+ *
+ * Ist {@code book.offline-index.path} leer, wird ein deaktivierter Index bereitgestellt
+ * und alle Abfragen gehen wie bisher an OpenLibrary.
+ */
+@Configuration
+public class OfflineIndexConfig {
+
+    private static final Logger LOG = LoggerFactory.getLogger(OfflineIndexConfig.class);
+
+    @Bean
+    public OfflineIsbnIndex offlineIsbnIndex(@Value("${book.offline-index.path:}") String path) throws IOException {
+        if (path.isBlank()) {
+            return OfflineIsbnIndex.disabled();
+        }
+        OfflineIsbnIndex index = OfflineIsbnIndex.open(Path.of(path));
+        LOG.info("Offline-ISBN-Index {} mit {} Einträgen geladen", path, index.size());
+        return index;
+    }
+}
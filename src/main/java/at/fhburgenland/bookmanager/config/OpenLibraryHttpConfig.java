@@ -0,0 +1,104 @@
+package at.fhburgenland.bookmanager.config;
+
+import at.fhburgenland.bookmanager.service.RequestDeadline;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.pool.PoolConcurrencyPolicy;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+
+/**
+ * Stellt den HTTP-Client für die OpenLibrary API bereit.
+ *
+ * Verbindungen werden in einem begrenzten Pool gehalten und per Keep-Alive wiederverwendet.
+ * Verbindungsaufbau, Warten auf eine freie Verbindung und Antwort sind jeweils zeitlich
+ * begrenzt, damit eine hängende Verbindung keinen Request-Thread dauerhaft blockiert.
+ * Antworten werden komprimiert angefordert (gzip/deflate) und transparent entpackt.
+ * Die Pool-Auslastung wird als Metrik {@code httpcomponents.httpclient.pool.*} mit
+ * {@code httpclient=openlibrary} veröffentlicht.
+ */
+@Configuration
+public class OpenLibraryHttpConfig {
+
+    private static final String POOL_NAME = "openlibrary";
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager openLibraryConnectionManager(
+            @Value("${book.api.http.max-connections:50}") int maxConnections,
+            @Value("${book.api.http.max-connections-per-route:20}") int maxConnectionsPerRoute,
+            @Value("${book.api.http.connect-timeout:PT2S}") Duration connectTimeout,
+            @Value("${book.api.http.response-timeout:PT5S}") Duration responseTimeout,
+            @Value("${book.api.http.connection-ttl:PT5M}") Duration connectionTtl,
+            MeterRegistry meterRegistry) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnectionsPerRoute)
+                .setPoolConcurrencyPolicy(PoolConcurrencyPolicy.STRICT)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(connectTimeout))
+                        .setSocketTimeout(Timeout.of(responseTimeout))
+                        .setTimeToLive(TimeValue.of(connectionTtl))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(10))
+                        .build())
+                .build();
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, POOL_NAME).bindTo(meterRegistry);
+        return connectionManager;
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient openLibraryHttpClient(
+            PoolingHttpClientConnectionManager openLibraryConnectionManager,
+            @Value("${book.api.http.pool-acquire-timeout:PT1S}") Duration poolAcquireTimeout,
+            @Value("${book.api.http.response-timeout:PT5S}") Duration responseTimeout,
+            @Value("${book.api.http.idle-eviction:PT30S}") Duration idleEviction) {
+        return HttpClients.custom()
+                .setConnectionManager(openLibraryConnectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(poolAcquireTimeout))
+                        .setResponseTimeout(Timeout.of(responseTimeout))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(idleEviction))
+                .build();
+    }
+
+    /**
+     * Das Antwort-Timeout jeder Anfrage wird auf die verbleibende Zeit der {@link RequestDeadline}
+     * gekürzt, damit ein Abruf nicht länger läuft, als der Client wartet.
+     */
+    @Bean
+    public RestTemplate openLibraryRestTemplate(RestTemplateBuilder builder, CloseableHttpClient openLibraryHttpClient,
+            @Value("${book.api.http.pool-acquire-timeout:PT1S}") Duration poolAcquireTimeout,
+            @Value("${book.api.http.response-timeout:PT5S}") Duration responseTimeout) {
+        return builder
+                .requestFactory(() -> {
+                    HttpComponentsClientHttpRequestFactory factory =
+                            new HttpComponentsClientHttpRequestFactory(openLibraryHttpClient);
+                    factory.setHttpContextFactory((method, uri) -> {
+                        HttpClientContext context = HttpClientContext.create();
+                        context.setRequestConfig(RequestConfig.custom()
+                                .setConnectionRequestTimeout(Timeout.of(RequestDeadline.bound(poolAcquireTimeout)))
+                                .setResponseTimeout(Timeout.of(RequestDeadline.bound(responseTimeout)))
+                                .build());
+                        return context;
+                    });
+                    return factory;
+                })
+                .build();
+    }
+}
@@ -0,0 +1,104 @@
+package at.fhburgenland.bookmanager.config;
+
+import at.fhburgenland.bookmanager.exception.MetadataUnavailableException;
+import at.fhburgenland.bookmanager.exception.RateLimitExceededException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Stellt Circuit Breaker und Bulkhead für Aufrufe der OpenLibrary API bereit.
+ *
+ * Der Circuit Breaker öffnet, wenn zu viele Aufrufe fehlschlagen oder zu langsam sind, und
+ * lässt danach Aufrufe sofort scheitern, statt auf OpenLibrary zu warten. Das Bulkhead begrenzt
+ * die Zahl gleichzeitiger Aufrufe, damit ein langsames OpenLibrary nicht alle Request-Threads
+ * bindet. Massenabrufe (Importe) haben ein eigenes, kleineres Bulkhead, das bei Bedarf auch
+ * wartet; interaktive Einzelabfragen behalten so immer ihre eigenen Plätze und Verbindungen.
+ * Zustand und Aufrufzahlen werden als {@code resilience4j.circuitbreaker.*} bzw.
+ * {@code resilience4j.bulkhead.*} veröffentlicht, Zustandswechsel zusätzlich geloggt.
+ */
+@Configuration
+public class OpenLibraryResilienceConfig {
+
+    /** Name von Circuit Breaker und Bulkhead in Metriken und Logs. */
+    public static final String OPEN_LIBRARY = "openLibrary";
+
+    /** Name des Bulkheads für Massenabrufe in Metriken und Logs. */
+    public static final String OPEN_LIBRARY_BULK = "openLibraryBulk";
+
+    private static final Logger LOG = LoggerFactory.getLogger(OpenLibraryResilienceConfig.class);
+
+    @Bean
+    public CircuitBreaker openLibraryCircuitBreaker(
+            @Value("${book.api.circuit-breaker.failure-rate-threshold:50}") float failureRateThreshold,
+            @Value("${book.api.circuit-breaker.slow-call-duration:PT3S}") Duration slowCallDuration,
+            @Value("${book.api.circuit-breaker.sliding-window-size:20}") int slidingWindowSize,
+            @Value("${book.api.circuit-breaker.minimum-calls:10}") int minimumCalls,
+            @Value("${book.api.circuit-breaker.open-duration:PT30S}") Duration openDuration,
+            MeterRegistry meterRegistry) {
+        CircuitBreakerRegistry registry = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .failureRateThreshold(failureRateThreshold)
+                .slowCallRateThreshold(failureRateThreshold)
+                .slowCallDurationThreshold(slowCallDuration)
+                .slidingWindowSize(slidingWindowSize)
+                .minimumNumberOfCalls(minimumCalls)
+                .waitDurationInOpenState(openDuration)
+                .permittedNumberOfCallsInHalfOpenState(3)
+                .automaticTransitionFromOpenToHalfOpenEnabled(true)
+                // Nur Nichterreichbarkeit zählt als Fehler, unbekannte ISBNs nicht. Ein volles
+                // Bulkhead und das eigene Ratenlimit sind eigene Last und zählen weder als
+                // Fehler noch als Erfolg.
+                .recordExceptions(MetadataUnavailableException.class)
+                .ignoreExceptions(BulkheadFullException.class, RateLimitExceededException.class)
+                .build());
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(registry).bindTo(meterRegistry);
+
+        CircuitBreaker circuitBreaker = registry.circuitBreaker(OPEN_LIBRARY);
+        circuitBreaker.getEventPublisher().onStateTransition(event ->
+                LOG.warn("Circuit Breaker {}: {}", event.getCircuitBreakerName(), event.getStateTransition()));
+        return circuitBreaker;
+    }
+
+    @Bean
+    public Bulkhead openLibraryBulkhead(
+            @Value("${book.api.bulkhead.max-concurrent-calls:10}") int maxConcurrentCalls,
+            @Value("${book.api.bulkhead.max-wait:PT0.1S}") Duration maxWait,
+            MeterRegistry meterRegistry) {
+        return bulkhead(OPEN_LIBRARY, maxConcurrentCalls, maxWait, meterRegistry);
+    }
+
+    @Bean
+    public Bulkhead openLibraryBulkBulkhead(
+            @Value("${book.api.bulkhead.bulk.max-concurrent-calls:4}") int maxConcurrentCalls,
+            @Value("${book.api.bulkhead.bulk.max-wait:PT10S}") Duration maxWait,
+            MeterRegistry meterRegistry) {
+        return bulkhead(OPEN_LIBRARY_BULK, maxConcurrentCalls, maxWait, meterRegistry);
+    }
+
+    private static Bulkhead bulkhead(String name, int maxConcurrentCalls, Duration maxWait, MeterRegistry meterRegistry) {
+        BulkheadRegistry registry = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(maxConcurrentCalls)
+                .maxWaitDuration(maxWait)
+                .build());
+        TaggedBulkheadMetrics.ofBulkheadRegistry(registry).bindTo(meterRegistry);
+
+        Bulkhead bulkhead = registry.bulkhead(name);
+        bulkhead.getEventPublisher().onCallRejected(event ->
+                LOG.debug("Bulkhead {} voll, Aufruf abgewiesen", event.getBulkheadName()));
+        return bulkhead;
+    }
+}
@@ -0,0 +1,44 @@
+package at.fhburgenland.bookmanager.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+
+/**
+ * Verdrahtet die Fristen pro Anfrage: den Interceptor, der sie setzt, und den
+ * Transaktionsmanager, der sie als JDBC-Timeout durchreicht.
+ */
+@Configuration
+public class RequestDeadlineConfig implements WebMvcConfigurer {
+
+    private final Duration defaultTimeout;
+    private final Duration maxTimeout;
+
+    public RequestDeadlineConfig(@Value("${book.deadline.default:PT10S}") Duration defaultTimeout,
+                                 @Value("${book.deadline.max:PT120S}") Duration maxTimeout) {
+        this.defaultTimeout = defaultTimeout;
+        this.maxTimeout = maxTimeout;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new RequestDeadlineInterceptor(defaultTimeout, maxTimeout));
+    }
+
+    /**
+     * Ersetzt den von Spring Boot angelegten {@link JpaTransactionManager}; Boots Customizer werden weiterhin angewandt.
+     */
+    @Bean
+    public JpaTransactionManager transactionManager(ObjectProvider<TransactionManagerCustomizers> customizers) {
+        JpaTransactionManager transactionManager = new DeadlineAwareTransactionManager();
+        customizers.ifAvailable(c -> c.customize(transactionManager));
+        return transactionManager;
+    }
+}
@@ -0,0 +1,77 @@
+package at.fhburgenland.bookmanager.config;
+
+import at.fhburgenland.bookmanager.controller.RequestTimeout;
+import at.fhburgenland.bookmanager.service.RequestDeadline;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
+import java.util.Optional;
+
+/**
+ * Setzt für jede Anfrage an einen Controller die {@link RequestDeadline}.
+ *
+ * Die Frist kommt aus dem Header {@value #HEADER} (Millisekunden oder ISO-8601-Dauer),
+ * sonst aus {@link RequestTimeout} am Endpunkt oder der globalen Standardfrist. Sie wird
+ * auf die konfigurierte Höchstfrist begrenzt und nach Abschluss der Anfrage wieder entfernt.
+ */
+public class RequestDeadlineInterceptor implements HandlerInterceptor {
+
+    /** Header, mit dem der Client seine Frist mitteilt. */
+    public static final String HEADER = "X-Request-Timeout";
+
+    private static final Logger LOG = LoggerFactory.getLogger(RequestDeadlineInterceptor.class);
+
+    private final Duration defaultTimeout;
+    private final Duration maxTimeout;
+
+    /**
+     * @param defaultTimeout Frist für Endpunkte ohne {@link RequestTimeout}, wenn kein Header gesetzt ist
+     * @param maxTimeout     Höchstfrist, auch für Werte aus dem Header
+     */
+    public RequestDeadlineInterceptor(Duration defaultTimeout, Duration maxTimeout) {
+        this.defaultTimeout = defaultTimeout;
+        this.maxTimeout = maxTimeout;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod method) {
+            Duration timeout = fromHeader(request.getHeader(HEADER)).orElseGet(() -> endpointDefault(method));
+            RequestDeadline.set(RequestDeadline.after(timeout.compareTo(maxTimeout) > 0 ? maxTimeout : timeout));
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        RequestDeadline.clear();
+    }
+
+    private Duration endpointDefault(HandlerMethod method) {
+        RequestTimeout annotation = method.getMethodAnnotation(RequestTimeout.class);
+        return annotation != null ? Duration.parse(annotation.value()) : defaultTimeout;
+    }
+
+    static Optional<Duration> fromHeader(String value) {
+        if (value == null || value.isBlank()) {
+            return Optional.empty();
+        }
+        String trimmed = value.trim();
+        try {
+            Duration timeout = trimmed.chars().allMatch(Character::isDigit)
+                    ? Duration.ofMillis(Long.parseLong(trimmed))
+                    : Duration.parse(trimmed);
+            return timeout.isNegative() || timeout.isZero() ? Optional.empty() : Optional.of(timeout);
+        } catch (NumberFormatException | DateTimeParseException e) {
+            LOG.debug("Ungültiger {}-Header '{}', verwende Standardfrist", HEADER, value);
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package at.fhburgenland.bookmanager.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Aktiviert geplante Hintergrundaufgaben wie den Abgleich der Katalog-Metadaten.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
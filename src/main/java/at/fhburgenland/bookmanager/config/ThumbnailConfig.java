@@ -0,0 +1,35 @@
+package at.fhburgenland.bookmanager.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stellt den Executor für die Erzeugung von Cover-Vorschaubildern bereit.
+ *
+ * Das Skalieren ist CPU-lastig und läuft daher auf wenigen Plattform-Threads mit begrenzter
+ * Warteschlange. Ist die Warteschlange voll, wird der Auftrag verworfen statt auf dem
+ * aufrufenden (Request-)Thread ausgeführt; das Vorschaubild wird beim nächsten Abruf erneut
+ * eingeplant. Auslastung und Warteschlange sind als {@code executor.*{name=coverThumbnails}} sichtbar.
+ */
+@Configuration
+public class ThumbnailConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService thumbnailExecutor(@Value("${book.covers.thumbnails.threads:2}") int threads,
+                                             @Value("${book.covers.thumbnails.queue-capacity:500}") int queueCapacity,
+                                             MeterRegistry meterRegistry) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("cover-thumbnail-", 0).daemon(true).factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+        return ExecutorServiceMetrics.monitor(meterRegistry, executor, "coverThumbnails");
+    }
+}
@@ -1,10 +1,15 @@
 // src/main/java/at/fhburgenland/bookmanager/controller/BookController.java
 package at.fhburgenland.bookmanager.controller;
 
+import at.fhburgenland.bookmanager.dto.BookSort;
 import at.fhburgenland.bookmanager.dto.BookUpdateRequest;
+import at.fhburgenland.bookmanager.dto.BulkImportReport;
+import at.fhburgenland.bookmanager.dto.BulkIsbnRequest;
 import at.fhburgenland.bookmanager.dto.IsbnRequest;
+import at.fhburgenland.bookmanager.dto.LibraryBook;
 import at.fhburgenland.bookmanager.dto.RatingUpdateRequest;
 import at.fhburgenland.bookmanager.model.Book;
+import at.fhburgenland.bookmanager.service.BookImportService;
 import at.fhburgenland.bookmanager.service.BookService;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
@@ -22,9 +27,11 @@ import java.util.UUID;
 public class BookController {
 
     private final BookService bookService;
+    private final BookImportService bookImportService;
 
-    public BookController(BookService bookService) {
+    public BookController(BookService bookService, BookImportService bookImportService) {
         this.bookService = bookService;
+        this.bookImportService = bookImportService;
     }
 
     /**
@@ -43,6 +50,22 @@ public class BookController {
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
     }
 
+    /**
+     * Importiert viele Bücher auf einmal anhand einer Liste von ISBNs.
+     *
+     * @param userId  die UUID des bestehenden Benutzers
+     * @param request JSON-DTO mit dem Feld "isbns"
+     * @return 200 OK mit einem Ergebnis pro ISBN, oder 400/404 über GlobalExceptionHandler
+     */
+    @PostMapping("/bulk")
+    @RequestTimeout("PT60S")
+    public ResponseEntity<BulkImportReport> importBooks(
+            @PathVariable("userId") UUID userId,
+            @Valid @RequestBody BulkIsbnRequest request
+    ) {
+        return ResponseEntity.ok(bookImportService.importBooks(userId, request.getIsbns()));
+    }
+
     /**
      * Aktualisiert nur die Bewertung eines vorhandenen Buchs für einen Benutzer.
      *
@@ -113,34 +136,47 @@ public class BookController {
     }
 
     /**
-     * Gibt die Liste der Bücher eines Benutzers zurück, optional gefiltert nach Bewertung.
+     * Gibt eine Seite der Bücher eines Benutzers zurück, optional gefiltert nach Bewertung.
+     * Gibt es weitere Bücher, steht der Cursor für die nächste Seite im Header {@code X-Next-Cursor}.
      *
      * @param userId Die ID des Benutzers
      * @param rating (Optional) Bewertungsfilter (1-5)
-     * @return Liste der Bücher
+     * @param sort   Sortierung: ADDED (Standard), TITLE oder RATING
+     * @param cursor (Optional) Cursor aus der vorigen Seite
+     * @param limit  Seitengröße (1-200, Standard 50)
+     * @return Liste der Bücher dieser Seite
      */
     @GetMapping
-    public ResponseEntity<List<Book>> getBooks(@PathVariable UUID userId,
-                                               @RequestParam(required = false) Integer rating) {
-        List<Book> books = bookService.getBooksByUserIdAndOptionalRating(userId, rating);
-        return ResponseEntity.ok(books);
+    public ResponseEntity<List<LibraryBook>> getBooks(@PathVariable UUID userId,
+                                                      @RequestParam(required = false) Integer rating,
+                                                      @RequestParam(defaultValue = "ADDED") BookSort sort,
+                                                      @RequestParam(required = false) String cursor,
+                                                      @RequestParam(defaultValue = "50") int limit) {
+        return PageResponses.ok(bookService.getBooksByUserIdAndOptionalRating(userId, rating, sort, cursor, limit));
     }
 
     /**
-     * Sucht Bücher eines Benutzers anhand von optionalen Kriterien.
+     * Sucht Bücher eines Benutzers per Volltextsuche, relevanteste zuerst.
+     * Gibt es weitere Treffer, steht der Cursor für die nächste Seite im Header {@code X-Next-Cursor}.
      *
      * @param userId ID des Benutzers
-     * @param title Optionaler Filtern nach Titel
-     * @param author Optionaler Filtern nach Autor
-     * @param year Optionaler Filtern nach Veröffentlichungsjahr
-     * @return Gefilterte Liste von Büchern
+     * @param q      Optionale freie Suche über Titel, Autoren, Schlagwörter und Verlag
+     * @param title  Optionaler Filter nach Wörtern im Titel
+     * @param author Optionaler Filter nach Wörtern im Autorennamen
+     * @param year   Optionaler Filter nach Veröffentlichungsjahr
+     * @param cursor (Optional) Cursor aus der vorigen Seite
+     * @param limit  Seitengröße (1-200, Standard 50)
+     * @return Treffer dieser Seite
      */
     @GetMapping("/search")
-    public ResponseEntity<List<Book>> searchBooks(
+    public ResponseEntity<List<LibraryBook>> searchBooks(
             @PathVariable String userId,
+            @RequestParam(required = false) String q,
             @RequestParam(required = false) String title,
             @RequestParam(required = false) String author,
-            @RequestParam(required = false) Integer year
+            @RequestParam(required = false) Integer year,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit
     ) {
         UUID uuid;
         try {
@@ -149,7 +185,6 @@ public class BookController {
             return ResponseEntity.badRequest().build();
         }
 
-        List<Book> books = bookService.searchBooks(uuid, title, author, year);
-        return ResponseEntity.ok(books);
-    } 
+        return PageResponses.ok(bookService.searchBooks(uuid, q, title, author, year, cursor, limit));
+    }
 }
@@ -0,0 +1,105 @@
+package at.fhburgenland.bookmanager.controller;
+
+import at.fhburgenland.bookmanager.dto.CoverSize;
+import at.fhburgenland.bookmanager.service.CoverService;
+import at.fhburgenland.bookmanager.service.CoverStore;
+import at.fhburgenland.bookmanager.service.ThumbnailService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * REST-Controller für Coverbilder.
+ *
+ * Liefert Cover aus dem lokalen Cache mit starkem ETag und langer Cache-Lebensdauer aus.
+ * Unterstützt der Servlet-Container Sendfile (Tomcat NIO), wird die Datei ohne Kopie
+ * durch die JVM direkt vom Kernel übertragen; sonst per {@link FileChannel#transferTo}, wobei
+ * eine {@link CoverStore.Lease} das Bild bis zum Ende der Übertragung vor dem Löschen schützt.
+ *
+ * Vorschaubilder ({@code ?size=S|M}) werden im Hintergrund erzeugt. Solange eines noch fehlt,
+ * wird das Original mit kurzer Cache-Lebensdauer ausgeliefert.
+ */
+@RestController
+@RequestMapping("/covers")
+public class CoverController {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private static final String FALLBACK_CACHE_CONTROL =
+            CacheControl.maxAge(Duration.ofMinutes(1)).cachePublic().getHeaderValue();
+
+    private final CoverService coverService;
+    private final CoverStore coverStore;
+    private final ThumbnailService thumbnailService;
+    private final String cacheControl;
+
+    public CoverController(CoverService coverService,
+                           CoverStore coverStore,
+                           ThumbnailService thumbnailService,
+                           @Value("${book.covers.max-age:P30D}") Duration maxAge) {
+        this.coverService = coverService;
+        this.coverStore = coverStore;
+        this.thumbnailService = thumbnailService;
+        this.cacheControl = CacheControl.maxAge(maxAge).cachePublic().getHeaderValue();
+    }
+
+    /**
+     * Liefert das Coverbild zu einer ISBN.
+     *
+     * @param isbn     ISBN des Buches
+     * @param size     gewünschte Größe, Standard ist das Original
+     * @param request  aktuelle Anfrage
+     * @param response aktuelle Antwort
+     * @throws IOException wenn das Bild nicht gesendet werden kann
+     */
+    @GetMapping("/{isbn}")
+    public void getCover(@PathVariable("isbn") String isbn,
+                         @RequestParam(name = "size", defaultValue = "L") CoverSize size,
+                         HttpServletRequest request,
+                         HttpServletResponse response) throws IOException {
+        Optional<CoverStore.StoredCover> thumbnail = size.isThumbnail()
+                ? thumbnailService.findOrSchedule(isbn, size)
+                : Optional.empty();
+        CoverStore.StoredCover cover = thumbnail.orElseGet(() -> coverService.getCover(isbn));
+        boolean fallback = size.isThumbnail() && thumbnail.isEmpty();
+        response.setHeader(HttpHeaders.CACHE_CONTROL, fallback ? FALLBACK_CACHE_CONTROL : cacheControl);
+        if (new ServletWebRequest(request, response).checkNotModified("\"" + cover.hash() + "\"")) {
+            return;
+        }
+        response.setContentType(cover.contentType());
+        response.setContentLengthLong(cover.size());
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, cover.file().toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, cover.size());
+            return;
+        }
+        try (CoverStore.Lease lease = coverStore.lease(cover);
+             FileChannel file = FileChannel.open(cover.file());
+             WritableByteChannel out = Channels.newChannel(response.getOutputStream())) {
+            long position = 0;
+            while (position < cover.size()) {
+                position += file.transferTo(position, cover.size() - position, out);
+            }
+        }
+    }
+}
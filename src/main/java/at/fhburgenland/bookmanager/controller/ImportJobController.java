@@ -0,0 +1,61 @@
+package at.fhburgenland.bookmanager.controller;
+
+import at.fhburgenland.bookmanager.dto.BulkIsbnRequest;
+import at.fhburgenland.bookmanager.dto.ImportJobStatus;
+import at.fhburgenland.bookmanager.service.ImportJobService;
+import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.net.URI;
+import java.util.UUID;
+
+/**
+ * REST-Controller für asynchrone Import-Aufträge.
+ */
+@RestController
+@RequestMapping("/users/{userId}/imports")
+public class ImportJobController {
+
+    private final ImportJobService importJobService;
+
+    public ImportJobController(ImportJobService importJobService) {
+        this.importJobService = importJobService;
+    }
+
+    /**
+     * Startet einen Import-Auftrag im Hintergrund.
+     *
+     * @param userId  ID des Benutzers
+     * @param request JSON-DTO mit dem Feld "isbns"
+     * @return HTTP 202 mit dem Status des Auftrags und dem Location-Header zur Statusabfrage
+     */
+    @PostMapping
+    public ResponseEntity<ImportJobStatus> startImport(
+            @PathVariable UUID userId,
+            @Valid @RequestBody BulkIsbnRequest request
+    ) {
+        ImportJobStatus status = importJobService.submit(userId, request.getIsbns());
+        URI location = ServletUriComponentsBuilder.fromCurrentRequest()
+                .path("/{jobId}")
+                .buildAndExpand(status.jobId())
+                .toUri();
+        return ResponseEntity.accepted().location(location).body(status);
+    }
+
+    /**
+     * Liefert Fortschritt, Fehler und Durchsatz eines Import-Auftrags.
+     *
+     * @param userId ID des Benutzers
+     * @param jobId  ID des Auftrags
+     * @return HTTP 200 mit dem Status oder HTTP 404, wenn der Auftrag unbekannt ist
+     */
+    @GetMapping("/{jobId}")
+    public ResponseEntity<ImportJobStatus> getImportStatus(
+            @PathVariable UUID userId,
+            @PathVariable UUID jobId
+    ) {
+        return ResponseEntity.ok(importJobService.getStatus(userId, jobId));
+    }
+}
@@ -0,0 +1,32 @@
+package at.fhburgenland.bookmanager.controller;
+
+import at.fhburgenland.bookmanager.dto.KeysetPage;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+/**
+ * Baut die Antworten geblätterter Listen: der Body bleibt ein JSON-Array, der Cursor für
+ * die nächste Seite steht im Header {@value #NEXT_CURSOR_HEADER}.
+ */
+public final class PageResponses {
+
+    /** Header mit dem Cursor der nächsten Seite; fehlt auf der letzten Seite. */
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private PageResponses() {
+    }
+
+    /**
+     * @param page Seite aus dem Service
+     * @param <T>  Typ der Einträge
+     * @return HTTP 200 mit den Einträgen und gegebenenfalls dem Cursor der nächsten Seite
+     */
+    public static <T> ResponseEntity<List<T>> ok(KeysetPage<T> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(page.items());
+    }
+}
@@ -0,0 +1,20 @@
+package at.fhburgenland.bookmanager.controller;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Legt die Standardfrist eines Endpunkts fest, wenn der Client keinen
+ * {@code X-Request-Timeout}-Header mitschickt.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RequestTimeout {
+
+    /**
+     * @return Frist als ISO-8601-Dauer, z. B. {@code PT60S}
+     */
+    String value();
+}
@@ -1,5 +1,6 @@
 package at.fhburgenland.bookmanager.controller;
 
+import at.fhburgenland.bookmanager.dto.BulkReviewRequest;
 import at.fhburgenland.bookmanager.dto.ReviewRequest;
 import at.fhburgenland.bookmanager.model.Review;
 import at.fhburgenland.bookmanager.service.ReviewService;
@@ -43,18 +44,41 @@ public class ReviewController {
     }
 
     /**
-     * Gibt alle Rezensionen eines Buches zurück.
+     * Erstellt mehrere Rezensionen für ein Buch eines Benutzers auf einmal.
+     *
+     * @param userId  ID des Benutzers
+     * @param isbn    ISBN des Buches
+     * @param request DTO mit bis zu 1000 Rezensionen
+     * @return HTTP 201 mit den erstellten Review-Objekten in der übergebenen Reihenfolge
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<List<Review>> addReviews(
+            @PathVariable UUID userId,
+            @PathVariable String isbn,
+            @Valid @RequestBody BulkReviewRequest request
+    ) {
+        List<Review> created = reviewService.addReviews(userId, isbn, request.getReviews());
+        return ResponseEntity.status(HttpStatus.CREATED).body(created);
+    }
+
+    /**
+     * Gibt eine Seite der Rezensionen eines Buches zurück, älteste zuerst.
+     * Gibt es weitere Rezensionen, steht der Cursor für die nächste Seite im Header {@code X-Next-Cursor}.
      *
      * @param userId ID des Benutzers
      * @param isbn   ISBN des Buches
-     * @return Liste aller Rezensionen (HTTP 200)
+     * @param cursor (Optional) Cursor aus der vorigen Seite
+     * @param limit  Seitengröße (1-200, Standard 50)
+     * @return Liste der Rezensionen dieser Seite (HTTP 200)
      */
     @GetMapping
     public ResponseEntity<List<Review>> getAllReviews(
             @PathVariable UUID userId,
-            @PathVariable String isbn
+            @PathVariable String isbn,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit
     ) {
-        return ResponseEntity.ok(reviewService.getAllReviews(userId, isbn));
+        return PageResponses.ok(reviewService.getAllReviews(userId, isbn, cursor, limit));
     }
 
     /**
@@ -1,6 +1,8 @@
 package at.fhburgenland.bookmanager.controller;
 
+import at.fhburgenland.bookmanager.dto.UserDetail;
 import at.fhburgenland.bookmanager.dto.UserDto;
+import at.fhburgenland.bookmanager.dto.UserSummary;
 import at.fhburgenland.bookmanager.model.User;
 import at.fhburgenland.bookmanager.service.UserService;
 import jakarta.validation.Valid;
@@ -34,13 +36,17 @@ public class UserController {
     }
 
     /**
-     * Gibt eine Liste aller registrierten Benutzer zurück.
+     * Gibt eine Seite der registrierten Benutzer mit der Anzahl ihrer Bücher zurück, sortiert nach E-Mail-Adresse.
+     * Gibt es weitere Benutzer, steht der Cursor für die nächste Seite im Header {@code X-Next-Cursor}.
      *
+     * @param cursor (Optional) Cursor aus der vorigen Seite
+     * @param limit  Seitengröße (1-200, Standard 50)
      * @return Liste der Benutzer mit HTTP 200 OK
      */
     @GetMapping
-    public ResponseEntity<List<User>> getAllUsers() {
-        return ResponseEntity.ok(userService.getAllUsers());
+    public ResponseEntity<List<UserSummary>> getAllUsers(@RequestParam(required = false) String cursor,
+                                                         @RequestParam(defaultValue = "50") int limit) {
+        return PageResponses.ok(userService.getAllUsers(cursor, limit));
     }
 
     /**
@@ -50,9 +56,8 @@ public class UserController {
      * @return Antwort mit Status 200 und Benutzerdetails oder 404, falls nicht gefunden
      */
     @GetMapping("/{userId}")
-    public ResponseEntity<User> getUserById(@PathVariable UUID userId) {
-        User user = userService.getUserById(userId);
-        return ResponseEntity.ok(user);
+    public ResponseEntity<UserDetail> getUserById(@PathVariable UUID userId) {
+        return ResponseEntity.ok(userService.getUserDetail(userId));
     }
 
     /**
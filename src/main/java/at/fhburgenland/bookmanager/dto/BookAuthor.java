@@ -0,0 +1,12 @@
+package at.fhburgenland.bookmanager.dto;
+
+import java.util.UUID;
+
+/**
+ * Ein Autor aus der eigenen Autorenliste eines Buches, gelesen als einzelne Zeile.
+ *
+ * @param bookId ID des Buches
+ * @param author Name des Autors
+ */
+public record BookAuthor(UUID bookId, String author) {
+}
@@ -0,0 +1,35 @@
+package at.fhburgenland.bookmanager.dto;
+
+/**
+ * Unveränderliche Buch-Metadaten, wie sie von der OpenLibrary API geliefert werden.
+ *
+ * Wird im {@link at.fhburgenland.bookmanager.service.BookMetadataCache} zwischengespeichert
+ * und beim Anlegen eines Buches in die Entity übernommen.
+ *
+ * @param isbn          normalisierte ISBN
+ * @param title         Titel des Buches
+ * @param publisher     erster Verlag laut OpenLibrary
+ * @param publishedDate Erscheinungsdatum als Freitext
+ * @param description   Beschreibung des Buches
+ * @param coverUrl      URL des Coverbildes bei OpenLibrary
+ * @param payload       gzip-komprimierte Rohantwort von OpenLibrary zu dieser ISBN,
+ *                      {@code null} wenn die Daten nicht aus einer Antwort stammen
+ */
+public record BookMetadata(
+        String isbn,
+        String title,
+        String publisher,
+        String publishedDate,
+        String description,
+        String coverUrl,
+        byte[] payload
+) {
+
+    /**
+     * Erstellt Metadaten ohne Rohantwort, z. B. aus dem Katalog oder dem Offline-Index.
+     */
+    public BookMetadata(String isbn, String title, String publisher, String publishedDate, String description,
+                        String coverUrl) {
+        this(isbn, title, publisher, publishedDate, description, coverUrl, null);
+    }
+}
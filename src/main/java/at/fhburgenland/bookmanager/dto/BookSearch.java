@@ -0,0 +1,47 @@
+package at.fhburgenland.bookmanager.dto;
+
+import at.fhburgenland.bookmanager.model.SearchText;
+
+import java.util.List;
+
+/**
+ * Normalisierte Kriterien einer Suche in der Bibliothek eines Benutzers.
+ *
+ * Alle Suchbegriffe müssen zutreffen und passen als Wortanfang ({@code Hobb} findet „Hobbit“).
+ * Jede Liste ist auf {@value #MAX_TERMS} Begriffe begrenzt; weitere werden ignoriert.
+ *
+ * @param terms       Begriffe, die in Titel, Autoren, Schlagwörtern oder Verlag vorkommen müssen
+ * @param titleTerms  Begriffe, die im Titel vorkommen müssen
+ * @param authorTerms Begriffe, die bei den Autoren vorkommen müssen
+ * @param year        Jahr, das im Erscheinungsdatum vorkommen muss, oder {@code null}
+ */
+public record BookSearch(List<String> terms, List<String> titleTerms, List<String> authorTerms, Integer year) {
+
+    /** Höchstzahl an Begriffen pro Liste. */
+    public static final int MAX_TERMS = 10;
+
+    /**
+     * Normalisiert die Eingaben der Suche, siehe {@link SearchText#terms(String)}.
+     *
+     * @param query  freie Sucheingabe, optional
+     * @param title  Sucheingabe für den Titel, optional
+     * @param author Sucheingabe für die Autoren, optional
+     * @param year   Erscheinungsjahr, optional
+     * @return die Suchkriterien
+     */
+    public static BookSearch of(String query, String title, String author, Integer year) {
+        return new BookSearch(limit(SearchText.terms(query)), limit(SearchText.terms(title)),
+                limit(SearchText.terms(author)), year);
+    }
+
+    /**
+     * @return ob mindestens ein Suchbegriff angegeben ist; ohne Begriffe gibt es keine Rangfolge
+     */
+    public boolean hasTerms() {
+        return !terms.isEmpty() || !titleTerms.isEmpty() || !authorTerms.isEmpty();
+    }
+
+    private static List<String> limit(List<String> terms) {
+        return terms.size() <= MAX_TERMS ? terms : terms.subList(0, MAX_TERMS);
+    }
+}
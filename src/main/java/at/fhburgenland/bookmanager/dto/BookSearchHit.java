@@ -0,0 +1,10 @@
+package at.fhburgenland.bookmanager.dto;
+
+/**
+ * Ein Treffer der Suche: die Zeile der Bibliotheksansicht und ihre Relevanz.
+ *
+ * @param row   Buch in der Bibliotheksansicht, ohne Autoren
+ * @param score Relevanz als ganze Zahl, höher ist besser; {@code 0} bei einer Suche ohne Begriffe
+ */
+public record BookSearchHit(LibraryRow row, long score) {
+}
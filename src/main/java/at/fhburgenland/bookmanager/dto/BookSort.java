@@ -0,0 +1,14 @@
+package at.fhburgenland.bookmanager.dto;
+
+/**
+ * Sortierungen der Bibliothek eines Benutzers. Jede ist eindeutig, weil bei gleichem
+ * Schlüssel die ID des Buches entscheidet.
+ */
+public enum BookSort {
+    /** Zuletzt hinzugefügte Bücher zuerst. */
+    ADDED,
+    /** Alphabetisch nach Titel, Bücher ohne Titel zuerst. */
+    TITLE,
+    /** Beste Bewertung zuerst, unbewertete Bücher am Ende. */
+    RATING
+}
@@ -0,0 +1,21 @@
+package at.fhburgenland.bookmanager.dto;
+
+import java.util.List;
+
+/**
+ * Bericht über einen Massenimport mit einem Ergebnis pro angefragter ISBN.
+ *
+ * @param results Ergebnisse in der Reihenfolge der Anfrage
+ */
+public record BulkImportReport(List<IsbnImportResult> results) {
+
+    /**
+     * Zählt die Ergebnisse mit dem angegebenen Status.
+     *
+     * @param status gesuchter Status
+     * @return Anzahl der ISBNs mit diesem Status
+     */
+    public long count(IsbnImportResult.Status status) {
+        return results.stream().filter(result -> result.status() == status).count();
+    }
+}
@@ -0,0 +1,23 @@
+package at.fhburgenland.bookmanager.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO für den Massenimport von Büchern anhand einer Liste von ISBNs.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkIsbnRequest {
+
+    @NotEmpty(message = "Die ISBN-Liste darf nicht leer sein")
+    @Size(max = 1000, message = "Es können höchstens 1000 ISBNs auf einmal importiert werden")
+    private List<@NotBlank(message = "Die ISBN darf nicht leer sein") String> isbns;
+}
@@ -0,0 +1,24 @@
+package at.fhburgenland.bookmanager.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO für das gemeinsame Anlegen mehrerer Rezensionen zu einem Buch.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkReviewRequest {
+
+    @NotEmpty(message = "Die Liste der Rezensionen darf nicht leer sein")
+    @Size(max = 1000, message = "Es können höchstens 1000 Rezensionen auf einmal angelegt werden")
+    private List<@NotNull(message = "Die Rezension darf nicht leer sein") @Valid ReviewRequest> reviews;
+}
@@ -0,0 +1,10 @@
+package at.fhburgenland.bookmanager.dto;
+
+/**
+ * Ein Autor eines Katalogeintrags, gelesen als einzelne Zeile der Autorentabelle.
+ *
+ * @param isbn   ISBN des Katalogeintrags
+ * @param author Name des Autors
+ */
+public record CatalogAuthor(String isbn, String author) {
+}
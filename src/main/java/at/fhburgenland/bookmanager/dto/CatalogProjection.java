@@ -0,0 +1,23 @@
+package at.fhburgenland.bookmanager.dto;
+
+import java.util.List;
+
+/**
+ * Felder eines Katalogeintrags, die aus der gespeicherten OpenLibrary-Rohantwort abgeleitet werden.
+ *
+ * Ändert sich die Ableitung (neue Felder, andere Regeln), wird {@link #VERSION} erhöht; der
+ * Katalog wird dann beim nächsten Start lokal aus den gespeicherten Antworten neu projiziert.
+ *
+ * @param authors       Namen der Autoren in der Reihenfolge von OpenLibrary
+ * @param subjects      Schlagwörter
+ * @param numberOfPages Seitenzahl, {@code null} wenn unbekannt
+ */
+public record CatalogProjection(
+        List<String> authors,
+        List<String> subjects,
+        Integer numberOfPages
+) {
+
+    /** Version der Ableitung, wird bei jeder Änderung an der Projektion erhöht. */
+    public static final int VERSION = 1;
+}
@@ -0,0 +1,10 @@
+package at.fhburgenland.bookmanager.dto;
+
+/**
+ * Von OpenLibrary geladenes Coverbild.
+ *
+ * @param content     Bilddaten
+ * @param contentType MIME-Typ, z. B. {@code image/jpeg}
+ */
+public record CoverImage(byte[] content, String contentType) {
+}
@@ -0,0 +1,37 @@
+package at.fhburgenland.bookmanager.dto;
+
+/**
+ * Verfügbare Größen eines Coverbildes.
+ */
+public enum CoverSize {
+    /** Vorschaubild für Listen und Raster, 96 Pixel breit. */
+    S(96),
+    /** Vorschaubild für Detailansichten, 240 Pixel breit. */
+    M(240),
+    /** Originalbild von OpenLibrary. */
+    L(0);
+
+    private final int width;
+
+    CoverSize(int width) {
+        this.width = width;
+    }
+
+    /**
+     * Liefert die Zielbreite des Vorschaubildes.
+     *
+     * @return Breite in Pixeln, {@code 0} für das Original
+     */
+    public int width() {
+        return width;
+    }
+
+    /**
+     * Gibt an, ob die Größe ein verkleinertes Vorschaubild ist.
+     *
+     * @return {@code true} für S und M
+     */
+    public boolean isThumbnail() {
+        return width > 0;
+    }
+}
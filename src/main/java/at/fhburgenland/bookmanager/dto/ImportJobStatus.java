@@ -0,0 +1,53 @@
+package at.fhburgenland.bookmanager.dto;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Momentaufnahme eines asynchronen Import-Auftrags.
+ *
+ * @param jobId             ID des Auftrags
+ * @param userId            ID des Benutzers, in dessen Bibliothek importiert wird
+ * @param state             aktueller Zustand
+ * @param total             Anzahl eindeutiger ISBNs im Auftrag
+ * @param processed         Anzahl bereits verarbeiteter ISBNs
+ * @param imported          Anzahl neu hinzugefügter Bücher
+ * @param alreadyOwned      Anzahl bereits vorhandener Bücher
+ * @param notFound          Anzahl ISBNs ohne Daten bei OpenLibrary
+ * @param failed            Anzahl fehlgeschlagener ISBNs
+ * @param invalid           Anzahl ISBNs mit ungültiger Prüfziffer
+ * @param isbnsPerSecond    Durchsatz seit Start des Auftrags
+ * @param createdAt         Zeitpunkt der Annahme
+ * @param startedAt         Beginn der Verarbeitung, {@code null} solange wartend
+ * @param finishedAt        Ende der Verarbeitung, {@code null} solange laufend
+ * @param failures          ISBNs, die nicht importiert werden konnten
+ */
+public record ImportJobStatus(
+        UUID jobId,
+        UUID userId,
+        State state,
+        int total,
+        int processed,
+        int imported,
+        int alreadyOwned,
+        int notFound,
+        int failed,
+        int invalid,
+        double isbnsPerSecond,
+        Instant createdAt,
+        Instant startedAt,
+        Instant finishedAt,
+        List<IsbnImportResult> failures
+) {
+
+    /**
+     * Lebenszyklus eines Import-Auftrags.
+     */
+    public enum State {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+}
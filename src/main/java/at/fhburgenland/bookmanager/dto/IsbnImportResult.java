@@ -0,0 +1,39 @@
+package at.fhburgenland.bookmanager.dto;
+
+/**
+ * Ergebnis des Imports einer einzelnen ISBN.
+ *
+ * @param isbn    normalisierte ISBN
+ * @param status  Ausgang des Imports
+ * @param message optionale Fehlermeldung, {@code null} bei Erfolg
+ */
+public record IsbnImportResult(String isbn, Status status, String message) {
+
+    /**
+     * Mögliche Ausgänge eines ISBN-Imports.
+     */
+    public enum Status {
+        /** Das Buch wurde dem Benutzer hinzugefügt. */
+        IMPORTED,
+        /** Der Benutzer besitzt das Buch bereits. */
+        ALREADY_OWNED,
+        /** OpenLibrary kennt keine Daten zu dieser ISBN. */
+        NOT_FOUND,
+        /** Abruf oder Speichern ist fehlgeschlagen. */
+        FAILED,
+        /** Die Eingabe ist keine ISBN mit gültiger Prüfziffer und wurde nicht angefragt. */
+        INVALID
+    }
+
+    public static IsbnImportResult of(String isbn, Status status) {
+        return new IsbnImportResult(isbn, status, null);
+    }
+
+    public static IsbnImportResult failed(String isbn, String message) {
+        return new IsbnImportResult(isbn, Status.FAILED, message);
+    }
+
+    public static IsbnImportResult invalid(String isbn) {
+        return new IsbnImportResult(isbn, Status.INVALID, "Ungültige ISBN: " + isbn);
+    }
+}
@@ -0,0 +1,38 @@
+package at.fhburgenland.bookmanager.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Eine Seite einer Liste, die per Keyset-Paginierung geblättert wird.
+ *
+ * @param items      Einträge der Seite in Sortierreihenfolge
+ * @param nextCursor Cursor für die nächste Seite, {@code null} auf der letzten Seite
+ * @param <T>        Typ der Einträge
+ */
+public record KeysetPage<T>(List<T> items, String nextCursor) {
+
+    /** Seitengröße, wenn die Anfrage keine angibt. */
+    public static final int DEFAULT_LIMIT = 50;
+
+    /** Größte erlaubte Seitengröße. */
+    public static final int MAX_LIMIT = 200;
+
+    /**
+     * Schneidet eine Seite aus den gelesenen Zeilen. Gelesen wird ein Eintrag mehr als die
+     * Seitengröße; nur wenn es ihn gibt, folgt eine weitere Seite.
+     *
+     * @param rows     bis zu {@code limit + 1} gelesene Einträge
+     * @param limit    Seitengröße
+     * @param cursorOf liefert den Cursor hinter einem Eintrag
+     * @param <T>      Typ der Einträge
+     * @return die Seite
+     */
+    public static <T> KeysetPage<T> of(List<T> rows, int limit, Function<T, String> cursorOf) {
+        if (rows.size() <= limit) {
+            return new KeysetPage<>(rows, null);
+        }
+        List<T> items = rows.subList(0, limit);
+        return new KeysetPage<>(items, cursorOf.apply(items.get(limit - 1)));
+    }
+}
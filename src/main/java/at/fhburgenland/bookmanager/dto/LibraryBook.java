@@ -0,0 +1,50 @@
+package at.fhburgenland.bookmanager.dto;
+
+import at.fhburgenland.bookmanager.model.CatalogBook;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Ein Buch in der Bibliotheksansicht eines Benutzers.
+ *
+ * Enthält nur die Felder, die eine Liste anzeigt; Beschreibung, Schlagwörter und Rezensionen
+ * liefert die Detailansicht {@code GET /users/{userId}/books/{isbn}}. Als reiner Datensatz
+ * ohne Entitäten kann die Serialisierung nichts nachladen.
+ *
+ * @param id            ID des Buches
+ * @param isbn          ISBN
+ * @param title         Titel
+ * @param authors       Autoren in der Reihenfolge des Katalogs
+ * @param publisher     Verlag
+ * @param publishedDate Erscheinungsdatum wie von OpenLibrary geliefert
+ * @param coverUrl      URL des Coverbildes
+ * @param coverUrls     URLs aller Covergrößen am eigenen Cover-Endpunkt
+ * @param rating        Bewertung des Benutzers, {@code null} wenn unbewertet
+ * @param addedAt       Zeitpunkt, zu dem der Benutzer das Buch hinzugefügt hat
+ */
+public record LibraryBook(
+        UUID id,
+        String isbn,
+        String title,
+        List<String> authors,
+        String publisher,
+        String publishedDate,
+        String coverUrl,
+        Map<String, String> coverUrls,
+        Integer rating,
+        Instant addedAt
+) {
+
+    /**
+     * @param row     gelesene Zeile aus Buch und Katalogeintrag
+     * @param authors Autoren des Katalogeintrags
+     * @return das Buch der Bibliotheksansicht
+     */
+    public static LibraryBook of(LibraryRow row, List<String> authors) {
+        return new LibraryBook(row.id(), row.isbn(), row.title(), authors, row.publisher(), row.publishedDate(),
+                row.coverUrl(), CatalogBook.coverUrls(row.isbn()), row.rating(), row.addedAt());
+    }
+}
@@ -0,0 +1,30 @@
+package at.fhburgenland.bookmanager.dto;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Eine Zeile der Bibliotheksansicht, wie sie die Abfragen des {@code BookRepository} direkt
+ * als Spalten von Buch und Katalogeintrag lesen. Die Autoren fehlen, weil sie als Sammlung
+ * nicht in eine Zeile passen; sie werden für alle Zeilen einer Seite gemeinsam nachgelesen.
+ *
+ * @param id            ID des Buches
+ * @param isbn          ISBN des Katalogeintrags
+ * @param title         Titel
+ * @param publisher     Verlag
+ * @param publishedDate Erscheinungsdatum wie von OpenLibrary geliefert
+ * @param coverUrl      URL des Coverbildes
+ * @param rating        Bewertung des Benutzers, {@code null} wenn unbewertet
+ * @param addedAt       Zeitpunkt, zu dem der Benutzer das Buch hinzugefügt hat
+ */
+public record LibraryRow(
+        UUID id,
+        String isbn,
+        String title,
+        String publisher,
+        String publishedDate,
+        String coverUrl,
+        Integer rating,
+        Instant addedAt
+) {
+}
@@ -0,0 +1,36 @@
+package at.fhburgenland.bookmanager.dto;
+
+/**
+ * Ergebnis einer bedingten Anfrage an OpenLibrary für einen bereits gespeicherten Katalogeintrag.
+ *
+ * @param outcome      Ausgang der Anfrage
+ * @param metadata     neue Metadaten, nur bei {@link Outcome#MODIFIED} gesetzt
+ * @param etag         neuer {@code ETag} der Antwort, {@code null} wenn OpenLibrary keinen sendet
+ * @param lastModified neuer {@code Last-Modified}-Wert der Antwort, {@code null} wenn OpenLibrary keinen sendet
+ */
+public record MetadataRevalidation(Outcome outcome, BookMetadata metadata, String etag, String lastModified) {
+
+    /**
+     * Mögliche Ausgänge einer Revalidierung.
+     */
+    public enum Outcome {
+        /** OpenLibrary meldet {@code 304 Not Modified}, der Eintrag ist aktuell. */
+        NOT_MODIFIED,
+        /** OpenLibrary liefert neue Metadaten. */
+        MODIFIED,
+        /** OpenLibrary kennt die ISBN nicht mehr; der Eintrag bleibt unverändert. */
+        UNKNOWN
+    }
+
+    public static MetadataRevalidation notModified() {
+        return new MetadataRevalidation(Outcome.NOT_MODIFIED, null, null, null);
+    }
+
+    public static MetadataRevalidation modified(BookMetadata metadata, String etag, String lastModified) {
+        return new MetadataRevalidation(Outcome.MODIFIED, metadata, etag, lastModified);
+    }
+
+    public static MetadataRevalidation unknown() {
+        return new MetadataRevalidation(Outcome.UNKNOWN, null, null, null);
+    }
+}
@@ -0,0 +1,16 @@
+package at.fhburgenland.bookmanager.dto;
+
+import java.util.UUID;
+
+/**
+ * Detailansicht eines Benutzers mit Kennzahlen seiner Bibliothek. Die Bücher selbst
+ * liefert die geblätterte Bibliotheksansicht {@code GET /users/{userId}/books}.
+ *
+ * @param id            ID des Benutzers
+ * @param name          Name
+ * @param email         E-Mail-Adresse
+ * @param bookCount     Anzahl der Bücher in der Bibliothek
+ * @param averageRating Durchschnitt der vergebenen Bewertungen, {@code null} wenn noch keine
+ */
+public record UserDetail(UUID id, String name, String email, long bookCount, Double averageRating) {
+}
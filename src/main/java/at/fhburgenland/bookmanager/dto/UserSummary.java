@@ -0,0 +1,15 @@
+package at.fhburgenland.bookmanager.dto;
+
+import java.util.UUID;
+
+/**
+ * Ein Benutzer in der Benutzerliste. Statt der Bibliothek enthält er nur die Anzahl seiner
+ * Bücher, die mit derselben Abfrage gezählt wird.
+ *
+ * @param id        ID des Benutzers
+ * @param name      Name
+ * @param email     E-Mail-Adresse
+ * @param bookCount Anzahl der Bücher in der Bibliothek
+ */
+public record UserSummary(UUID id, String name, String email, long bookCount) {
+}
@@ -0,0 +1,9 @@
+package at.fhburgenland.bookmanager.event;
+
+/**
+ * Wird veröffentlicht, nachdem ein Buch einem Benutzer hinzugefügt wurde.
+ *
+ * @param isbn normalisierte ISBN des Buches
+ */
+public record BookAddedEvent(String isbn) {
+}
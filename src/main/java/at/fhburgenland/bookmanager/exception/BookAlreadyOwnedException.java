@@ -0,0 +1,14 @@
+package at.fhburgenland.bookmanager.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Wird geworfen, wenn ein Benutzer ein Buch hinzufügen möchte, das er bereits besitzt.
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class BookAlreadyOwnedException extends RuntimeException {
+    public BookAlreadyOwnedException(String isbn) {
+        super("Buch mit ISBN " + isbn + " ist bereits in der Sammlung.");
+    }
+}
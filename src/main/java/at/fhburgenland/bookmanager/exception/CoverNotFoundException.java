@@ -0,0 +1,14 @@
+package at.fhburgenland.bookmanager.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Wird geworfen, wenn zu einer ISBN kein Coverbild verfügbar ist.
+ */
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class CoverNotFoundException extends RuntimeException {
+    public CoverNotFoundException(String isbn) {
+        super("Kein Cover für ISBN " + isbn + " gefunden.");
+    }
+}
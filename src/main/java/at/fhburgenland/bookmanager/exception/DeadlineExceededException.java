@@ -0,0 +1,14 @@
+package at.fhburgenland.bookmanager.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Wird geworfen, wenn die Frist einer Anfrage abgelaufen ist und die restliche Arbeit verworfen wird.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class DeadlineExceededException extends RuntimeException {
+    public DeadlineExceededException(String message) {
+        super(message);
+    }
+}
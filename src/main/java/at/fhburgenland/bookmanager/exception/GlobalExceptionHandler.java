@@ -120,6 +120,36 @@ public class GlobalExceptionHandler {
         return detail;
     }
 
+    /**
+     * Behandelt den Versuch, ein bereits vorhandenes Buch erneut hinzuzufügen.
+     *
+     * @param ex Die ausgelöste {@link BookAlreadyOwnedException}
+     * @return Ein {@link ProblemDetail}-Objekt mit Status 409 und Titel "Buch bereits vorhanden"
+     */
+    @ExceptionHandler(BookAlreadyOwnedException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ProblemDetail handleBookAlreadyOwned(BookAlreadyOwnedException ex) {
+        ProblemDetail detail = ProblemDetail.forStatus(HttpStatus.CONFLICT);
+        detail.setTitle("Buch bereits vorhanden");
+        detail.setDetail(ex.getMessage());
+        return detail;
+    }
+
+    /**
+     * Behandelt ungültige Cursor und Seitengrößen beim Blättern in Listen.
+     *
+     * @param ex Die ausgelöste {@link InvalidPageRequestException}
+     * @return Ein {@link ProblemDetail}-Objekt mit Status 400 und Titel "Ungültige Seitenanfrage"
+     */
+    @ExceptionHandler(InvalidPageRequestException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ProblemDetail handleInvalidPageRequest(InvalidPageRequestException ex) {
+        ProblemDetail detail = ProblemDetail.forStatus(HttpStatus.BAD_REQUEST);
+        detail.setTitle("Ungültige Seitenanfrage");
+        detail.setDetail(ex.getMessage());
+        return detail;
+    }
+
     /**
      * Behandelt den Fall, dass eine Rezension anhand ihrer ID nicht gefunden wurde.
      *
@@ -139,4 +169,64 @@ public class GlobalExceptionHandler {
         detail.setDetail(ex.getMessage());
         return detail;
     }
+
+    /**
+     * Behandelt den Fall, dass ein Import-Auftrag nicht gefunden wurde.
+     *
+     * @param ex Die ausgelöste {@link ImportJobNotFoundException}
+     * @return Ein {@link ProblemDetail}-Objekt mit Status 404 und Titel "Import-Auftrag nicht gefunden"
+     */
+    @ExceptionHandler(ImportJobNotFoundException.class)
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public ProblemDetail handleImportJobNotFound(ImportJobNotFoundException ex) {
+        ProblemDetail detail = ProblemDetail.forStatus(HttpStatus.NOT_FOUND);
+        detail.setTitle("Import-Auftrag nicht gefunden");
+        detail.setDetail(ex.getMessage());
+        return detail;
+    }
+
+    /**
+     * Behandelt den Fall, dass Buch-Metadaten vorübergehend nicht verfügbar sind.
+     *
+     * @param ex Die ausgelöste {@link MetadataUnavailableException}
+     * @return Ein {@link ProblemDetail}-Objekt mit Status 503 und Titel "Buchdaten nicht verfügbar"
+     */
+    @ExceptionHandler(MetadataUnavailableException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ProblemDetail handleMetadataUnavailable(MetadataUnavailableException ex) {
+        ProblemDetail detail = ProblemDetail.forStatus(HttpStatus.SERVICE_UNAVAILABLE);
+        detail.setTitle("Buchdaten nicht verfügbar");
+        detail.setDetail(ex.getMessage());
+        return detail;
+    }
+
+    /**
+     * Behandelt den Fall, dass zu einer ISBN kein Coverbild existiert.
+     *
+     * @param ex Die ausgelöste {@link CoverNotFoundException}
+     * @return Ein {@link ProblemDetail}-Objekt mit Status 404 und Titel "Cover nicht gefunden"
+     */
+    @ExceptionHandler(CoverNotFoundException.class)
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public ProblemDetail handleCoverNotFound(CoverNotFoundException ex) {
+        ProblemDetail detail = ProblemDetail.forStatus(HttpStatus.NOT_FOUND);
+        detail.setTitle("Cover nicht gefunden");
+        detail.setDetail(ex.getMessage());
+        return detail;
+    }
+
+    /**
+     * Behandelt den Fall, dass die Frist einer Anfrage abgelaufen ist.
+     *
+     * @param ex Die ausgelöste {@link DeadlineExceededException}
+     * @return Ein {@link ProblemDetail}-Objekt mit Status 503 und Titel "Zeitlimit überschritten"
+     */
+    @ExceptionHandler(DeadlineExceededException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ProblemDetail handleDeadlineExceeded(DeadlineExceededException ex) {
+        ProblemDetail detail = ProblemDetail.forStatus(HttpStatus.SERVICE_UNAVAILABLE);
+        detail.setTitle("Zeitlimit überschritten");
+        detail.setDetail(ex.getMessage());
+        return detail;
+    }
 }
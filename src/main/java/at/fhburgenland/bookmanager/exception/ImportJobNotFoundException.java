@@ -0,0 +1,16 @@
+package at.fhburgenland.bookmanager.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.util.UUID;
+
+/**
+ * Wird geworfen, wenn ein Import-Auftrag nicht existiert oder nicht zum Benutzer gehört.
+ */
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class ImportJobNotFoundException extends RuntimeException {
+    public ImportJobNotFoundException(UUID jobId) {
+        super("Import-Auftrag mit der ID " + jobId + " wurde nicht gefunden.");
+    }
+}
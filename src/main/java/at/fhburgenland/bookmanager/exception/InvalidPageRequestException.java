@@ -0,0 +1,14 @@
+package at.fhburgenland.bookmanager.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Wird geworfen, wenn Cursor oder Seitengröße einer Listenanfrage ungültig sind.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidPageRequestException extends RuntimeException {
+    public InvalidPageRequestException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,15 @@
+package at.fhburgenland.bookmanager.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Wird geworfen, wenn Buch-Metadaten vorübergehend nicht beschafft werden können,
+ * z. B. weil ein laufender Abruf nicht rechtzeitig fertig wird.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class MetadataUnavailableException extends RuntimeException {
+    public MetadataUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,14 @@
+package at.fhburgenland.bookmanager.exception;
+
+/**
+ * Wird geworfen, wenn das eigene Ratenlimit für OpenLibrary keine Anfrage mehr rechtzeitig zulässt.
+ *
+ * Als {@link MetadataUnavailableException} führt sie weiterhin zu Status 503, lässt sich aber
+ * von Ausfällen von OpenLibrary unterscheiden: Der Circuit Breaker ignoriert sie, weil die
+ * Drosselung von uns selbst kommt und nichts über den Zustand von OpenLibrary aussagt.
+ */
+public class RateLimitExceededException extends MetadataUnavailableException {
+    public RateLimitExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,13 @@
+package at.fhburgenland.bookmanager.exception;
+
+/**
+ * Wird geworfen, wenn zu einer gültigen ISBN keine Buchdaten bekannt sind.
+ *
+ * Als {@link InvalidBookException} führt sie weiterhin zu Status 400, lässt sich aber von
+ * technischen Abruffehlern unterscheiden, damit nur echte Fehlgriffe negativ gecacht werden.
+ */
+public class UnknownIsbnException extends InvalidBookException {
+    public UnknownIsbnException(String isbn) {
+        super("Keine Daten gefunden für ISBN: " + isbn);
+    }
+}
@@ -1,59 +1,136 @@
 package at.fhburgenland.bookmanager.model;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
 import jakarta.persistence.*;
-import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.CreationTimestamp;
 
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 /**
  * Repräsentiert ein Buch, das einem Benutzer zugeordnet ist.
+ *
+ * Die Metadaten (Titel, Autoren, Verlag, ...) liegen im gemeinsamen {@link CatalogBook};
+ * diese Zeile hält nur den Besitz durch den Benutzer, dessen Bewertung und Rezensionen.
+ * In JSON werden die Katalogfelder flach in das Buch übernommen.
+ *
+ * Eigene Angaben des Benutzers zu Titel, Autoren, Beschreibung und Cover liegen ebenfalls
+ * hier und überdecken die Katalogdaten nur für dieses Buch ({@link #getDisplayedCatalog()}).
+ * Der gemeinsame Katalogeintrag bleibt unverändert, sodass weder andere Besitzer noch der
+ * Abgleich mit OpenLibrary von ihnen betroffen sind.
+ *
+ * Jeder Benutzer besitzt eine ISBN höchstens einmal; der eindeutige Index auf
+ * (user_id, isbn) dient zugleich den Abfragen eines einzelnen Buches. Die übrigen
+ * Indizes bedienen das seitenweise Blättern in der Bibliothek nach Hinzufügedatum
+ * und Bewertung.
+ *
+ * Benutzer, Rezensionen und die Listen des Katalogeintrags werden erst bei Bedarf geladen.
+ * Welche Assoziationen eine Abfrage gleich per Join mitlädt, legen die benannten
+ * Entity-Graphen {@value #GRAPH_CATALOG} und {@value #GRAPH_DETAIL} je Anwendungsfall im
+ * {@code BookRepository} fest.
  */
 @Entity
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@Table(name = "books")
+@NamedEntityGraph(name = Book.GRAPH_CATALOG, attributeNodes = @NamedAttributeNode("catalog"))
+@NamedEntityGraph(name = Book.GRAPH_DETAIL,
+        attributeNodes = @NamedAttributeNode(value = "catalog", subgraph = "catalog"),
+        subgraphs = @NamedSubgraph(name = "catalog", attributeNodes = @NamedAttributeNode("authors")))
+@Table(name = "books", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_books_user_isbn", columnNames = {"user_id", "isbn"})
+}, indexes = {
+        @Index(name = "idx_books_user_added", columnList = "user_id, added_at, id"),
+        @Index(name = "idx_books_user_rating", columnList = "user_id, rating, id")
+})
 public class Book {
 
     /**
-     * Eindeutige ID des Buchs.
+     * Buch samt Katalogeintrag, für Änderungen am Buch und Prüfungen des Besitzes.
+     */
+    public static final String GRAPH_CATALOG = "Book.catalog";
+
+    /**
+     * Buch samt Katalogeintrag und Autoren für die Detailansicht. Schlagwörter und Rezensionen
+     * sind weitere Listen und werden nicht im selben Join geladen, sondern mit je einer
+     * Abfrage (Batch-Fetching).
+     */
+    public static final String GRAPH_DETAIL = "Book.detail";
+
+    /**
+     * Eindeutige, zeitlich geordnete ID des Buchs (UUIDv7).
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
 
     /**
-     * Internationale Standardbuchnummer.
+     * Katalogeintrag mit den Metadaten des Buches, referenziert über die ISBN.
      */
-    @NotBlank
-    private String isbn;
+    @NotNull
+    @ManyToOne(cascade = {CascadeType.PERSIST, CascadeType.MERGE})
+    @JoinColumn(name = "isbn", nullable = false)
+    @JsonUnwrapped
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+    private CatalogBook catalog;
 
-    private String title;
+    /**
+     * Eigener Titel des Benutzers, {@code null} für den Titel des Katalogs.
+     */
+    @JsonIgnore
+    private String customTitle;
 
+    /**
+     * Eigene Autorenliste des Benutzers, leer für die Autoren des Katalogs.
+     */
+    @JsonIgnore
+    @Builder.Default
     @ElementCollection
-    private java.util.List<String> authors;
-
-    private String publisher;
+    @CollectionTable(name = "book_custom_authors", joinColumns = @JoinColumn(name = "book_id"))
+    @Column(name = "author")
+    private List<String> customAuthors = new ArrayList<>();
 
-    private String publishedDate;
-
-    private String description;
+    /**
+     * Eigene Beschreibung des Benutzers, {@code null} für die Beschreibung des Katalogs.
+     */
+    @JsonIgnore
+    @Column(length = 5000)
+    private String customDescription;
 
-    private String coverUrl;
+    /**
+     * Eigene Cover-URL des Benutzers, {@code null} für das Cover des Katalogs.
+     */
+    @JsonIgnore
+    @Column(length = 2048)
+    private String customCoverUrl;
 
     /**
-     * Bewertungsfeld (z. B. 1–5 Sterne), optional.
+     * Bewertungsfeld (z. B. 1–5 Sterne), optional.
      */
     private Integer rating;
 
+    /**
+     * Zeitpunkt, zu dem der Benutzer das Buch hinzugefügt hat. Bestehende Zeilen
+     * erhalten beim Anlegen der Spalte den aktuellen Zeitpunkt.
+     */
+    @CreationTimestamp
+    @ColumnDefault("CURRENT_TIMESTAMP")
+    @Column(name = "added_at", nullable = false, updatable = false)
+    private Instant addedAt;
+
     /**
      * Zugehöriger Benutzer.
      */
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     @JsonBackReference
     private User user;
@@ -64,4 +141,32 @@ public class Book {
     @Builder.Default
     @OneToMany(mappedBy = "book", cascade = CascadeType.ALL, orphanRemoval = true)
     private java.util.List<Review> reviews = new ArrayList<>();
+
+    /**
+     * Liefert den Katalogeintrag so, wie ihn der Besitzer sieht: mit seinen eigenen Angaben
+     * anstelle der Katalogdaten. Ohne eigene Angaben ist das der Katalogeintrag selbst,
+     * sonst eine ungespeicherte Kopie. In JSON werden diese Felder flach in das Buch übernommen.
+     *
+     * @return der angezeigte Katalogeintrag
+     */
+    @JsonUnwrapped
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    public CatalogBook getDisplayedCatalog() {
+        boolean ownAuthors = customAuthors != null && !customAuthors.isEmpty();
+        if (catalog == null || (customTitle == null && !ownAuthors
+                && customDescription == null && customCoverUrl == null)) {
+            return catalog;
+        }
+        return CatalogBook.builder()
+                .isbn(catalog.getIsbn())
+                .title(customTitle != null ? customTitle : catalog.getTitle())
+                .authors(ownAuthors ? customAuthors : catalog.getAuthors())
+                .subjects(catalog.getSubjects())
+                .numberOfPages(catalog.getNumberOfPages())
+                .publisher(catalog.getPublisher())
+                .publishedDate(catalog.getPublishedDate())
+                .description(customDescription != null ? customDescription : catalog.getDescription())
+                .coverUrl(customCoverUrl != null ? customCoverUrl : catalog.getCoverUrl())
+                .build();
+    }
 }
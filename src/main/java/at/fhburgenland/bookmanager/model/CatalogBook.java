@@ -0,0 +1,193 @@
+package at.fhburgenland.bookmanager.model;
+
+import at.fhburgenland.bookmanager.dto.BookMetadata;
+import at.fhburgenland.bookmanager.dto.CatalogProjection;
+import at.fhburgenland.bookmanager.dto.CoverSize;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Gemeinsamer Katalogeintrag mit den Metadaten eines Buches.
+ *
+ * Jede ISBN existiert genau einmal im Katalog, unabhängig davon, wie viele Benutzer
+ * das Buch besitzen. Benutzerbezogene Daten (Bewertung, Rezensionen) liegen in {@link Book}.
+ *
+ * Für die Volltextsuche hält jeder Eintrag einen normalisierten {@link SearchText} aus Titel,
+ * Autoren, Schlagwörtern und Verlag. Er wird beim Speichern und bei jeder Änderung dieser
+ * Felder über die Setter neu gebildet.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "catalog_books")
+public class CatalogBook {
+
+    /** Pfad des Cover-Endpunkts, unter dem die Cover des Katalogs ausgeliefert werden. */
+    public static final String COVER_PATH = "/covers/";
+
+    /**
+     * Normalisierte ISBN, dient als Primärschlüssel.
+     */
+    @Id
+    @NotBlank
+    private String isbn;
+
+    private String title;
+
+    @Builder.Default
+    @ElementCollection
+    @CollectionTable(name = "catalog_book_authors", joinColumns = @JoinColumn(name = "isbn"))
+    @Column(name = "author")
+    private List<String> authors = new ArrayList<>();
+
+    @Builder.Default
+    @ElementCollection
+    @CollectionTable(name = "catalog_book_subjects", joinColumns = @JoinColumn(name = "isbn"))
+    @Column(name = "subject")
+    private List<String> subjects = new ArrayList<>();
+
+    private Integer numberOfPages;
+
+    private String publisher;
+
+    private String publishedDate;
+
+    @Column(length = 5000)
+    private String description;
+
+    /**
+     * URL des Coverbildes; für neue Einträge der eigene Cover-Endpunkt {@code /covers/{isbn}}.
+     */
+    private String coverUrl;
+
+    /**
+     * Zeitpunkt, zu dem OpenLibrary die Metadaten zuletzt geliefert oder als unverändert bestätigt hat.
+     * Der Hintergrund-Abgleich beginnt bei den ältesten Einträgen.
+     */
+    @JsonIgnore
+    private Instant fetchedAt;
+
+    /**
+     * {@code ETag} der letzten OpenLibrary-Antwort, wird beim Abgleich als {@code If-None-Match} gesendet.
+     */
+    @JsonIgnore
+    private String etag;
+
+    /**
+     * {@code Last-Modified} der letzten OpenLibrary-Antwort, wird beim Abgleich als {@code If-Modified-Since} gesendet.
+     */
+    @JsonIgnore
+    private String lastModified;
+
+    /**
+     * {@link CatalogProjection#VERSION} der Ableitung, mit der Autoren, Schlagwörter und
+     * Seitenzahl zuletzt aus der Rohantwort gesetzt wurden; {@code null} wenn noch nie.
+     */
+    @JsonIgnore
+    private Integer projectionVersion;
+
+    /**
+     * Normalisierter Suchtext, siehe {@link SearchText}. Auf PostgreSQL leitet die Datenbank
+     * daraus die indizierte Spalte {@code search_vector} ab.
+     */
+    @JsonIgnore
+    @Column(name = "search_text", length = SearchText.MAX_LENGTH)
+    private String searchText;
+
+    /**
+     * Erstellt einen neuen, noch nicht gespeicherten Katalogeintrag aus abgerufenen Metadaten.
+     * Das Cover wird über den eigenen Cover-Endpunkt ausgeliefert statt direkt von OpenLibrary.
+     *
+     * @param metadata die Metadaten von OpenLibrary
+     * @return neuer Katalogeintrag
+     */
+    public static CatalogBook from(BookMetadata metadata) {
+        return CatalogBook.builder()
+                .isbn(metadata.isbn())
+                .title(metadata.title())
+                .publisher(metadata.publisher())
+                .publishedDate(metadata.publishedDate())
+                .description(metadata.description())
+                .coverUrl(COVER_PATH + metadata.isbn())
+                .fetchedAt(Instant.now())
+                .build();
+    }
+
+    /**
+     * Übernimmt die aus der Rohantwort abgeleiteten Felder.
+     *
+     * @param projection abgeleitete Felder
+     */
+    public void apply(CatalogProjection projection) {
+        this.authors = new ArrayList<>(projection.authors());
+        this.subjects = new ArrayList<>(projection.subjects());
+        this.numberOfPages = projection.numberOfPages();
+        this.projectionVersion = CatalogProjection.VERSION;
+        refreshSearchText();
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+        refreshSearchText();
+    }
+
+    public void setAuthors(List<String> authors) {
+        this.authors = authors;
+        refreshSearchText();
+    }
+
+    public void setSubjects(List<String> subjects) {
+        this.subjects = subjects;
+        refreshSearchText();
+    }
+
+    public void setPublisher(String publisher) {
+        this.publisher = publisher;
+        refreshSearchText();
+    }
+
+    /**
+     * Bildet den Suchtext aus den aktuellen Feldern neu. Läuft zusätzlich vor dem ersten
+     * Insert, damit auch über den Builder gesetzte Felder durchsuchbar sind. Vor Updates
+     * läuft er bewusst nicht: Dort müsste er während des Flushs die Listen nachladen.
+     */
+    @PrePersist
+    public void refreshSearchText() {
+        this.searchText = SearchText.document(title, authors, subjects, publisher);
+    }
+
+    /**
+     * Liefert die URLs aller Covergrößen am eigenen Cover-Endpunkt.
+     *
+     * @return Map von Größe ({@code S}, {@code M}, {@code L}) auf URL
+     */
+    @JsonProperty(value = "coverUrls", access = JsonProperty.Access.READ_ONLY)
+    public Map<String, String> getCoverUrls() {
+        return coverUrls(isbn);
+    }
+
+    /**
+     * Liefert die URLs aller Covergrößen einer ISBN am eigenen Cover-Endpunkt.
+     *
+     * @param isbn ISBN des Katalogeintrags
+     * @return Map von Größe ({@code S}, {@code M}, {@code L}) auf URL
+     */
+    public static Map<String, String> coverUrls(String isbn) {
+        Map<String, String> urls = new LinkedHashMap<>();
+        for (CoverSize size : CoverSize.values()) {
+            urls.put(size.name(), COVER_PATH + isbn + "?size=" + size.name());
+        }
+        return urls;
+    }
+}
@@ -0,0 +1,41 @@
+package at.fhburgenland.bookmanager.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Gespeicherte Rohantwort von OpenLibrary zu einem Katalogeintrag.
+ *
+ * Liegt in einer eigenen Tabelle, damit die komprimierten Daten nicht bei jedem Lesen
+ * eines {@link CatalogBook} mitgeladen werden. Aus ihr leitet der Katalog Felder wie
+ * Autoren oder Seitenzahl ab, auch nachträglich und ohne Netzwerkzugriff.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "catalog_book_payloads")
+public class CatalogPayload {
+
+    /**
+     * ISBN des zugehörigen Katalogeintrags.
+     */
+    @Id
+    private String isbn;
+
+    /**
+     * gzip-komprimiertes JSON-Objekt der ISBN aus der Antwort der Books API.
+     */
+    @Column(nullable = false, length = 1_048_576)
+    private byte[] payload;
+
+    /**
+     * Zeitpunkt, zu dem die Antwort von OpenLibrary kam.
+     */
+    @Column(nullable = false)
+    private Instant fetchedAt;
+}
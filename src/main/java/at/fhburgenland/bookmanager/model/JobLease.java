@@ -0,0 +1,40 @@
+package at.fhburgenland.bookmanager.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Lease eines Hintergrundjobs, gemeinsam für alle Instanzen der Anwendung.
+ *
+ * Wer einen Job ausführen will, sperrt die Zeile kurz mit {@code SELECT ... FOR UPDATE} und
+ * übernimmt sie nur, wenn sie frei oder abgelaufen ist. So läuft ein geplanter Job auch bei
+ * mehreren Instanzen auf derselben Datenbank nur einmal gleichzeitig.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "job_leases")
+public class JobLease {
+
+    /**
+     * Name des Jobs, z. B. {@code metadata-refresh}.
+     */
+    @Id
+    private String name;
+
+    /**
+     * Kennung der Instanz, die die Lease hält.
+     */
+    private String owner;
+
+    /**
+     * Zeitpunkt, ab dem die Lease als frei gilt, auch wenn der Halter sie nicht freigegeben hat.
+     */
+    @Column(nullable = false)
+    private Instant lockedUntil;
+}
@@ -0,0 +1,40 @@
+package at.fhburgenland.bookmanager.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Token-Bucket eines ausgehenden Ratenlimits, gemeinsam für alle Instanzen der Anwendung.
+ *
+ * Die Zeile wird bei jeder Reservierung mit {@code SELECT ... FOR UPDATE} gesperrt, sodass
+ * alle Instanzen, die dieselbe Datenbank nutzen, dasselbe Budget verbrauchen. Ein negativer
+ * Bestand bedeutet, dass bereits Anfragen für die Zukunft reserviert sind.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "rate_limit_buckets")
+public class RateLimitBucket {
+
+    /**
+     * Name des Limits, z. B. {@code openlibrary}.
+     */
+    @Id
+    private String name;
+
+    /**
+     * Verfügbare Tokens zum Zeitpunkt {@link #updatedAt}.
+     */
+    private double tokens;
+
+    /**
+     * Zeitpunkt, bis zu dem {@link #tokens} nachgefüllt wurde.
+     */
+    @Column(nullable = false)
+    private Instant updatedAt;
+}
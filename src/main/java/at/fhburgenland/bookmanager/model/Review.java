@@ -6,7 +6,10 @@ import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.CreationTimestamp;
 
+import java.time.Instant;
 import java.util.UUID;
 
 /**
@@ -18,13 +21,14 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@Table(indexes = @Index(name = "idx_review_book_created", columnList = "book_id, created_at, id"))
 public class Review {
 
     /**
-     * Eindeutige ID der Rezension.
+     * Eindeutige, zeitlich geordnete ID der Rezension (UUIDv7).
      */
     @Id
-    @GeneratedValue
+    @UuidV7
     private UUID id;
 
     /**
@@ -40,10 +44,18 @@ public class Review {
     @NotBlank(message = "Rezensionstext darf nicht leer sein")
     private String reviewText;
 
+    /**
+     * Zeitpunkt, zu dem die Rezension verfasst wurde; Rezensionen werden in dieser Reihenfolge aufgelistet.
+     */
+    @CreationTimestamp
+    @ColumnDefault("CURRENT_TIMESTAMP")
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
     /**
      * Das Buch, zu dem diese Rezension gehört.
      */
-    @ManyToOne(optional = false)
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
     @JoinColumn(name = "book_id")
     @JsonBackReference
     private Book book;
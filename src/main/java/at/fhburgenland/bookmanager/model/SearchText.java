@@ -0,0 +1,109 @@
+package at.fhburgenland.bookmanager.model;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Normalisierter Suchtext eines Katalogeintrags für die Volltextsuche.
+ *
+ * Der Text besteht aus vier Abschnitten, getrennt durch {@value #SECTION}: Titel, Autoren,
+ * Schlagwörter und Verlag. Jeder Abschnitt enthält nur Wörter aus {@code a-z} und Ziffern,
+ * getrennt durch je ein Leerzeichen. Akzente werden entfernt ({@code é → e}), {@code ß} wird
+ * zu {@code ss}. Wörter mit Umlaut stehen zusätzlich in der Umschreibung im Text
+ * ({@code Müller → muller mueller}), sodass „Müller“, „Muller“ und „Mueller“ dasselbe Buch
+ * finden. Suchbegriffe werden mit {@link #terms(String)} genauso normalisiert.
+ */
+public final class SearchText {
+
+    /** Trennzeichen zwischen den Abschnitten. */
+    public static final char SECTION = '|';
+
+    /** Höchstlänge des Suchtexts; lange Schlagwortlisten werden am Ende gekürzt. */
+    public static final int MAX_LENGTH = 4000;
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_WORD = Pattern.compile("[^a-z0-9]+");
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private SearchText() {
+    }
+
+    /**
+     * Bildet den Suchtext eines Katalogeintrags.
+     *
+     * @param title     Titel
+     * @param authors   Autoren
+     * @param subjects  Schlagwörter
+     * @param publisher Verlag
+     * @return normalisierter Suchtext mit vier Abschnitten
+     */
+    public static String document(String title, Collection<String> authors, Collection<String> subjects,
+                                  String publisher) {
+        String text = String.join(String.valueOf(SECTION),
+                section(List.of(nullToEmpty(title))), section(authors), section(subjects),
+                section(List.of(nullToEmpty(publisher))));
+        if (text.length() <= MAX_LENGTH) {
+            return text;
+        }
+        int cut = text.lastIndexOf(' ', MAX_LENGTH);
+        return text.substring(0, cut > 0 ? cut : MAX_LENGTH);
+    }
+
+    /**
+     * Zerlegt eine Sucheingabe in normalisierte Suchbegriffe, ohne Duplikate.
+     *
+     * @param text Sucheingabe, darf {@code null} sein
+     * @return Suchbegriffe aus {@code a-z} und Ziffern
+     */
+    public static List<String> terms(String text) {
+        Set<String> terms = new LinkedHashSet<>();
+        for (String word : split(text)) {
+            terms.addAll(fold(word));
+        }
+        return List.copyOf(terms);
+    }
+
+    private static String section(Collection<String> values) {
+        Set<String> words = new LinkedHashSet<>();
+        for (String value : values == null ? List.<String>of() : values) {
+            for (String word : split(value)) {
+                words.addAll(fold(word));
+                if (word.indexOf('ä') >= 0 || word.indexOf('ö') >= 0 || word.indexOf('ü') >= 0) {
+                    words.addAll(fold(word.replace("ä", "ae").replace("ö", "oe").replace("ü", "ue")));
+                }
+            }
+        }
+        return String.join(" ", words);
+    }
+
+    private static List<String> split(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        return List.of(WORD_SEPARATOR.split(text.toLowerCase(Locale.ROOT)));
+    }
+
+    /** Entfernt Akzente und alles außer a-z und Ziffern; kann ein Wort in mehrere zerlegen. */
+    private static List<String> fold(String word) {
+        String replaced = word.replace("ß", "ss").replace("æ", "ae").replace("œ", "oe")
+                .replace("ø", "o").replace("ł", "l").replace("đ", "d");
+        String plain = MARKS.matcher(Normalizer.normalize(replaced, Normalizer.Form.NFD)).replaceAll("");
+        List<String> parts = new ArrayList<>();
+        for (String part : NON_WORD.split(plain)) {
+            if (!part.isEmpty()) {
+                parts.add(part);
+            }
+        }
+        return parts;
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+}
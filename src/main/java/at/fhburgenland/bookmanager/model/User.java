@@ -1,6 +1,6 @@
 package at.fhburgenland.bookmanager.model;
 
-import com.fasterxml.jackson.annotation.JsonManagedReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.*;
@@ -21,10 +21,10 @@ import java.util.UUID;
 public class User {
 
     /**
-     * Eindeutige Benutzer-ID im UUID-Format.
+     * Eindeutige Benutzer-ID im UUID-Format, zeitlich geordnet (UUIDv7).
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
 
     /**
@@ -40,8 +40,12 @@ public class User {
     @NotBlank
     private String email;
 
+    /**
+     * Bibliothek des Benutzers. Wird nie mit dem Benutzer serialisiert; gelesen wird sie
+     * geblättert über {@code GET /users/{userId}/books}.
+     */
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
-    @JsonManagedReference
+    @JsonIgnore
     @Builder.Default
     private List<Book> books = new ArrayList<>();
 }
@@ -0,0 +1,19 @@
+package at.fhburgenland.bookmanager.model;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Vergibt für ein UUID-Primärschlüsselfeld beim Einfügen eine zeitlich geordnete UUIDv7,
+ * siehe {@link UuidV7Generator}. Ersetzt {@code @GeneratedValue}; bestehende IDs bleiben
+ * unverändert gültig.
+ */
+@IdGeneratorType(UuidV7Generator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface UuidV7 {
+}
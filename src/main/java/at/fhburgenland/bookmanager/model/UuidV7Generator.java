@@ -0,0 +1,58 @@
+package at.fhburgenland.bookmanager.model;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+
+import java.security.SecureRandom;
+import java.util.EnumSet;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Erzeugt UUIDs der Version 7 (RFC 9562): 48 Bit Unix-Zeit in Millisekunden, danach ein
+ * 12-Bit-Zähler und 62 Zufallsbits.
+ *
+ * Zufällige UUIDv4 verteilen neue Zeilen über den gesamten B-Baum des Primärschlüssels;
+ * UUIDv7 wachsen mit der Zeit und landen fast immer auf der rechten Seite des Index, wie
+ * eine Sequenz. Innerhalb einer Millisekunde zählt der Zähler hoch, sodass auch IDs aus
+ * derselben Millisekunde streng aufsteigend sind. Läuft er über, rückt die Zeit um eine
+ * Millisekunde vor, statt die Ordnung zu brechen.
+ *
+ * Der Typ bleibt {@link UUID}; bestehende v4-IDs sind weiterhin gültig und werden nur
+ * beim Vergleich anders einsortiert.
+ */
+public class UuidV7Generator implements BeforeExecutionGenerator {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    /** Zuletzt vergebene Millisekunde und Zähler, als {@code millis << 12 | zähler}. */
+    private static final AtomicLong LAST = new AtomicLong();
+
+    /**
+     * @return neue, streng aufsteigende UUIDv7
+     */
+    public static UUID next() {
+        long now = System.currentTimeMillis() << 12;
+        long state = LAST.updateAndGet(last -> now > last
+                // Neue Millisekunde: Zähler zufällig in der unteren Hälfte beginnen, damit er Luft nach oben hat.
+                ? now | ThreadLocalRandom.current().nextInt(1 << 11)
+                : last + 1);
+        long mostSigBits = (state >>> 12) << 16 | 0x7000L | (state & 0xFFFL);
+        long leastSigBits = RANDOM.nextLong() & 0x3FFF_FFFF_FFFF_FFFFL | 0x8000_0000_0000_0000L;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+                           EventType eventType) {
+        return next();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+}
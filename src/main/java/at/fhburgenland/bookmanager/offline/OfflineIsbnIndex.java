@@ -0,0 +1,194 @@
+package at.fhburgenland.bookmanager.offline;
+
+import at.fhburgenland.bookmanager.dto.BookMetadata;
+import at.fhburgenland.bookmanager.service.BookMetadataCache;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+
+/**
+ * Lokaler, speicherabgebildeter ISBN-Index für Abfragen ohne Netzwerkzugriff.
+ *
+ * Die Indexdatei wird von {@link OfflineIsbnIndexBuilder} aus einem OpenLibrary-Editions-Dump
+ * erzeugt und hat folgenden Aufbau:
+ * <pre>
+ * Kopf:        int Magic "OLIX", int Version, long Anzahl Einträge
+ * Schlüssel:   Anzahl × (long ISBN-13, long Offset im Datenbereich), aufsteigend nach ISBN sortiert
+ * Datenbereich: je Datensatz Titel, Verlag, Erscheinungsdatum, Beschreibung als (short Länge, UTF-8)
+ * </pre>
+ * ISBN-10 werden beim Bauen und beim Nachschlagen in ISBN-13 umgerechnet. Eine Abfrage ist eine
+ * Binärsuche über die Schlüsseltabelle; gelesen wird direkt aus dem Page-Cache des Betriebssystems.
+ */
+public final class OfflineIsbnIndex {
+
+    static final int MAGIC = 0x4F4C4958;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 16;
+    static final int ENTRY_BYTES = 16;
+    static final int FIELD_COUNT = 4;
+    static final int MAX_FIELD_BYTES = 8 * 1024;
+
+    /** Größe der Teilabbildungen des Datenbereichs; ein MappedByteBuffer ist auf 2 GB begrenzt. */
+    private static final long SEGMENT_BYTES = 1L << 30;
+    private static final int MAX_RECORD_BYTES = FIELD_COUNT * (Short.BYTES + MAX_FIELD_BYTES);
+
+    private static final OfflineIsbnIndex DISABLED = new OfflineIsbnIndex(null, new ByteBuffer[0], 0);
+
+    private final ByteBuffer keys;
+    private final ByteBuffer[] data;
+    private final long size;
+
+    private OfflineIsbnIndex(ByteBuffer keys, ByteBuffer[] data, long size) {
+        this.keys = keys;
+        this.data = data;
+        this.size = size;
+    }
+
+    /**
+     * Liefert einen leeren Index, der nie einen Treffer liefert.
+     *
+     * @return deaktivierter Index
+     */
+    public static OfflineIsbnIndex disabled() {
+        return DISABLED;
+    }
+
+    /**
+     * Öffnet eine Indexdatei und bildet sie in den Speicher ab.
+     *
+     * @param file Pfad zur Indexdatei
+     * @return der geöffnete Index
+     * @throws IOException wenn die Datei nicht gelesen werden kann oder kein gültiger Index ist
+     */
+    public static OfflineIsbnIndex open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+            if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+                throw new IOException("Keine gültige ISBN-Indexdatei: " + file);
+            }
+            long size = header.getLong(8);
+            long keyBytes = size * ENTRY_BYTES;
+            if (keyBytes > Integer.MAX_VALUE) {
+                throw new IOException("ISBN-Index zu groß: " + size + " Einträge");
+            }
+            ByteBuffer keys = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES, keyBytes);
+
+            long dataStart = HEADER_BYTES + keyBytes;
+            long dataBytes = channel.size() - dataStart;
+            int segments = (int) Math.max(1, (dataBytes + SEGMENT_BYTES - 1) / SEGMENT_BYTES);
+            ByteBuffer[] data = new ByteBuffer[segments];
+            for (int i = 0; i < segments; i++) {
+                long start = i * SEGMENT_BYTES;
+                // Segmente überlappen um eine maximale Datensatzlänge, damit kein Datensatz geteilt wird.
+                long length = Math.min(SEGMENT_BYTES + MAX_RECORD_BYTES, dataBytes - start);
+                data[i] = channel.map(FileChannel.MapMode.READ_ONLY, dataStart + start, length);
+            }
+            return new OfflineIsbnIndex(keys, data, size);
+        }
+    }
+
+    /**
+     * Sucht die Metadaten zu einer ISBN.
+     *
+     * @param isbn ISBN-10 oder ISBN-13, Bindestriche und Leerzeichen werden ignoriert
+     * @return die Metadaten oder leer, wenn die ISBN nicht im Index steht
+     */
+    public Optional<BookMetadata> find(String isbn) {
+        long key = toKey(isbn);
+        if (keys == null || key < 0) {
+            return Optional.empty();
+        }
+        long low = 0;
+        long high = size - 1;
+        while (low <= high) {
+            long mid = (low + high) >>> 1;
+            int entry = (int) (mid * ENTRY_BYTES);
+            long midKey = keys.getLong(entry);
+            if (midKey < key) {
+                low = mid + 1;
+            } else if (midKey > key) {
+                high = mid - 1;
+            } else {
+                return Optional.of(read(BookMetadataCache.normalize(isbn), keys.getLong(entry + Long.BYTES)));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Gibt an, ob eine Indexdatei geladen ist.
+     *
+     * @return {@code true}, wenn Abfragen gegen eine Indexdatei laufen
+     */
+    public boolean isEnabled() {
+        return keys != null;
+    }
+
+    /**
+     * Liefert die Anzahl der ISBNs im Index.
+     *
+     * @return Anzahl der Einträge
+     */
+    public long size() {
+        return size;
+    }
+
+    private BookMetadata read(String isbn, long offset) {
+        ByteBuffer segment = data[(int) (offset / SEGMENT_BYTES)];
+        int position = (int) (offset % SEGMENT_BYTES);
+        String[] fields = new String[FIELD_COUNT];
+        for (int i = 0; i < FIELD_COUNT; i++) {
+            int length = Short.toUnsignedInt(segment.getShort(position));
+            byte[] bytes = new byte[length];
+            segment.get(position + Short.BYTES, bytes);
+            fields[i] = new String(bytes, StandardCharsets.UTF_8);
+            position += Short.BYTES + length;
+        }
+        return new BookMetadata(isbn, fields[0], fields[1], fields[2], fields[3],
+                "https://covers.openlibrary.org/b/isbn/" + isbn + "-L.jpg");
+    }
+
+    /**
+     * Rechnet eine ISBN in den numerischen ISBN-13-Schlüssel des Index um.
+     *
+     * @param isbn ISBN-10 oder ISBN-13
+     * @return der Schlüssel oder {@code -1}, wenn die Eingabe keine ISBN sein kann
+     */
+    static long toKey(String isbn) {
+        if (isbn == null) {
+            return -1;
+        }
+        String normalized = BookMetadataCache.normalize(isbn);
+        if (normalized.length() == 10 && isDigits(normalized.substring(0, 9))) {
+            String body = "978" + normalized.substring(0, 9);
+            normalized = body + isbn13CheckDigit(body);
+        }
+        if (normalized.length() != 13 || !isDigits(normalized)) {
+            return -1;
+        }
+        return Long.parseLong(normalized);
+    }
+
+    private static int isbn13CheckDigit(String first12) {
+        int sum = 0;
+        for (int i = 0; i < 12; i++) {
+            sum += (first12.charAt(i) - '0') * (i % 2 == 0 ? 1 : 3);
+        }
+        return (10 - sum % 10) % 10;
+    }
+
+    private static boolean isDigits(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,284 @@
+package at.fhburgenland.bookmanager.offline;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Baut einen {@link OfflineIsbnIndex} aus einem OpenLibrary-Editions-Dump.
+ *
+ * Erwartet wird das Format der OpenLibrary-Dumps ({@code ol_dump_editions_*.txt[.gz]}): je Zeile
+ * tabulatorgetrennt Typ, Schlüssel, Revision, Änderungsdatum und der Datensatz als JSON.
+ * Editionen ohne ISBN werden übersprungen; kommt eine ISBN mehrfach vor, gewinnt die erste Edition.
+ * Die Schlüsseltabelle wird im Speicher in zwei parallelen {@code long}-Arrays gehalten und
+ * sortiert: 16 Byte je ISBN, beim Vergrößern der Arrays kurzzeitig bis zu 40 Byte. Für den
+ * vollständigen Dump mit rund 50 Millionen ISBNs ist also etwa 2 GB Heap einzuplanen.
+ *
+ * Aufruf über Gradle: {@code ./gradlew buildIsbnIndex -Pdump=<dump> -Pindex=<indexdatei>}
+ */
+public final class OfflineIsbnIndexBuilder {
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Erstellt den Builder.
+     *
+     * @param objectMapper Jackson-ObjectMapper zum Lesen der Editionen
+     */
+    public OfflineIsbnIndexBuilder(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Einstiegspunkt für den Aufruf von der Kommandozeile.
+     *
+     * @param args Pfad zum Dump und Pfad der zu schreibenden Indexdatei
+     * @throws IOException wenn Dump oder Index nicht gelesen bzw. geschrieben werden können
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Aufruf: OfflineIsbnIndexBuilder <editions-dump[.gz]> <indexdatei>");
+            System.exit(2);
+        }
+        long entries = new OfflineIsbnIndexBuilder(new ObjectMapper()).build(Path.of(args[0]), Path.of(args[1]));
+        System.out.printf("%d ISBNs nach %s geschrieben%n", entries, args[1]);
+    }
+
+    /**
+     * Liest den Dump und schreibt die Indexdatei.
+     *
+     * @param dump  Editions-Dump, optional gzip-komprimiert
+     * @param index Zieldatei, wird überschrieben
+     * @return Anzahl der ISBNs im Index
+     * @throws IOException wenn Dump oder Index nicht gelesen bzw. geschrieben werden können
+     */
+    public long build(Path dump, Path index) throws IOException {
+        Path directory = index.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path dataFile = Files.createTempFile(directory, "isbn-index", ".data");
+        try {
+            KeyTable keys = writeRecords(dump, dataFile);
+            keys.sortAndRemoveDuplicates();
+            writeIndex(index, keys, dataFile);
+            return keys.size;
+        } finally {
+            Files.deleteIfExists(dataFile);
+        }
+    }
+
+    private KeyTable writeRecords(Path dump, Path dataFile) throws IOException {
+        KeyTable entries = new KeyTable();
+        long offset = 0;
+        try (BufferedReader reader = openDump(dump);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(dataFile)))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                JsonNode edition = parseEdition(line);
+                if (edition == null) {
+                    continue;
+                }
+                Set<Long> keys = isbnKeys(edition);
+                if (keys.isEmpty()) {
+                    continue;
+                }
+                for (long key : keys) {
+                    entries.add(key, offset);
+                }
+                offset += writeRecord(out, edition);
+            }
+        }
+        return entries;
+    }
+
+    private BufferedReader openDump(Path dump) throws IOException {
+        InputStream in = Files.newInputStream(dump);
+        if (dump.getFileName().toString().endsWith(".gz")) {
+            in = new GZIPInputStream(in, 64 * 1024);
+        }
+        return new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 64 * 1024);
+    }
+
+    private JsonNode parseEdition(String line) throws IOException {
+        String[] columns = line.split("\t", 5);
+        if (columns.length != 5 || !"/type/edition".equals(columns[0])) {
+            return null;
+        }
+        return objectMapper.readTree(columns[4]);
+    }
+
+    private static Set<Long> isbnKeys(JsonNode edition) {
+        Set<Long> keys = new LinkedHashSet<>();
+        for (String field : List.of("isbn_13", "isbn_10")) {
+            for (JsonNode isbn : edition.path(field)) {
+                long key = OfflineIsbnIndex.toKey(isbn.asText());
+                if (key >= 0) {
+                    keys.add(key);
+                }
+            }
+        }
+        return keys;
+    }
+
+    private static int writeRecord(DataOutputStream out, JsonNode edition) throws IOException {
+        JsonNode description = edition.path("description");
+        String[] fields = {
+                edition.path("title").asText(""),
+                edition.path("publishers").path(0).asText(""),
+                edition.path("publish_date").asText(""),
+                description.has("value") ? description.path("value").asText("") : description.asText("")
+        };
+        int written = 0;
+        for (String field : fields) {
+            byte[] bytes = utf8(field);
+            out.writeShort(bytes.length);
+            out.write(bytes);
+            written += Short.BYTES + bytes.length;
+        }
+        return written;
+    }
+
+    /** Kodiert als UTF-8 und kürzt auf {@link OfflineIsbnIndex#MAX_FIELD_BYTES}, ohne ein Zeichen zu teilen. */
+    private static byte[] utf8(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length <= OfflineIsbnIndex.MAX_FIELD_BYTES) {
+            return bytes;
+        }
+        ByteBuffer truncated = ByteBuffer.allocate(OfflineIsbnIndex.MAX_FIELD_BYTES);
+        StandardCharsets.UTF_8.newEncoder().encode(CharBuffer.wrap(value), truncated, true);
+        return Arrays.copyOf(truncated.array(), truncated.position());
+    }
+
+    private static void writeIndex(Path index, KeyTable entries, Path dataFile) throws IOException {
+        try (OutputStream file = Files.newOutputStream(index);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file, 64 * 1024))) {
+            out.writeInt(OfflineIsbnIndex.MAGIC);
+            out.writeInt(OfflineIsbnIndex.VERSION);
+            out.writeLong(entries.size);
+            for (int i = 0; i < entries.size; i++) {
+                out.writeLong(entries.isbns[i]);
+                out.writeLong(entries.offsets[i]);
+            }
+            Files.copy(dataFile, out);
+        }
+    }
+
+    /**
+     * Schlüsseltabelle aus ISBN und Datensatz-Offset in zwei parallelen Arrays, ohne ein
+     * Objekt je Eintrag.
+     */
+    static final class KeyTable {
+
+        /** Bis zu dieser Bereichsgröße sortiert Einfügen schneller als Quicksort. */
+        private static final int INSERTION_SORT_THRESHOLD = 32;
+
+        long[] isbns = new long[1024];
+        long[] offsets = new long[1024];
+        int size;
+
+        void add(long isbn, long offset) {
+            if (size == isbns.length) {
+                int capacity = Math.max(size + 1, size + (size >> 1));
+                isbns = Arrays.copyOf(isbns, capacity);
+                offsets = Arrays.copyOf(offsets, capacity);
+            }
+            isbns[size] = isbn;
+            offsets[size] = offset;
+            size++;
+        }
+
+        /**
+         * Sortiert nach ISBN und Offset und behält je ISBN nur den Eintrag mit dem kleinsten
+         * Offset, also die erste Edition im Dump.
+         */
+        void sortAndRemoveDuplicates() {
+            sort(0, size - 1);
+            int unique = 0;
+            for (int i = 0; i < size; i++) {
+                if (unique == 0 || isbns[unique - 1] != isbns[i]) {
+                    isbns[unique] = isbns[i];
+                    offsets[unique] = offsets[i];
+                    unique++;
+                }
+            }
+            size = unique;
+        }
+
+        private void sort(int low, int high) {
+            // Rekursion nur in den kleineren Teil, damit die Stapeltiefe logarithmisch bleibt.
+            while (high - low >= INSERTION_SORT_THRESHOLD) {
+                int middle = (low + high) >>> 1;
+                if (less(middle, low)) {
+                    swap(middle, low);
+                }
+                if (less(high, low)) {
+                    swap(high, low);
+                }
+                if (less(high, middle)) {
+                    swap(high, middle);
+                }
+                long pivotIsbn = isbns[middle];
+                long pivotOffset = offsets[middle];
+                int i = low;
+                int j = high;
+                while (i <= j) {
+                    while (compare(i, pivotIsbn, pivotOffset) < 0) {
+                        i++;
+                    }
+                    while (compare(j, pivotIsbn, pivotOffset) > 0) {
+                        j--;
+                    }
+                    if (i <= j) {
+                        swap(i++, j--);
+                    }
+                }
+                if (j - low < high - i) {
+                    sort(low, j);
+                    low = i;
+                } else {
+                    sort(i, high);
+                    high = j;
+                }
+            }
+            for (int i = low + 1; i <= high; i++) {
+                for (int k = i; k > low && less(k, k - 1); k--) {
+                    swap(k, k - 1);
+                }
+            }
+        }
+
+        private int compare(int index, long isbn, long offset) {
+            int byIsbn = Long.compare(isbns[index], isbn);
+            return byIsbn != 0 ? byIsbn : Long.compare(offsets[index], offset);
+        }
+
+        private boolean less(int a, int b) {
+            return compare(a, isbns[b], offsets[b]) < 0;
+        }
+
+        private void swap(int a, int b) {
+            long isbn = isbns[a];
+            isbns[a] = isbns[b];
+            isbns[b] = isbn;
+            long offset = offsets[a];
+            offsets[a] = offsets[b];
+            offsets[b] = offset;
+        }
+    }
+}
@@ -1,10 +1,157 @@
 package at.fhburgenland.bookmanager.repository;
 
+import at.fhburgenland.bookmanager.dto.BookAuthor;
+import at.fhburgenland.bookmanager.dto.LibraryRow;
 import at.fhburgenland.bookmanager.model.Book;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
 
 /**
  * Repository zur Verwaltung von Büchern in der Datenbank.
+ *
+ * Abfragen, die Entitäten liefern, wählen ihren Ladeplan über die Entity-Graphen von
+ * {@link Book}; Listen der Bibliothek lesen gar keine Entitäten, sondern {@link LibraryRow}s.
  */
-public interface BookRepository extends JpaRepository<Book, String> {
+public interface BookRepository extends JpaRepository<Book, UUID> {
+
+    /**
+     * Liefert jene der angegebenen ISBNs, die der Benutzer bereits besitzt.
+     *
+     * @param userId ID des Benutzers
+     * @param isbns  zu prüfende ISBNs
+     * @return bereits vorhandene ISBNs
+     */
+    @Query("select b.catalog.isbn from Book b where b.user.id = :userId and b.catalog.isbn in :isbns")
+    List<String> findOwnedIsbns(@Param("userId") UUID userId, @Param("isbns") Collection<String> isbns);
+
+    /**
+     * Sucht ein Buch des Benutzers über den Index auf (user_id, isbn), ohne dessen
+     * Bibliothek zu laden. Der Katalogeintrag wird im selben Join gelesen.
+     *
+     * @param userId ID des Benutzers
+     * @param isbns  mögliche Schreibweisen der ISBN, siehe {@code IsbnNormalizer.lookupKeys}
+     * @return das Buch, falls der Benutzer es besitzt
+     */
+    @EntityGraph(Book.GRAPH_CATALOG)
+    Optional<Book> findFirstByUserIdAndCatalogIsbnIn(UUID userId, Collection<String> isbns);
+
+    /**
+     * Wie {@link #findFirstByUserIdAndCatalogIsbnIn}, lädt für die Detailansicht aber auch die
+     * Autoren im selben Join. Ohne Limit, weil sich ein Join über eine Liste nicht in der
+     * Datenbank begrenzen lässt; pro Schreibweise gibt es ohnehin höchstens ein Buch.
+     *
+     * @param userId ID des Benutzers
+     * @param isbns  mögliche Schreibweisen der ISBN, siehe {@code IsbnNormalizer.lookupKeys}
+     * @return die passenden Bücher des Benutzers, höchstens eines pro Schreibweise
+     */
+    @EntityGraph(Book.GRAPH_DETAIL)
+    List<Book> findDetailByUserIdAndCatalogIsbnIn(UUID userId, Collection<String> isbns);
+
+    /**
+     * @param userId ID des Benutzers
+     * @param isbn   kanonische ISBN
+     * @return ob der Benutzer das Buch bereits besitzt
+     */
+    boolean existsByUserIdAndCatalogIsbn(UUID userId, String isbn);
+
+    /**
+     * Liest die eigenen Autorenlisten mehrerer Bücher mit einer einzigen Abfrage.
+     *
+     * @param ids IDs der Bücher
+     * @return ein Eintrag pro Autor und Buch; Bücher ohne eigene Autoren fehlen
+     */
+    @Query("select new at.fhburgenland.bookmanager.dto.BookAuthor(b.id, a) from Book b join b.customAuthors a"
+            + " where b.id in :ids")
+    List<BookAuthor> findCustomAuthors(@Param("ids") Collection<UUID> ids);
+
+    // Bibliotheksansicht: die folgenden Abfragen lesen nur die angezeigten Spalten von Buch und
+    // Katalogeintrag als LibraryRow, ohne Entitäten zu laden. Eigene Angaben des Benutzers
+    // haben Vorrang vor dem Katalog.
+    //
+    // Keyset-Paginierung der Bibliothek. Jede Sortierung hat eine Abfrage für die erste Seite
+    // und eine ab dem Cursor (Schlüssel und ID des letzten Buches der vorigen Seite).
+    // rating ist ein optionaler Filter; die Seitengröße kommt über den Pageable.
+
+    @Query("""
+            select new at.fhburgenland.bookmanager.dto.LibraryRow(b.id, c.isbn, coalesce(b.customTitle, c.title),
+                   c.publisher, c.publishedDate, coalesce(b.customCoverUrl, c.coverUrl), b.rating, b.addedAt)
+            from Book b join b.catalog c
+            where b.user.id = :userId and (:rating is null or b.rating = :rating)
+            order by b.addedAt desc, b.id desc""")
+    List<LibraryRow> findFirstByAdded(@Param("userId") UUID userId, @Param("rating") Integer rating, Pageable page);
+
+    @Query("""
+            select new at.fhburgenland.bookmanager.dto.LibraryRow(b.id, c.isbn, coalesce(b.customTitle, c.title),
+                   c.publisher, c.publishedDate, coalesce(b.customCoverUrl, c.coverUrl), b.rating, b.addedAt)
+            from Book b join b.catalog c
+            where b.user.id = :userId and (:rating is null or b.rating = :rating)
+              and (b.addedAt < :addedAt or (b.addedAt = :addedAt and b.id < :id))
+            order by b.addedAt desc, b.id desc""")
+    List<LibraryRow> findByAddedAfter(@Param("userId") UUID userId, @Param("rating") Integer rating,
+                                      @Param("addedAt") Instant addedAt, @Param("id") UUID id, Pageable page);
+
+    @Query("""
+            select new at.fhburgenland.bookmanager.dto.LibraryRow(b.id, c.isbn, coalesce(b.customTitle, c.title),
+                   c.publisher, c.publishedDate, coalesce(b.customCoverUrl, c.coverUrl), b.rating, b.addedAt)
+            from Book b join b.catalog c
+            where b.user.id = :userId and (:rating is null or b.rating = :rating)
+            order by coalesce(b.customTitle, c.title, ''), b.id""")
+    List<LibraryRow> findFirstByTitle(@Param("userId") UUID userId, @Param("rating") Integer rating, Pageable page);
+
+    @Query("""
+            select new at.fhburgenland.bookmanager.dto.LibraryRow(b.id, c.isbn, coalesce(b.customTitle, c.title),
+                   c.publisher, c.publishedDate, coalesce(b.customCoverUrl, c.coverUrl), b.rating, b.addedAt)
+            from Book b join b.catalog c
+            where b.user.id = :userId and (:rating is null or b.rating = :rating)
+              and (coalesce(b.customTitle, c.title, '') > :title
+                   or (coalesce(b.customTitle, c.title, '') = :title and b.id > :id))
+            order by coalesce(b.customTitle, c.title, ''), b.id""")
+    List<LibraryRow> findByTitleAfter(@Param("userId") UUID userId, @Param("rating") Integer rating,
+                                      @Param("title") String title, @Param("id") UUID id, Pageable page);
+
+    // Nach Bewertung wird in zwei Abschnitten geblättert: erst die bewerteten Bücher, dann die
+    // unbewerteten. So bleibt jeder Abschnitt eine reine Bereichsabfrage auf (user_id, rating, id).
+
+    @Query("""
+            select new at.fhburgenland.bookmanager.dto.LibraryRow(b.id, c.isbn, coalesce(b.customTitle, c.title),
+                   c.publisher, c.publishedDate, coalesce(b.customCoverUrl, c.coverUrl), b.rating, b.addedAt)
+            from Book b join b.catalog c
+            where b.user.id = :userId and b.rating is not null and (:rating is null or b.rating = :rating)
+            order by b.rating desc, b.id desc""")
+    List<LibraryRow> findFirstRated(@Param("userId") UUID userId, @Param("rating") Integer rating, Pageable page);
+
+    @Query("""
+            select new at.fhburgenland.bookmanager.dto.LibraryRow(b.id, c.isbn, coalesce(b.customTitle, c.title),
+                   c.publisher, c.publishedDate, coalesce(b.customCoverUrl, c.coverUrl), b.rating, b.addedAt)
+            from Book b join b.catalog c
+            where b.user.id = :userId and b.rating is not null and (:rating is null or b.rating = :rating)
+              and (b.rating < :afterRating or (b.rating = :afterRating and b.id < :id))
+            order by b.rating desc, b.id desc""")
+    List<LibraryRow> findRatedAfter(@Param("userId") UUID userId, @Param("rating") Integer rating,
+                                    @Param("afterRating") int afterRating, @Param("id") UUID id, Pageable page);
+
+    @Query("""
+            select new at.fhburgenland.bookmanager.dto.LibraryRow(b.id, c.isbn, coalesce(b.customTitle, c.title),
+                   c.publisher, c.publishedDate, coalesce(b.customCoverUrl, c.coverUrl), b.rating, b.addedAt)
+            from Book b join b.catalog c
+            where b.user.id = :userId and b.rating is null
+            order by b.id desc""")
+    List<LibraryRow> findFirstUnrated(@Param("userId") UUID userId, Pageable page);
+
+    @Query("""
+            select new at.fhburgenland.bookmanager.dto.LibraryRow(b.id, c.isbn, coalesce(b.customTitle, c.title),
+                   c.publisher, c.publishedDate, coalesce(b.customCoverUrl, c.coverUrl), b.rating, b.addedAt)
+            from Book b join b.catalog c
+            where b.user.id = :userId and b.rating is null and b.id < :id
+            order by b.id desc""")
+    List<LibraryRow> findUnratedAfter(@Param("userId") UUID userId, @Param("id") UUID id, Pageable page);
 }
@@ -0,0 +1,180 @@
+package at.fhburgenland.bookmanager.repository;
+
+import at.fhburgenland.bookmanager.dto.BookSearch;
+import at.fhburgenland.bookmanager.dto.BookSearchHit;
+import at.fhburgenland.bookmanager.dto.LibraryRow;
+import at.fhburgenland.bookmanager.model.SearchText;
+import jakarta.annotation.PostConstruct;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.UUID;
+
+/**
+ * Volltextsuche in der Bibliothek eines Benutzers, direkt in der Datenbank.
+ *
+ * Grundlage ist der normalisierte {@link SearchText} jedes Katalogeintrags. Auf PostgreSQL
+ * leitet die Datenbank daraus die Spalte {@code search_vector} ab ({@code tsvector}, Titel
+ * mit Gewicht A, Autoren B, Schlagwörter C, Verlag D) und indiziert sie mit GIN; gesucht wird
+ * per {@code @@}, sortiert nach {@code ts_rank}. Akzente und Umlaute sind im Suchtext bereits
+ * aufgelöst, deshalb genügt die Konfiguration {@code simple} ohne Stammformen.
+ * Durchsucht werden die Katalogdaten; eigene Titel und Cover der Benutzer werden angezeigt,
+ * aber nicht durchsucht.
+ *
+ * Andere Datenbanken (H2 in Tests und lokal) durchsuchen denselben Suchtext mit regulären
+ * Ausdrücken, ohne Index. Das ist nur eine Annäherung: Gefunden werden ebenso alle Bücher,
+ * bei denen jeder Begriff Präfix eines Wortes ist, und ein Treffer im Titel zählt mehr als
+ * einer bei den Autoren und dieser mehr als einer anderswo. Die Relevanz ist aber eine
+ * einfache Summe statt {@code ts_rank}; bei mehreren Begriffen, wiederholten Wörtern oder
+ * Treffern in mehreren Abschnitten kann die Reihenfolge deshalb von PostgreSQL abweichen.
+ * Die Tests prüfen nur, was beide Varianten gemeinsam haben.
+ *
+ * Geblättert wird per Keyset über (Relevanz, ID); die Relevanz ist dafür eine ganze Zahl.
+ */
+@Repository
+@DependsOn("entityManagerFactory")
+public class BookSearchRepository {
+
+    private static final String TS_CONFIG = "'simple'";
+
+    private static final String SEARCH_VECTOR = """
+            alter table catalog_books add column if not exists search_vector tsvector generated always as (
+                setweight(to_tsvector('simple', split_part(coalesce(search_text, ''), '|', 1)), 'A')
+                || setweight(to_tsvector('simple', split_part(coalesce(search_text, ''), '|', 2)), 'B')
+                || setweight(to_tsvector('simple', split_part(coalesce(search_text, ''), '|', 3)), 'C')
+                || setweight(to_tsvector('simple', split_part(coalesce(search_text, ''), '|', 4)), 'D')
+            ) stored""";
+
+    private static final String SEARCH_INDEX =
+            "create index if not exists idx_catalog_books_search on catalog_books using gin (search_vector)";
+
+    private static final RowMapper<BookSearchHit> HIT = (rs, rowNum) -> new BookSearchHit(new LibraryRow(
+            rs.getObject("id", UUID.class),
+            rs.getString("isbn"),
+            rs.getString("title"),
+            rs.getString("publisher"),
+            rs.getString("published_date"),
+            rs.getString("cover_url"),
+            rs.getObject("rating", Integer.class),
+            rs.getObject("added_at", OffsetDateTime.class).toInstant()),
+            rs.getLong("score"));
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final boolean postgres;
+
+    /**
+     * Erstellt das Repository und erkennt die Datenbank.
+     *
+     * @param jdbc       Template für die SQL-Abfragen der Suche
+     * @param dataSource Datenquelle, deren Produktname die Variante der Suche bestimmt
+     */
+    public BookSearchRepository(NamedParameterJdbcTemplate jdbc, DataSource dataSource) {
+        this.jdbc = jdbc;
+        try {
+            this.postgres = "PostgreSQL".equals(
+                    JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName));
+        } catch (MetaDataAccessException e) {
+            throw new IllegalStateException("Datenbank für die Volltextsuche nicht erkennbar", e);
+        }
+    }
+
+    /**
+     * Legt auf PostgreSQL die abgeleitete Spalte {@code search_vector} und ihren GIN-Index an,
+     * falls sie fehlen. Beim ersten Start auf einer bestehenden Datenbank wird die Tabelle
+     * dafür einmal neu geschrieben.
+     */
+    @PostConstruct
+    void createSearchIndex() {
+        if (postgres) {
+            jdbc.getJdbcOperations().execute(SEARCH_VECTOR);
+            jdbc.getJdbcOperations().execute(SEARCH_INDEX);
+        }
+    }
+
+    /**
+     * Sucht Bücher eines Benutzers, relevanteste zuerst, bei gleicher Relevanz zuletzt
+     * hinzugefügte zuerst.
+     *
+     * @param userId     ID des Benutzers
+     * @param search     normalisierte Suchkriterien
+     * @param afterScore Relevanz des letzten Treffers der vorigen Seite, {@code null} für die erste Seite
+     * @param afterId    ID des letzten Treffers der vorigen Seite
+     * @param limit      Anzahl zu lesender Treffer
+     * @return Treffer in Rangfolge
+     */
+    public List<BookSearchHit> search(UUID userId, BookSearch search, Long afterScore, UUID afterId, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource("userId", userId);
+        StringBuilder where = new StringBuilder("b.user_id = :userId");
+        String score = "0";
+        if (search.hasTerms()) {
+            score = postgres ? matchVector(search, where, params) : matchText(search, where, params);
+        }
+        if (search.year() != null) {
+            where.append(" and c.published_date like :year");
+            params.addValue("year", "%" + search.year() + "%");
+        }
+        String after = "";
+        if (afterScore != null) {
+            after = "where score < :afterScore or (score = :afterScore and id < :afterId)";
+            params.addValue("afterScore", afterScore).addValue("afterId", afterId);
+        }
+        String sql = """
+                select * from (
+                    select b.id, c.isbn, coalesce(b.custom_title, c.title) as title, c.publisher, c.published_date,
+                           coalesce(b.custom_cover_url, c.cover_url) as cover_url, b.rating, b.added_at,
+                           %s as score
+                    from books b join catalog_books c on c.isbn = b.isbn
+                    where %s
+                ) hits
+                %s
+                order by score desc, id desc
+                fetch first %d rows only""".formatted(score, where, after, limit);
+        return jdbc.query(sql, params, HIT);
+    }
+
+    /** PostgreSQL: alle Begriffe als Präfix-Abfrage auf den {@code tsvector}, Titel und Autoren per Gewicht. */
+    private static String matchVector(BookSearch search, StringBuilder where, MapSqlParameterSource params) {
+        StringJoiner query = new StringJoiner(" & ");
+        search.terms().forEach(term -> query.add(term + ":*"));
+        search.titleTerms().forEach(term -> query.add(term + ":*A"));
+        search.authorTerms().forEach(term -> query.add(term + ":*B"));
+        params.addValue("query", query.toString());
+        String tsQuery = "to_tsquery(" + TS_CONFIG + ", :query)";
+        where.append(" and c.search_vector @@ ").append(tsQuery);
+        // ts_rank liefert Werte zwischen 0 und 1; ganzzahlig lässt sich exakt danach blättern.
+        return "cast(ts_rank(c.search_vector, " + tsQuery + ") * 1000000 as bigint)";
+    }
+
+    /** Andere Datenbanken: reguläre Ausdrücke auf den Abschnitten des Suchtexts. */
+    private static String matchText(BookSearch search, StringBuilder where, MapSqlParameterSource params) {
+        StringJoiner score = new StringJoiner(" + ");
+        int index = 0;
+        for (List<String> terms : List.of(search.terms(), search.titleTerms(), search.authorTerms())) {
+            for (String term : terms) {
+                String name = "term" + index++;
+                String inTitle = "^([^|]* )?" + term;
+                String inAuthors = "^[^|]*\\|([^|]* )?" + term;
+                String anywhere = "(^|[ |])" + term;
+                String match = terms == search.titleTerms() ? inTitle
+                        : terms == search.authorTerms() ? inAuthors : anywhere;
+                params.addValue(name, match)
+                        .addValue(name + "Title", inTitle)
+                        .addValue(name + "Authors", inAuthors);
+                where.append(" and regexp_like(c.search_text, :").append(name).append(')');
+                score.add("case when regexp_like(c.search_text, :" + name + "Title) then 4"
+                        + " when regexp_like(c.search_text, :" + name + "Authors) then 2 else 1 end");
+            }
+        }
+        return "(" + score + ")";
+    }
+}
@@ -0,0 +1,87 @@
+package at.fhburgenland.bookmanager.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.hibernate.StatelessSession;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+
+/**
+ * Schreibt viele neue Entitäten auf einmal, ohne sie einzeln über {@code save} zu mergen.
+ *
+ * {@link #insertAll} fügt Zeilen über eine {@link StatelessSession} in JDBC-Batches ein:
+ * ohne Persistenzkontext, Dirty-Checking und Kaskaden. Das passt für Entitäten, deren
+ * Assoziationen bereits gespeichert sind und die selbst keine Listen mitbringen, etwa neue
+ * Bücher eines Imports oder Rezensionen. Entitäten mit Listen (Katalogeinträge mit Autoren
+ * und Schlagwörtern) speichert {@link #persistAll} über den normalen Persistenzkontext,
+ * ebenfalls gebündelt, aber ohne die Abfrage, mit der {@code save} bei vorgegebener ID erst
+ * nach einer bestehenden Zeile sucht.
+ *
+ * Beide Methoden schließen sich einer laufenden Transaktion an und nutzen deren Verbindung.
+ * Wie viele Anweisungen und Batches tatsächlich ausgeführt werden, zeigt die
+ * Hibernate-Statistik ({@code hibernate.generate_statistics}).
+ */
+@Repository
+@Transactional
+public class BulkInserter {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final int batchSize;
+
+    /**
+     * Erstellt den Inserter.
+     *
+     * @param batchSize Anzahl Zeilen pro JDBC-Batch
+     */
+    public BulkInserter(@Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Speichert neue Entitäten samt ihren Listen und schreibt sie sofort in die Datenbank,
+     * damit nachfolgend eingefügte Zeilen auf sie verweisen können.
+     *
+     * @param entities neue, noch nicht gespeicherte Entitäten
+     */
+    public void persistAll(Collection<?> entities) {
+        if (entities.isEmpty()) {
+            return;
+        }
+        entities.forEach(entityManager::persist);
+        entityManager.flush();
+    }
+
+    /**
+     * Fügt neue Entitäten in Batches ein, ohne sie in den Persistenzkontext aufzunehmen.
+     * Kaskaden, Listen, Entity-Listener und die Bean Validation werden dabei nicht
+     * ausgeführt; Zeitstempel wie {@code @CreationTimestamp} muss der Aufrufer selbst setzen.
+     *
+     * @param entities neue Entitäten, deren Verweise bereits gespeichert sind
+     */
+    public void insertAll(Collection<?> entities) {
+        if (entities.isEmpty()) {
+            return;
+        }
+        Session session = entityManager.unwrap(Session.class);
+        // Ausstehende Änderungen zuerst, damit die neuen Zeilen auf sie verweisen können.
+        session.flush();
+        session.doWork(connection -> {
+            try (StatelessSession stateless = session.getSessionFactory().withStatelessOptions()
+                    .connection(connection)
+                    .openStatelessSession()) {
+                stateless.setJdbcBatchSize(batchSize);
+                entities.forEach(stateless::insert);
+                // Die Transaktion gehört nicht der StatelessSession; den letzten, unvollständigen
+                // Batch führt sie deshalb nicht selbst aus.
+                ((SharedSessionContractImplementor) stateless).getJdbcCoordinator().executeBatch();
+            }
+        });
+    }
+}
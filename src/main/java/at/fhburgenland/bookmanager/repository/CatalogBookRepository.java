@@ -0,0 +1,101 @@
+package at.fhburgenland.bookmanager.repository;
+
+import at.fhburgenland.bookmanager.dto.CatalogAuthor;
+import at.fhburgenland.bookmanager.model.CatalogBook;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository für die gemeinsamen Katalogeinträge, Schlüssel ist die ISBN.
+ */
+public interface CatalogBookRepository extends JpaRepository<CatalogBook, String> {
+
+    /**
+     * Liefert die am längsten nicht mehr abgeglichenen Katalogeinträge, nie abgeglichene zuerst.
+     *
+     * @param before nur Einträge, die vor diesem Zeitpunkt zuletzt abgerufen wurden
+     * @param page   Größe des Blocks
+     * @return Katalogeinträge, älteste zuerst
+     */
+    @Query("select c from CatalogBook c where c.fetchedAt is null or c.fetchedAt < :before"
+            + " order by c.fetchedAt asc nulls first, c.isbn")
+    List<CatalogBook> findFetchedBefore(@Param("before") Instant before, Pageable page);
+
+    /**
+     * Liefert ISBNs von Einträgen mit gespeicherter Rohantwort, deren abgeleitete Felder aus einer
+     * älteren Version der Projektion stammen. Blättert über die ISBN, damit bereits neu projizierte
+     * Einträge die folgenden Seiten nicht verschieben.
+     *
+     * @param version aktuelle {@link at.fhburgenland.bookmanager.dto.CatalogProjection#VERSION}
+     * @param after   nur ISBNs größer als diese, leer für den Anfang
+     * @param page    Größe des Blocks
+     * @return ISBNs in aufsteigender Reihenfolge
+     */
+    @Query("select c.isbn from CatalogBook c join CatalogPayload p on p.isbn = c.isbn"
+            + " where (c.projectionVersion is null or c.projectionVersion < :version) and c.isbn > :after"
+            + " order by c.isbn")
+    List<String> findIsbnsWithOutdatedProjection(@Param("version") int version, @Param("after") String after,
+                                                 Pageable page);
+
+    /**
+     * Liest den nächsten Block von Einträgen ohne Suchtext, etwa aus der Zeit vor der
+     * Volltextsuche.
+     *
+     * @param after nur ISBNs größer als diese, leer für den Anfang
+     * @param page  Größe des Blocks
+     * @return ISBNs in aufsteigender Reihenfolge
+     */
+    @Query("select c.isbn from CatalogBook c where c.searchText is null and c.isbn > :after order by c.isbn")
+    List<String> findIsbnsWithoutSearchText(@Param("after") String after, Pageable page);
+
+    /**
+     * Liest die Autoren mehrerer Katalogeinträge mit einer einzigen Abfrage, etwa für alle
+     * Bücher einer Seite der Bibliothek.
+     *
+     * @param isbns ISBNs der Katalogeinträge
+     * @return ein Eintrag pro Autor und ISBN
+     */
+    @Query("select new at.fhburgenland.bookmanager.dto.CatalogAuthor(c.isbn, a)"
+            + " from CatalogBook c join c.authors a where c.isbn in :isbns")
+    List<CatalogAuthor> findAuthors(@Param("isbns") Collection<String> isbns);
+
+    /**
+     * Vermerkt für mehrere Einträge mit einer einzigen Anweisung, dass OpenLibrary sie als aktuell bestätigt hat.
+     *
+     * @param isbns     abgeglichene ISBNs
+     * @param fetchedAt Zeitpunkt des Abgleichs
+     * @return Anzahl geänderter Zeilen
+     */
+    @Transactional
+    @Modifying
+    @Query("update CatalogBook c set c.fetchedAt = :fetchedAt where c.isbn in :isbns")
+    int markFetched(@Param("isbns") Collection<String> isbns, @Param("fetchedAt") Instant fetchedAt);
+
+    /**
+     * Übernimmt neue Metadaten von OpenLibrary in den Katalogeintrag. Da alle Bücher auf
+     * denselben Eintrag verweisen, sehen alle Besitzer die Änderung sofort.
+     *
+     * @return Anzahl geänderter Zeilen
+     */
+    @Transactional
+    @Modifying
+    @Query("update CatalogBook c set c.title = :title, c.publisher = :publisher, c.publishedDate = :publishedDate,"
+            + " c.description = :description, c.etag = :etag, c.lastModified = :lastModified,"
+            + " c.fetchedAt = :fetchedAt where c.isbn = :isbn")
+    int updateMetadata(@Param("isbn") String isbn,
+                       @Param("title") String title,
+                       @Param("publisher") String publisher,
+                       @Param("publishedDate") String publishedDate,
+                       @Param("description") String description,
+                       @Param("etag") String etag,
+                       @Param("lastModified") String lastModified,
+                       @Param("fetchedAt") Instant fetchedAt);
+}
@@ -0,0 +1,10 @@
+package at.fhburgenland.bookmanager.repository;
+
+import at.fhburgenland.bookmanager.model.CatalogPayload;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+/**
+ * Repository für die gespeicherten OpenLibrary-Rohantworten, Schlüssel ist die ISBN.
+ */
+public interface CatalogPayloadRepository extends JpaRepository<CatalogPayload, String> {
+}
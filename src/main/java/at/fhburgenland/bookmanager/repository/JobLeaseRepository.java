@@ -0,0 +1,27 @@
+package at.fhburgenland.bookmanager.repository;
+
+import at.fhburgenland.bookmanager.model.JobLease;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+/**
+ * Repository für die gemeinsamen Leases der Hintergrundjobs.
+ */
+public interface JobLeaseRepository extends JpaRepository<JobLease, String> {
+
+    /**
+     * Liest eine Lease und sperrt die Zeile bis zum Ende der Transaktion
+     * ({@code SELECT ... FOR UPDATE}), damit andere Instanzen warten.
+     *
+     * @param name Name des Jobs
+     * @return die gesperrte Lease, leer wenn sie noch nicht existiert
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select l from JobLease l where l.name = :name")
+    Optional<JobLease> findForUpdate(@Param("name") String name);
+}
@@ -0,0 +1,259 @@
+package at.fhburgenland.bookmanager.repository;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Überführt Bücher aus dem Schema vor dem gemeinsamen Katalog in {@code catalog_books}.
+ *
+ * Früher hielt jede Zeile in {@code books} ihre Metadaten selbst: Titel, Verlag,
+ * Erscheinungsdatum, Beschreibung, Cover und die Autoren in {@code book_authors}. Läuft die
+ * Anwendung zum ersten Mal auf einer solchen Datenbank, legt diese Migration vor der
+ * Schema-Aktualisierung durch Hibernate pro ISBN einen Katalogeintrag an, damit der
+ * Fremdschlüssel {@code books.isbn → catalog_books.isbn} angelegt werden kann. Die Daten
+ * stammen vom Buch mit der kleinsten ID; weichen andere Besitzer derselben ISBN davon ab,
+ * werden ihre Angaben als eigene Angaben ihres Buches übernommen. Zuletzt werden die alten
+ * Spalten und {@code book_authors} entfernt.
+ *
+ * Danach führt sie bei jedem Start doppelte Bücher eines Benutzers (gleiche ISBN) zusammen,
+ * wie sie vor der Eindeutigkeit von {@code (user_id, isbn)} entstehen konnten. Hibernate legt
+ * {@code uk_books_user_isbn} mit {@code ddl-auto=update} sonst stillschweigend nicht an. Das
+ * älteste Buch bleibt, die Rezensionen der übrigen werden ihm zugeordnet. Ebenso verbreitert
+ * sie {@code catalog_books.description} auf 5000 Zeichen, was Hibernate bei bestehenden
+ * Spalten nicht tut.
+ *
+ * Alles läuft in einer Transaktion; auf PostgreSQL wird ein Fehler damit vollständig
+ * zurückgerollt. Ohne die alten Spalten und ohne Duplikate, etwa auf einer neuen oder bereits
+ * überführten Datenbank, tut die Migration nichts.
+ */
+@Component
+public class LegacyCatalogMigration {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LegacyCatalogMigration.class);
+
+    private static final List<String> LEGACY_COLUMNS =
+            List.of("title", "publisher", "published_date", "description", "cover_url");
+
+    /** Das Buch mit der kleinsten ID liefert die Daten seiner ISBN; UUIDs vergleicht nicht jede Datenbank direkt. */
+    private static final String FIRST_OF_ISBN = "not exists (select 1 from books o where o.isbn = b.isbn"
+            + " and cast(o.id as varchar(36)) < cast(b.id as varchar(36)))";
+
+    private static final String CREATE_CATALOG = """
+            create table if not exists catalog_books (
+                isbn varchar(255) not null primary key,
+                title varchar(255),
+                publisher varchar(255),
+                published_date varchar(255),
+                description varchar(5000),
+                cover_url varchar(255)
+            )""";
+
+    private static final int DESCRIPTION_LENGTH = 5000;
+
+    private static final String WIDEN_DESCRIPTION =
+            "alter table catalog_books alter column description set data type varchar(" + DESCRIPTION_LENGTH + ")";
+
+    private static final String CREATE_CATALOG_AUTHORS =
+            "create table if not exists catalog_book_authors (isbn varchar(255) not null, author varchar(255))";
+
+    private static final String FILL_CATALOG = """
+            insert into catalog_books (isbn, title, publisher, published_date, description, cover_url)
+            select b.isbn, b.title, b.publisher, b.published_date, b.description, b.cover_url
+            from books b
+            where %s and not exists (select 1 from catalog_books c where c.isbn = b.isbn)""".formatted(FIRST_OF_ISBN);
+
+    private static final String FILL_CATALOG_AUTHORS = """
+            insert into catalog_book_authors (isbn, author)
+            select b.isbn, a.authors
+            from book_authors a join books b on b.id = a.book_id
+            where %s""".formatted(FIRST_OF_ISBN);
+
+    private static final List<String> ADD_CUSTOM_COLUMNS = List.of(
+            "alter table books add column if not exists custom_title varchar(255)",
+            "alter table books add column if not exists custom_description varchar(5000)",
+            "alter table books add column if not exists custom_cover_url varchar(2048)",
+            "create table if not exists book_custom_authors (book_id uuid not null, author varchar(255))");
+
+    private static final String KEEP_CUSTOM = """
+            update books set custom_%1$s = %1$s
+            where %1$s is not null
+              and not exists (select 1 from catalog_books c where c.isbn = books.isbn and c.%1$s = books.%1$s)""";
+
+    private static final String KEEP_CUSTOM_AUTHORS = """
+            insert into book_custom_authors (book_id, author)
+            select a.book_id, a.authors
+            from book_authors a join books b on b.id = a.book_id
+            where exists (select 1 from book_authors x where x.book_id = b.id
+                          and not exists (select 1 from catalog_book_authors c
+                                          where c.isbn = b.isbn and c.author = x.authors))
+               or (select count(*) from book_authors x where x.book_id = b.id)
+                  <> (select count(*) from catalog_book_authors c where c.isbn = b.isbn)""";
+
+    /** Hängt die Rezensionen jedes Duplikats {@code d} an das bleibende Buch {@code k}. */
+    private static final String MOVE_REVIEWS = """
+            update review set book_id = (
+                select k.id from books d join books k on k.user_id = d.user_id and k.isbn = d.isbn
+                where d.id = review.book_id and not %s)
+            where book_id in (%s)""";
+
+    private final DataSource dataSource;
+
+    /**
+     * Erstellt die Migration.
+     *
+     * @param dataSource Datenquelle der Anwendung
+     */
+    public LegacyCatalogMigration(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * Überführt die Bücher, sofern {@code books} noch die alten Metadaten-Spalten hat, verbreitert
+     * die Beschreibung im Katalog und führt doppelte Bücher eines Benutzers zusammen.
+     */
+    @PostConstruct
+    public void migrate() {
+        try (Connection connection = dataSource.getConnection()) {
+            boolean legacy = hasColumn(connection, "books", "title");
+            int descriptionLength = columnSize(connection, "catalog_books", "description");
+            boolean narrowDescription = descriptionLength >= 0 && descriptionLength < DESCRIPTION_LENGTH;
+            boolean owned = hasColumn(connection, "books", "user_id");
+            if (!legacy && !narrowDescription && !owned) {
+                return;
+            }
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                int migrated = legacy ? migrate(connection, statement) : 0;
+                if (narrowDescription) {
+                    statement.execute(WIDEN_DESCRIPTION);
+                }
+                int merged = owned ? mergeDuplicates(connection, statement) : 0;
+                connection.commit();
+                if (legacy) {
+                    LOG.info("{} Katalogeinträge aus bestehenden Büchern angelegt, alte Spalten entfernt", migrated);
+                }
+                if (narrowDescription) {
+                    LOG.info("catalog_books.description von {} auf {} Zeichen verbreitert",
+                            descriptionLength, DESCRIPTION_LENGTH);
+                }
+                if (merged > 0) {
+                    LOG.warn("{} doppelte Bücher (gleicher Benutzer und ISBN) mit dem jeweils ältesten"
+                            + " zusammengeführt, damit uk_books_user_isbn angelegt werden kann", merged);
+                }
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Bestehende Bücher konnten nicht in den Katalog überführt werden", e);
+        }
+    }
+
+    private static int migrate(Connection connection, Statement statement) throws SQLException {
+        boolean legacyAuthors = hasColumn(connection, "book_authors", "authors");
+        statement.execute(CREATE_CATALOG);
+        statement.execute(CREATE_CATALOG_AUTHORS);
+        int migrated = statement.executeUpdate(FILL_CATALOG);
+        if (legacyAuthors) {
+            statement.executeUpdate(FILL_CATALOG_AUTHORS);
+        }
+        for (String sql : ADD_CUSTOM_COLUMNS) {
+            statement.execute(sql);
+        }
+        for (String column : List.of("title", "description", "cover_url")) {
+            statement.executeUpdate(KEEP_CUSTOM.formatted(column));
+        }
+        if (legacyAuthors) {
+            statement.executeUpdate(KEEP_CUSTOM_AUTHORS);
+            statement.execute("drop table book_authors");
+        }
+        for (String column : LEGACY_COLUMNS) {
+            statement.execute("alter table books drop column " + column);
+        }
+        return migrated;
+    }
+
+    /**
+     * Entfernt alle Bücher, zu denen derselbe Benutzer ein älteres mit derselben ISBN hat, und
+     * hängt deren Rezensionen an das älteste. Alt ist nach {@code added_at}, bei Gleichstand oder
+     * ohne diese Spalte nach der kleinsten ID.
+     *
+     * @return Anzahl entfernter Bücher
+     */
+    private static int mergeDuplicates(Connection connection, Statement statement) throws SQLException {
+        boolean addedAt = hasColumn(connection, "books", "added_at");
+        String duplicate = hasOlder("d", addedAt);
+        try (ResultSet count = statement.executeQuery("select count(*) from books d where " + duplicate)) {
+            if (!count.next() || count.getInt(1) == 0) {
+                return 0;
+            }
+        }
+        String duplicates = "select d.id from books d where " + duplicate;
+        if (hasColumn(connection, "review", "book_id")) {
+            statement.executeUpdate(MOVE_REVIEWS.formatted(hasOlder("k", addedAt), duplicates));
+        }
+        if (hasColumn(connection, "book_custom_authors", "book_id")) {
+            statement.executeUpdate("delete from book_custom_authors where book_id in (" + duplicates + ")");
+        }
+        return statement.executeUpdate("delete from books where id in (" + duplicates + ")");
+    }
+
+    /** Bedingung, dass es zum Buch {@code row} ein älteres desselben Benutzers mit derselben ISBN gibt. */
+    private static String hasOlder(String row, boolean addedAt) {
+        String byId = "cast(o.id as varchar(36)) < cast(%s.id as varchar(36))".formatted(row);
+        String older = addedAt
+                ? "(o.added_at < %1$s.added_at or (o.added_at = %1$s.added_at and %2$s))".formatted(row, byId)
+                : byId;
+        return "exists (select 1 from books o where o.user_id = %1$s.user_id and o.isbn = %1$s.isbn and %2$s)"
+                .formatted(row, older);
+    }
+
+    private static boolean hasColumn(Connection connection, String table, String column) throws SQLException {
+        return columnSize(connection, table, column) >= 0;
+    }
+
+    /**
+     * Sucht die Spalte in der Schreibweise der Datenbank (PostgreSQL klein, H2 groß).
+     *
+     * @return Länge der Spalte laut Datenbank, {@code -1}, wenn es sie nicht gibt
+     */
+    private static int columnSize(Connection connection, String table, String column) throws SQLException {
+        DatabaseMetaData meta = connection.getMetaData();
+        for (boolean upper : new boolean[]{false, true}) {
+            String t = upper ? table.toUpperCase(Locale.ROOT) : table;
+            String c = upper ? column.toUpperCase(Locale.ROOT) : column;
+            try (ResultSet columns = meta.getColumns(null, connection.getSchema(), t, c)) {
+                if (columns.next()) {
+                    return columns.getInt("COLUMN_SIZE");
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Lässt die Schema-Aktualisierung durch Hibernate erst nach der Migration laufen.
+     */
+    @Component
+    static class EntityManagerFactoryDependency extends EntityManagerFactoryDependsOnPostProcessor {
+
+        EntityManagerFactoryDependency() {
+            super(LegacyCatalogMigration.class);
+        }
+    }
+}
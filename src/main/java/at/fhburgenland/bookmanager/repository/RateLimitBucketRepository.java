@@ -0,0 +1,27 @@
+package at.fhburgenland.bookmanager.repository;
+
+import at.fhburgenland.bookmanager.model.RateLimitBucket;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+/**
+ * Repository für die gemeinsamen Token-Buckets der ausgehenden Ratenlimits.
+ */
+public interface RateLimitBucketRepository extends JpaRepository<RateLimitBucket, String> {
+
+    /**
+     * Liest einen Bucket und sperrt die Zeile bis zum Ende der Transaktion
+     * ({@code SELECT ... FOR UPDATE}), damit andere Instanzen warten.
+     *
+     * @param name Name des Limits
+     * @return der gesperrte Bucket, leer wenn er noch nicht existiert
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from RateLimitBucket b where b.name = :name")
+    Optional<RateLimitBucket> findForUpdate(@Param("name") String name);
+}
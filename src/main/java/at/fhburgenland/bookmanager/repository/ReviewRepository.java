@@ -2,21 +2,56 @@ package at.fhburgenland.bookmanager.repository;
 
 import at.fhburgenland.bookmanager.model.Book;
 import at.fhburgenland.bookmanager.model.Review;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
  * Repository zur Verwaltung von Rezensionen.
+ *
+ * Das Buch einer Rezension wird nie mitgeladen: es wird nicht ausgeliefert, und der
+ * Bezug zum Buch wird direkt über die Fremdschlüsselspalte geprüft.
  */
 public interface ReviewRepository extends JpaRepository<Review, UUID> {
 
     /**
-     * Liefert alle Rezensionen zu einem bestimmten Buch.
+     * Sucht eine Rezension, sofern sie zum angegebenen Buch gehört.
+     *
+     * @param id   ID der Rezension
+     * @param book das Buch, zu dem die Rezension gehören muss
+     * @return die Rezension, falls sie existiert und zum Buch gehört
+     */
+    Optional<Review> findByIdAndBook(UUID id, Book book);
+
+    /**
+     * Liefert die ersten Rezensionen zu einem Buch, älteste zuerst.
      *
      * @param book das Buch, zu dem Rezensionen gesucht werden
-     * @return Liste der zugehörigen Rezensionen
+     * @param page Seitengröße
+     * @return die ersten Rezensionen
+     */
+    @Query("select r from Review r where r.book = :book order by r.createdAt, r.id")
+    List<Review> findFirstByBook(@Param("book") Book book, Pageable page);
+
+    /**
+     * Liefert die Rezensionen zu einem Buch, die auf die angegebene Position folgen.
+     *
+     * @param book      das Buch, zu dem Rezensionen gesucht werden
+     * @param createdAt Zeitpunkt der letzten Rezension der vorigen Seite
+     * @param id        ID der letzten Rezension der vorigen Seite
+     * @param page      Seitengröße
+     * @return die folgenden Rezensionen
      */
-    List<Review> findByBook(Book book);
-}
\ No newline at end of file
+    @Query("""
+            select r from Review r
+            where r.book = :book and (r.createdAt > :createdAt or (r.createdAt = :createdAt and r.id > :id))
+            order by r.createdAt, r.id""")
+    List<Review> findByBookAfter(@Param("book") Book book, @Param("createdAt") Instant createdAt,
+                                 @Param("id") UUID id, Pageable page);
+}
@@ -1,9 +1,15 @@
 package at.fhburgenland.bookmanager.repository;
 
+import at.fhburgenland.bookmanager.dto.UserDetail;
+import at.fhburgenland.bookmanager.dto.UserSummary;
 import at.fhburgenland.bookmanager.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -20,4 +26,51 @@ public interface UserRepository extends JpaRepository<User, UUID> {
      * @return Optional mit Benutzer (wenn gefunden)
      */
     Optional<User> findByEmail(String email);
+
+    // Benutzerliste und Detailansicht: gelesen werden nur die Spalten des Benutzers und die
+    // Kennzahlen seiner Bibliothek, ermittelt in derselben Abfrage statt über u.books.
+
+    /**
+     * Liefert die ersten Benutzer der Benutzerliste sortiert nach E-Mail-Adresse; der eindeutige
+     * Index auf {@code email} liefert sie bereits in dieser Reihenfolge. Die Bücher werden in
+     * einer Unterabfrage je Benutzer gezählt, also nur für die Benutzer dieser Seite und nicht
+     * für den ganzen Join aus Benutzern und Büchern vor dem Limit.
+     *
+     * @param page Seitengröße
+     * @return die ersten Benutzer
+     */
+    @Query("""
+            select new at.fhburgenland.bookmanager.dto.UserSummary(u.id, u.name, u.email,
+                (select count(b) from Book b where b.user = u))
+            from User u
+            order by u.email""")
+    List<UserSummary> findFirstSummaries(Pageable page);
+
+    /**
+     * Liefert die Benutzer der Benutzerliste, deren E-Mail-Adresse auf die angegebene folgt.
+     * Wie bei {@link #findFirstSummaries(Pageable)} wird erst die Seite über den Index auf
+     * {@code email} gewählt, dann je Benutzer gezählt.
+     *
+     * @param email E-Mail-Adresse des letzten Benutzers der vorigen Seite
+     * @param page  Seitengröße
+     * @return die folgenden Benutzer
+     */
+    @Query("""
+            select new at.fhburgenland.bookmanager.dto.UserSummary(u.id, u.name, u.email,
+                (select count(b) from Book b where b.user = u))
+            from User u
+            where u.email > :email
+            order by u.email""")
+    List<UserSummary> findSummariesAfter(@Param("email") String email, Pageable page);
+
+    /**
+     * @param id ID des Benutzers
+     * @return Detailansicht des Benutzers, falls er existiert
+     */
+    @Query("""
+            select new at.fhburgenland.bookmanager.dto.UserDetail(u.id, u.name, u.email, count(b), avg(b.rating))
+            from User u left join u.books b
+            where u.id = :id
+            group by u.id, u.name, u.email""")
+    Optional<UserDetail> findDetail(@Param("id") UUID id);
 }
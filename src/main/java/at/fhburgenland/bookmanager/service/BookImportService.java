@@ -0,0 +1,286 @@
+package at.fhburgenland.bookmanager.service;
+
+import at.fhburgenland.bookmanager.dto.BookMetadata;
+import at.fhburgenland.bookmanager.dto.BulkImportReport;
+import at.fhburgenland.bookmanager.dto.IsbnImportResult;
+import at.fhburgenland.bookmanager.event.BookAddedEvent;
+import at.fhburgenland.bookmanager.exception.DeadlineExceededException;
+import at.fhburgenland.bookmanager.exception.UserNotFoundException;
+import at.fhburgenland.bookmanager.model.Book;
+import at.fhburgenland.bookmanager.model.CatalogBook;
+import at.fhburgenland.bookmanager.model.User;
+import at.fhburgenland.bookmanager.repository.BookRepository;
+import at.fhburgenland.bookmanager.repository.BulkInserter;
+import at.fhburgenland.bookmanager.repository.CatalogBookRepository;
+import at.fhburgenland.bookmanager.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Service für den Massenimport von Büchern anhand vieler ISBNs.
+ *
+ * Die ISBNs werden in Blöcke aufgeteilt. Pro Block werden fehlende Katalogeinträge mit
+ * wenigen OpenLibrary-Anfragen (mehrere {@code bibkeys} pro Anfrage) abgerufen und danach
+ * alle neuen Bücher in einer Transaktion gespeichert. Die Bücher fügt der {@link BulkInserter}
+ * ohne Persistenzkontext in JDBC-Batches ein, statt jedes einzeln zu speichern. Netzwerkzugriffe finden nie innerhalb einer Transaktion statt.
+ * Auch beim synchronen Import laufen die Blöcke über den {@link BulkWorkScheduler} und teilen
+ * sich dessen begrenzte, fair verteilte Plätze mit den Import-Aufträgen.
+ */
+@Service
+public class BookImportService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(BookImportService.class);
+
+    private final UserRepository userRepository;
+    private final BookRepository bookRepository;
+    private final CatalogBookRepository catalogBookRepository;
+    private final BookMetadataService metadataService;
+    private final CatalogProjectionService catalogProjection;
+    private final BulkInserter bulkInserter;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BulkWorkScheduler bulkScheduler;
+    private final int chunkSize;
+    private final int bibkeysPerRequest;
+
+    /**
+     * Erstellt den Import-Service.
+     *
+     * @param userRepository        Repository der Benutzer
+     * @param bookRepository        Repository der Bücher
+     * @param catalogBookRepository Repository der Katalogeinträge
+     * @param metadataService       Service zum Abruf der Metadaten
+     * @param catalogProjection     legt neue Katalogeinträge samt OpenLibrary-Rohantwort an
+     * @param bulkInserter          speichert die Katalogeinträge und Bücher eines Blocks gebündelt
+     * @param transactionTemplate   Template für eine Transaktion pro Block
+     * @param eventPublisher        Veröffentlicht ein {@link BookAddedEvent} je importiertem Buch
+     * @param bulkScheduler         führt die Blöcke begrenzt und fair zwischen Benutzern aus
+     * @param chunkSize             Anzahl ISBNs pro Transaktion
+     * @param bibkeysPerRequest     Anzahl ISBNs pro OpenLibrary-Anfrage
+     */
+    public BookImportService(UserRepository userRepository,
+                             BookRepository bookRepository,
+                             CatalogBookRepository catalogBookRepository,
+                             BookMetadataService metadataService,
+                             CatalogProjectionService catalogProjection,
+                             BulkInserter bulkInserter,
+                             TransactionTemplate transactionTemplate,
+                             ApplicationEventPublisher eventPublisher,
+                             BulkWorkScheduler bulkScheduler,
+                             @Value("${book.import.chunk-size:100}") int chunkSize,
+                             @Value("${book.import.bibkeys-per-request:25}") int bibkeysPerRequest) {
+        this.userRepository = userRepository;
+        this.bookRepository = bookRepository;
+        this.catalogBookRepository = catalogBookRepository;
+        this.metadataService = metadataService;
+        this.catalogProjection = catalogProjection;
+        this.bulkInserter = bulkInserter;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.bulkScheduler = bulkScheduler;
+        this.chunkSize = chunkSize;
+        this.bibkeysPerRequest = bibkeysPerRequest;
+    }
+
+    /**
+     * Importiert alle angegebenen ISBNs in die Bibliothek eines Benutzers.
+     *
+     * Doppelte ISBNs werden nur einmal importiert. Fehler einzelner Blöcke brechen den
+     * Import nicht ab, sondern werden pro ISBN im Bericht ausgewiesen; das gilt auch für
+     * Blöcke, die als Ganzes scheitern, etwa weil die Frist der Anfrage abgelaufen ist.
+     *
+     * @param userId ID des Benutzers
+     * @param isbns  zu importierende ISBNs in beliebiger Schreibweise
+     * @return Bericht mit einem Ergebnis pro (normalisierter) ISBN
+     * @throws UserNotFoundException wenn der Benutzer nicht existiert
+     */
+    public BulkImportReport importBooks(UUID userId, Collection<String> isbns) {
+        if (!userRepository.existsById(userId)) {
+            throw new UserNotFoundException(userId);
+        }
+        List<String> normalized = normalizeAll(isbns);
+
+        List<List<String>> chunks = chunks(normalized);
+        List<CompletableFuture<List<IsbnImportResult>>> pending = chunks.stream()
+                .map(chunk -> bulkScheduler.submit(userId, RequestDeadline.propagate(() -> importChunk(userId, chunk))))
+                .toList();
+        Map<String, IsbnImportResult> results = new LinkedHashMap<>();
+        for (int i = 0; i < chunks.size(); i++) {
+            await(chunks.get(i), pending.get(i)).forEach(result -> results.put(result.isbn(), result));
+        }
+        return new BulkImportReport(normalized.stream().map(results::get).toList());
+    }
+
+    /**
+     * Importiert einen Block von ISBNs: Metadaten abrufen, danach in einer Transaktion speichern.
+     * ISBNs mit ungültiger Prüfziffer werden ohne Datenbank- oder Netzwerkzugriff als
+     * {@link IsbnImportResult.Status#INVALID} gemeldet.
+     *
+     * @param userId ID des Benutzers
+     * @param chunk  normalisierte, eindeutige ISBNs
+     * @return Ergebnisse des Blocks
+     * @throws DeadlineExceededException wenn die Frist der Anfrage abgelaufen ist, während der Block wartete
+     */
+    List<IsbnImportResult> importChunk(UUID userId, List<String> chunk) {
+        RequestDeadline.checkNotExpired();
+        Map<String, IsbnImportResult> results = new HashMap<>();
+        List<String> valid = new ArrayList<>(chunk.size());
+        for (String isbn : chunk) {
+            if (IsbnNormalizer.tryToIsbn13(isbn).isPresent()) {
+                valid.add(isbn);
+            } else {
+                results.put(isbn, IsbnImportResult.invalid(isbn));
+            }
+        }
+        if (valid.isEmpty()) {
+            return chunk.stream().map(results::get).toList();
+        }
+
+        Set<String> owned = new HashSet<>(bookRepository.findOwnedIsbns(userId, valid));
+        owned.forEach(isbn -> results.put(isbn, IsbnImportResult.of(isbn, IsbnImportResult.Status.ALREADY_OWNED)));
+
+        List<String> candidates = valid.stream().filter(isbn -> !owned.contains(isbn)).toList();
+        Set<String> known = catalogBookRepository.findAllById(candidates).stream()
+                .map(CatalogBook::getIsbn)
+                .collect(Collectors.toSet());
+        List<String> unknown = candidates.stream().filter(isbn -> !known.contains(isbn)).toList();
+
+        Map<String, BookMetadata> fetched = new HashMap<>();
+        for (List<String> group : partition(unknown, bibkeysPerRequest)) {
+            try {
+                fetched.putAll(metadataService.lookupAll(group));
+            } catch (RuntimeException e) {
+                LOG.warn("OpenLibrary-Abruf für {} ISBNs fehlgeschlagen: {}", group.size(), e.getMessage());
+                group.forEach(isbn -> results.put(isbn, IsbnImportResult.failed(isbn, e.getMessage())));
+            }
+        }
+        unknown.stream()
+                .filter(isbn -> !results.containsKey(isbn) && !fetched.containsKey(isbn))
+                .forEach(isbn -> results.put(isbn, IsbnImportResult.of(isbn, IsbnImportResult.Status.NOT_FOUND)));
+
+        List<String> toImport = candidates.stream()
+                .filter(isbn -> known.contains(isbn) || fetched.containsKey(isbn))
+                .toList();
+        if (!toImport.isEmpty()) {
+            try {
+                transactionTemplate.execute(status -> persistChunk(userId, toImport, fetched));
+                toImport.forEach(isbn -> results.put(isbn, IsbnImportResult.of(isbn, IsbnImportResult.Status.IMPORTED)));
+                toImport.forEach(isbn -> eventPublisher.publishEvent(new BookAddedEvent(isbn)));
+            } catch (RuntimeException e) {
+                LOG.warn("Speichern von {} importierten Büchern fehlgeschlagen: {}", toImport.size(), e.getMessage());
+                toImport.forEach(isbn -> results.put(isbn, IsbnImportResult.failed(isbn, "Speichern fehlgeschlagen")));
+            }
+        }
+        return chunk.stream().map(results::get).toList();
+    }
+
+    /**
+     * Speichert die Bücher eines Blocks. Läuft innerhalb einer Transaktion: Neue Katalogeinträge
+     * und ihre Rohantworten werden zuerst gebündelt geschrieben, danach alle Bücher ohne
+     * Persistenzkontext in Batches eingefügt.
+     */
+    private List<Book> persistChunk(UUID userId, List<String> isbns, Map<String, BookMetadata> fetched) {
+        User user = userRepository.getReferenceById(userId);
+        Map<String, CatalogBook> catalog = catalogBookRepository.findAllById(isbns).stream()
+                .collect(Collectors.toMap(CatalogBook::getIsbn, Function.identity()));
+
+        List<BookMetadata> missing = isbns.stream()
+                .filter(isbn -> !catalog.containsKey(isbn))
+                .map(fetched::get)
+                .toList();
+        catalogProjection.createEntries(missing).forEach(entry -> catalog.put(entry.getIsbn(), entry));
+
+        List<Book> books = new ArrayList<>(isbns.size());
+        Instant addedAt = Instant.now();
+        for (String isbn : isbns) {
+            books.add(Book.builder().catalog(catalog.get(isbn)).user(user).addedAt(addedAt).build());
+        }
+        bulkInserter.insertAll(books);
+        return books;
+    }
+
+    /**
+     * Normalisiert ISBNs und entfernt Duplikate unter Beibehaltung der Reihenfolge.
+     * Gültige ISBN-10 werden dabei in ISBN-13 umgerechnet, sodass beide Schreibweisen
+     * desselben Buches nur einmal importiert werden.
+     *
+     * @param isbns ISBNs in beliebiger Schreibweise
+     * @return eindeutige, normalisierte ISBNs
+     */
+    static List<String> normalizeAll(Collection<String> isbns) {
+        return isbns.stream()
+                .map(IsbnNormalizer::canonical)
+                .collect(Collectors.toCollection(LinkedHashSet::new))
+                .stream()
+                .toList();
+    }
+
+    /**
+     * Teilt die ISBNs in Blöcke der konfigurierten Größe für je eine Transaktion.
+     *
+     * @param isbns normalisierte ISBNs
+     * @return Blöcke von höchstens {@code book.import.chunk-size} ISBNs
+     */
+    List<List<String>> chunks(List<String> isbns) {
+        return partition(isbns, chunkSize);
+    }
+
+    /**
+     * Wartet auf die Ergebnisse eines Blocks. Scheitert der Block als Ganzes, werden seine
+     * ISBNs über {@link #failedChunk} gemeldet, statt den ganzen Import abzubrechen.
+     */
+    private static List<IsbnImportResult> await(List<String> chunk, CompletableFuture<List<IsbnImportResult>> future) {
+        try {
+            return future.join();
+        } catch (CompletionException | CancellationException e) {
+            return failedChunk(chunk, e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+        }
+    }
+
+    /**
+     * Ergebnisse eines Blocks, der als Ganzes gescheitert ist: seine ISBNs als
+     * {@link IsbnImportResult.Status#FAILED}, ungültige weiterhin als
+     * {@link IsbnImportResult.Status#INVALID}.
+     *
+     * @param chunk ISBNs des Blocks
+     * @param cause Fehler, an dem der Block gescheitert ist
+     * @return ein Ergebnis pro ISBN des Blocks
+     */
+    static List<IsbnImportResult> failedChunk(List<String> chunk, Throwable cause) {
+        LOG.warn("Import-Block mit {} ISBNs fehlgeschlagen: {}", chunk.size(), cause.getMessage());
+        return chunk.stream()
+                .map(isbn -> IsbnNormalizer.tryToIsbn13(isbn).isPresent()
+                        ? IsbnImportResult.failed(isbn, cause.getMessage())
+                        : IsbnImportResult.invalid(isbn))
+                .toList();
+    }
+
+    private static <T> List<List<T>> partition(List<T> items, int size) {
+        List<List<T>> parts = new ArrayList<>();
+        for (int i = 0; i < items.size(); i += size) {
+            parts.add(items.subList(i, Math.min(i + size, items.size())));
+        }
+        return parts;
+    }
+}
@@ -0,0 +1,131 @@
+package at.fhburgenland.bookmanager.service;
+
+import at.fhburgenland.bookmanager.dto.BookMetadata;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * In-Process-Cache für Buch-Metadaten der OpenLibrary API.
+ *
+ * Der Cache ist nach Anzahl der Einträge begrenzt und verwirft Einträge nach Ablauf
+ * einer konfigurierbaren TTL. Schlüssel ist die normalisierte ISBN, damit
+ * Schreibweisen mit Bindestrichen oder Leerzeichen denselben Eintrag treffen.
+ * Treffer, Fehlgriffe und Verdrängungen werden als Metriken unter dem Namen
+ * {@value #CACHE_NAME} über Actuator veröffentlicht.
+ *
+ * Zusätzlich merkt sich der Cache für eine eigene, kürzere TTL die ISBNs, zu denen
+ * OpenLibrary keine Daten kennt (negativer Cache, Metriken unter {@value #UNKNOWN_CACHE_NAME}).
+ * Wiederholte Anfragen nach solchen ISBNs lösen so keinen erneuten Netzwerkaufruf aus.
+ */
+@Component
+public class BookMetadataCache {
+
+    /**
+     * Name, unter dem der Cache in den Micrometer-Metriken erscheint.
+     */
+    public static final String CACHE_NAME = "bookMetadata";
+
+    /**
+     * Name, unter dem der negative Cache in den Micrometer-Metriken erscheint.
+     */
+    public static final String UNKNOWN_CACHE_NAME = "bookMetadataUnknown";
+
+    private final Cache<String, BookMetadata> cache;
+    private final Cache<String, Boolean> unknown;
+
+    /**
+     * Erstellt den Cache und registriert dessen Statistiken in der MeterRegistry.
+     *
+     * @param maxSize       maximale Anzahl gecachter ISBNs, gilt für beide Caches
+     * @param ttl           Lebensdauer eines Eintrags ab dem Schreiben
+     * @param unknownTtl    Lebensdauer eines Eintrags im negativen Cache
+     * @param meterRegistry Registry, in der die Cache-Metriken veröffentlicht werden
+     */
+    public BookMetadataCache(@Value("${book.metadata.cache.max-size:10000}") long maxSize,
+                             @Value("${book.metadata.cache.ttl:PT6H}") Duration ttl,
+                             @Value("${book.metadata.negative-cache.ttl:PT1H}") Duration unknownTtl,
+                             MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.unknown = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(unknownTtl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        CaffeineCacheMetrics.monitor(meterRegistry, unknown, UNKNOWN_CACHE_NAME);
+    }
+
+    /**
+     * Liefert die gecachten Metadaten zu einer ISBN.
+     *
+     * @param isbn ISBN in beliebiger Schreibweise
+     * @return Optional mit den Metadaten, leer bei einem Cache-Miss
+     */
+    public Optional<BookMetadata> get(String isbn) {
+        return Optional.ofNullable(cache.getIfPresent(normalize(isbn)));
+    }
+
+    /**
+     * Legt Metadaten zu einer ISBN im Cache ab.
+     *
+     * @param isbn     ISBN in beliebiger Schreibweise
+     * @param metadata die zu cachenden Metadaten
+     */
+    public void put(String isbn, BookMetadata metadata) {
+        String key = normalize(isbn);
+        cache.put(key, metadata);
+        unknown.invalidate(key);
+    }
+
+    /**
+     * Merkt sich, dass OpenLibrary zu einer ISBN keine Daten kennt.
+     *
+     * @param isbn ISBN in beliebiger Schreibweise
+     */
+    public void markUnknown(String isbn) {
+        unknown.put(normalize(isbn), Boolean.TRUE);
+    }
+
+    /**
+     * Prüft, ob eine ISBN innerhalb der TTL des negativen Caches als unbekannt gemeldet wurde.
+     *
+     * @param isbn ISBN in beliebiger Schreibweise
+     * @return {@code true}, wenn OpenLibrary die ISBN zuletzt nicht kannte
+     */
+    public boolean isKnownUnknown(String isbn) {
+        return unknown.getIfPresent(normalize(isbn)) != null;
+    }
+
+    /**
+     * Entfernt den Eintrag zu einer ISBN aus dem Cache und aus dem negativen Cache.
+     *
+     * @param isbn ISBN in beliebiger Schreibweise
+     */
+    public void invalidate(String isbn) {
+        String key = normalize(isbn);
+        cache.invalidate(key);
+        unknown.invalidate(key);
+    }
+
+    /**
+     * Normalisiert eine ISBN für die Verwendung als Cache-Schlüssel:
+     * Bindestriche und Leerzeichen werden entfernt, ein Prüfzeichen "x" wird großgeschrieben.
+     *
+     * @param isbn ISBN in beliebiger Schreibweise
+     * @return normalisierte ISBN
+     */
+    public static String normalize(String isbn) {
+        return IsbnNormalizer.strip(isbn);
+    }
+}
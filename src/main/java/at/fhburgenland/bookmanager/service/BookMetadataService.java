@@ -0,0 +1,184 @@
+package at.fhburgenland.bookmanager.service;
+
+import at.fhburgenland.bookmanager.client.OpenLibraryRateLimiter;
+import at.fhburgenland.bookmanager.dto.BookMetadata;
+import at.fhburgenland.bookmanager.exception.InvalidBookException;
+import at.fhburgenland.bookmanager.exception.MetadataUnavailableException;
+import at.fhburgenland.bookmanager.exception.UnknownIsbnException;
+import at.fhburgenland.bookmanager.offline.OfflineIsbnIndex;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Liefert Buch-Metadaten zu ISBNs.
+ *
+ * Sitzt zwischen den fachlichen Services und der OpenLibrary API: zuerst wird der
+ * {@link BookMetadataCache} gefragt, dann der optionale {@link OfflineIsbnIndex}. Nur wenn
+ * beide nichts liefern und der Netzwerk-Rückfall aktiv ist, werden die Metadaten-Anbieter
+ * über den {@link HedgedMetadataFetcher} angefragt und das Ergebnis anschließend im Cache abgelegt. Gleichzeitige Fehlgriffe für dieselbe
+ * ISBN werden über {@link SingleFlight} zu einem einzigen Abruf zusammengefasst, sodass
+ * z. B. ein abgelaufener, häufig angefragter Eintrag nur einmal neu geladen wird.
+ *
+ * ISBNs, zu denen OpenLibrary keine Daten kennt, merkt sich der Cache für eine begrenzte
+ * Zeit als unbekannt; bis dahin scheitern weitere Anfragen ohne Netzwerkaufruf.
+ *
+ * Jeder Abruf läuft durch einen Circuit Breaker und holt davor ein Token beim
+ * {@link OpenLibraryRateLimiter}, sodass dessen Wartezeit nicht als langsamer Aufruf zählt.
+ * Einzelabfragen belegen im
+ * {@link HedgedMetadataFetcher} je Anfrage an einen Anbieter einen Platz im interaktiven
+ * Bulkhead; Massenabrufe über {@link #lookupAll(Collection)} nutzen ein eigenes Bulkhead,
+ * damit Importe interaktiven Einzelabfragen keine Plätze wegnehmen. Ist OpenLibrary nicht
+ * verfügbar, scheitert {@link #lookup(String)} sofort mit einer
+ * {@link MetadataUnavailableException}. Einen Rückfall auf den Katalog gibt es hier nicht:
+ * Der Service wird nur für ISBNs gefragt, die noch keinen Katalogeintrag haben.
+ */
+@Service
+public class BookMetadataService {
+
+    private final BookMetadataCache metadataCache;
+    private final OfflineIsbnIndex offlineIndex;
+    private final HedgedMetadataFetcher metadataFetcher;
+    private final CircuitBreaker circuitBreaker;
+    private final OpenLibraryRateLimiter rateLimiter;
+    private final Bulkhead bulkBulkhead;
+    private final SingleFlight<String, BookMetadata> inFlightLookups = new SingleFlight<>();
+    private final Duration coalescingWaitTimeout;
+    private final boolean networkFallback;
+
+    /**
+     * Erstellt den Service.
+     *
+     * @param metadataCache         Cache für bereits abgerufene Metadaten
+     * @param offlineIndex          lokaler ISBN-Index, wird vor OpenLibrary gefragt
+     * @param metadataFetcher       fragt die Metadaten-Anbieter mit abgesicherten Zweitanfragen ab
+     * @param circuitBreaker        Circuit Breaker für OpenLibrary-Aufrufe
+     * @param rateLimiter           clusterweites Ratenlimit, vor dem Circuit Breaker geprüft
+     * @param bulkBulkhead          Begrenzung gleichzeitiger Massenabrufe bei OpenLibrary
+     * @param coalescingWaitTimeout maximale Wartezeit auf einen bereits laufenden Abruf derselben ISBN
+     * @param networkFallback       ob bei fehlendem Indexeintrag OpenLibrary angefragt wird
+     */
+    public BookMetadataService(BookMetadataCache metadataCache,
+                               OfflineIsbnIndex offlineIndex,
+                               HedgedMetadataFetcher metadataFetcher,
+                               CircuitBreaker circuitBreaker,
+                               OpenLibraryRateLimiter rateLimiter,
+                               @Qualifier("openLibraryBulkBulkhead") Bulkhead bulkBulkhead,
+                               @Value("${book.metadata.coalescing.wait-timeout:PT10S}") Duration coalescingWaitTimeout,
+                               @Value("${book.offline-index.network-fallback:true}") boolean networkFallback) {
+        this.metadataCache = metadataCache;
+        this.offlineIndex = offlineIndex;
+        this.metadataFetcher = metadataFetcher;
+        this.circuitBreaker = circuitBreaker;
+        this.rateLimiter = rateLimiter;
+        this.bulkBulkhead = bulkBulkhead;
+        this.coalescingWaitTimeout = coalescingWaitTimeout;
+        this.networkFallback = networkFallback;
+    }
+
+    /**
+     * Liefert die Metadaten zu einer ISBN aus dem Cache, dem Offline-Index oder von OpenLibrary.
+     *
+     * Läuft für die ISBN bereits ein Abruf, wird auf dessen Ergebnis gewartet statt
+     * OpenLibrary erneut anzufragen. Schlägt der gemeinsame Abruf fehl, erhalten alle
+     * Wartenden denselben Fehler. Ist OpenLibrary nicht verfügbar, scheitert der Aufruf sofort.
+     *
+     * @param isbn normalisierte ISBN
+     * @return die Metadaten
+     * @throws UnknownIsbnException         wenn OpenLibrary keine Daten zur ISBN kennt
+     * @throws InvalidBookException         wenn der Abruf fehlschlägt
+     * @throws MetadataUnavailableException wenn OpenLibrary nicht verfügbar ist
+     */
+    public BookMetadata lookup(String isbn) {
+        Optional<BookMetadata> local = metadataCache.get(isbn).or(() -> offlineIndex.find(isbn));
+        if (local.isPresent()) {
+            return local.get();
+        }
+        if (!networkFallback || metadataCache.isKnownUnknown(isbn)) {
+            throw new UnknownIsbnException(isbn);
+        }
+        return inFlightLookups.execute(isbn, () -> fetchAndCache(isbn), RequestDeadline.bound(coalescingWaitTimeout));
+    }
+
+    /**
+     * Liefert die Metadaten mehrerer ISBNs. Alles, was weder Cache noch Offline-Index kennen,
+     * wird mit einer einzigen OpenLibrary-Anfrage abgerufen.
+     *
+     * ISBNs, zu denen OpenLibrary keine Daten kennt, fehlen in der Ergebnis-Map und werden
+     * im negativen Cache vermerkt.
+     *
+     * @param isbns normalisierte ISBNs
+     * @return Map von ISBN auf Metadaten
+     * @throws InvalidBookException         wenn der Abruf bei OpenLibrary fehlschlägt
+     * @throws MetadataUnavailableException wenn OpenLibrary nicht verfügbar ist
+     */
+    public Map<String, BookMetadata> lookupAll(Collection<String> isbns) {
+        Map<String, BookMetadata> result = new LinkedHashMap<>();
+        List<String> misses = new ArrayList<>();
+        for (String isbn : isbns) {
+            Optional<BookMetadata> local = metadataCache.get(isbn).or(() -> offlineIndex.find(isbn));
+            if (local.isPresent()) {
+                result.put(isbn, local.get());
+            } else if (!metadataCache.isKnownUnknown(isbn)) {
+                misses.add(isbn);
+            }
+        }
+        if (!misses.isEmpty() && networkFallback) {
+            Map<String, BookMetadata> fetched;
+            try {
+                // Erst der Platz im Bulkhead, dann das Token: Die Wartezeit auf den Platz
+                // verbraucht kein Token und zählt nicht in die Messung des Circuit Breakers.
+                fetched = bulkBulkhead.executeSupplier(() -> guarded(() -> metadataFetcher.fetchAll(misses)));
+            } catch (BulkheadFullException e) {
+                throw new MetadataUnavailableException("Zu viele gleichzeitige Massenabrufe bei OpenLibrary");
+            }
+            fetched.forEach(metadataCache::put);
+            misses.stream().filter(isbn -> !fetched.containsKey(isbn)).forEach(metadataCache::markUnknown);
+            result.putAll(fetched);
+        }
+        return result;
+    }
+
+    private BookMetadata fetchAndCache(String isbn) {
+        // Ein vorheriger Abruf kann den Eintrag zwischen Cache-Prüfung und Übernahme der Führung abgelegt haben.
+        return metadataCache.get(isbn).orElseGet(() -> {
+            BookMetadata fetched;
+            try {
+                fetched = guarded(() -> metadataFetcher.fetch(isbn));
+            } catch (UnknownIsbnException e) {
+                metadataCache.markUnknown(isbn);
+                throw e;
+            }
+            metadataCache.put(isbn, fetched);
+            return fetched;
+        });
+    }
+
+    /**
+     * Führt einen Abruf mit einem Token des Ratenlimits über den Circuit Breaker aus. Ein
+     * volles Bulkhead zählt dort nicht als Fehler und wird erst hier, außerhalb des Breakers,
+     * zu einer {@link MetadataUnavailableException}.
+     */
+    private <T> T guarded(Supplier<T> call) {
+        try {
+            return rateLimiter.throttled(circuitBreaker, call);
+        } catch (CallNotPermittedException e) {
+            throw new MetadataUnavailableException("OpenLibrary ist derzeit nicht verfügbar");
+        } catch (BulkheadFullException e) {
+            throw new MetadataUnavailableException("Zu viele gleichzeitige Anfragen an OpenLibrary");
+        }
+    }
+}
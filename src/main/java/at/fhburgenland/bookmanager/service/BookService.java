@@ -1,113 +1,133 @@
 package at.fhburgenland.bookmanager.service;
 
+import at.fhburgenland.bookmanager.dto.BookAuthor;
+import at.fhburgenland.bookmanager.dto.BookSearch;
+import at.fhburgenland.bookmanager.dto.BookSearchHit;
+import at.fhburgenland.bookmanager.dto.BookSort;
 import at.fhburgenland.bookmanager.dto.BookUpdateRequest;
+import at.fhburgenland.bookmanager.dto.CatalogAuthor;
+import at.fhburgenland.bookmanager.dto.KeysetPage;
+import at.fhburgenland.bookmanager.dto.LibraryBook;
+import at.fhburgenland.bookmanager.dto.LibraryRow;
+import at.fhburgenland.bookmanager.event.BookAddedEvent;
+import at.fhburgenland.bookmanager.exception.BookAlreadyOwnedException;
 import at.fhburgenland.bookmanager.exception.BookNotFoundException;
 import at.fhburgenland.bookmanager.exception.InvalidBookException;
+import at.fhburgenland.bookmanager.exception.InvalidPageRequestException;
 import at.fhburgenland.bookmanager.exception.UserNotFoundException;
 import at.fhburgenland.bookmanager.model.Book;
-import at.fhburgenland.bookmanager.model.User;
+import at.fhburgenland.bookmanager.model.CatalogBook;
 import at.fhburgenland.bookmanager.repository.BookRepository;
+import at.fhburgenland.bookmanager.repository.BookSearchRepository;
+import at.fhburgenland.bookmanager.repository.CatalogBookRepository;
 import at.fhburgenland.bookmanager.repository.UserRepository;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.ResponseEntity;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
-import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 /**
  * Service für die Buchverwaltung (synchron, ohne Reactive).
- * Fügt ein Buch per ISBN hinzu, holt die Details von der OpenLibrary API
- * und speichert es dem Benutzer zu.
+ * Fügt ein Buch per ISBN hinzu, holt die Details aus dem gemeinsamen Katalog
+ * oder von der OpenLibrary API und speichert es dem Benutzer zu.
+ *
+ * Einzelne Bücher werden direkt über Benutzer-ID und ISBN abgefragt; die Bibliothek
+ * eines Benutzers wird dafür nie vollständig geladen. Die Bibliotheksansicht liest keine
+ * Entitäten, sondern nur die angezeigten Spalten ({@link LibraryBook}) mit genau drei
+ * Abfragen pro Seite: eine für die Bücher, je eine für die Autoren des Katalogs und die
+ * eigenen Autoren der Benutzer. Auch die Suche filtert
+ * und sortiert in der Datenbank ({@link BookSearchRepository}).
  */
 @Service
 public class BookService {
-    private final RestTemplate restTemplate;
-    private final String apiUrl;
     private final UserRepository userRepository;
-    private final ObjectMapper objectMapper;
     private final BookRepository bookRepository;
+    private final BookSearchRepository bookSearchRepository;
+    private final CatalogBookRepository catalogBookRepository;
+    private final BookMetadataService metadataService;
+    private final CatalogProjectionService catalogProjection;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Konstruktor für den BookService.
      *
-     * Initialisiert den Service mit der OpenLibrary-API-URL sowie den benötigten Repositories und einem ObjectMapper.
-     * Der Service nutzt einen synchronen {@link RestTemplate}, um Buchdetails basierend auf einer ISBN von der
-     * OpenLibrary API abzurufen. Die Coverbilder werden als URL im Buch gespeichert.
+     * Initialisiert den Service mit den benötigten Repositories und dem {@link BookMetadataService},
+     * der die Buchdetails zu einer ISBN aus dem Cache oder von der OpenLibrary API liefert.
+     * ISBNs, die schon im gemeinsamen Katalog stehen, werden gar nicht mehr bei OpenLibrary angefragt.
+     * Die Coverbilder werden als URL im Buch gespeichert und nach dem Hinzufügen im Hintergrund verkleinert.
      *
-     * @param apiUrl         Die Basis-URL der OpenLibrary Books API (wird aus application.properties geladen).
-     * @param userRepository Repository zur Verwaltung der Benutzer in der Datenbank.
-     * @param bookRepository Repository zur Verwaltung der Bücher in der Datenbank.
-     * @param objectMapper   Jackson-ObjectMapper zur Verarbeitung der JSON-Antworten von OpenLibrary.
+     * @param userRepository        Repository zur Verwaltung der Benutzer in der Datenbank.
+     * @param bookRepository        Repository zur Verwaltung der Bücher in der Datenbank.
+     * @param bookSearchRepository  Volltextsuche in der Bibliothek eines Benutzers.
+     * @param catalogBookRepository Repository für die gemeinsamen Katalogeinträge.
+     * @param metadataService       Service zum Abruf der Buch-Metadaten.
+     * @param catalogProjection     Legt neue Katalogeinträge samt OpenLibrary-Rohantwort an.
+     * @param eventPublisher        Veröffentlicht {@link BookAddedEvent}s, z. B. für die Vorschaubilder.
      */
-    public BookService(@Value("${book.api.url}") String apiUrl,
-                       UserRepository userRepository,
+    public BookService(UserRepository userRepository,
                        BookRepository bookRepository,
-                       ObjectMapper objectMapper) {
-        this.restTemplate = new RestTemplate();
-        this.apiUrl       = apiUrl;
+                       BookSearchRepository bookSearchRepository,
+                       CatalogBookRepository catalogBookRepository,
+                       BookMetadataService metadataService,
+                       CatalogProjectionService catalogProjection,
+                       ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
-        this.objectMapper   = objectMapper;
         this.bookRepository = bookRepository;
-
+        this.bookSearchRepository = bookSearchRepository;
+        this.catalogBookRepository = catalogBookRepository;
+        this.metadataService = metadataService;
+        this.catalogProjection = catalogProjection;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
      * Fügt ein Buch anhand seiner ISBN zum Benutzer hinzu.
      *
+     * Die ISBN wird vor jedem Zugriff auf Katalog oder OpenLibrary geprüft und in die
+     * kanonische ISBN-13-Form umgerechnet.
+     *
      * @param userId ID des Benutzers
-     * @param isbn   ISBN als String
+     * @param isbn   ISBN-10 oder ISBN-13 als String
      * @return das neu angelegte und dem Nutzer zugeordnete Buch
-     * @throws UserNotFoundException bei unbekannter userId
-     * @throws InvalidBookException  bei Fehlern beim Abruf oder Parsen der Buchdaten
+     * @throws UserNotFoundException      bei unbekannter userId
+     * @throws InvalidBookException       bei ungültiger Prüfziffer oder Fehlern beim Abruf oder Parsen der Buchdaten
+     * @throws BookAlreadyOwnedException  wenn der Benutzer das Buch bereits besitzt
      */
     public Book addBookToUserByIsbn(UUID userId, String isbn) {
         var user = userRepository.findById(userId)
                 .orElseThrow(() -> new UserNotFoundException(userId));
 
-        String url = String.format("%s?bibkeys=ISBN:%s&format=json&jscmd=data", apiUrl, isbn);
-        ResponseEntity<String> resp = restTemplate.getForEntity(url, String.class);
-        if (!resp.getStatusCode().is2xxSuccessful() || resp.getBody() == null) {
-            throw new InvalidBookException("Fehler beim Abruf der Buchdaten für ISBN: " + isbn);
+        String normalizedIsbn = IsbnNormalizer.toIsbn13(isbn);
+        if (bookRepository.existsByUserIdAndCatalogIsbn(userId, normalizedIsbn)) {
+            throw new BookAlreadyOwnedException(normalizedIsbn);
         }
+        CatalogBook catalog = catalogBookRepository.findById(normalizedIsbn)
+                .orElseGet(() -> catalogBookRepository.save(catalogProjection.createEntry(metadataService.lookup(normalizedIsbn))));
 
+        Book book = Book.builder()
+                .catalog(catalog)
+                .user(user)
+                .build();
+
+        RequestDeadline.checkNotExpired();
         try {
-            JsonNode root = objectMapper.readTree(resp.getBody());
-            JsonNode data = root.path("ISBN:" + isbn);
-            if (data.isMissingNode() || data.isEmpty()) {
-                throw new InvalidBookException("Keine Daten gefunden für ISBN: " + isbn);
+            book = bookRepository.save(book);
+        } catch (DataIntegrityViolationException e) {
+            // Eine parallele Anfrage hat dasselbe Buch zwischen Prüfung und Speichern hinzugefügt.
+            if (bookRepository.existsByUserIdAndCatalogIsbn(userId, normalizedIsbn)) {
+                throw new BookAlreadyOwnedException(normalizedIsbn);
             }
-
-            Book book = Book.builder()
-                    .isbn(isbn)
-                    .title(data.path("title").asText(""))
-                    .publisher(
-                            data.path("publishers").isArray() && !data.path("publishers").isEmpty()
-                                    ? data.path("publishers").get(0).asText("")
-                                    : ""
-                    )
-                    .publishedDate(data.path("publish_date").asText(""))
-                    .description(
-                            data.path("description").has("value")
-                                    ? data.path("description").path("value").asText("")
-                                    : data.path("description").asText("")
-                    )
-                    .coverUrl("https://covers.openlibrary.org/b/isbn/" + isbn + "-L.jpg")
-                    .build();
-
-            book.setUser(user);
-            user.getBooks().add(book);
-
-            userRepository.save(user);
-
-            return book;
-        } catch (IOException e) {
-            throw new InvalidBookException("Fehler beim Parsen der Buchdaten: " + e.getMessage());
+            throw e;
         }
+        eventPublisher.publishEvent(new BookAddedEvent(normalizedIsbn));
+
+        return book;
     }
 
     /**
@@ -126,21 +146,15 @@ public class BookService {
             throw new InvalidBookException("Die Bewertung muss zwischen 1 und 5 liegen.");
         }
 
-        var user = userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException(userId));
-
-        var book = user.getBooks().stream()
-                .filter(b -> b.getIsbn().equalsIgnoreCase(isbn))
-                .findFirst()
-                .orElseThrow(() -> new BookNotFoundException(isbn));
-
+        Book book = findOwnedBook(userId, isbn);
         book.setRating(rating);
-        userRepository.save(user);
-        return book;
+        return bookRepository.save(book);
     }
 
     /**
      * Ruft ein bestimmtes Buch eines Benutzers anhand der ISBN ab.
+     * Buch, Katalogeintrag und Autoren kommen aus einer Abfrage; Schlagwörter und Rezensionen
+     * werden beim Ausliefern mit je einer weiteren geladen.
      *
      * @param userId Die ID des Benutzers
      * @param isbn   Die ISBN des Buches
@@ -149,13 +163,9 @@ public class BookService {
      * @throws BookNotFoundException Wenn kein Buch mit der angegebenen ISBN gefunden wurde
      */
     public Book getBookByUserIdAndIsbn(UUID userId, String isbn) {
-        var user = userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException(userId));
-
-        return user.getBooks().stream()
-                .filter(book -> book.getIsbn().equalsIgnoreCase(isbn))
+        return bookRepository.findDetailByUserIdAndCatalogIsbnIn(userId, IsbnNormalizer.lookupKeys(isbn)).stream()
                 .findFirst()
-                .orElseThrow(() -> new BookNotFoundException(isbn));
+                .orElseThrow(() -> notOwned(userRepository, userId, isbn));
     }
 
     /**
@@ -167,72 +177,179 @@ public class BookService {
      * @throws BookNotFoundException Wenn das Buch nicht existiert oder nicht dem Benutzer zugeordnet ist
      */
     public void deleteBookByUserIdAndIsbn(UUID userId, String isbn) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException(userId));
-
-        Book book = user.getBooks().stream()
-                .filter(b -> b.getIsbn().equalsIgnoreCase(isbn))
-                .findFirst()
-                .orElseThrow(() -> new BookNotFoundException(isbn));
-
-        user.getBooks().remove(book);
-        bookRepository.delete(book);
+        bookRepository.delete(findOwnedBook(userId, isbn));
     }
 
     /**
-     * Gibt alle Bücher eines Benutzers zurück, optional gefiltert nach Bewertung.
+     * Gibt eine Seite der Bücher eines Benutzers zurück, optional gefiltert nach Bewertung.
+     *
+     * Geblättert wird per Keyset-Paginierung: jede Seite ist eine Bereichsabfrage ab dem
+     * Cursor der vorigen Seite und kostet unabhängig von der Größe der Bibliothek gleich viel.
      *
      * @param userId Benutzer-ID
      * @param rating (optional) Bewertung zum Filtern, darf zwischen 1 und 5 liegen
-     * @return Liste der passenden Bücher
-     * @throws UserNotFoundException wenn Benutzer nicht existiert
-     * @throws InvalidBookException  bei ungültigem Rating-Parameter
+     * @param sort   Sortierung der Bibliothek
+     * @param cursor Cursor aus der vorigen Seite, {@code null} für die erste Seite
+     * @param limit  Seitengröße
+     * @return Seite der passenden Bücher mit dem Cursor für die nächste Seite
+     * @throws UserNotFoundException       wenn Benutzer nicht existiert
+     * @throws InvalidBookException        bei ungültigem Rating-Parameter
+     * @throws InvalidPageRequestException bei ungültigem Cursor oder ungültiger Seitengröße
      */
-    public List<Book> getBooksByUserIdAndOptionalRating(UUID userId, Integer rating) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException(userId));
+    public KeysetPage<LibraryBook> getBooksByUserIdAndOptionalRating(UUID userId, Integer rating, BookSort sort,
+                                                              String cursor, int limit) {
+        if (rating != null && (rating < 1 || rating > 5)) {
+            throw new InvalidBookException("Bewertung muss zwischen 1 und 5 liegen.");
+        }
+        PageRequest fetch = KeysetCursor.fetch(limit);
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        requireUser(userId);
 
-        if (rating != null) {
-            if (rating < 1 || rating > 5) {
-                throw new InvalidBookException("Bewertung muss zwischen 1 und 5 liegen.");
-            }
-            return user.getBooks().stream()
-                    .filter(book -> book.getRating() != null && book.getRating().equals(rating))
-                    .toList();
+        List<LibraryRow> rows = switch (sort) {
+            case ADDED -> after == null
+                    ? bookRepository.findFirstByAdded(userId, rating, fetch)
+                    : bookRepository.findByAddedAfter(userId, rating, after.instantKey(), after.id(), fetch);
+            case TITLE -> after == null
+                    ? bookRepository.findFirstByTitle(userId, rating, fetch)
+                    : bookRepository.findByTitleAfter(userId, rating, after.key(), after.id(), fetch);
+            case RATING -> findByRating(userId, rating, after, fetch.getPageSize());
+        };
+        KeysetPage<LibraryRow> page = KeysetPage.of(rows, limit, row -> cursorOf(row, sort).encode());
+        return new KeysetPage<>(withAuthors(page.items()), page.nextCursor());
+    }
+
+    /**
+     * Blättert erst durch die bewerteten, dann durch die unbewerteten Bücher. Ein Cursor ohne
+     * Schlüssel steht bereits im zweiten Abschnitt.
+     */
+    private List<LibraryRow> findByRating(UUID userId, Integer rating, KeysetCursor after, int fetch) {
+        boolean inRated = after == null || after.key() != null;
+        List<LibraryRow> rows = new ArrayList<>();
+        if (inRated) {
+            rows.addAll(after == null
+                    ? bookRepository.findFirstRated(userId, rating, PageRequest.of(0, fetch))
+                    : bookRepository.findRatedAfter(userId, rating, after.intKey(), after.id(), PageRequest.of(0, fetch)));
+        }
+        if (rows.size() < fetch && rating == null) {
+            PageRequest remaining = PageRequest.of(0, fetch - rows.size());
+            rows.addAll(inRated
+                    ? bookRepository.findFirstUnrated(userId, remaining)
+                    : bookRepository.findUnratedAfter(userId, after.id(), remaining));
         }
-        return user.getBooks();
+        return rows;
+    }
+
+    private static KeysetCursor cursorOf(LibraryRow row, BookSort sort) {
+        String key = switch (sort) {
+            case ADDED -> row.addedAt().toString();
+            case TITLE -> row.title() == null ? "" : row.title();
+            case RATING -> row.rating() == null ? null : row.rating().toString();
+        };
+        return new KeysetCursor(key, row.id());
+    }
+
+    /**
+     * Ergänzt die gelesenen Zeilen um ihre Autoren: die eigenen des Benutzers, sonst die des
+     * Katalogs. Je eine Abfrage für alle Zeilen.
+     */
+    private List<LibraryBook> withAuthors(List<LibraryRow> rows) {
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+        Map<String, List<String>> authors = catalogBookRepository
+                .findAuthors(rows.stream().map(LibraryRow::isbn).distinct().toList()).stream()
+                .collect(Collectors.groupingBy(CatalogAuthor::isbn,
+                        Collectors.mapping(CatalogAuthor::author, Collectors.toList())));
+        Map<UUID, List<String>> customAuthors = bookRepository
+                .findCustomAuthors(rows.stream().map(LibraryRow::id).toList()).stream()
+                .collect(Collectors.groupingBy(BookAuthor::bookId,
+                        Collectors.mapping(BookAuthor::author, Collectors.toList())));
+        return rows.stream()
+                .map(row -> LibraryBook.of(row, customAuthors.getOrDefault(row.id(),
+                        authors.getOrDefault(row.isbn(), List.of()))))
+                .toList();
     }
 
     /**
-     * Sucht Bücher eines Benutzers anhand optionaler Kriterien.
+     * Sucht Bücher eines Benutzers per Volltextsuche in der Datenbank, relevanteste zuerst.
+     * Alle Begriffe müssen als Wortanfang zutreffen; Groß- und Kleinschreibung, Akzente und
+     * Umlaute (auch als ae/oe/ue geschrieben) spielen keine Rolle. Ohne Suchbegriffe werden
+     * alle Bücher geliefert, zuletzt hinzugefügte zuerst.
      *
      * @param userId Benutzer-ID
-     * @param title Optionaler Titel
+     * @param query  Optionale freie Suche über Titel, Autoren, Schlagwörter und Verlag
+     * @param title  Optionaler Titel
      * @param author Optionaler Autor
-     * @param year Optionales Jahr
-     * @return Liste der passenden Bücher
+     * @param year   Optionales Jahr
+     * @param cursor Cursor aus der vorigen Seite, {@code null} für die erste Seite
+     * @param limit  Seitengröße
+     * @return Seite der passenden Bücher mit dem Cursor für die nächste Seite
+     * @throws UserNotFoundException wenn der Benutzer nicht existiert
      */
-    public List<Book> searchBooks(UUID userId, String title, String author, Integer year) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException(userId));
-        return user.getBooks().stream()
-                .filter(book -> title == null || book.getTitle() != null && book.getTitle().toLowerCase().contains(title.toLowerCase()))
-                .filter(book -> author == null || book.getAuthors() != null && book.getAuthors().stream().anyMatch(a -> a.toLowerCase().contains(author.toLowerCase())))
-                .filter(book -> year == null || (book.getPublishedDate() != null && book.getPublishedDate().contains(year.toString())))
-                .toList();
+    public KeysetPage<LibraryBook> searchBooks(UUID userId, String query, String title, String author, Integer year,
+                                               String cursor, int limit) {
+        PageRequest fetch = KeysetCursor.fetch(limit);
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        List<BookSearchHit> hits = bookSearchRepository.search(userId, BookSearch.of(query, title, author, year),
+                after == null ? null : after.longKey(), after == null ? null : after.id(), fetch.getPageSize());
+        if (hits.isEmpty()) {
+            requireUser(userId);
+        }
+        KeysetPage<BookSearchHit> page = KeysetPage.of(hits, limit,
+                hit -> new KeysetCursor(Long.toString(hit.score()), hit.row().id()).encode());
+        return new KeysetPage<>(withAuthors(page.items().stream().map(BookSearchHit::row).toList()), page.nextCursor());
     }
 
+    /**
+     * Speichert eigene Angaben des Benutzers zu einem Buch. Sie gelten nur für sein Buch;
+     * der gemeinsame Katalogeintrag und damit die Bücher anderer Besitzer bleiben unverändert,
+     * und der Abgleich mit OpenLibrary überschreibt sie nicht.
+     *
+     * @param userId  Benutzer-ID
+     * @param isbn    ISBN des Buches
+     * @param request zu ändernde Felder; {@code null} lässt ein Feld unverändert, ein leerer
+     *                Wert (leere Liste bei den Autoren) stellt die Katalogdaten wieder her
+     * @return das Buch mit den angezeigten Angaben
+     */
     public Book updateBookDetails(UUID userId, String isbn, BookUpdateRequest request) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException(userId));
-        Book book = user.getBooks().stream()
-                .filter(b -> b.getIsbn().equalsIgnoreCase(isbn))
-                .findFirst()
-                .orElseThrow(() -> new BookNotFoundException(isbn));
-        if (request.getTitle() != null) book.setTitle(request.getTitle());
-        if (request.getAuthors() != null) book.setAuthors(request.getAuthors());
-        if (request.getDescription() != null) book.setDescription(request.getDescription());
-        if (request.getCoverUrl() != null) book.setCoverUrl(request.getCoverUrl());
+        Book book = findOwnedBook(userId, isbn);
+        if (request.getTitle() != null) book.setCustomTitle(blankToNull(request.getTitle()));
+        if (request.getAuthors() != null) book.setCustomAuthors(new ArrayList<>(request.getAuthors()));
+        if (request.getDescription() != null) book.setCustomDescription(blankToNull(request.getDescription()));
+        if (request.getCoverUrl() != null) book.setCustomCoverUrl(blankToNull(request.getCoverUrl()));
         return bookRepository.save(book);
     }
-}
\ No newline at end of file
+
+    private static String blankToNull(String value) {
+        return value.isBlank() ? null : value;
+    }
+
+    /**
+     * Sucht ein Buch des Benutzers unabhängig von der Schreibweise der ISBN, sodass z. B. eine
+     * ISBN-10 auch das als ISBN-13 gespeicherte Buch findet. Ein Treffer kostet eine einzige
+     * Abfrage; nur wenn kein Buch gefunden wird, wird geprüft, ob es den Benutzer überhaupt gibt.
+     *
+     * @throws UserNotFoundException wenn der Benutzer nicht existiert
+     * @throws BookNotFoundException wenn der Benutzer das Buch nicht besitzt
+     */
+    Book findOwnedBook(UUID userId, String isbn) {
+        return findOwnedBook(bookRepository, userRepository, userId, isbn);
+    }
+
+    static Book findOwnedBook(BookRepository bookRepository, UserRepository userRepository, UUID userId, String isbn) {
+        return bookRepository.findFirstByUserIdAndCatalogIsbnIn(userId, IsbnNormalizer.lookupKeys(isbn))
+                .orElseThrow(() -> notOwned(userRepository, userId, isbn));
+    }
+
+    private static RuntimeException notOwned(UserRepository userRepository, UUID userId, String isbn) {
+        return userRepository.existsById(userId)
+                ? new BookNotFoundException(isbn)
+                : new UserNotFoundException(userId);
+    }
+
+    private void requireUser(UUID userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new UserNotFoundException(userId);
+        }
+    }
+}
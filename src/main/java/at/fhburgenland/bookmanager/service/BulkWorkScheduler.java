@@ -0,0 +1,143 @@
+package at.fhburgenland.bookmanager.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Supplier;
+
+/**
+ * Führt Massenarbeit (Import-Blöcke) begrenzt und fair zwischen Benutzern aus.
+ *
+ * Jeder Benutzer hat eine eigene Warteschlange. Wird ein Platz frei, kommt der nächste
+ * Benutzer im Reihum-Verfahren an die Reihe, nicht die älteste Aufgabe insgesamt. Ein
+ * Import mit zehntausenden ISBNs verzögert den kleinen Import eines anderen Benutzers so
+ * höchstens um einen Block je laufendem Platz. Höchstens {@code maxConcurrent} Aufgaben
+ * laufen gleichzeitig, damit Massenarbeit die Datenbank und OpenLibrary nicht für
+ * interaktive Anfragen blockiert.
+ *
+ * Wartende und laufende Aufgaben sowie die Wartezeit bis zum Start sind als
+ * {@value #QUEUED_METRIC}, {@value #ACTIVE_METRIC} und {@value #WAIT_METRIC} sichtbar.
+ */
+@Component
+public class BulkWorkScheduler {
+
+    /** Anzahl wartender Aufgaben über alle Benutzer. */
+    public static final String QUEUED_METRIC = "book.bulk.queued";
+
+    /** Anzahl gerade laufender Aufgaben. */
+    public static final String ACTIVE_METRIC = "book.bulk.active";
+
+    /** Wartezeit einer Aufgabe zwischen Einreihen und Start. */
+    public static final String WAIT_METRIC = "book.bulk.wait";
+
+    private final ExecutorService executor;
+    private final int maxConcurrent;
+    private final Timer waitTimer;
+
+    // Alle Felder unten sind durch "this" geschützt.
+    private final Map<UUID, Queue<Task<?>>> queues = new HashMap<>();
+    private final Queue<UUID> rotation = new ArrayDeque<>();
+    private int queued;
+    private int running;
+
+    /**
+     * Erstellt den Scheduler.
+     *
+     * @param executor      Executor, auf dem die Aufgaben laufen
+     * @param maxConcurrent maximale Anzahl gleichzeitig laufender Aufgaben
+     * @param meterRegistry Registry für Warteschlangen- und Wartezeit-Metriken
+     */
+    public BulkWorkScheduler(@Qualifier("importExecutor") ExecutorService executor,
+                             @Value("${book.import.max-concurrent-chunks:4}") int maxConcurrent,
+                             MeterRegistry meterRegistry) {
+        if (maxConcurrent < 1) {
+            throw new IllegalArgumentException("maxConcurrent muss mindestens 1 sein");
+        }
+        this.executor = executor;
+        this.maxConcurrent = maxConcurrent;
+        this.waitTimer = Timer.builder(WAIT_METRIC).publishPercentiles(0.5, 0.95, 0.99).register(meterRegistry);
+        Gauge.builder(QUEUED_METRIC, this, BulkWorkScheduler::queued).register(meterRegistry);
+        Gauge.builder(ACTIVE_METRIC, this, BulkWorkScheduler::running).register(meterRegistry);
+    }
+
+    /**
+     * Reiht eine Aufgabe in die Warteschlange eines Benutzers ein.
+     *
+     * @param owner Benutzer, dem die Aufgabe zugerechnet wird
+     * @param work  die Aufgabe
+     * @param <T>   Ergebnistyp
+     * @return Future, das mit dem Ergebnis oder dem Fehler der Aufgabe abgeschlossen wird
+     */
+    public <T> CompletableFuture<T> submit(UUID owner, Supplier<T> work) {
+        Task<T> task = new Task<>(work, new CompletableFuture<>(), System.nanoTime());
+        synchronized (this) {
+            Queue<Task<?>> queue = queues.computeIfAbsent(owner, key -> new ArrayDeque<>());
+            if (queue.isEmpty()) {
+                rotation.add(owner);
+            }
+            queue.add(task);
+            queued++;
+            dispatch();
+        }
+        return task.result();
+    }
+
+    synchronized int queued() {
+        return queued;
+    }
+
+    synchronized int running() {
+        return running;
+    }
+
+    /**
+     * Startet wartende Aufgaben reihum, solange Plätze frei sind. Ein Benutzer mit weiteren
+     * Aufgaben wird danach wieder hinten in die Rotation eingereiht.
+     */
+    private void dispatch() {
+        while (running < maxConcurrent && !rotation.isEmpty()) {
+            UUID owner = rotation.poll();
+            Queue<Task<?>> queue = queues.get(owner);
+            Task<?> task = queue.poll();
+            if (queue.isEmpty()) {
+                queues.remove(owner);
+            } else {
+                rotation.add(owner);
+            }
+            queued--;
+            running++;
+            executor.execute(() -> run(task));
+        }
+    }
+
+    private <T> void run(Task<T> task) {
+        waitTimer.record(Duration.ofNanos(System.nanoTime() - task.enqueuedAt()));
+        try {
+            if (!task.result().isDone()) {
+                task.result().complete(task.work().get());
+            }
+        } catch (Throwable e) {
+            task.result().completeExceptionally(e);
+        } finally {
+            synchronized (this) {
+                running--;
+                dispatch();
+            }
+        }
+    }
+
+    private record Task<T>(Supplier<T> work, CompletableFuture<T> result, long enqueuedAt) {
+    }
+}
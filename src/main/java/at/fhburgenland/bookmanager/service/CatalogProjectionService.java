@@ -0,0 +1,246 @@
+package at.fhburgenland.bookmanager.service;
+
+import at.fhburgenland.bookmanager.client.OpenLibraryPayloads;
+import at.fhburgenland.bookmanager.dto.BookMetadata;
+import at.fhburgenland.bookmanager.dto.CatalogProjection;
+import at.fhburgenland.bookmanager.model.CatalogBook;
+import at.fhburgenland.bookmanager.model.CatalogPayload;
+import at.fhburgenland.bookmanager.repository.BulkInserter;
+import at.fhburgenland.bookmanager.repository.CatalogBookRepository;
+import at.fhburgenland.bookmanager.repository.CatalogPayloadRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Speichert OpenLibrary-Rohantworten zum Katalog und leitet daraus Autoren, Schlagwörter
+ * und Seitenzahl ab.
+ *
+ * Neue Katalogeinträge werden sofort aus ihrer Rohantwort projiziert. Ändert sich die
+ * Ableitung ({@link CatalogProjection#VERSION}), projiziert {@link #reprojectOutdated()} alle
+ * betroffenen Einträge aus den gespeicherten Antworten neu: blockweise, parallel über den
+ * {@link BulkWorkScheduler} und ohne eine einzige Anfrage an OpenLibrary. Ebenso ergänzt
+ * {@link #indexSearchText()} den Suchtext von Einträgen, die noch keinen haben.
+ */
+@Service
+public class CatalogProjectionService {
+
+    /** Besitzer der Neuprojektion im {@link BulkWorkScheduler}; sie teilt sich die Plätze fair mit Importen. */
+    static final UUID SYSTEM = new UUID(0, 0);
+
+    private static final Logger LOG = LoggerFactory.getLogger(CatalogProjectionService.class);
+
+    private final CatalogBookRepository catalogBookRepository;
+    private final CatalogPayloadRepository payloadRepository;
+    private final BulkInserter bulkInserter;
+    private final TransactionTemplate transactionTemplate;
+    private final BulkWorkScheduler bulkScheduler;
+    private final ExecutorService executor;
+    private final boolean reprojectOnStartup;
+    private final int batchSize;
+
+    /**
+     * Erstellt den Service.
+     *
+     * @param catalogBookRepository Repository der Katalogeinträge
+     * @param payloadRepository     Repository der Rohantworten
+     * @param bulkInserter          speichert neue Einträge und Rohantworten eines Imports gebündelt
+     * @param transactionTemplate   Template für eine Transaktion pro Block
+     * @param bulkScheduler         führt die Blöcke der Neuprojektion begrenzt parallel aus
+     * @param executor              Executor für die Neuprojektion beim Start
+     * @param reprojectOnStartup    ob veraltete Einträge beim Start neu projiziert werden
+     * @param batchSize             Anzahl Einträge pro Block und Transaktion
+     */
+    public CatalogProjectionService(CatalogBookRepository catalogBookRepository,
+                                    CatalogPayloadRepository payloadRepository,
+                                    BulkInserter bulkInserter,
+                                    TransactionTemplate transactionTemplate,
+                                    BulkWorkScheduler bulkScheduler,
+                                    @Qualifier("importExecutor") ExecutorService executor,
+                                    @Value("${book.catalog.reprojection.on-startup:true}") boolean reprojectOnStartup,
+                                    @Value("${book.catalog.reprojection.batch-size:200}") int batchSize) {
+        this.catalogBookRepository = catalogBookRepository;
+        this.payloadRepository = payloadRepository;
+        this.bulkInserter = bulkInserter;
+        this.transactionTemplate = transactionTemplate;
+        this.bulkScheduler = bulkScheduler;
+        this.executor = executor;
+        this.reprojectOnStartup = reprojectOnStartup;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Erstellt einen neuen, noch nicht gespeicherten Katalogeintrag und legt die Rohantwort ab.
+     * Autoren, Schlagwörter und Seitenzahl werden direkt aus der Rohantwort abgeleitet.
+     *
+     * @param metadata abgerufene Metadaten, optional mit Rohantwort
+     * @return neuer Katalogeintrag
+     */
+    public CatalogBook createEntry(BookMetadata metadata) {
+        CatalogBook entry = CatalogBook.from(metadata);
+        if (metadata.payload() != null) {
+            payloadRepository.save(new CatalogPayload(metadata.isbn(), metadata.payload(), Instant.now()));
+            project(entry, metadata.payload());
+        }
+        return entry;
+    }
+
+    /**
+     * Erstellt und speichert mehrere neue Katalogeinträge samt Rohantworten, etwa für einen
+     * Import-Block. Anders als {@link #createEntry} gehen die Rohantworten nicht einzeln über
+     * {@code save}, das bei vorgegebener ID pro ISBN erst nach einer bestehenden Zeile sucht,
+     * sondern wie die Einträge gebündelt über den {@link BulkInserter}. Muss innerhalb einer
+     * Transaktion laufen.
+     *
+     * @param metadata abgerufene Metadaten zu ISBNs, die noch nicht im Katalog stehen
+     * @return gespeicherte Katalogeinträge in der Reihenfolge der Metadaten
+     */
+    public List<CatalogBook> createEntries(Collection<BookMetadata> metadata) {
+        List<CatalogBook> entries = new ArrayList<>(metadata.size());
+        List<CatalogPayload> payloads = new ArrayList<>(metadata.size());
+        Instant fetchedAt = Instant.now();
+        for (BookMetadata item : metadata) {
+            CatalogBook entry = CatalogBook.from(item);
+            if (item.payload() != null) {
+                payloads.add(new CatalogPayload(item.isbn(), item.payload(), fetchedAt));
+                project(entry, item.payload());
+            }
+            entries.add(entry);
+        }
+        bulkInserter.persistAll(entries);
+        bulkInserter.insertAll(payloads);
+        return entries;
+    }
+
+    /**
+     * Ersetzt die Rohantwort eines bestehenden Eintrags durch eine neu abgerufene und
+     * projiziert den Eintrag daraus neu. Den Suchtext bildet sie in jedem Fall neu, weil
+     * Titel und Verlag per Massen-Update an der Entität vorbei geändert werden.
+     *
+     * @param metadata neu abgerufene Metadaten, optional mit Rohantwort
+     */
+    public void replacePayload(BookMetadata metadata) {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (metadata.payload() != null) {
+                payloadRepository.save(new CatalogPayload(metadata.isbn(), metadata.payload(), Instant.now()));
+            }
+            catalogBookRepository.findById(metadata.isbn()).ifPresent(entry -> {
+                if (metadata.payload() == null || !project(entry, metadata.payload())) {
+                    entry.refreshSearchText();
+                }
+            });
+        });
+    }
+
+    /**
+     * Startet die Neuprojektion und das Nachtragen fehlender Suchtexte nach dem Start im
+     * Hintergrund, sofern aktiviert.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reprojectOnStartup() {
+        if (reprojectOnStartup) {
+            executor.execute(() -> {
+                reprojectOutdated();
+                indexSearchText();
+            });
+        }
+    }
+
+    /**
+     * Projiziert alle Einträge, deren abgeleitete Felder aus einer älteren Version stammen,
+     * aus ihren gespeicherten Rohantworten neu.
+     *
+     * @return Anzahl neu projizierter Einträge
+     */
+    public int reprojectOutdated() {
+        long start = System.nanoTime();
+        List<CompletableFuture<Integer>> batches = new ArrayList<>();
+        String after = "";
+        List<String> isbns;
+        while (!(isbns = catalogBookRepository.findIsbnsWithOutdatedProjection(
+                CatalogProjection.VERSION, after, PageRequest.of(0, batchSize))).isEmpty()) {
+            List<String> batch = isbns;
+            batches.add(bulkScheduler.submit(SYSTEM, () -> reprojectBatch(batch)));
+            after = batch.get(batch.size() - 1);
+        }
+        int reprojected = 0;
+        for (CompletableFuture<Integer> batch : batches) {
+            reprojected += batch.join();
+        }
+        if (reprojected > 0) {
+            LOG.info("{} Katalogeinträge in {} ms aus gespeicherten Rohantworten neu projiziert",
+                    reprojected, (System.nanoTime() - start) / 1_000_000);
+        }
+        return reprojected;
+    }
+
+    /**
+     * Bildet den Suchtext aller Einträge, die noch keinen haben, blockweise mit einer
+     * Transaktion pro Block. Auf PostgreSQL aktualisiert die Datenbank dabei auch den
+     * abgeleiteten {@code tsvector}.
+     *
+     * @return Anzahl indizierter Einträge
+     */
+    public int indexSearchText() {
+        long start = System.nanoTime();
+        int indexed = 0;
+        String after = "";
+        List<String> isbns;
+        while (!(isbns = catalogBookRepository.findIsbnsWithoutSearchText(after, PageRequest.of(0, batchSize))).isEmpty()) {
+            List<String> batch = isbns;
+            transactionTemplate.executeWithoutResult(status ->
+                    catalogBookRepository.findAllById(batch).forEach(CatalogBook::refreshSearchText));
+            indexed += batch.size();
+            after = batch.get(batch.size() - 1);
+        }
+        if (indexed > 0) {
+            LOG.info("Suchtext für {} Katalogeinträge in {} ms nachgetragen",
+                    indexed, (System.nanoTime() - start) / 1_000_000);
+        }
+        return indexed;
+    }
+
+    private int reprojectBatch(List<String> isbns) {
+        Integer updated = transactionTemplate.execute(status -> {
+            Map<String, CatalogPayload> payloads = payloadRepository.findAllById(isbns).stream()
+                    .collect(Collectors.toMap(CatalogPayload::getIsbn, Function.identity()));
+            int count = 0;
+            for (CatalogBook entry : catalogBookRepository.findAllById(isbns)) {
+                CatalogPayload payload = payloads.get(entry.getIsbn());
+                if (payload != null && project(entry, payload.getPayload())) {
+                    count++;
+                }
+            }
+            return count;
+        });
+        return updated == null ? 0 : updated;
+    }
+
+    private static boolean project(CatalogBook entry, byte[] payload) {
+        try {
+            entry.apply(OpenLibraryPayloads.project(payload));
+            return true;
+        } catch (IOException e) {
+            LOG.warn("Rohantwort zu ISBN {} ist nicht lesbar: {}", entry.getIsbn(), e.getMessage());
+            return false;
+        }
+    }
+}
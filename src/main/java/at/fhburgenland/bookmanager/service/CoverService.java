@@ -0,0 +1,113 @@
+package at.fhburgenland.bookmanager.service;
+
+import at.fhburgenland.bookmanager.client.OpenLibraryCoverClient;
+import at.fhburgenland.bookmanager.exception.CoverNotFoundException;
+import at.fhburgenland.bookmanager.exception.InvalidBookException;
+import at.fhburgenland.bookmanager.exception.MetadataUnavailableException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+
+/**
+ * Liefert Coverbilder aus dem {@link CoverStore} und lädt fehlende einmalig von OpenLibrary nach.
+ *
+ * Gleichzeitige Anfragen nach demselben, noch nicht gespeicherten Cover lösen nur einen
+ * Abruf aus. ISBNs, zu denen OpenLibrary kein Cover kennt, merkt sich der Service für
+ * {@code book.covers.negative-cache.ttl} (Metriken unter {@value #MISSING_CACHE_NAME}); bis
+ * dahin scheitern weitere Anfragen ohne Netzwerkaufruf.
+ */
+@Service
+public class CoverService {
+
+    /**
+     * Name, unter dem der negative Cache in den Micrometer-Metriken erscheint.
+     */
+    public static final String MISSING_CACHE_NAME = "coverMissing";
+
+    private final CoverStore coverStore;
+    private final OpenLibraryCoverClient coverClient;
+    private final SingleFlight<String, CoverStore.StoredCover> inFlightFetches = new SingleFlight<>();
+    private final Duration coalescingWaitTimeout;
+    private final Cache<String, Boolean> missing;
+
+    /**
+     * Erstellt den Service.
+     *
+     * @param coverStore            Festplatten-Cache für Coverbilder
+     * @param coverClient           Client für die OpenLibrary Covers API
+     * @param coalescingWaitTimeout maximale Wartezeit auf einen bereits laufenden Abruf desselben Covers
+     * @param missingMaxSize        maximale Anzahl gemerkter ISBNs ohne Cover
+     * @param missingTtl            wie lange eine ISBN ohne Cover nicht erneut angefragt wird
+     * @param meterRegistry         Registry, in der die Metriken des negativen Caches veröffentlicht werden
+     */
+    public CoverService(CoverStore coverStore,
+                        OpenLibraryCoverClient coverClient,
+                        @Value("${book.metadata.coalescing.wait-timeout:PT10S}") Duration coalescingWaitTimeout,
+                        @Value("${book.covers.negative-cache.max-size:10000}") long missingMaxSize,
+                        @Value("${book.covers.negative-cache.ttl:PT6H}") Duration missingTtl,
+                        MeterRegistry meterRegistry) {
+        this.coverStore = coverStore;
+        this.coverClient = coverClient;
+        this.coalescingWaitTimeout = coalescingWaitTimeout;
+        this.missing = Caffeine.newBuilder()
+                .maximumSize(missingMaxSize)
+                .expireAfterWrite(missingTtl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, missing, MISSING_CACHE_NAME);
+    }
+
+    /**
+     * Liefert das Cover zu einer ISBN.
+     *
+     * @param isbn ISBN in beliebiger Schreibweise
+     * @return das gespeicherte Cover
+     * @throws InvalidBookException         wenn die Eingabe keine ISBN ist
+     * @throws CoverNotFoundException       wenn OpenLibrary kein Cover zur ISBN kennt
+     * @throws MetadataUnavailableException wenn OpenLibrary nicht erreichbar ist
+     */
+    public CoverStore.StoredCover getCover(String isbn) {
+        String normalized = normalizeIsbn(isbn);
+        return coverStore.find(normalized).orElseGet(() -> {
+            if (isKnownMissing(normalized)) {
+                throw new CoverNotFoundException(normalized);
+            }
+            return inFlightFetches.execute(normalized, () -> fetchAndStore(normalized), coalescingWaitTimeout);
+        });
+    }
+
+    /**
+     * Prüft, ob OpenLibrary innerhalb der TTL des negativen Caches kein Cover zur ISBN kannte.
+     *
+     * @param isbn normalisierte ISBN
+     * @return {@code true}, wenn zuletzt kein Cover gefunden wurde
+     */
+    public boolean isKnownMissing(String isbn) {
+        return missing.getIfPresent(isbn) != null;
+    }
+
+    /**
+     * Normalisiert eine ISBN zur kanonischen ISBN-13, die zugleich als Dateiname im Cover-Cache dient.
+     *
+     * @param isbn ISBN in beliebiger Schreibweise
+     * @return normalisierte ISBN-13
+     * @throws InvalidBookException wenn die Eingabe keine ISBN mit gültiger Prüfziffer ist
+     */
+    public static String normalizeIsbn(String isbn) {
+        return IsbnNormalizer.toIsbn13(isbn);
+    }
+
+    private CoverStore.StoredCover fetchAndStore(String isbn) {
+        return coverStore.find(isbn).orElseGet(() -> coverClient.fetch(isbn)
+                .map(image -> coverStore.store(isbn, image.content(), image.contentType()))
+                .orElseThrow(() -> {
+                    missing.put(isbn, Boolean.TRUE);
+                    return new CoverNotFoundException(isbn);
+                }));
+    }
+}
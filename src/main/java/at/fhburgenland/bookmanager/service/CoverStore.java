@@ -0,0 +1,279 @@
+package at.fhburgenland.bookmanager.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Inhaltsadressierter Festplatten-Cache für Coverbilder.
+ *
+ * Jedes Bild liegt genau einmal unter {@code blobs/<xx>/<sha256>}; gleiche Bilder mehrerer
+ * ISBNs (z. B. Platzhalter) werden also nur einmal gespeichert. Die Zuordnung ISBN → Bild
+ * steht in {@code refs/<isbn>} (Hash und MIME-Typ). Überschreitet der Cache seine
+ * Maximalgröße, werden die am längsten nicht gelesenen Bilder verdrängt; Verweise auf
+ * verdrängte Bilder gelten danach als Fehlgriff.
+ *
+ * Verdrängte Dateien werden nicht sofort gelöscht, denn eine Antwort kann das Bild gerade noch
+ * senden. Wer eine Datei liest, hält dafür eine {@link Lease}; gelöscht wird erst, wenn keine
+ * mehr offen ist und die Verdrängung mindestens {@code book.covers.delete-delay} zurückliegt.
+ * Die Wartezeit deckt Leser ohne Lease ab, etwa Sendfile, bei dem der Container die Datei erst
+ * nach dem Controller öffnet. Bis dahin kann der Cache seine Maximalgröße kurz überschreiten.
+ */
+@Component
+public class CoverStore {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CoverStore.class);
+
+    /**
+     * Ein gespeichertes Coverbild.
+     *
+     * @param file        Datei mit den Bilddaten
+     * @param hash        SHA-256 der Bilddaten (hexadezimal)
+     * @param contentType MIME-Typ
+     * @param size        Größe in Bytes
+     */
+    public record StoredCover(Path file, String hash, String contentType, long size) {
+    }
+
+    /**
+     * Hält eine Bilddatei offen, solange eine Antwort sie liest; verhindert deren Löschung.
+     */
+    public final class Lease implements AutoCloseable {
+
+        private final String hash;
+        private boolean closed;
+
+        private Lease(String hash) {
+            this.hash = hash;
+        }
+
+        @Override
+        public void close() {
+            synchronized (CoverStore.this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                readers.computeIfPresent(hash, (key, count) -> count == 1 ? null : count - 1);
+                deleteRetired();
+            }
+        }
+    }
+
+    private final Path blobDir;
+    private final Path refDir;
+    private final long maxBytes;
+    private final Duration deleteDelay;
+
+    /** Bilder nach letztem Zugriff (Hash → Größe), ältester zuerst. */
+    private final LinkedHashMap<String, Long> blobs = new LinkedHashMap<>(256, 0.75f, true);
+    /** Anzahl offener {@link Lease}s je Bild. */
+    private final Map<String, Integer> readers = new HashMap<>();
+    /** Verdrängte, noch nicht gelöschte Bilder mit dem Zeitpunkt der Verdrängung. */
+    private final Map<String, Instant> retired = new LinkedHashMap<>();
+    private long totalBytes;
+
+    /**
+     * Erstellt den Cache und liest vorhandene Bilder ein.
+     *
+     * @param cacheDir     Wurzelverzeichnis des Caches
+     * @param maxCacheSize maximale Gesamtgröße der gespeicherten Bilder
+     * @param deleteDelay  Mindestwartezeit zwischen Verdrängung und Löschung eines Bildes
+     */
+    public CoverStore(@Value("${book.covers.cache-dir:${java.io.tmpdir}/bookmanager-covers}") Path cacheDir,
+                      @Value("${book.covers.max-cache-size:512MB}") DataSize maxCacheSize,
+                      @Value("${book.covers.delete-delay:PT1M}") Duration deleteDelay) {
+        this.blobDir = cacheDir.resolve("blobs");
+        this.refDir = cacheDir.resolve("refs");
+        this.maxBytes = maxCacheSize.toBytes();
+        this.deleteDelay = deleteDelay;
+        try {
+            Files.createDirectories(blobDir);
+            Files.createDirectories(refDir);
+            loadExistingBlobs();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cover-Cache " + cacheDir + " kann nicht angelegt werden", e);
+        }
+    }
+
+    /**
+     * Sucht das gespeicherte Cover einer ISBN.
+     *
+     * @param isbn normalisierte ISBN
+     * @return das Cover oder leer bei einem Fehlgriff
+     */
+    public Optional<StoredCover> find(String isbn) {
+        Path ref = refDir.resolve(isbn);
+        if (!Files.isRegularFile(ref)) {
+            return Optional.empty();
+        }
+        try {
+            List<String> lines = Files.readAllLines(ref, StandardCharsets.UTF_8);
+            if (lines.size() < 2) {
+                return Optional.empty();
+            }
+            String hash = lines.get(0);
+            Long size;
+            synchronized (this) {
+                size = blobs.get(hash);
+            }
+            return size == null ? Optional.empty() : Optional.of(new StoredCover(blobPath(hash), hash, lines.get(1), size));
+        } catch (IOException e) {
+            LOG.warn("Cover-Verweis {} nicht lesbar", ref, e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Speichert ein Coverbild und verknüpft es mit der ISBN.
+     *
+     * @param isbn        normalisierte ISBN
+     * @param content     Bilddaten
+     * @param contentType MIME-Typ
+     * @return das gespeicherte Cover
+     */
+    public StoredCover store(String isbn, byte[] content, String contentType) {
+        String hash = sha256(content);
+        Path blob = blobPath(hash);
+        try {
+            synchronized (this) {
+                // Ein verdrängtes, noch nicht gelöschtes Bild wird wiederverwendet statt gelöscht.
+                retired.remove(hash);
+            }
+            if (!Files.exists(blob)) {
+                Files.createDirectories(blob.getParent());
+                writeAtomically(blob, content);
+            }
+            synchronized (this) {
+                retired.remove(hash);
+                if (blobs.put(hash, (long) content.length) == null) {
+                    totalBytes += content.length;
+                    evict(hash);
+                }
+                deleteRetired();
+            }
+            writeAtomically(refDir.resolve(isbn), (hash + "\n" + contentType + "\n").getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cover für ISBN " + isbn + " kann nicht gespeichert werden", e);
+        }
+        return new StoredCover(blob, hash, contentType, content.length);
+    }
+
+    /**
+     * Schützt ein Bild vor dem Löschen, bis die zurückgegebene Lease geschlossen wird.
+     *
+     * @param cover das zu lesende Cover
+     * @return Lease, die nach dem Lesen zu schließen ist
+     */
+    public synchronized Lease lease(StoredCover cover) {
+        readers.merge(cover.hash(), 1, Integer::sum);
+        return new Lease(cover.hash());
+    }
+
+    /**
+     * Liefert die aktuelle Gesamtgröße der gespeicherten Bilder.
+     *
+     * @return Größe in Bytes
+     */
+    public synchronized long totalBytes() {
+        return totalBytes;
+    }
+
+    private void evict(String keep) {
+        Iterator<Map.Entry<String, Long>> eldest = blobs.entrySet().iterator();
+        Instant now = Instant.now();
+        while (totalBytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<String, Long> entry = eldest.next();
+            if (entry.getKey().equals(keep)) {
+                continue;
+            }
+            retired.put(entry.getKey(), now);
+            totalBytes -= entry.getValue();
+            eldest.remove();
+        }
+    }
+
+    /** Löscht verdrängte Bilder, die niemand mehr liest und deren Wartezeit abgelaufen ist. */
+    private void deleteRetired() {
+        Instant threshold = Instant.now().minus(deleteDelay);
+        Iterator<Map.Entry<String, Instant>> candidates = retired.entrySet().iterator();
+        while (candidates.hasNext()) {
+            Map.Entry<String, Instant> entry = candidates.next();
+            if (readers.containsKey(entry.getKey()) || entry.getValue().isAfter(threshold)) {
+                continue;
+            }
+            try {
+                Files.deleteIfExists(blobPath(entry.getKey()));
+                candidates.remove();
+            } catch (IOException e) {
+                LOG.warn("Cover {} konnte nicht gelöscht werden", entry.getKey(), e);
+            }
+        }
+    }
+
+    private void loadExistingBlobs() throws IOException {
+        try (Stream<Path> files = Files.walk(blobDir)) {
+            files.filter(Files::isRegularFile)
+                    .filter(file -> !file.getFileName().toString().endsWith(".tmp"))
+                    .sorted(Comparator.comparing(CoverStore::lastModified))
+                    .forEach(file -> {
+                        long size = file.toFile().length();
+                        blobs.put(file.getFileName().toString(), size);
+                        totalBytes += size;
+                    });
+        }
+    }
+
+    private Path blobPath(String hash) {
+        return blobDir.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    private static void writeAtomically(Path target, byte[] content) throws IOException {
+        Path tmp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+        try {
+            Files.write(tmp, content);
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private static FileTime lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private static String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 nicht verfügbar", e);
+        }
+    }
+}
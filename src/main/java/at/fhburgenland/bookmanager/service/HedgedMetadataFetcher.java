@@ -0,0 +1,279 @@
+package at.fhburgenland.bookmanager.service;
+
+import at.fhburgenland.bookmanager.client.BookMetadataProvider;
+import at.fhburgenland.bookmanager.client.OpenLibraryRateLimiter;
+import at.fhburgenland.bookmanager.dto.BookMetadata;
+import at.fhburgenland.bookmanager.exception.InvalidBookException;
+import at.fhburgenland.bookmanager.exception.MetadataUnavailableException;
+import at.fhburgenland.bookmanager.exception.RateLimitExceededException;
+import at.fhburgenland.bookmanager.exception.UnknownIsbnException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Fragt die {@link BookMetadataProvider} mit abgesicherten Zweitanfragen (Hedged Requests) ab.
+ *
+ * Der erste Anbieter wird immer gefragt. Liefert er nicht innerhalb des konfigurierten
+ * Perzentils seiner jüngsten Antwortzeiten, geht eine zweite Anfrage an den nächsten
+ * Anbieter (bzw. erneut an denselben, wenn es nur einen gibt) und die erste gute Antwort
+ * gewinnt. Scheitert der erste Anbieter schon vorher, wird der zweite sofort gefragt.
+ * So schlägt ein einzelner langsamer Aufruf nicht mehr voll auf die p99-Latenz durch,
+ * während nur ein kleiner Teil der Anfragen doppelt gestellt wird.
+ *
+ * Jede einzelne Anfrage an einen Anbieter belegt einen Platz im Bulkhead, eine
+ * abgesicherte Abfrage also zwei. Ist das Bulkhead voll, unterbleibt die Zweitanfrage und es
+ * zählt allein die erste; bekommt schon die erste keinen Platz, scheitert der Abruf mit
+ * {@link BulkheadFullException}.
+ *
+ * Das Token für die erste Anfrage hat der Aufrufer beim {@link OpenLibraryRateLimiter}
+ * bereits geholt. Die Zweitanfrage braucht ein weiteres, wartet darauf aber nicht: Ist keines
+ * sofort frei, unterbleibt sie wie bei vollem Bulkhead. Die {@link RequestDeadline} des
+ * Aufrufers wird in beide Anfragen mitgenommen. Steht ein Ergebnis fest, wird die unterlegene
+ * Anfrage abgebrochen, indem ihr virtueller Thread unterbrochen wird; so gibt sie ihren Platz
+ * im Bulkhead sofort frei.
+ *
+ * Die Antwortzeiten des ersten Anbieters werden für jeden Aufruf erfasst, der ihn erreicht
+ * hat, auch für fehlgeschlagene und abgebrochene. Ein abgebrochener Aufruf geht mit der Zeit
+ * bis zum Abbruch ein, also mindestens mit der Wartezeit vor der Zweitanfrage.
+ * Ausgelöste und gewonnene Zweitanfragen sind als {@value #HEDGE_METRIC} sichtbar.
+ */
+@Component
+public class HedgedMetadataFetcher {
+
+    /**
+     * Name des Zählers für Zweitanfragen, Tag {@code result} ist {@code fired} oder {@code won}.
+     */
+    public static final String HEDGE_METRIC = "book.metadata.hedges";
+
+    private static final Logger LOG = LoggerFactory.getLogger(HedgedMetadataFetcher.class);
+
+    private final BookMetadataProvider primary;
+    private final BookMetadataProvider secondary;
+    private final ExecutorService executor;
+    private final Bulkhead bulkhead;
+    private final OpenLibraryRateLimiter rateLimiter;
+    private final boolean enabled;
+    private final double percentile;
+    private final Duration minDelay;
+    private final Duration maxDelay;
+    private final LatencyWindow primaryLatency = new LatencyWindow(256, 20);
+    private final Counter hedgesFired;
+    private final Counter hedgesWon;
+
+    /**
+     * Erstellt den Fetcher.
+     *
+     * @param providers     alle Anbieter in der Reihenfolge ihrer {@code @Order}, mindestens einer
+     * @param executor      Executor für die parallelen Anfragen
+     * @param bulkhead      begrenzt gleichzeitige Anfragen an die Anbieter, ein Platz je Anfrage
+     * @param rateLimiter   clusterweites Ratenlimit, aus dem Zweitanfragen ein eigenes Token nehmen
+     * @param enabled       ob Zweitanfragen gestellt werden
+     * @param percentile    Perzentil der Antwortzeiten des ersten Anbieters, ab dem abgesichert wird
+     * @param minDelay      kürzeste Wartezeit vor einer Zweitanfrage
+     * @param maxDelay      längste Wartezeit vor einer Zweitanfrage, gilt auch solange zu wenige Messwerte vorliegen
+     * @param meterRegistry Registry für die Zähler der Zweitanfragen
+     */
+    public HedgedMetadataFetcher(List<BookMetadataProvider> providers,
+                                 @Qualifier("metadataHedgeExecutor") ExecutorService executor,
+                                 @Qualifier("openLibraryBulkhead") Bulkhead bulkhead,
+                                 OpenLibraryRateLimiter rateLimiter,
+                                 @Value("${book.metadata.hedging.enabled:true}") boolean enabled,
+                                 @Value("${book.metadata.hedging.percentile:0.95}") double percentile,
+                                 @Value("${book.metadata.hedging.min-delay:PT0.05S}") Duration minDelay,
+                                 @Value("${book.metadata.hedging.max-delay:PT1S}") Duration maxDelay,
+                                 MeterRegistry meterRegistry) {
+        if (providers.isEmpty()) {
+            throw new IllegalArgumentException("Mindestens ein BookMetadataProvider ist erforderlich");
+        }
+        this.primary = providers.get(0);
+        this.secondary = providers.size() > 1 ? providers.get(1) : primary;
+        this.executor = executor;
+        this.bulkhead = bulkhead;
+        this.rateLimiter = rateLimiter;
+        this.enabled = enabled;
+        this.percentile = percentile;
+        this.minDelay = minDelay;
+        this.maxDelay = maxDelay;
+        this.hedgesFired = Counter.builder(HEDGE_METRIC).tag("result", "fired").register(meterRegistry);
+        this.hedgesWon = Counter.builder(HEDGE_METRIC).tag("result", "won").register(meterRegistry);
+    }
+
+    /**
+     * Ruft die Metadaten zu einer ISBN ab, bei Bedarf mit Zweitanfrage.
+     *
+     * @param isbn normalisierte ISBN-13
+     * @return die erste gute Antwort
+     * @throws UnknownIsbnException         wenn kein Anbieter Daten liefert und der erste die ISBN nicht kennt
+     * @throws InvalidBookException         wenn kein Anbieter Daten liefert und der erste Abruf fehlschlägt
+     * @throws MetadataUnavailableException wenn kein Anbieter Daten liefert und der erste nicht verfügbar ist
+     * @throws BulkheadFullException        wenn die erste Anfrage keinen Platz im Bulkhead bekommt
+     */
+    public BookMetadata fetch(String isbn) {
+        if (!enabled) {
+            return timedPrimaryFetch(isbn);
+        }
+        Call first = submit(() -> timedPrimaryFetch(isbn));
+        try {
+            return first.result().get(hedgeDelay().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            LOG.debug("{} antwortet nicht rechtzeitig für ISBN {}, frage {}", primary.name(), isbn, secondary.name());
+        } catch (ExecutionException e) {
+            if (secondary == primary) {
+                throw unwrap(e.getCause());
+            }
+            LOG.debug("{} scheiterte für ISBN {}, frage {}", primary.name(), isbn, secondary.name());
+        } catch (InterruptedException e) {
+            first.cancel();
+            Thread.currentThread().interrupt();
+            throw new MetadataUnavailableException("Abruf der Buchdaten wurde unterbrochen");
+        }
+        hedgesFired.increment();
+        Call hedge = submit(() -> bulkheaded(() -> {
+            if (!rateLimiter.tryAcquire()) {
+                throw new RateLimitExceededException("Kein freies Token für die Zweitanfrage an " + secondary.name());
+            }
+            return secondary.fetch(isbn);
+        }));
+        try {
+            return firstSuccessful(first.result(), hedge.result());
+        } finally {
+            // Bereits abgeschlossene Anfragen bleiben unberührt, nur die unterlegene wird abgebrochen.
+            first.cancel();
+            hedge.cancel();
+        }
+    }
+
+    /**
+     * Ruft die Metadaten mehrerer ISBNs beim ersten Anbieter ab. Massenabrufe sind nicht
+     * latenzkritisch und werden daher nicht abgesichert.
+     *
+     * @param isbns normalisierte ISBN-13
+     * @return Map von ISBN auf Metadaten
+     */
+    public Map<String, BookMetadata> fetchAll(Collection<String> isbns) {
+        return primary.fetchAll(isbns);
+    }
+
+    /**
+     * Wartezeit vor einer Zweitanfrage: das konfigurierte Perzentil der jüngsten Antwortzeiten
+     * des ersten Anbieters, begrenzt auf {@code [minDelay, maxDelay]}.
+     */
+    Duration hedgeDelay() {
+        Duration observed = primaryLatency.percentile(percentile).orElse(maxDelay);
+        if (observed.compareTo(minDelay) < 0) {
+            return minDelay;
+        }
+        return observed.compareTo(maxDelay) > 0 ? maxDelay : observed;
+    }
+
+    private BookMetadata timedPrimaryFetch(String isbn) {
+        return bulkheaded(() -> {
+            long start = System.nanoTime();
+            try {
+                return primary.fetch(isbn);
+            } finally {
+                primaryLatency.record(Duration.ofNanos(System.nanoTime() - start));
+            }
+        });
+    }
+
+    /**
+     * Führt eine Anfrage mit einem Platz im Bulkhead aus. Ein volles Bulkhead wird als
+     * {@link BulkheadFullException} weitergereicht: Es ist eigene Last, kein Ausfall von
+     * OpenLibrary, und darf den Circuit Breaker deshalb nicht öffnen.
+     */
+    private BookMetadata bulkheaded(Supplier<BookMetadata> call) {
+        return bulkhead.executeSupplier(call);
+    }
+
+    /**
+     * Startet eine Anfrage auf dem Executor. Anders als bei {@link CompletableFuture#supplyAsync}
+     * bleibt der Task erreichbar, sodass die Anfrage abgebrochen werden kann.
+     */
+    private Call submit(Supplier<BookMetadata> fetch) {
+        CompletableFuture<BookMetadata> result = new CompletableFuture<>();
+        Supplier<BookMetadata> withDeadline = RequestDeadline.propagate(fetch);
+        Future<?> task = executor.submit(() -> {
+            try {
+                result.complete(withDeadline.get());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return new Call(result, task);
+    }
+
+    /**
+     * Liefert das erste erfolgreiche Ergebnis. Scheitern beide Anfragen, wird der Fehler
+     * des ersten Anbieters geworfen, da er die maßgebliche Quelle ist.
+     */
+    private BookMetadata firstSuccessful(CompletableFuture<BookMetadata> first, CompletableFuture<BookMetadata> hedge) {
+        CompletableFuture<BookMetadata> winner = new CompletableFuture<>();
+        AtomicInteger pending = new AtomicInteger(2);
+        first.whenComplete((metadata, error) -> {
+            if (error == null) {
+                winner.complete(metadata);
+            } else if (pending.decrementAndGet() == 0) {
+                winner.completeExceptionally(error);
+            }
+        });
+        hedge.whenComplete((metadata, error) -> {
+            if (error == null) {
+                if (winner.complete(metadata)) {
+                    hedgesWon.increment();
+                }
+            } else if (pending.decrementAndGet() == 0) {
+                first.whenComplete((ignored, firstError) -> winner.completeExceptionally(firstError));
+            }
+        });
+        try {
+            return winner.get();
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MetadataUnavailableException("Abruf der Buchdaten wurde unterbrochen");
+        }
+    }
+
+    /**
+     * Eine laufende Anfrage: ihr Ergebnis und der Task, der sie ausführt.
+     */
+    private record Call(CompletableFuture<BookMetadata> result, Future<?> task) {
+
+        void cancel() {
+            if (!result.isDone()) {
+                task.cancel(true);
+            }
+        }
+    }
+
+    private static RuntimeException unwrap(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        return new MetadataUnavailableException("Abruf der Buchdaten fehlgeschlagen: " + cause.getMessage());
+    }
+}
@@ -0,0 +1,127 @@
+package at.fhburgenland.bookmanager.service;
+
+import at.fhburgenland.bookmanager.dto.ImportJobStatus;
+import at.fhburgenland.bookmanager.dto.IsbnImportResult;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Veränderlicher, thread-sicherer Zustand eines laufenden Import-Auftrags.
+ *
+ * Die Zähler werden von mehreren virtuellen Threads gleichzeitig fortgeschrieben;
+ * {@link #toStatus()} liefert eine unveränderliche Momentaufnahme für die API.
+ */
+class ImportJob {
+
+    private final UUID id;
+    private final UUID userId;
+    private final List<String> isbns;
+    private final Clock clock;
+    private final Instant createdAt;
+    private final AtomicInteger processed = new AtomicInteger();
+    private final AtomicInteger imported = new AtomicInteger();
+    private final AtomicInteger alreadyOwned = new AtomicInteger();
+    private final AtomicInteger notFound = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private final AtomicInteger invalid = new AtomicInteger();
+    private final Queue<IsbnImportResult> failures = new ConcurrentLinkedQueue<>();
+    private volatile ImportJobStatus.State state = ImportJobStatus.State.QUEUED;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+
+    ImportJob(UUID userId, List<String> isbns, Clock clock) {
+        this.id = UUID.randomUUID();
+        this.userId = userId;
+        this.isbns = List.copyOf(isbns);
+        this.clock = clock;
+        this.createdAt = clock.instant();
+    }
+
+    UUID getId() {
+        return id;
+    }
+
+    UUID getUserId() {
+        return userId;
+    }
+
+    List<String> getIsbns() {
+        return isbns;
+    }
+
+    void start() {
+        startedAt = clock.instant();
+        state = ImportJobStatus.State.RUNNING;
+    }
+
+    void finish(ImportJobStatus.State finalState) {
+        finishedAt = clock.instant();
+        state = finalState;
+    }
+
+    /**
+     * Endzustand nach Verarbeitung aller Blöcke: {@link ImportJobStatus.State#FAILED} nur, wenn
+     * keine einzige ISBN anders als fehlgeschlagen endete, sonst
+     * {@link ImportJobStatus.State#COMPLETED} mit den Fehlschlägen in den Zählern.
+     *
+     * @return Endzustand des Auftrags
+     */
+    ImportJobStatus.State outcome() {
+        int failedCount = failed.get();
+        return failedCount > 0 && failedCount == processed.get()
+                ? ImportJobStatus.State.FAILED
+                : ImportJobStatus.State.COMPLETED;
+    }
+
+    boolean isFinishedBefore(Instant instant) {
+        Instant end = finishedAt;
+        return end != null && end.isBefore(instant);
+    }
+
+    /**
+     * Verbucht die Ergebnisse eines verarbeiteten Blocks.
+     *
+     * @param results Ergebnisse pro ISBN
+     */
+    void record(List<IsbnImportResult> results) {
+        for (IsbnImportResult result : results) {
+            switch (result.status()) {
+                case IMPORTED -> imported.incrementAndGet();
+                case ALREADY_OWNED -> alreadyOwned.incrementAndGet();
+                case NOT_FOUND -> {
+                    notFound.incrementAndGet();
+                    failures.add(result);
+                }
+                case FAILED -> {
+                    failed.incrementAndGet();
+                    failures.add(result);
+                }
+                case INVALID -> {
+                    invalid.incrementAndGet();
+                    failures.add(result);
+                }
+            }
+            processed.incrementAndGet();
+        }
+    }
+
+    ImportJobStatus toStatus() {
+        Instant start = startedAt;
+        Instant end = finishedAt;
+        double throughput = 0;
+        if (start != null) {
+            long millis = Duration.between(start, end != null ? end : clock.instant()).toMillis();
+            throughput = millis > 0 ? processed.get() * 1000.0 / millis : 0;
+        }
+        return new ImportJobStatus(id, userId, state, isbns.size(), processed.get(), imported.get(),
+                alreadyOwned.get(), notFound.get(), failed.get(), invalid.get(), throughput, createdAt, start, end,
+                List.copyOf(failures));
+    }
+}
@@ -0,0 +1,162 @@
+package at.fhburgenland.bookmanager.service;
+
+import at.fhburgenland.bookmanager.dto.ImportJobStatus;
+import at.fhburgenland.bookmanager.exception.ImportJobNotFoundException;
+import at.fhburgenland.bookmanager.exception.UserNotFoundException;
+import at.fhburgenland.bookmanager.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Verwaltet asynchrone Import-Aufträge für große Bibliotheken.
+ *
+ * Ein Auftrag wird sofort angenommen und im Hintergrund auf virtuellen Threads abgearbeitet.
+ * Die Blöcke eines Auftrags werden über den {@link BulkWorkScheduler} eingereiht, der die
+ * Anzahl gleichzeitig verarbeiteter Blöcke über alle Aufträge begrenzt und reihum zwischen
+ * den Benutzern verteilt, sodass ein großer Auftrag kleinere nicht aushungert.
+ * Abgeschlossene Aufträge werden nach Ablauf der Aufbewahrungsdauer verworfen: regelmäßig im
+ * Abstand von {@code book.import.job-eviction-interval}, damit auch eine Instanz ohne neue
+ * Aufträge nicht unbegrenzt wächst, und beim Abfragen eines abgelaufenen Auftrags.
+ */
+@Service
+public class ImportJobService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ImportJobService.class);
+
+    private final BookImportService bookImportService;
+    private final UserRepository userRepository;
+    private final ExecutorService importExecutor;
+    private final BulkWorkScheduler bulkScheduler;
+    private final Duration retention;
+    private final Clock clock = Clock.systemUTC();
+    private final Map<UUID, ImportJob> jobs = new ConcurrentHashMap<>();
+
+    /**
+     * Erstellt den Service.
+     *
+     * @param bookImportService    Service, der einzelne Blöcke importiert
+     * @param userRepository       Repository der Benutzer
+     * @param importExecutor       Executor mit virtuellen Threads
+     * @param bulkScheduler        verteilt die Blöcke fair auf begrenzt viele Plätze
+     * @param retention            Aufbewahrungsdauer abgeschlossener Aufträge
+     */
+    public ImportJobService(BookImportService bookImportService,
+                            UserRepository userRepository,
+                            @Qualifier("importExecutor") ExecutorService importExecutor,
+                            BulkWorkScheduler bulkScheduler,
+                            @Value("${book.import.job-retention:PT1H}") Duration retention) {
+        this.bookImportService = bookImportService;
+        this.userRepository = userRepository;
+        this.importExecutor = importExecutor;
+        this.bulkScheduler = bulkScheduler;
+        this.retention = retention;
+    }
+
+    /**
+     * Nimmt einen Import-Auftrag an und startet ihn im Hintergrund.
+     *
+     * @param userId ID des Benutzers
+     * @param isbns  zu importierende ISBNs in beliebiger Schreibweise
+     * @return Status des neuen Auftrags
+     * @throws UserNotFoundException wenn der Benutzer nicht existiert
+     */
+    public ImportJobStatus submit(UUID userId, Collection<String> isbns) {
+        if (!userRepository.existsById(userId)) {
+            throw new UserNotFoundException(userId);
+        }
+        evictFinishedJobs();
+        ImportJob job = new ImportJob(userId, BookImportService.normalizeAll(isbns), clock);
+        jobs.put(job.getId(), job);
+        importExecutor.execute(() -> run(job));
+        return job.toStatus();
+    }
+
+    /**
+     * Liefert den aktuellen Status eines Auftrags.
+     *
+     * @param userId ID des Benutzers
+     * @param jobId  ID des Auftrags
+     * @return Momentaufnahme des Auftrags
+     * @throws ImportJobNotFoundException wenn der Auftrag nicht existiert oder einem anderen Benutzer gehört
+     */
+    public ImportJobStatus getStatus(UUID userId, UUID jobId) {
+        ImportJob job = jobs.get(jobId);
+        if (job != null && job.isFinishedBefore(retentionThreshold())) {
+            jobs.remove(jobId, job);
+            job = null;
+        }
+        if (job == null || !job.getUserId().equals(userId)) {
+            throw new ImportJobNotFoundException(jobId);
+        }
+        return job.toStatus();
+    }
+
+    /**
+     * Arbeitet einen Auftrag ab. Wie beim synchronen Import bricht ein Block, der als Ganzes
+     * scheitert, den Auftrag nicht ab: Es wird auf alle Blöcke gewartet, die ISBNs des
+     * gescheiterten als fehlgeschlagen verbucht und der Endzustand aus den Ergebnissen abgeleitet.
+     */
+    private void run(ImportJob job) {
+        job.start();
+        List<List<String>> chunks = bookImportService.chunks(job.getIsbns());
+        List<CompletableFuture<Void>> pending = new ArrayList<>(chunks.size());
+        for (List<String> chunk : chunks) {
+            pending.add(bulkScheduler.submit(job.getUserId(), () -> importChunk(job, chunk)));
+        }
+        try {
+            for (int i = 0; i < chunks.size(); i++) {
+                try {
+                    pending.get(i).get();
+                } catch (ExecutionException e) {
+                    job.record(BookImportService.failedChunk(chunks.get(i), e.getCause()));
+                } catch (CancellationException e) {
+                    job.record(BookImportService.failedChunk(chunks.get(i), e));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pending.forEach(chunk -> chunk.cancel(true));
+            LOG.warn("Import-Auftrag {} abgebrochen", job.getId());
+            job.finish(ImportJobStatus.State.FAILED);
+            return;
+        }
+        job.finish(job.outcome());
+    }
+
+    private Void importChunk(ImportJob job, List<String> chunk) {
+        job.record(bookImportService.importChunk(job.getUserId(), chunk));
+        return null;
+    }
+
+    /**
+     * Verwirft abgeschlossene Aufträge, deren Aufbewahrungsdauer abgelaufen ist.
+     */
+    @Scheduled(initialDelayString = "${book.import.job-eviction-interval:PT5M}",
+            fixedDelayString = "${book.import.job-eviction-interval:PT5M}")
+    public void evictFinishedJobs() {
+        Instant threshold = retentionThreshold();
+        jobs.values().removeIf(job -> job.isFinishedBefore(threshold));
+    }
+
+    private Instant retentionThreshold() {
+        return clock.instant().minus(retention);
+    }
+}
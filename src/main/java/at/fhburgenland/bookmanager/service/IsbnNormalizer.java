@@ -0,0 +1,123 @@
+package at.fhburgenland.bookmanager.service;
+
+import at.fhburgenland.bookmanager.exception.InvalidBookException;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Normalisiert und prüft ISBNs.
+ *
+ * Bindestriche und Leerzeichen werden entfernt, die Prüfziffer von ISBN-10 und ISBN-13
+ * wird nachgerechnet und jede gültige ISBN in die kanonische ISBN-13-Form umgerechnet.
+ * So landen Tippfehler gar nicht erst bei OpenLibrary, und "3-7920-0028-8" und
+ * "9783792000281" zeigen auf denselben Katalogeintrag.
+ */
+public final class IsbnNormalizer {
+
+    private IsbnNormalizer() {
+    }
+
+    /**
+     * Rechnet eine ISBN in die kanonische ISBN-13-Form um.
+     *
+     * @param isbn ISBN-10 oder ISBN-13 in beliebiger Schreibweise
+     * @return die ISBN-13 ohne Trennzeichen
+     * @throws InvalidBookException wenn die Eingabe keine ISBN mit gültiger Prüfziffer ist
+     */
+    public static String toIsbn13(String isbn) {
+        return tryToIsbn13(isbn).orElseThrow(() -> new InvalidBookException("Ungültige ISBN: " + isbn));
+    }
+
+    /**
+     * Rechnet eine ISBN in die kanonische ISBN-13-Form um, ohne bei ungültigen Eingaben zu scheitern.
+     *
+     * @param isbn ISBN-10 oder ISBN-13 in beliebiger Schreibweise
+     * @return Optional mit der ISBN-13, leer bei ungültiger Eingabe
+     */
+    public static Optional<String> tryToIsbn13(String isbn) {
+        if (isbn == null) {
+            return Optional.empty();
+        }
+        String stripped = strip(isbn);
+        if (stripped.length() == 10 && isValidIsbn10(stripped)) {
+            String body = "978" + stripped.substring(0, 9);
+            return Optional.of(body + isbn13CheckDigit(body));
+        }
+        if (stripped.length() == 13 && isValidIsbn13(stripped)) {
+            return Optional.of(stripped);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Liefert den Vergleichsschlüssel einer gespeicherten oder angefragten ISBN:
+     * die ISBN-13, wenn die Eingabe gültig ist, sonst die Eingabe ohne Trennzeichen.
+     * Damit werden auch Altbestände mit ungeprüften ISBNs weiterhin gefunden.
+     *
+     * @param isbn ISBN in beliebiger Schreibweise
+     * @return kanonische ISBN-13 oder die bereinigte Eingabe
+     */
+    public static String canonical(String isbn) {
+        return tryToIsbn13(isbn).orElseGet(() -> strip(isbn));
+    }
+
+    /**
+     * Liefert die Schreibweisen, unter denen ein Buch zu einer angefragten ISBN gespeichert
+     * sein kann: die kanonische ISBN-13 und, für Altbestände mit ungeprüften ISBNs, die
+     * bereinigte und die unveränderte Eingabe.
+     *
+     * @param isbn ISBN in beliebiger Schreibweise
+     * @return mögliche gespeicherte ISBNs ohne Duplikate
+     */
+    public static List<String> lookupKeys(String isbn) {
+        return Stream.of(canonical(isbn), strip(isbn), isbn).distinct().toList();
+    }
+
+    /**
+     * Entfernt Bindestriche und Leerzeichen und schreibt ein Prüfzeichen "x" groß.
+     *
+     * @param isbn ISBN in beliebiger Schreibweise
+     * @return bereinigte Eingabe
+     */
+    public static String strip(String isbn) {
+        return isbn.replaceAll("[\\s-]", "").toUpperCase(Locale.ROOT);
+    }
+
+    static boolean isValidIsbn10(String isbn) {
+        int sum = 0;
+        for (int i = 0; i < 10; i++) {
+            char c = isbn.charAt(i);
+            int digit;
+            if (c >= '0' && c <= '9') {
+                digit = c - '0';
+            } else if (c == 'X' && i == 9) {
+                digit = 10;
+            } else {
+                return false;
+            }
+            sum += digit * (10 - i);
+        }
+        return sum % 11 == 0;
+    }
+
+    static boolean isValidIsbn13(String isbn) {
+        for (int i = 0; i < 13; i++) {
+            char c = isbn.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return isbn13CheckDigit(isbn.substring(0, 12)) == isbn.charAt(12) - '0';
+    }
+
+    private static int isbn13CheckDigit(String first12) {
+        int sum = 0;
+        for (int i = 0; i < 12; i++) {
+            sum += (first12.charAt(i) - '0') * (i % 2 == 0 ? 1 : 3);
+        }
+        return (10 - sum % 10) % 10;
+    }
+}
@@ -0,0 +1,84 @@
+package at.fhburgenland.bookmanager.service;
+
+import at.fhburgenland.bookmanager.model.JobLease;
+import at.fhburgenland.bookmanager.repository.JobLeaseRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Wählt über die gemeinsame Datenbank genau eine Instanz aus, die einen geplanten Job ausführt.
+ *
+ * Wie der Bucket des OpenLibrary-Ratenlimits wird die {@link JobLease} nur für die kurze
+ * Übernahme gesperrt, nicht für die Dauer des Jobs. Stürzt der Halter ab, wird die Lease nach
+ * Ablauf ihrer Dauer von selbst frei.
+ */
+@Service
+public class JobLeaseService {
+
+    private final JobLeaseRepository leaseRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final String owner = UUID.randomUUID().toString();
+    private final Clock clock = Clock.systemUTC();
+
+    /**
+     * Erstellt den Service.
+     *
+     * @param leaseRepository    Repository der gemeinsamen Leases
+     * @param transactionManager Transaktionsmanager für die kurze Sperre der Lease
+     */
+    public JobLeaseService(JobLeaseRepository leaseRepository, PlatformTransactionManager transactionManager) {
+        this.leaseRepository = leaseRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Übernimmt die Lease eines Jobs, sofern sie frei, abgelaufen oder bereits die eigene ist.
+     *
+     * @param name     Name des Jobs
+     * @param duration wie lange die Lease ohne Freigabe gilt; sollte länger sein als ein Lauf
+     * @return {@code true}, wenn diese Instanz den Job ausführen darf
+     */
+    public boolean tryAcquire(String name, Duration duration) {
+        try {
+            return Boolean.TRUE.equals(transactionTemplate.execute(status -> acquireLocked(name, duration)));
+        } catch (DataIntegrityViolationException e) {
+            // Eine andere Instanz hat die Lease gleichzeitig angelegt, jetzt existiert sie.
+            return Boolean.TRUE.equals(transactionTemplate.execute(status -> acquireLocked(name, duration)));
+        }
+    }
+
+    /**
+     * Gibt die Lease eines Jobs frei, sofern diese Instanz sie hält.
+     *
+     * @param name Name des Jobs
+     */
+    public void release(String name) {
+        transactionTemplate.executeWithoutResult(status -> leaseRepository.findForUpdate(name)
+                .filter(lease -> owner.equals(lease.getOwner()))
+                .ifPresent(lease -> lease.setLockedUntil(clock.instant())));
+    }
+
+    private boolean acquireLocked(String name, Duration duration) {
+        Instant now = clock.instant();
+        JobLease lease = leaseRepository.findForUpdate(name).orElse(null);
+        if (lease == null) {
+            leaseRepository.saveAndFlush(new JobLease(name, owner, now.plus(duration)));
+            return true;
+        }
+        if (lease.getLockedUntil().isAfter(now) && !owner.equals(lease.getOwner())) {
+            return false;
+        }
+        lease.setOwner(owner);
+        lease.setLockedUntil(now.plus(duration));
+        return true;
+    }
+}
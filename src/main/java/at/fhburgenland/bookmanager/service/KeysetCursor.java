@@ -0,0 +1,116 @@
+package at.fhburgenland.bookmanager.service;
+
+import at.fhburgenland.bookmanager.dto.KeysetPage;
+import at.fhburgenland.bookmanager.exception.InvalidPageRequestException;
+import org.springframework.data.domain.PageRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position hinter dem letzten Eintrag einer Seite: Sortierschlüssel und ID dieses Eintrags.
+ *
+ * Die nächste Seite beginnt mit einer Bereichsabfrage ab dieser Position auf dem passenden
+ * Index, statt wie bei {@code OFFSET} alle vorigen Zeilen zu überspringen; jede Seite kostet
+ * dadurch gleich viel, egal wie weit geblättert wird. Für den Client ist der Cursor ein
+ * undurchsichtiger Base64-String.
+ *
+ * @param key Sortierschlüssel des letzten Eintrags, {@code null} wenn dieser keinen hat
+ * @param id  ID des letzten Eintrags, entscheidet bei gleichem Schlüssel
+ */
+public record KeysetCursor(String key, UUID id) {
+
+    private static final int UUID_LENGTH = 36;
+
+    /**
+     * @return der Cursor als URL-sicherer String
+     */
+    public String encode() {
+        String raw = key == null ? id.toString() : id + ":" + key;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Liest einen Cursor aus der Anfrage.
+     *
+     * @param cursor Cursor aus der vorigen Antwort, leer oder {@code null} für die erste Seite
+     * @return der Cursor oder {@code null} für die erste Seite
+     * @throws InvalidPageRequestException wenn der Cursor nicht lesbar ist
+     */
+    public static KeysetCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            UUID id = UUID.fromString(raw.substring(0, UUID_LENGTH));
+            if (raw.length() == UUID_LENGTH) {
+                return new KeysetCursor(null, id);
+            }
+            if (raw.charAt(UUID_LENGTH) != ':') {
+                throw invalid();
+            }
+            return new KeysetCursor(raw.substring(UUID_LENGTH + 1), id);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw invalid();
+        }
+    }
+
+    /**
+     * @return der Schlüssel als Zeitpunkt
+     * @throws InvalidPageRequestException wenn der Cursor zu einer anderen Sortierung gehört
+     */
+    public Instant instantKey() {
+        try {
+            return Instant.parse(key);
+        } catch (DateTimeParseException | NullPointerException e) {
+            throw invalid();
+        }
+    }
+
+    /**
+     * @return der Schlüssel als Zahl
+     * @throws InvalidPageRequestException wenn der Cursor zu einer anderen Sortierung gehört
+     */
+    public int intKey() {
+        try {
+            return Integer.parseInt(key);
+        } catch (NumberFormatException e) {
+            throw invalid();
+        }
+    }
+
+    /**
+     * @return der Schlüssel als ganze Zahl, z. B. die Relevanz eines Suchtreffers
+     * @throws InvalidPageRequestException wenn der Cursor zu einer anderen Sortierung gehört
+     */
+    public long longKey() {
+        try {
+            return Long.parseLong(key);
+        } catch (NumberFormatException e) {
+            throw invalid();
+        }
+    }
+
+    /**
+     * Prüft die Seitengröße und liefert die Abfragegröße: ein Eintrag mehr als angefordert,
+     * um zu erkennen, ob eine weitere Seite folgt.
+     *
+     * @param limit angeforderte Seitengröße
+     * @return Abfrage der ersten {@code limit + 1} Zeilen ab dem Cursor
+     * @throws InvalidPageRequestException wenn die Seitengröße außerhalb von 1 bis {@link KeysetPage#MAX_LIMIT} liegt
+     */
+    public static PageRequest fetch(int limit) {
+        if (limit < 1 || limit > KeysetPage.MAX_LIMIT) {
+            throw new InvalidPageRequestException("Die Seitengröße muss zwischen 1 und " + KeysetPage.MAX_LIMIT + " liegen.");
+        }
+        return PageRequest.of(0, limit + 1);
+    }
+
+    private static InvalidPageRequestException invalid() {
+        return new InvalidPageRequestException("Ungültiger Cursor.");
+    }
+}
@@ -0,0 +1,53 @@
+package at.fhburgenland.bookmanager.service;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Gleitendes Fenster der zuletzt gemessenen Antwortzeiten, aus dem Perzentile berechnet werden.
+ *
+ * Die Messwerte liegen in einem Ringpuffer fester Größe; ältere Werte werden überschrieben,
+ * sodass sich das Perzentil an die aktuelle Lage des Anbieters anpasst.
+ */
+final class LatencyWindow {
+
+    private final long[] samples;
+    private final int minSamples;
+    private int next;
+    private int count;
+
+    /**
+     * @param size       Anzahl der Messwerte im Fenster
+     * @param minSamples Mindestanzahl an Messwerten, ab der ein Perzentil geliefert wird
+     */
+    LatencyWindow(int size, int minSamples) {
+        this.samples = new long[size];
+        this.minSamples = minSamples;
+    }
+
+    synchronized void record(Duration latency) {
+        samples[next] = latency.toNanos();
+        next = (next + 1) % samples.length;
+        count = Math.min(count + 1, samples.length);
+    }
+
+    /**
+     * Berechnet ein Perzentil der Messwerte im Fenster.
+     *
+     * @param percentile Perzentil zwischen 0 und 1, z. B. {@code 0.95}
+     * @return das Perzentil, leer solange zu wenige Messwerte vorliegen
+     */
+    Optional<Duration> percentile(double percentile) {
+        long[] sorted;
+        synchronized (this) {
+            if (count < minSamples) {
+                return Optional.empty();
+            }
+            sorted = Arrays.copyOf(samples, count);
+        }
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return Optional.of(Duration.ofNanos(sorted[Math.max(0, Math.min(index, sorted.length - 1))]));
+    }
+}
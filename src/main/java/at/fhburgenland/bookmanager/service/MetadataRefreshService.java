@@ -0,0 +1,217 @@
+package at.fhburgenland.bookmanager.service;
+
+import at.fhburgenland.bookmanager.client.OpenLibraryClient;
+import at.fhburgenland.bookmanager.client.OpenLibraryRateLimiter;
+import at.fhburgenland.bookmanager.dto.BookMetadata;
+import at.fhburgenland.bookmanager.dto.MetadataRevalidation;
+import at.fhburgenland.bookmanager.exception.InvalidBookException;
+import at.fhburgenland.bookmanager.exception.MetadataUnavailableException;
+import at.fhburgenland.bookmanager.model.CatalogBook;
+import at.fhburgenland.bookmanager.repository.CatalogBookRepository;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Gleicht die Metadaten des Katalogs im Hintergrund mit OpenLibrary ab.
+ *
+ * Pro Lauf werden die am längsten nicht abgeglichenen Einträge in kleinen Blöcken
+ * bedingt neu angefragt, bis das Anfragebudget des Laufs aufgebraucht ist. Unveränderte
+ * Einträge kosten dank {@code ETag}/{@code Last-Modified} nur eine leere 304-Antwort und
+ * werden pro Block mit einer einzigen Anweisung als abgeglichen markiert. Geänderte
+ * Metadaten landen direkt im gemeinsamen Katalogeintrag und damit bei allen Besitzern.
+ * Eigene Angaben eines Besitzers liegen dagegen im {@link at.fhburgenland.bookmanager.model.Book}
+ * und werden vom Abgleich nie überschrieben.
+ *
+ * Der geplante Lauf hält eine {@link JobLeaseService Lease} in der gemeinsamen Datenbank;
+ * bei mehreren Instanzen gleicht also immer nur eine ab.
+ *
+ * Die Anfragen laufen durch denselben Circuit Breaker wie die interaktiven Abrufe, aber
+ * nicht durch das Bulkhead, damit der Abgleich Benutzeranfragen keine Plätze wegnimmt.
+ */
+@Service
+public class MetadataRefreshService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MetadataRefreshService.class);
+
+    /** Name der Lease des geplanten Abgleichs. */
+    public static final String LEASE = "metadata-refresh";
+
+    private final CatalogBookRepository catalogBookRepository;
+    private final OpenLibraryClient openLibraryClient;
+    private final BookMetadataCache metadataCache;
+    private final CatalogProjectionService catalogProjection;
+    private final CircuitBreaker circuitBreaker;
+    private final OpenLibraryRateLimiter rateLimiter;
+    private final JobLeaseService jobLeases;
+    private final Clock clock = Clock.systemUTC();
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxRequestsPerRun;
+    private final Duration maxAge;
+    private final Duration leaseDuration;
+
+    /**
+     * Erstellt den Service.
+     *
+     * @param catalogBookRepository Katalog, dessen Einträge abgeglichen werden
+     * @param openLibraryClient     Client für die bedingten Anfragen
+     * @param metadataCache         Cache, der bei geänderten Metadaten aktualisiert wird
+     * @param catalogProjection     speichert die neue Rohantwort und leitet die Katalogfelder neu ab
+     * @param circuitBreaker        Circuit Breaker für OpenLibrary-Aufrufe
+     * @param rateLimiter           clusterweites Ratenlimit, vor dem Circuit Breaker geprüft
+     * @param jobLeases             wählt die Instanz aus, die den geplanten Abgleich ausführt
+     * @param enabled               ob der geplante Abgleich läuft
+     * @param batchSize             Anzahl Einträge pro Block
+     * @param maxRequestsPerRun     Anfragebudget pro Lauf
+     * @param maxAge                Alter, ab dem ein Eintrag erneut abgeglichen wird
+     * @param leaseDuration         Gültigkeit der Lease, falls eine Instanz während eines Laufs ausfällt
+     */
+    public MetadataRefreshService(CatalogBookRepository catalogBookRepository,
+                                  OpenLibraryClient openLibraryClient,
+                                  BookMetadataCache metadataCache,
+                                  CatalogProjectionService catalogProjection,
+                                  CircuitBreaker circuitBreaker,
+                                  OpenLibraryRateLimiter rateLimiter,
+                                  JobLeaseService jobLeases,
+                                  @Value("${book.metadata.refresh.enabled:true}") boolean enabled,
+                                  @Value("${book.metadata.refresh.batch-size:20}") int batchSize,
+                                  @Value("${book.metadata.refresh.max-requests-per-run:100}") int maxRequestsPerRun,
+                                  @Value("${book.metadata.refresh.max-age:P7D}") Duration maxAge,
+                                  @Value("${book.metadata.refresh.lease-duration:PT30M}") Duration leaseDuration) {
+        this.catalogBookRepository = catalogBookRepository;
+        this.openLibraryClient = openLibraryClient;
+        this.metadataCache = metadataCache;
+        this.catalogProjection = catalogProjection;
+        this.circuitBreaker = circuitBreaker;
+        this.rateLimiter = rateLimiter;
+        this.jobLeases = jobLeases;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxRequestsPerRun = maxRequestsPerRun;
+        this.maxAge = maxAge;
+        this.leaseDuration = leaseDuration;
+    }
+
+    /**
+     * Geplanter Einstiegspunkt, läuft im Abstand von {@code book.metadata.refresh.interval}.
+     * Hält eine andere Instanz gerade die Lease, wird der Lauf übersprungen.
+     */
+    @Scheduled(initialDelayString = "${book.metadata.refresh.interval:PT15M}",
+            fixedDelayString = "${book.metadata.refresh.interval:PT15M}")
+    public void scheduledRefresh() {
+        if (!enabled) {
+            return;
+        }
+        if (!jobLeases.tryAcquire(LEASE, leaseDuration)) {
+            LOG.debug("Metadaten-Abgleich übersprungen, läuft auf einer anderen Instanz");
+            return;
+        }
+        try {
+            refreshOldest();
+        } finally {
+            jobLeases.release(LEASE);
+        }
+    }
+
+    /**
+     * Gleicht die ältesten Katalogeinträge ab, bis das Budget aufgebraucht ist oder kein
+     * Eintrag älter als {@code book.metadata.refresh.max-age} mehr übrig ist.
+     *
+     * Ist OpenLibrary nicht verfügbar, endet der Lauf sofort; die restlichen Einträge
+     * bleiben für den nächsten Lauf vorne in der Reihe.
+     *
+     * @return Anzahl der an OpenLibrary gestellten Anfragen
+     */
+    public int refreshOldest() {
+        int requests = 0;
+        int modified = 0;
+        Instant cutoff = clock.instant().minus(maxAge);
+        while (requests < maxRequestsPerRun) {
+            List<CatalogBook> batch = catalogBookRepository.findFetchedBefore(cutoff,
+                    PageRequest.of(0, Math.min(batchSize, maxRequestsPerRun - requests)));
+            if (batch.isEmpty()) {
+                break;
+            }
+            List<String> unchanged = new ArrayList<>(batch.size());
+            try {
+                for (CatalogBook entry : batch) {
+                    requests++;
+                    if (refresh(entry)) {
+                        modified++;
+                    } else {
+                        unchanged.add(entry.getIsbn());
+                    }
+                }
+            } catch (CallNotPermittedException | MetadataUnavailableException e) {
+                LOG.info("Metadaten-Abgleich abgebrochen, OpenLibrary nicht verfügbar: {}", e.getMessage());
+                markFetched(unchanged);
+                break;
+            }
+            markFetched(unchanged);
+        }
+        if (requests > 0) {
+            LOG.info("Metadaten-Abgleich: {} Anfragen, {} Einträge aktualisiert", requests, modified);
+        }
+        return requests;
+    }
+
+    /**
+     * Gleicht einen Eintrag ab und übernimmt geänderte Metadaten.
+     *
+     * @return {@code true}, wenn der Eintrag aktualisiert wurde
+     */
+    private boolean refresh(CatalogBook entry) {
+        String isbn = entry.getIsbn();
+        MetadataRevalidation result;
+        try {
+            result = rateLimiter.throttled(circuitBreaker,
+                    () -> openLibraryClient.revalidate(isbn, entry.getEtag(), entry.getLastModified()));
+        } catch (InvalidBookException e) {
+            LOG.debug("Abgleich für ISBN {} fehlgeschlagen: {}", isbn, e.getMessage());
+            return false;
+        }
+        if (result.outcome() != MetadataRevalidation.Outcome.MODIFIED || isUnchanged(entry, result)) {
+            return false;
+        }
+        BookMetadata metadata = result.metadata();
+        catalogBookRepository.updateMetadata(isbn, metadata.title(), metadata.publisher(),
+                metadata.publishedDate(), metadata.description(), result.etag(), result.lastModified(),
+                clock.instant());
+        catalogProjection.replacePayload(metadata);
+        metadataCache.put(isbn, metadata);
+        return true;
+    }
+
+    /**
+     * Erkennt Antworten ohne bedingte Unterstützung, deren Inhalt sich nicht geändert hat,
+     * damit sie wie ein 304 nur gesammelt als abgeglichen markiert werden.
+     */
+    private static boolean isUnchanged(CatalogBook entry, MetadataRevalidation result) {
+        BookMetadata metadata = result.metadata();
+        return Objects.equals(entry.getTitle(), metadata.title())
+                && Objects.equals(entry.getPublisher(), metadata.publisher())
+                && Objects.equals(entry.getPublishedDate(), metadata.publishedDate())
+                && Objects.equals(entry.getDescription(), metadata.description())
+                && Objects.equals(entry.getEtag(), result.etag())
+                && Objects.equals(entry.getLastModified(), result.lastModified());
+    }
+
+    private void markFetched(List<String> isbns) {
+        if (!isbns.isEmpty()) {
+            catalogBookRepository.markFetched(isbns, clock.instant());
+        }
+    }
+}
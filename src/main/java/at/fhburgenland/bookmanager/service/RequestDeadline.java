@@ -0,0 +1,131 @@
+package at.fhburgenland.bookmanager.service;
+
+import at.fhburgenland.bookmanager.exception.DeadlineExceededException;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Frist der aktuellen Anfrage.
+ *
+ * Die Frist wird beim Eingang der HTTP-Anfrage gesetzt und im Thread der Anfrage mitgeführt.
+ * Services prüfen sie zwischen teuren Schritten, der HTTP-Client zu OpenLibrary begrenzt damit
+ * seine Antwortzeit und der Transaktionsmanager das JDBC-Statement-Timeout. Arbeit, die auf
+ * andere Threads verlagert wird, muss die Frist mit {@link #propagate(Supplier)} mitnehmen.
+ */
+public final class RequestDeadline {
+
+    private static final ThreadLocal<RequestDeadline> CURRENT = new ThreadLocal<>();
+
+    private final long expiresAtNanos;
+
+    private RequestDeadline(long expiresAtNanos) {
+        this.expiresAtNanos = expiresAtNanos;
+    }
+
+    /**
+     * Erstellt eine Frist, die nach der angegebenen Dauer abläuft.
+     *
+     * @param timeout verbleibende Zeit ab jetzt
+     * @return die Frist
+     */
+    public static RequestDeadline after(Duration timeout) {
+        return new RequestDeadline(System.nanoTime() + timeout.toNanos());
+    }
+
+    /**
+     * @return verbleibende Zeit bis zum Ablauf, negativ wenn bereits abgelaufen
+     */
+    public Duration remaining() {
+        return Duration.ofNanos(expiresAtNanos - System.nanoTime());
+    }
+
+    /**
+     * @return {@code true}, wenn die Frist abgelaufen ist
+     */
+    public boolean isExpired() {
+        return expiresAtNanos - System.nanoTime() <= 0;
+    }
+
+    /**
+     * @return die Frist des aktuellen Threads, leer außerhalb einer Anfrage
+     */
+    public static Optional<RequestDeadline> current() {
+        return Optional.ofNullable(CURRENT.get());
+    }
+
+    /**
+     * Setzt die Frist des aktuellen Threads.
+     *
+     * @param deadline die Frist, {@code null} entfernt sie
+     */
+    public static void set(RequestDeadline deadline) {
+        if (deadline == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(deadline);
+        }
+    }
+
+    /**
+     * Entfernt die Frist des aktuellen Threads.
+     */
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Bricht ab, wenn die Frist des aktuellen Threads abgelaufen ist.
+     *
+     * @throws DeadlineExceededException wenn die Frist abgelaufen ist
+     */
+    public static void checkNotExpired() {
+        RequestDeadline deadline = CURRENT.get();
+        if (deadline != null && deadline.isExpired()) {
+            throw new DeadlineExceededException("Die Frist der Anfrage ist abgelaufen");
+        }
+    }
+
+    /**
+     * Begrenzt eine Wartezeit auf die verbleibende Zeit der aktuellen Frist.
+     *
+     * @param timeout konfigurierte Wartezeit
+     * @return die kleinere der beiden Zeiten, {@code timeout} außerhalb einer Anfrage
+     * @throws DeadlineExceededException wenn die Frist bereits abgelaufen ist
+     */
+    public static Duration bound(Duration timeout) {
+        RequestDeadline deadline = CURRENT.get();
+        if (deadline == null) {
+            return timeout;
+        }
+        Duration remaining = deadline.remaining();
+        if (remaining.isNegative() || remaining.isZero()) {
+            throw new DeadlineExceededException("Die Frist der Anfrage ist abgelaufen");
+        }
+        return remaining.compareTo(timeout) < 0 ? remaining : timeout;
+    }
+
+    /**
+     * Nimmt die Frist des aufrufenden Threads in eine Aufgabe mit, die auf einem anderen Thread läuft.
+     *
+     * @param task die Aufgabe
+     * @param <T>  Ergebnistyp
+     * @return Aufgabe, die mit der Frist des Aufrufers ausgeführt wird
+     */
+    public static <T> Supplier<T> propagate(Supplier<T> task) {
+        RequestDeadline deadline = CURRENT.get();
+        if (deadline == null) {
+            return task;
+        }
+        return () -> {
+            RequestDeadline previous = CURRENT.get();
+            set(deadline);
+            try {
+                return task.get();
+            } finally {
+                set(previous);
+            }
+        };
+    }
+}
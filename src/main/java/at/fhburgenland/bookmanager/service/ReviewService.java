@@ -1,17 +1,20 @@
 package at.fhburgenland.bookmanager.service;
 
+import at.fhburgenland.bookmanager.dto.KeysetPage;
 import at.fhburgenland.bookmanager.dto.ReviewRequest;
-import at.fhburgenland.bookmanager.exception.BookNotFoundException;
 import at.fhburgenland.bookmanager.exception.ReviewNotFoundException;
-import at.fhburgenland.bookmanager.exception.UserNotFoundException;
 import at.fhburgenland.bookmanager.model.Book;
 import at.fhburgenland.bookmanager.model.Review;
-import at.fhburgenland.bookmanager.model.User;
 import at.fhburgenland.bookmanager.repository.BookRepository;
+import at.fhburgenland.bookmanager.repository.BulkInserter;
 import at.fhburgenland.bookmanager.repository.ReviewRepository;
 import at.fhburgenland.bookmanager.repository.UserRepository;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
@@ -24,13 +27,16 @@ public class ReviewService {
     private final UserRepository userRepository;
     private final BookRepository bookRepository;
     private final ReviewRepository reviewRepository;
+    private final BulkInserter bulkInserter;
 
     public ReviewService(UserRepository userRepository,
                          BookRepository bookRepository,
-                         ReviewRepository reviewRepository) {
+                         ReviewRepository reviewRepository,
+                         BulkInserter bulkInserter) {
         this.userRepository = userRepository;
         this.bookRepository = bookRepository;
         this.reviewRepository = reviewRepository;
+        this.bulkInserter = bulkInserter;
     }
 
     /**
@@ -48,19 +54,55 @@ public class ReviewService {
                 .reviewText(request.getReviewText())
                 .book(book)
                 .build();
+        RequestDeadline.checkNotExpired();
         return reviewRepository.save(review);
     }
 
     /**
-     * Gibt alle Rezensionen eines bestimmten Buchs zurück.
+     * Legt mehrere Rezensionen zu einem Buch in einer Transaktion an. Die Zeilen werden ohne
+     * Persistenzkontext in JDBC-Batches eingefügt. Die Zeitstempel steigen in der übergebenen
+     * Reihenfolge um je eine Mikrosekunde, damit die Rezensionen auch so aufgelistet werden.
+     *
+     * @param userId   ID des Benutzers
+     * @param isbn     ISBN des Buches
+     * @param requests Bewertungs- und Textdaten der Rezensionen
+     * @return die erstellten Reviews in der übergebenen Reihenfolge
+     */
+    public List<Review> addReviews(UUID userId, String isbn, List<ReviewRequest> requests) {
+        Book book = getBookForUser(userId, isbn);
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        List<Review> reviews = new ArrayList<>(requests.size());
+        for (ReviewRequest request : requests) {
+            reviews.add(Review.builder()
+                    .rating(request.getRating())
+                    .reviewText(request.getReviewText())
+                    .createdAt(now.plus(reviews.size(), ChronoUnit.MICROS))
+                    .book(book)
+                    .build());
+        }
+        RequestDeadline.checkNotExpired();
+        bulkInserter.insertAll(reviews);
+        return reviews;
+    }
+
+    /**
+     * Gibt eine Seite der Rezensionen eines bestimmten Buchs zurück, älteste zuerst.
      *
      * @param userId ID des Benutzers
      * @param isbn   ISBN des Buches
-     * @return Liste von Rezensionen
+     * @param cursor Cursor aus der vorigen Seite, {@code null} für die erste Seite
+     * @param limit  Seitengröße
+     * @return Seite der Rezensionen mit dem Cursor für die nächste Seite
      */
-    public List<Review> getAllReviews(UUID userId, String isbn) {
+    public KeysetPage<Review> getAllReviews(UUID userId, String isbn, String cursor, int limit) {
+        PageRequest fetch = KeysetCursor.fetch(limit);
+        KeysetCursor after = KeysetCursor.decode(cursor);
         Book book = getBookForUser(userId, isbn);
-        return reviewRepository.findByBook(book);
+        List<Review> rows = after == null
+                ? reviewRepository.findFirstByBook(book, fetch)
+                : reviewRepository.findByBookAfter(book, after.instantKey(), after.id(), fetch);
+        return KeysetPage.of(rows, limit,
+                review -> new KeysetCursor(review.getCreatedAt().toString(), review.getId()).encode());
     }
 
     /**
@@ -74,11 +116,11 @@ public class ReviewService {
      */
     public Review updateReview(UUID userId, String isbn, UUID reviewId, ReviewRequest request) {
         Book book = getBookForUser(userId, isbn);
-        Review review = reviewRepository.findById(reviewId)
-                .filter(r -> r.getBook().equals(book))
+        Review review = reviewRepository.findByIdAndBook(reviewId, book)
                 .orElseThrow(() -> new ReviewNotFoundException(reviewId));
         review.setRating(request.getRating());
         review.setReviewText(request.getReviewText());
+        RequestDeadline.checkNotExpired();
         return reviewRepository.save(review);
     }
 
@@ -91,8 +133,7 @@ public class ReviewService {
      */
     public void deleteReview(UUID userId, String isbn, UUID reviewId) {
         Book book = getBookForUser(userId, isbn);
-        Review review = reviewRepository.findById(reviewId)
-                .filter(r -> r.getBook().equals(book))
+        Review review = reviewRepository.findByIdAndBook(reviewId, book)
                 .orElseThrow(() -> new ReviewNotFoundException(reviewId));
         reviewRepository.delete(review);
     }
@@ -105,11 +146,6 @@ public class ReviewService {
      * @return das zugehörige Book-Objekt
      */
     private Book getBookForUser(UUID userId, String isbn) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException(userId));
-        return user.getBooks().stream()
-                .filter(b -> b.getIsbn().equals(isbn))
-                .findFirst()
-                .orElseThrow(() -> new BookNotFoundException(isbn));
+        return BookService.findOwnedBook(bookRepository, userRepository, userId, isbn);
     }
 }
@@ -0,0 +1,84 @@
+package at.fhburgenland.bookmanager.service;
+
+import at.fhburgenland.bookmanager.exception.MetadataUnavailableException;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Bündelt gleichzeitige Ladevorgänge für denselben Schlüssel.
+ *
+ * Der erste Aufrufer eines Schlüssels führt den Ladevorgang auf seinem eigenen Thread aus;
+ * alle weiteren Aufrufer, die währenddessen denselben Schlüssel anfragen, warten auf dessen
+ * Ergebnis (oder dessen Fehler), statt selbst zu laden. Ein wartender Aufrufer gibt nach
+ * Ablauf seiner Wartezeit oder bei einer Unterbrechung auf, ohne den gemeinsamen
+ * Ladevorgang für die übrigen Wartenden abzubrechen.
+ *
+ * @param <K> Typ des Schlüssels
+ * @param <V> Typ des geladenen Werts
+ */
+public class SingleFlight<K, V> {
+
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Lädt den Wert zu einem Schlüssel oder wartet auf einen bereits laufenden Ladevorgang.
+     *
+     * @param key         Schlüssel
+     * @param loader      Ladefunktion, wird nur vom ersten Aufrufer ausgeführt
+     * @param waitTimeout maximale Wartezeit für nachfolgende Aufrufer
+     * @return der geladene Wert
+     * @throws MetadataUnavailableException wenn die Wartezeit abläuft oder der Wartende unterbrochen wird
+     */
+    public V execute(K key, Supplier<V> loader, Duration waitTimeout) {
+        CompletableFuture<V> created = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, created);
+        if (running != null) {
+            return await(key, running, waitTimeout);
+        }
+        try {
+            V value = loader.get();
+            created.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            created.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, created);
+        }
+    }
+
+    /**
+     * Liefert die Anzahl aktuell laufender Ladevorgänge.
+     *
+     * @return Anzahl der Schlüssel mit laufendem Ladevorgang
+     */
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private V await(K key, CompletableFuture<V> running, Duration waitTimeout) {
+        try {
+            return running.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new MetadataUnavailableException("Zeitüberschreitung beim Warten auf den Abruf für " + key);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MetadataUnavailableException("Warten auf den Abruf für " + key + " wurde abgebrochen");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new MetadataUnavailableException("Abruf für " + key + " fehlgeschlagen");
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package at.fhburgenland.bookmanager.service;
+
+import at.fhburgenland.bookmanager.dto.CoverSize;
+import at.fhburgenland.bookmanager.event.BookAddedEvent;
+import at.fhburgenland.bookmanager.exception.CoverNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Erzeugt verkleinerte Vorschaubilder der Cover im Hintergrund.
+ *
+ * Sobald ein Buch hinzugefügt wird, wird für dessen ISBN ein Auftrag auf dem begrenzten
+ * {@code thumbnailExecutor} eingeplant. Der Auftrag lädt bei Bedarf das Originalcover, skaliert
+ * es auf alle {@link CoverSize#isThumbnail() Vorschaugrößen} und legt die Ergebnisse im
+ * {@link CoverStore} ab. Auf dem Request-Thread wird nie skaliert. Solange der
+ * {@link CoverService} eine ISBN als ohne Cover kennt, wird für sie nichts eingeplant.
+ */
+@Service
+public class ThumbnailService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ThumbnailService.class);
+
+    private static final List<CoverSize> THUMBNAIL_SIZES =
+            Arrays.stream(CoverSize.values()).filter(CoverSize::isThumbnail).toList();
+
+    private final CoverService coverService;
+    private final CoverStore coverStore;
+    private final ExecutorService executor;
+    private final Set<String> scheduled = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Erstellt den Service.
+     *
+     * @param coverService liefert das Originalcover
+     * @param coverStore   Festplatten-Cache für Original und Vorschaubilder
+     * @param executor     begrenzter Pool für das Skalieren
+     */
+    public ThumbnailService(CoverService coverService,
+                            CoverStore coverStore,
+                            @Qualifier("thumbnailExecutor") ExecutorService executor) {
+        this.coverService = coverService;
+        this.coverStore = coverStore;
+        this.executor = executor;
+    }
+
+    /**
+     * Plant die Vorschaubilder für ein neu hinzugefügtes Buch ein.
+     *
+     * @param event Ereignis mit der ISBN des Buches
+     */
+    @EventListener
+    public void onBookAdded(BookAddedEvent event) {
+        schedule(event.isbn());
+    }
+
+    /**
+     * Liefert ein Vorschaubild. Fehlt es, wird seine Erzeugung eingeplant.
+     *
+     * @param isbn ISBN in beliebiger Schreibweise
+     * @param size gewünschte Vorschaugröße
+     * @return das Vorschaubild oder leer, solange es noch nicht erzeugt wurde
+     */
+    public Optional<CoverStore.StoredCover> findOrSchedule(String isbn, CoverSize size) {
+        String normalized = CoverService.normalizeIsbn(isbn);
+        Optional<CoverStore.StoredCover> thumbnail = coverStore.find(key(normalized, size));
+        if (thumbnail.isEmpty()) {
+            schedule(normalized);
+        }
+        return thumbnail;
+    }
+
+    /**
+     * Plant die Erzeugung aller Vorschaubilder einer ISBN ein, sofern nicht bereits geplant.
+     *
+     * @param isbn normalisierte ISBN
+     */
+    public void schedule(String isbn) {
+        if (coverService.isKnownMissing(isbn) || !scheduled.add(isbn)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    generate(isbn);
+                } finally {
+                    scheduled.remove(isbn);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            scheduled.remove(isbn);
+            LOG.debug("Vorschaubilder für ISBN {} verworfen, Warteschlange voll", isbn);
+        }
+    }
+
+    void generate(String isbn) {
+        if (THUMBNAIL_SIZES.stream().allMatch(size -> coverStore.find(key(isbn, size)).isPresent())) {
+            return;
+        }
+        try {
+            CoverStore.StoredCover original = coverService.getCover(isbn);
+            BufferedImage image = ImageIO.read(original.file().toFile());
+            if (image == null) {
+                LOG.warn("Cover für ISBN {} hat ein nicht lesbares Bildformat ({})", isbn, original.contentType());
+                return;
+            }
+            for (CoverSize size : THUMBNAIL_SIZES) {
+                coverStore.store(key(isbn, size), toJpeg(resize(image, size.width())), "image/jpeg");
+            }
+        } catch (CoverNotFoundException e) {
+            LOG.debug("Kein Cover für ISBN {}, keine Vorschaubilder", isbn);
+        } catch (IOException | RuntimeException e) {
+            LOG.warn("Vorschaubilder für ISBN {} konnten nicht erzeugt werden", isbn, e);
+        }
+    }
+
+    /**
+     * Skaliert auf die Zielbreite, ohne zu vergrößern. Große Bilder werden schrittweise halbiert,
+     * damit bilineare Interpolation keine Treppeneffekte erzeugt.
+     */
+    static BufferedImage resize(BufferedImage source, int targetWidth) {
+        BufferedImage current = source;
+        int width = Math.min(targetWidth, source.getWidth());
+        do {
+            int stepWidth = Math.max(width, current.getWidth() / 2);
+            int stepHeight = Math.max(1, (int) Math.round((double) source.getHeight() * stepWidth / source.getWidth()));
+            BufferedImage step = new BufferedImage(stepWidth, stepHeight, BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = step.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.drawImage(current, 0, 0, stepWidth, stepHeight, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = step;
+        } while (current.getWidth() > width);
+        return current;
+    }
+
+    private static byte[] toJpeg(BufferedImage image) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        if (!ImageIO.write(image, "jpg", out)) {
+            throw new IOException("Kein JPEG-Encoder verfügbar");
+        }
+        return out.toByteArray();
+    }
+
+    private static String key(String isbn, CoverSize size) {
+        return isbn + "-" + size.name();
+    }
+}
@@ -1,10 +1,15 @@
 package at.fhburgenland.bookmanager.service;
 
+import at.fhburgenland.bookmanager.dto.KeysetPage;
+import at.fhburgenland.bookmanager.dto.UserDetail;
 import at.fhburgenland.bookmanager.dto.UserDto;
+import at.fhburgenland.bookmanager.dto.UserSummary;
+import at.fhburgenland.bookmanager.exception.InvalidPageRequestException;
 import at.fhburgenland.bookmanager.exception.UserNotFoundException;
 import at.fhburgenland.bookmanager.model.User;
 import at.fhburgenland.bookmanager.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import at.fhburgenland.bookmanager.exception.UserAlreadyExistsException;
 
@@ -37,28 +42,38 @@ public class UserService {
                 .email(userDto.getEmail())
                 .build();
 
+        RequestDeadline.checkNotExpired();
         return userRepository.save(user);
     }
 
     /**
-     * Gibt alle im System gespeicherten Benutzer zurück.
+     * Gibt eine Seite der im System gespeicherten Benutzer zurück, sortiert nach E-Mail-Adresse.
+     * Jeder Eintrag enthält statt der Bibliothek nur die Anzahl der Bücher; die ganze Seite
+     * kostet eine einzige Abfrage.
      *
-     * @return Liste aller Benutzer
+     * @param cursor Cursor aus der vorigen Seite, {@code null} für die erste Seite
+     * @param limit  Seitengröße
+     * @return Seite der Benutzer mit dem Cursor für die nächste Seite
+     * @throws InvalidPageRequestException bei ungültigem Cursor oder ungültiger Seitengröße
      */
-    public List<User> getAllUsers() {
-        return userRepository.findAll();
+    public KeysetPage<UserSummary> getAllUsers(String cursor, int limit) {
+        PageRequest fetch = KeysetCursor.fetch(limit);
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        List<UserSummary> rows = after == null
+                ? userRepository.findFirstSummaries(fetch)
+                : userRepository.findSummariesAfter(after.key(), fetch);
+        return KeysetPage.of(rows, limit, user -> new KeysetCursor(user.email(), user.id()).encode());
     }
 
     /**
-     * Gibt einen Benutzer anhand seiner ID zurück oder wirft, wenn nicht gefunden.
+     * Gibt die Detailansicht eines Benutzers mit den Kennzahlen seiner Bibliothek zurück.
      *
      * @param id Die UUID des Benutzers
-     * @return der gefundene User
+     * @return Detailansicht des Benutzers
      * @throws UserNotFoundException wenn kein User existiert
      */
-    public User getUserById(UUID id) {
-        return userRepository
-                .findById(id)
+    public UserDetail getUserDetail(UUID id) {
+        return userRepository.findDetail(id)
                 .orElseThrow(() -> new UserNotFoundException(id));
     }
 
@@ -75,6 +90,7 @@ public class UserService {
                 .orElseThrow(() -> new UserNotFoundException(userId));
         user.setName(userDto.getName());
         user.setEmail(userDto.getEmail());
+        RequestDeadline.checkNotExpired();
         return userRepository.save(user);
     }
 
@@ -87,6 +103,7 @@ public class UserService {
     public void deleteUser(UUID userId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new UserNotFoundException(userId));
+        RequestDeadline.checkNotExpired();
         userRepository.delete(user);
     }
 }
\ No newline at end of file
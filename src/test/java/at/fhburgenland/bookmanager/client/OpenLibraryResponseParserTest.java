@@ -0,0 +1,114 @@
+package at.fhburgenland.bookmanager.client;
+
+import at.fhburgenland.bookmanager.dto.BookMetadata;
+import at.fhburgenland.bookmanager.dto.CatalogProjection;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class OpenLibraryResponseParserTest {
+
+    private final OpenLibraryResponseParser parser = new OpenLibraryResponseParser(new JsonFactory());
+
+    @Test
+    void parse_FullResponse_ExtractsFieldsAndSkipsUnusedSections() throws IOException {
+        String json = """
+        {
+          "ISBN:9780140328721": {
+            "url": "https://openlibrary.org/books/OL7353617M/Matilda",
+            "identifiers": {"isbn_10": ["0140328726"], "openlibrary": ["OL7353617M"]},
+            "title": "Matilda",
+            "authors": [{"url": "https://openlibrary.org/authors/OL34184A", "name": "Roald Dahl"}],
+            "publishers": [{"name": "Puffin"}, {"name": "Penguin"}],
+            "publish_date": "October 1, 1988",
+            "subjects": [{"name": "Schools", "url": "https://openlibrary.org/subjects/schools"}],
+            "ebooks": [{"availability": "borrow", "formats": {"pdf": {"url": "x"}}}],
+            "description": {"type": "/type/text", "value": "A story about a gifted girl"},
+            "number_of_pages": 232
+          }
+        }
+        """;
+
+        Map<String, BookMetadata> result = parse(json, List.of("9780140328721"));
+
+        assertThat(result).containsOnlyKeys("9780140328721");
+        BookMetadata metadata = result.get("9780140328721");
+        assertThat(metadata.title()).isEqualTo("Matilda");
+        assertThat(metadata.publisher()).isEqualTo("Puffin");
+        assertThat(metadata.publishedDate()).isEqualTo("October 1, 1988");
+        assertThat(metadata.description()).isEqualTo("A story about a gifted girl");
+        assertThat(metadata.coverUrl()).isEqualTo("https://covers.openlibrary.org/b/isbn/9780140328721-L.jpg");
+    }
+
+    @Test
+    void parse_KeepsCompressedPayloadForLaterProjection() throws IOException {
+        String json = """
+        {"ISBN:9780140328721": {"title": "Matilda", "authors": [{"name": "Roald Dahl"}],
+          "subjects": [{"name": "Schools"}, "Genius"], "number_of_pages": 232}}
+        """;
+
+        BookMetadata metadata = parse(json, List.of("9780140328721")).get("9780140328721");
+
+        assertThat(metadata.payload()).isNotNull();
+        CatalogProjection projection = OpenLibraryPayloads.project(metadata.payload());
+        assertThat(projection.authors()).containsExactly("Roald Dahl");
+        assertThat(projection.subjects()).containsExactly("Schools", "Genius");
+        assertThat(projection.numberOfPages()).isEqualTo(232);
+    }
+
+    @Test
+    void parse_PlainStringFields_AreAccepted() throws IOException {
+        String json = """
+        {"ISBN:123": {"title": "Titel", "publishers": ["Verlag"], "description": "Text"}}
+        """;
+
+        BookMetadata metadata = parse(json, List.of("123")).get("123");
+
+        assertThat(metadata.publisher()).isEqualTo("Verlag");
+        assertThat(metadata.description()).isEqualTo("Text");
+        assertThat(metadata.publishedDate()).isEmpty();
+    }
+
+    @Test
+    void parse_MultipleBibkeys_KeepsRequestOrderAndDropsEmptyOrUnrequested() throws IOException {
+        String json = """
+        {
+          "ISBN:333": {"title": "Drei"},
+          "ISBN:999": {"title": "Nicht angefragt"},
+          "ISBN:222": {},
+          "ISBN:111": {"title": "Eins"}
+        }
+        """;
+
+        Map<String, BookMetadata> result = parse(json, List.of("111", "222", "333"));
+
+        assertThat(result.keySet()).containsExactly("111", "333");
+    }
+
+    @Test
+    void parse_EmptyResponse_ReturnsEmptyMap() throws IOException {
+        assertThat(parse("{}", List.of("123"))).isEmpty();
+        assertThat(parse("", List.of("123"))).isEmpty();
+    }
+
+    @Test
+    void parse_MalformedJson_Throws() {
+        assertThrows(JsonParseException.class, () -> parse("{\"ISBN:123\": {\"title\": ", List.of("123")));
+    }
+
+    private Map<String, BookMetadata> parse(String json, List<String> isbns) throws IOException {
+        try (InputStream body = new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8))) {
+            return parser.parse(body, isbns);
+        }
+    }
+}
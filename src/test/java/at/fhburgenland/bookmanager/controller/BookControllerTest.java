@@ -2,8 +2,10 @@ package at.fhburgenland.bookmanager.controller;
 
 import at.fhburgenland.bookmanager.dto.IsbnRequest;
 import at.fhburgenland.bookmanager.model.Book;
+import at.fhburgenland.bookmanager.model.CatalogBook;
 import at.fhburgenland.bookmanager.model.User;
 import at.fhburgenland.bookmanager.repository.BookRepository;
+import at.fhburgenland.bookmanager.repository.CatalogBookRepository;
 import at.fhburgenland.bookmanager.repository.UserRepository;
 import at.fhburgenland.bookmanager.service.BookService;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -45,33 +47,39 @@ class BookControllerTest {
     @Autowired
     private BookRepository bookRepository;
 
+    @Autowired
+    private CatalogBookRepository catalogBookRepository;
+
     private User testUser;
 
     @BeforeEach
     void setup() {
         userRepository.deleteAll();
+        catalogBookRepository.deleteAll();
         testUser = userRepository.save(User.builder().name("Test User").email("testuser@books.at").build());
     }
 
     @Test
     void addBookByIsbn_ReturnsCreated() throws Exception {
-        IsbnRequest isbnRequest = new IsbnRequest("1234567890");
+        IsbnRequest isbnRequest = new IsbnRequest("9780140328721");
 
         Book mockBook = Book.builder()
+                .catalog(CatalogBook.builder()
+                        .isbn("9780140328721")
+                        .title("Test Book")
+                        .build())
                 .id(UUID.randomUUID())
-                .isbn("1234567890")
-                .title("Test Book")
                 .user(testUser)
                 .build();
 
-        Mockito.when(bookService.addBookToUserByIsbn(eq(testUser.getId()), eq("1234567890")))
+        Mockito.when(bookService.addBookToUserByIsbn(eq(testUser.getId()), eq("9780140328721")))
                 .thenReturn(mockBook);
 
         mockMvc.perform(post("/users/{userId}/books", testUser.getId())
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(isbnRequest)))
                 .andExpect(status().isCreated())
-                .andExpect(jsonPath("$.isbn").value("1234567890"))
+                .andExpect(jsonPath("$.isbn").value("9780140328721"))
                 .andExpect(jsonPath("$.title").isString());
     }
 
@@ -80,12 +88,14 @@ class BookControllerTest {
         String isbn = "9780140328721";
 
         Book book = Book.builder()
-                .isbn(isbn)
-                .title("Matilda")
-                .publisher("Puffin")
-                .publishedDate("1988")
-                .description("A story about a gifted girl")
-                .coverUrl("https://covers.openlibrary.org/b/isbn/" + isbn + "-L.jpg")
+                .catalog(CatalogBook.builder()
+                        .isbn(isbn)
+                        .title("Matilda")
+                        .publisher("Puffin")
+                        .publishedDate("1988")
+                        .description("A story about a gifted girl")
+                        .coverUrl("https://covers.openlibrary.org/b/isbn/" + isbn + "-L.jpg")
+                        .build())
                 .user(testUser)
                 .build();
         testUser.getBooks().add(book);
@@ -101,14 +111,18 @@ class BookControllerTest {
     void updateBookRating_ValidRequest_ReturnsUpdatedBook() throws Exception {
         String isbn = "9780140328721";
         Book book = Book.builder()
-                .isbn(isbn)
-                .title("Matilda")
+                .catalog(CatalogBook.builder()
+                        .isbn(isbn)
+                        .title("Matilda")
+                        .build())
                 .rating(4)
                 .user(testUser)
                 .build();
         Book existingBook = Book.builder()
-                .isbn("9780140328721")
-                .title("Matilda")
+                .catalog(CatalogBook.builder()
+                        .isbn("9780140328721")
+                        .title("Matilda")
+                        .build())
                 .user(testUser)
                 .build();
         testUser.getBooks().add(existingBook);
@@ -135,9 +149,11 @@ class BookControllerTest {
     void updateBookDetails_ValidRequest_ReturnsUpdatedBook() throws Exception {
         String isbn = "123";
         Book book = Book.builder()
-                .isbn(isbn)
-                .title("Updated")
-                .description("Updated desc")
+                .catalog(CatalogBook.builder()
+                        .isbn(isbn)
+                        .title("Updated")
+                        .description("Updated desc")
+                        .build())
                 .user(testUser)
                 .build();
         testUser.getBooks().add(book);
@@ -163,8 +179,10 @@ class BookControllerTest {
     void deleteBook_ExistingBook_ReturnsNoContent() throws Exception {
         String isbn = "9780140328721";
         Book book = Book.builder()
-                .isbn(isbn)
-                .title("Matilda")
+                .catalog(CatalogBook.builder()
+                        .isbn(isbn)
+                        .title("Matilda")
+                        .build())
                 .user(testUser)
                 .build();
         testUser.getBooks().add(book);
@@ -193,8 +211,8 @@ class BookControllerTest {
 
     @Test
     void getBooksByRating_FilterWorksCorrectly() throws Exception {
-        Book book1 = Book.builder().isbn("111").title("Buch 1").rating(2).user(testUser).build();
-        Book book2 = Book.builder().isbn("222").title("Buch 2").rating(5).user(testUser).build();
+        Book book1 = Book.builder().catalog(CatalogBook.builder().isbn("111").title("Buch 1").build()).rating(2).user(testUser).build();
+        Book book2 = Book.builder().catalog(CatalogBook.builder().isbn("222").title("Buch 2").build()).rating(5).user(testUser).build();
         testUser.setBooks(List.of(book1, book2));
         userRepository.save(testUser);
 
@@ -207,10 +225,12 @@ class BookControllerTest {
     @Test
     void searchBooks_WithQueryParams_ReturnsFilteredBooks() throws Exception {
         Book book = Book.builder()
-                .isbn("1234567890")
-                .title("Der Hobbit")
-                .authors(List.of("J.R.R. Tolkien"))
-                .publishedDate("1937")
+                .catalog(CatalogBook.builder()
+                        .isbn("1234567890")
+                        .title("Der Hobbit")
+                        .authors(List.of("J.R.R. Tolkien"))
+                        .publishedDate("1937")
+                        .build())
                 .user(testUser)
                 .build();
 
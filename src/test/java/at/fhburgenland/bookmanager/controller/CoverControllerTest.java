@@ -0,0 +1,112 @@
+package at.fhburgenland.bookmanager.controller;
+
+import at.fhburgenland.bookmanager.dto.CoverSize;
+import at.fhburgenland.bookmanager.exception.CoverNotFoundException;
+import at.fhburgenland.bookmanager.exception.GlobalExceptionHandler;
+import at.fhburgenland.bookmanager.service.CoverService;
+import at.fhburgenland.bookmanager.service.CoverStore;
+import at.fhburgenland.bookmanager.service.ThumbnailService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class CoverControllerTest {
+
+    @TempDir
+    Path cacheDir;
+
+    private CoverService coverService;
+    private CoverStore coverStore;
+    private ThumbnailService thumbnailService;
+    private MockMvc mockMvc;
+    private CoverStore.StoredCover cover;
+
+    @BeforeEach
+    void setUp() {
+        coverService = Mockito.mock(CoverService.class);
+        thumbnailService = Mockito.mock(ThumbnailService.class);
+        coverStore = new CoverStore(cacheDir, DataSize.ofMegabytes(1), Duration.ZERO);
+        mockMvc = MockMvcBuilders.standaloneSetup(new CoverController(coverService, coverStore, thumbnailService, Duration.ofDays(30)))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+        cover = coverStore.store("9780140328721", new byte[]{10, 20, 30, 40}, "image/jpeg");
+    }
+
+    @Test
+    void getCover_ServesFileWithEtagAndCacheControl() throws Exception {
+        when(coverService.getCover("9780140328721")).thenReturn(cover);
+
+        mockMvc.perform(get("/covers/9780140328721"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("image/jpeg"))
+                .andExpect(content().bytes(new byte[]{10, 20, 30, 40}))
+                .andExpect(header().string("ETag", "\"" + cover.hash() + "\""))
+                .andExpect(header().string("Cache-Control", containsString("max-age=2592000")));
+    }
+
+    @Test
+    void getCover_MatchingIfNoneMatch_ReturnsNotModified() throws Exception {
+        when(coverService.getCover("9780140328721")).thenReturn(cover);
+
+        mockMvc.perform(get("/covers/9780140328721").header("If-None-Match", "\"" + cover.hash() + "\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    void getCover_SendfileSupported_DelegatesTransferToContainer() throws Exception {
+        when(coverService.getCover("9780140328721")).thenReturn(cover);
+
+        mockMvc.perform(get("/covers/9780140328721").requestAttr("org.apache.tomcat.sendfile.support", true))
+                .andExpect(status().isOk())
+                .andExpect(request().attribute("org.apache.tomcat.sendfile.filename",
+                        cover.file().toAbsolutePath().toString()))
+                .andExpect(request().attribute("org.apache.tomcat.sendfile.end", 4L))
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    void getCover_ThumbnailReady_ServesThumbnail() throws Exception {
+        when(thumbnailService.findOrSchedule("9780140328721", CoverSize.S)).thenReturn(Optional.of(cover));
+
+        mockMvc.perform(get("/covers/9780140328721").param("size", "S"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", containsString("max-age=2592000")));
+        verify(coverService, never()).getCover("9780140328721");
+    }
+
+    @Test
+    void getCover_ThumbnailPending_ServesOriginalWithShortLifetime() throws Exception {
+        when(thumbnailService.findOrSchedule("9780140328721", CoverSize.M)).thenReturn(Optional.empty());
+        when(coverService.getCover("9780140328721")).thenReturn(cover);
+
+        mockMvc.perform(get("/covers/9780140328721").param("size", "M"))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(new byte[]{10, 20, 30, 40}))
+                .andExpect(header().string("Cache-Control", containsString("max-age=60")));
+    }
+
+    @Test
+    void getCover_UnknownCover_ReturnsNotFound() throws Exception {
+        when(coverService.getCover("9780000000002")).thenThrow(new CoverNotFoundException("9780000000002"));
+
+        mockMvc.perform(get("/covers/9780000000002"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.title").value("Cover nicht gefunden"));
+    }
+}
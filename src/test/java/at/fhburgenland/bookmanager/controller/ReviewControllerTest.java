@@ -1,10 +1,13 @@
 package at.fhburgenland.bookmanager.controller;
 
+import at.fhburgenland.bookmanager.dto.BulkReviewRequest;
 import at.fhburgenland.bookmanager.dto.ReviewRequest;
 import at.fhburgenland.bookmanager.model.Book;
+import at.fhburgenland.bookmanager.model.CatalogBook;
 import at.fhburgenland.bookmanager.model.Review;
 import at.fhburgenland.bookmanager.model.User;
 import at.fhburgenland.bookmanager.repository.BookRepository;
+import at.fhburgenland.bookmanager.repository.CatalogBookRepository;
 import at.fhburgenland.bookmanager.repository.ReviewRepository;
 import at.fhburgenland.bookmanager.repository.UserRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -15,6 +18,11 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -36,6 +44,9 @@ class ReviewControllerTest {
 
     @Autowired
     private ReviewRepository reviewRepository;
+
+    @Autowired
+    private CatalogBookRepository catalogBookRepository;
     private User testUser;
     private Book testBook;
 
@@ -44,13 +55,16 @@ class ReviewControllerTest {
         reviewRepository.deleteAll();
         bookRepository.deleteAll();
         userRepository.deleteAll();
+        catalogBookRepository.deleteAll();
         testUser = userRepository.save(User.builder()
                 .name("Test Reviewer")
                 .email("review@example.com")
                 .build());
         testBook = bookRepository.save(Book.builder()
-                .isbn("1234567890")
-                .title("Testbuch")
+                .catalog(CatalogBook.builder()
+                        .isbn("1234567890")
+                        .title("Testbuch")
+                        .build())
                 .user(testUser)
                 .build());
     }
@@ -58,7 +72,7 @@ class ReviewControllerTest {
     @Test
     void addReview_ReturnsCreated() throws Exception {
         ReviewRequest request = new ReviewRequest(5, "Super!");
-        mockMvc.perform(post("/users/{userId}/books/{isbn}/reviews", testUser.getId(), testBook.getIsbn())
+        mockMvc.perform(post("/users/{userId}/books/{isbn}/reviews", testUser.getId(), testBook.getCatalog().getIsbn())
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isCreated())
@@ -74,7 +88,7 @@ class ReviewControllerTest {
                 .book(testBook)
                 .build();
         reviewRepository.save(review);
-        mockMvc.perform(get("/users/{userId}/books/{isbn}/reviews", testUser.getId(), testBook.getIsbn()))
+        mockMvc.perform(get("/users/{userId}/books/{isbn}/reviews", testUser.getId(), testBook.getCatalog().getIsbn()))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.length()").value(1))
                 .andExpect(jsonPath("$[0].rating").value(4))
@@ -90,7 +104,7 @@ class ReviewControllerTest {
                 .build());
         ReviewRequest update = new ReviewRequest(4, "Besser als gedacht");
         mockMvc.perform(put("/users/{userId}/books/{isbn}/reviews/{reviewId}",
-                        testUser.getId(), testBook.getIsbn(), existing.getId())
+                        testUser.getId(), testBook.getCatalog().getIsbn(), existing.getId())
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(update)))
                 .andExpect(status().isOk())
@@ -106,7 +120,7 @@ class ReviewControllerTest {
                 .book(testBook)
                 .build());
         mockMvc.perform(delete("/users/{userId}/books/{isbn}/reviews/{reviewId}",
-                        testUser.getId(), testBook.getIsbn(), review.getId()))
+                        testUser.getId(), testBook.getCatalog().getIsbn(), review.getId()))
                 .andExpect(status().isNoContent());
     }
 
@@ -114,10 +128,40 @@ class ReviewControllerTest {
     void addReview_InvalidRequest_ReturnsBadRequest() throws Exception {
         ReviewRequest invalid = new ReviewRequest(null, null);
 
-        mockMvc.perform(post("/users/{userId}/books/{isbn}/reviews", testUser.getId(), testBook.getIsbn())
+        mockMvc.perform(post("/users/{userId}/books/{isbn}/reviews", testUser.getId(), testBook.getCatalog().getIsbn())
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(invalid)))
                 .andExpect(status().isBadRequest())
                 .andExpect(jsonPath("$.title").value("Validation failed"));
     }
+
+    @Test
+    void addReviews_ReturnsCreatedAndListsInGivenOrder() throws Exception {
+        BulkReviewRequest request = new BulkReviewRequest(List.of(
+                new ReviewRequest(5, "Erste"), new ReviewRequest(3, "Zweite"), new ReviewRequest(1, "Dritte")));
+
+        mockMvc.perform(post("/users/{userId}/books/{isbn}/reviews/bulk", testUser.getId(), testBook.getCatalog().getIsbn())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].id").isNotEmpty());
+
+        mockMvc.perform(get("/users/{userId}/books/{isbn}/reviews", testUser.getId(), testBook.getCatalog().getIsbn()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].reviewText").value(contains("Erste", "Zweite", "Dritte")));
+    }
+
+    @Test
+    void addReviews_InvalidReview_ReturnsBadRequestAndSavesNothing() throws Exception {
+        BulkReviewRequest request = new BulkReviewRequest(List.of(
+                new ReviewRequest(5, "Gut"), new ReviewRequest(9, "")));
+
+        mockMvc.perform(post("/users/{userId}/books/{isbn}/reviews/bulk", testUser.getId(), testBook.getCatalog().getIsbn())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.title").value("Validation failed"));
+        assertThat(reviewRepository.count()).isZero();
+    }
 }
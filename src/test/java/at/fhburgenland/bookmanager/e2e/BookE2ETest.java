@@ -1,9 +1,12 @@
 package at.fhburgenland.bookmanager.e2e;
 
 import at.fhburgenland.bookmanager.dto.IsbnRequest;
+import at.fhburgenland.bookmanager.dto.LibraryBook;
 import at.fhburgenland.bookmanager.model.Book;
+import at.fhburgenland.bookmanager.model.CatalogBook;
 import at.fhburgenland.bookmanager.model.User;
 import at.fhburgenland.bookmanager.repository.BookRepository;
+import at.fhburgenland.bookmanager.repository.CatalogBookRepository;
 import at.fhburgenland.bookmanager.repository.UserRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.*;
@@ -33,6 +36,9 @@ class BookE2ETest {
     @Autowired
     private BookRepository bookRepository;
 
+    @Autowired
+    private CatalogBookRepository catalogBookRepository;
+
     private final ObjectMapper objectMapper = new ObjectMapper();
     private final RestTemplate restTemplate = new RestTemplate();
 
@@ -42,6 +48,7 @@ class BookE2ETest {
     void cleanUp() {
         bookRepository.deleteAll();
         userRepository.deleteAll();
+        catalogBookRepository.deleteAll();
         testUser = userRepository.save(User.builder()
                 .name("E2E Testuser")
                 .email("e2e@test.at")
@@ -61,7 +68,7 @@ class BookE2ETest {
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
         assertThat(response.getBody()).isNotNull();
-        assertThat(response.getBody().getIsbn()).isEqualTo("9780140328721");
+        assertThat(response.getBody().getCatalog().getIsbn()).isEqualTo("9780140328721");
 
         Optional<Book> saved = bookRepository.findAll().stream().findFirst();
         assertThat(saved).isPresent();
@@ -112,12 +119,14 @@ class BookE2ETest {
     @Test
     void getBookByIsbn_ExistingBook_ReturnsBookDetails() {
         Book book = Book.builder()
-                .isbn("9780140328721")
-                .title("Matilda")
-                .publisher("Puffin")
-                .publishedDate("1988")
-                .description("A story about a gifted girl")
-                .coverUrl("https://covers.openlibrary.org/b/isbn/9780140328721-L.jpg")
+                .catalog(CatalogBook.builder()
+                        .isbn("9780140328721")
+                        .title("Matilda")
+                        .publisher("Puffin")
+                        .publishedDate("1988")
+                        .description("A story about a gifted girl")
+                        .coverUrl("https://covers.openlibrary.org/b/isbn/9780140328721-L.jpg")
+                        .build())
                 .user(testUser)
                 .build();
 
@@ -129,8 +138,8 @@ class BookE2ETest {
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).isNotNull();
-        assertThat(response.getBody().getTitle()).isEqualTo("Matilda");
-        assertThat(response.getBody().getIsbn()).isEqualTo("9780140328721");
+        assertThat(response.getBody().getCatalog().getTitle()).isEqualTo("Matilda");
+        assertThat(response.getBody().getCatalog().getIsbn()).isEqualTo("9780140328721");
     }
 
     @Test
@@ -151,8 +160,10 @@ class BookE2ETest {
     @Test
     void updateBook_InvalidRating_ReturnsBadRequest() throws Exception {
         Book book = Book.builder()
-                .isbn("9780140328721")
-                .title("Matilda")
+                .catalog(CatalogBook.builder()
+                        .isbn("9780140328721")
+                        .title("Matilda")
+                        .build())
                 .rating(3)
                 .user(testUser)
                 .build();
@@ -186,8 +197,10 @@ class BookE2ETest {
     @Test
     void updateBook_RatingTooLow_ReturnsBadRequest() throws Exception {
         Book book = Book.builder()
-                .isbn("9780140328721")
-                .title("Matilda")
+                .catalog(CatalogBook.builder()
+                        .isbn("9780140328721")
+                        .title("Matilda")
+                        .build())
                 .rating(3)
                 .user(testUser)
                 .build();
@@ -221,8 +234,10 @@ class BookE2ETest {
     @Test
     void updateBook_ValidRating_ReturnsUpdatedBook() throws Exception {
         Book book = Book.builder()
-                .isbn("9780140328721")
-                .title("Matilda")
+                .catalog(CatalogBook.builder()
+                        .isbn("9780140328721")
+                        .title("Matilda")
+                        .build())
                 .rating(3)
                 .user(testUser)
                 .build();
@@ -248,14 +263,16 @@ class BookE2ETest {
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).isNotNull();
         assertThat(response.getBody().getRating()).isEqualTo(4);
-        assertThat(response.getBody().getIsbn()).isEqualTo("9780140328721");
+        assertThat(response.getBody().getCatalog().getIsbn()).isEqualTo("9780140328721");
     }
 
     @Test
     void deleteBook_ExistingBook_Returns204() {
         Book book = Book.builder()
-                .isbn("9780140328721")
-                .title("Matilda")
+                .catalog(CatalogBook.builder()
+                        .isbn("9780140328721")
+                        .title("Matilda")
+                        .build())
                 .user(testUser)
                 .build();
         testUser.getBooks().add(book);
@@ -297,17 +314,17 @@ class BookE2ETest {
 
     @Test
     void filterBooksByRating_Valid_ReturnsFilteredList() throws Exception {
-        Book book1 = Book.builder().isbn("111").title("Test 1").rating(3).user(testUser).build();
-        Book book2 = Book.builder().isbn("222").title("Test 2").rating(5).user(testUser).build();
+        Book book1 = Book.builder().catalog(CatalogBook.builder().isbn("111").title("Test 1").build()).rating(3).user(testUser).build();
+        Book book2 = Book.builder().catalog(CatalogBook.builder().isbn("222").title("Test 2").build()).rating(5).user(testUser).build();
         testUser.setBooks(List.of(book1, book2));
         userRepository.save(testUser);
 
-        ResponseEntity<Book[]> response = restTemplate.getForEntity(
-                getUrl("/users/" + testUser.getId() + "/books?rating=5"), Book[].class);
+        ResponseEntity<LibraryBook[]> response = restTemplate.getForEntity(
+                getUrl("/users/" + testUser.getId() + "/books?rating=5"), LibraryBook[].class);
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).hasSize(1);
-        assertThat(response.getBody()[0].getRating()).isEqualTo(5);
+        assertThat(response.getBody()[0].rating()).isEqualTo(5);
     }
 
     @Test
@@ -325,34 +342,37 @@ class BookE2ETest {
     @Test
     void searchBooks_WithAllFilters_ReturnsMatchingBook() {
         Book book = Book.builder()
-                .isbn("111")
-                .title("Der Herr der Ringe")
-                .authors(List.of("J.R.R. Tolkien"))
-                .publishedDate("1954")
+                .catalog(CatalogBook.builder()
+                        .isbn("111")
+                        .title("Der Herr der Ringe")
+                        .authors(List.of("J.R.R. Tolkien"))
+                        .publishedDate("1954")
+                        .build())
                 .user(testUser)
                 .build();
         testUser.setBooks(List.of(book));
         userRepository.save(testUser);
 
-        ResponseEntity<Book[]> response = restTemplate.getForEntity(
+        ResponseEntity<LibraryBook[]> response = restTemplate.getForEntity(
                 getUrl("/users/" + testUser.getId() + "/books/search?title=Ringe&author=Tolkien&year=1954"),
-                Book[].class);
+                LibraryBook[].class);
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).hasSize(1);
-        assertThat(response.getBody()[0].getTitle()).contains("Ringe");
+        assertThat(response.getBody()[0].title()).contains("Ringe");
+        assertThat(response.getBody()[0].authors()).containsExactly("J.R.R. Tolkien");
     }
 
     @Test
     void searchBooks_WithoutFilters_ReturnsAllBooks() {
-        Book book1 = Book.builder().isbn("111").title("Testbuch A").user(testUser).build();
-        Book book2 = Book.builder().isbn("222").title("Testbuch B").user(testUser).build();
+        Book book1 = Book.builder().catalog(CatalogBook.builder().isbn("111").title("Testbuch A").build()).user(testUser).build();
+        Book book2 = Book.builder().catalog(CatalogBook.builder().isbn("222").title("Testbuch B").build()).user(testUser).build();
         testUser.setBooks(List.of(book1, book2));
         userRepository.save(testUser);
 
-        ResponseEntity<Book[]> response = restTemplate.getForEntity(
+        ResponseEntity<LibraryBook[]> response = restTemplate.getForEntity(
                 getUrl("/users/" + testUser.getId() + "/books/search"),
-                Book[].class);
+                LibraryBook[].class);
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).hasSize(2);
@@ -371,10 +391,12 @@ class BookE2ETest {
     @Test
     void updateBook_DetailsValid_ReturnsUpdatedBook() throws Exception {
         Book book = Book.builder()
-                .isbn("1234567890")
-                .title("Alt")
-                .description("Original")
-                .coverUrl("oldUrl")
+                .catalog(CatalogBook.builder()
+                        .isbn("1234567890")
+                        .title("Alt")
+                        .description("Original")
+                        .coverUrl("oldUrl")
+                        .build())
                 .user(testUser)
                 .build();
         testUser.getBooks().add(book);
@@ -401,8 +423,8 @@ class BookE2ETest {
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).isNotNull();
-        assertThat(response.getBody().getTitle()).isEqualTo("Neuer Titel");
-        assertThat(response.getBody().getDescription()).isEqualTo("Neue Beschreibung");
-        assertThat(response.getBody().getCoverUrl()).isEqualTo("https://neu");
+        assertThat(response.getBody().getCatalog().getTitle()).isEqualTo("Neuer Titel");
+        assertThat(response.getBody().getCatalog().getDescription()).isEqualTo("Neue Beschreibung");
+        assertThat(response.getBody().getCatalog().getCoverUrl()).isEqualTo("https://neu");
     }
 }
@@ -2,9 +2,11 @@ package at.fhburgenland.bookmanager.e2e;
 
 import at.fhburgenland.bookmanager.dto.ReviewRequest;
 import at.fhburgenland.bookmanager.model.Book;
+import at.fhburgenland.bookmanager.model.CatalogBook;
 import at.fhburgenland.bookmanager.model.Review;
 import at.fhburgenland.bookmanager.model.User;
 import at.fhburgenland.bookmanager.repository.BookRepository;
+import at.fhburgenland.bookmanager.repository.CatalogBookRepository;
 import at.fhburgenland.bookmanager.repository.ReviewRepository;
 import at.fhburgenland.bookmanager.repository.UserRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -33,6 +35,9 @@ class ReviewE2ETest {
 
     @Autowired
     private ReviewRepository reviewRepository;
+
+    @Autowired
+    private CatalogBookRepository catalogBookRepository;
     private final RestTemplate restTemplate = new RestTemplate();
     private final ObjectMapper objectMapper = new ObjectMapper();
     private User testUser;
@@ -43,13 +48,16 @@ class ReviewE2ETest {
         reviewRepository.deleteAll();
         bookRepository.deleteAll();
         userRepository.deleteAll();
+        catalogBookRepository.deleteAll();
         testUser = userRepository.save(User.builder()
                 .name("Review Tester")
                 .email("review@test.at")
                 .build());
         testBook = bookRepository.save(Book.builder()
-                .isbn("9780140328721")
-                .title("Matilda")
+                .catalog(CatalogBook.builder()
+                        .isbn("9780140328721")
+                        .title("Matilda")
+                        .build())
                 .user(testUser)
                 .build());
     }
@@ -59,7 +67,7 @@ class ReviewE2ETest {
         ReviewRequest request = new ReviewRequest(5, "Top!");
         HttpEntity<String> entity = new HttpEntity<>(objectMapper.writeValueAsString(request), defaultHeaders());
         ResponseEntity<Review> response = restTemplate.postForEntity(
-                getUrl("/users/" + testUser.getId() + "/books/" + testBook.getIsbn() + "/reviews"),
+                getUrl("/users/" + testUser.getId() + "/books/" + testBook.getCatalog().getIsbn() + "/reviews"),
                 entity,
                 Review.class);
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
@@ -74,7 +82,7 @@ class ReviewE2ETest {
         HttpEntity<String> entity = new HttpEntity<>(objectMapper.writeValueAsString(request), defaultHeaders());
         try {
             restTemplate.postForEntity(
-                    getUrl("/users/" + testUser.getId() + "/books/" + testBook.getIsbn() + "/reviews"),
+                    getUrl("/users/" + testUser.getId() + "/books/" + testBook.getCatalog().getIsbn() + "/reviews"),
                     entity,
                     String.class);
             fail("Expected 400");
@@ -87,7 +95,7 @@ class ReviewE2ETest {
     @Test
     void getAllReviews_InitiallyEmpty_Returns200() {
         ResponseEntity<Review[]> response = restTemplate.getForEntity(
-                getUrl("/users/" + testUser.getId() + "/books/" + testBook.getIsbn() + "/reviews"),
+                getUrl("/users/" + testUser.getId() + "/books/" + testBook.getCatalog().getIsbn() + "/reviews"),
                 Review[].class);
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).isEmpty();
@@ -103,7 +111,7 @@ class ReviewE2ETest {
         ReviewRequest update = new ReviewRequest(4, "Noch besser");
         HttpEntity<String> entity = new HttpEntity<>(objectMapper.writeValueAsString(update), defaultHeaders());
         ResponseEntity<Review> response = restTemplate.exchange(
-                getUrl("/users/" + testUser.getId() + "/books/" + testBook.getIsbn() + "/reviews/" + saved.getId()),
+                getUrl("/users/" + testUser.getId() + "/books/" + testBook.getCatalog().getIsbn() + "/reviews/" + saved.getId()),
                 HttpMethod.PUT,
                 entity,
                 Review.class);
@@ -121,7 +129,7 @@ class ReviewE2ETest {
                 .book(testBook)
                 .build());
         ResponseEntity<Void> response = restTemplate.exchange(
-                getUrl("/users/" + testUser.getId() + "/books/" + testBook.getIsbn() + "/reviews/" + saved.getId()),
+                getUrl("/users/" + testUser.getId() + "/books/" + testBook.getCatalog().getIsbn() + "/reviews/" + saved.getId()),
                 HttpMethod.DELETE,
                 null,
                 Void.class);
@@ -133,7 +141,7 @@ class ReviewE2ETest {
     void deleteReview_NotFound_Returns404() {
         UUID fakeId = UUID.randomUUID();
         try {
-            restTemplate.delete(getUrl("/users/" + testUser.getId() + "/books/" + testBook.getIsbn() + "/reviews/" + fakeId));
+            restTemplate.delete(getUrl("/users/" + testUser.getId() + "/books/" + testBook.getCatalog().getIsbn() + "/reviews/" + fakeId));
             fail("Expected 404");
         } catch (HttpClientErrorException.NotFound ex) {
             assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
@@ -1,6 +1,8 @@
 package at.fhburgenland.bookmanager.e2e;
 
+import at.fhburgenland.bookmanager.dto.UserDetail;
 import at.fhburgenland.bookmanager.dto.UserDto;
+import at.fhburgenland.bookmanager.dto.UserSummary;
 import at.fhburgenland.bookmanager.model.User;
 import at.fhburgenland.bookmanager.repository.UserRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -63,8 +65,8 @@ class UserE2ETest {
                 User.builder().name("Bob").email("bob@e2e.at").build()
         ));
 
-        ResponseEntity<User[]> response = restTemplate.getForEntity(
-                "http://localhost:" + port + "/users", User[].class);
+        ResponseEntity<UserSummary[]> response = restTemplate.getForEntity(
+                "http://localhost:" + port + "/users", UserSummary[].class);
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).isNotNull();
@@ -80,14 +82,15 @@ class UserE2ETest {
                         .build()
         );
 
-        ResponseEntity<User> response = restTemplate.getForEntity(
+        ResponseEntity<UserDetail> response = restTemplate.getForEntity(
                 "http://localhost:" + port + "/users/" + saved.getId(),
-                User.class
+                UserDetail.class
         );
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).isNotNull();
-        assertThat(response.getBody().getEmail()).isEqualTo("e2euser@test.at");
+        assertThat(response.getBody().email()).isEqualTo("e2euser@test.at");
+        assertThat(response.getBody().bookCount()).isZero();
     }
 
     @Test
@@ -0,0 +1,120 @@
+package at.fhburgenland.bookmanager.integration;
+
+import at.fhburgenland.bookmanager.client.OpenLibraryPayloads;
+import at.fhburgenland.bookmanager.dto.BookMetadata;
+import at.fhburgenland.bookmanager.dto.BulkImportReport;
+import at.fhburgenland.bookmanager.dto.IsbnImportResult;
+import at.fhburgenland.bookmanager.model.User;
+import at.fhburgenland.bookmanager.repository.BookRepository;
+import at.fhburgenland.bookmanager.repository.CatalogBookRepository;
+import at.fhburgenland.bookmanager.repository.CatalogPayloadRepository;
+import at.fhburgenland.bookmanager.repository.ReviewRepository;
+import at.fhburgenland.bookmanager.repository.UserRepository;
+import at.fhburgenland.bookmanager.service.BookImportService;
+import at.fhburgenland.bookmanager.service.BookMetadataService;
+import at.fhburgenland.bookmanager.service.ThumbnailService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.when;
+
+/**
+ * Misst über die Hibernate-Statistik, dass ein Import neue Katalogeinträge samt Rohantworten
+ * gebündelt schreibt statt mit einer Abfrage und einer Einfügung pro ISBN.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "book.import.chunk-size=500"
+})
+class BookImportIntegrationTest {
+
+    private static final int BOOKS = 1000;
+
+    private static final byte[] PAYLOAD = OpenLibraryPayloads.compress(
+            "{\"authors\": [{\"name\": \"Roald Dahl\"}], \"number_of_pages\": 232}".getBytes(StandardCharsets.UTF_8));
+
+    @MockitoBean
+    private BookMetadataService metadataService;
+
+    @MockitoBean
+    private ThumbnailService thumbnailService;
+
+    @Autowired
+    private BookImportService importService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private CatalogBookRepository catalogBookRepository;
+
+    @Autowired
+    private CatalogPayloadRepository payloadRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        reviewRepository.deleteAll();
+        bookRepository.deleteAll();
+        userRepository.deleteAll();
+        payloadRepository.deleteAll();
+        catalogBookRepository.deleteAll();
+        user = userRepository.save(User.builder().name("Vielleser").email("viel@buch.at").build());
+        when(metadataService.lookupAll(anyCollection())).thenAnswer(invocation ->
+                invocation.<Collection<String>>getArgument(0).stream().collect(Collectors.toMap(Function.identity(),
+                        isbn -> new BookMetadata(isbn, "Band " + isbn, "Puffin", "1988", null, null, PAYLOAD))));
+    }
+
+    @Test
+    void importBooks_IsbnsNotInCatalog_StoresEntriesAndPayloadsInBatches() {
+        List<String> isbns = IntStream.range(0, BOOKS).mapToObj(BookImportIntegrationTest::isbn).toList();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        BulkImportReport report = importService.importBooks(user.getId(), isbns);
+        long statements = statistics.getPrepareStatementCount();
+
+        assertThat(report.count(IsbnImportResult.Status.IMPORTED)).isEqualTo(BOOKS);
+        assertThat(catalogBookRepository.count()).isEqualTo(BOOKS);
+        assertThat(payloadRepository.count()).isEqualTo(BOOKS);
+        assertThat(catalogBookRepository.findAuthors(List.of(isbns.get(0)))).hasSize(1);
+        // Zwei Blöcke mit je einer Handvoll gebündelter Anweisungen; mit save pro Rohantwort
+        // wären es allein dafür 2000 (Abfrage und Einfügung je ISBN).
+        assertThat(statements).isLessThan(BOOKS / 10);
+    }
+
+    /** Gültige ISBN-13 mit Prüfziffer, damit der Import sie nicht als ungültig aussortiert. */
+    private static String isbn(int number) {
+        String digits = String.format("978%09d", number);
+        int sum = 0;
+        for (int i = 0; i < digits.length(); i++) {
+            sum += (digits.charAt(i) - '0') * (i % 2 == 0 ? 1 : 3);
+        }
+        return digits + (10 - sum % 10) % 10;
+    }
+}
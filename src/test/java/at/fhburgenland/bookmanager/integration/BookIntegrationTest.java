@@ -2,8 +2,10 @@ package at.fhburgenland.bookmanager.integration;
 
 import at.fhburgenland.bookmanager.dto.IsbnRequest;
 import at.fhburgenland.bookmanager.model.Book;
+import at.fhburgenland.bookmanager.model.CatalogBook;
 import at.fhburgenland.bookmanager.model.User;
 import at.fhburgenland.bookmanager.repository.BookRepository;
+import at.fhburgenland.bookmanager.repository.CatalogBookRepository;
 import at.fhburgenland.bookmanager.repository.UserRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -11,8 +13,10 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
@@ -41,12 +45,19 @@ class BookIntegrationTest {
     @Autowired
     private BookRepository bookRepository;
 
+    @Autowired
+    private CatalogBookRepository catalogBookRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
     private User testUser;
 
     @BeforeEach
     void setUp() {
         bookRepository.deleteAll();
         userRepository.deleteAll();
+        catalogBookRepository.deleteAll();
         testUser = userRepository.save(User.builder()
                 .name("Integration User")
                 .email("integration@book.at")
@@ -76,7 +87,7 @@ class BookIntegrationTest {
                         .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isBadRequest())
                 .andExpect(jsonPath("$.title").value("Ungültige ISBN"))
-                .andExpect(jsonPath("$.detail", containsString("Keine Daten gefunden")));
+                .andExpect(jsonPath("$.detail", containsString("Ungültige ISBN: notarealisbn")));
     }
 
 
@@ -92,17 +103,36 @@ class BookIntegrationTest {
                 .andExpect(jsonPath("$.title").value("Benutzer nicht gefunden"));
     }
 
+    @Test
+    void addBookToUser_AlreadyOwned_ReturnsConflict() throws Exception {
+        catalogBookRepository.save(CatalogBook.builder().isbn("9780140328721").title("Matilda").build());
+
+        mockMvc.perform(post("/users/" + testUser.getId() + "/books")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new IsbnRequest("9780140328721"))))
+                .andExpect(status().isCreated());
+        mockMvc.perform(post("/users/" + testUser.getId() + "/books")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new IsbnRequest("0-14-032872-6"))))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.title").value("Buch bereits vorhanden"));
+
+        assertThat(bookRepository.findFirstByAdded(testUser.getId(), null, PageRequest.of(0, 10))).hasSize(1);
+    }
+
     @Test
     void getBookByIsbn_ExistingBook_ReturnsBookDetails() throws Exception {
         String isbn = "9780140328721";
 
         Book book = Book.builder()
-                .isbn(isbn)
-                .title("Matilda")
-                .publisher("Puffin")
-                .publishedDate("1988")
-                .description("A story about a gifted girl")
-                .coverUrl("https://covers.openlibrary.org/b/isbn/" + isbn + "-L.jpg")
+                .catalog(CatalogBook.builder()
+                        .isbn(isbn)
+                        .title("Matilda")
+                        .publisher("Puffin")
+                        .publishedDate("1988")
+                        .description("A story about a gifted girl")
+                        .coverUrl("https://covers.openlibrary.org/b/isbn/" + isbn + "-L.jpg")
+                        .build())
                 .user(testUser)
                 .build();
 
@@ -131,8 +161,10 @@ class BookIntegrationTest {
     void updateBookRating_ValidRequest_ReturnsUpdatedBook() throws Exception {
         String isbn = "9780140328721";
         Book book = Book.builder()
-                .isbn(isbn)
-                .title("Matilda")
+                .catalog(CatalogBook.builder()
+                        .isbn(isbn)
+                        .title("Matilda")
+                        .build())
                 .rating(3)
                 .user(testUser)
                 .build();
@@ -156,8 +188,10 @@ class BookIntegrationTest {
         String isbn = "9780140328721";
 
         Book book = Book.builder()
-                .isbn(isbn)
-                .title("Matilda")
+                .catalog(CatalogBook.builder()
+                        .isbn(isbn)
+                        .title("Matilda")
+                        .build())
                 .rating(3)
                 .user(testUser)
                 .build();
@@ -200,8 +234,10 @@ class BookIntegrationTest {
     void deleteBook_ExistingBook_ReturnsNoContent() throws Exception {
         String isbn = "9780140328721";
         Book book = Book.builder()
-                .isbn(isbn)
-                .title("Matilda")
+                .catalog(CatalogBook.builder()
+                        .isbn(isbn)
+                        .title("Matilda")
+                        .build())
                 .user(testUser)
                 .build();
 
@@ -231,8 +267,8 @@ class BookIntegrationTest {
 
     @Test
     void getBooks_FilterByRating_ReturnsOnlyMatchingBooks() throws Exception {
-        Book book1 = Book.builder().isbn("111").title("Buch 1").rating(3).user(testUser).build();
-        Book book2 = Book.builder().isbn("222").title("Buch 2").rating(5).user(testUser).build();
+        Book book1 = Book.builder().catalog(CatalogBook.builder().isbn("111").title("Buch 1").build()).rating(3).user(testUser).build();
+        Book book2 = Book.builder().catalog(CatalogBook.builder().isbn("222").title("Buch 2").build()).rating(5).user(testUser).build();
 
         testUser.setBooks(List.of(book1, book2));
         userRepository.save(testUser);
@@ -244,6 +280,39 @@ class BookIntegrationTest {
                 .andExpect(jsonPath("$[0].isbn").value("222"));
     }
 
+    @Test
+    void getBooks_SortedByTitle_PagesWithNextCursorHeader() throws Exception {
+        testUser.setBooks(new ArrayList<>(List.of(
+                Book.builder().catalog(CatalogBook.builder().isbn("111").title("Cäsar").build()).user(testUser).build(),
+                Book.builder().catalog(CatalogBook.builder().isbn("222").title("Anna").build()).user(testUser).build(),
+                Book.builder().catalog(CatalogBook.builder().isbn("333").title("Bruno").build()).user(testUser).build())));
+        userRepository.save(testUser);
+
+        String cursor = mockMvc.perform(get("/users/" + testUser.getId() + "/books")
+                        .param("sort", "TITLE")
+                        .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].title", contains("Anna", "Bruno")))
+                .andExpect(header().exists("X-Next-Cursor"))
+                .andReturn().getResponse().getHeader("X-Next-Cursor");
+
+        mockMvc.perform(get("/users/" + testUser.getId() + "/books")
+                        .param("sort", "TITLE")
+                        .param("limit", "2")
+                        .param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].title", contains("Cäsar")))
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+    }
+
+    @Test
+    void getBooks_InvalidCursor_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/users/" + testUser.getId() + "/books")
+                        .param("cursor", "kaputt"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.title").value("Ungültige Seitenanfrage"));
+    }
+
     @Test
     void getBooks_InvalidRating_ReturnsBadRequest() throws Exception {
         userRepository.save(testUser);
@@ -258,17 +327,21 @@ class BookIntegrationTest {
     @Test
     void searchBooks_ByTitleAndAuthorAndYear_ReturnsFilteredResult() throws Exception {
         Book book1 = Book.builder()
-                .isbn("111")
-                .title("Der Hobbit")
-                .authors(List.of("J.R.R. Tolkien"))
-                .publishedDate("1937")
+                .catalog(CatalogBook.builder()
+                        .isbn("111")
+                        .title("Der Hobbit")
+                        .authors(List.of("J.R.R. Tolkien"))
+                        .publishedDate("1937")
+                        .build())
                 .user(testUser)
                 .build();
         Book book2 = Book.builder()
-                .isbn("222")
-                .title("Der Herr der Ringe")
-                .authors(List.of("J.R.R. Tolkien"))
-                .publishedDate("1954")
+                .catalog(CatalogBook.builder()
+                        .isbn("222")
+                        .title("Der Herr der Ringe")
+                        .authors(List.of("J.R.R. Tolkien"))
+                        .publishedDate("1954")
+                        .build())
                 .user(testUser)
                 .build();
 
@@ -293,8 +366,8 @@ class BookIntegrationTest {
 
     @Test
     void searchBooks_NoFilters_ReturnsAllBooks() throws Exception {
-        Book book1 = Book.builder().isbn("123").title("Testbuch 1").user(testUser).build();
-        Book book2 = Book.builder().isbn("456").title("Testbuch 2").user(testUser).build();
+        Book book1 = Book.builder().catalog(CatalogBook.builder().isbn("123").title("Testbuch 1").build()).user(testUser).build();
+        Book book2 = Book.builder().catalog(CatalogBook.builder().isbn("456").title("Testbuch 2").build()).user(testUser).build();
 
         testUser.setBooks(List.of(book1, book2));
         userRepository.save(testUser);
@@ -304,14 +377,84 @@ class BookIntegrationTest {
                 .andExpect(jsonPath("$.length()").value(2));
     }
 
+    @Test
+    void searchBooks_UmlautInAnySpelling_FindsBook() throws Exception {
+        Book book = Book.builder().catalog(CatalogBook.builder().isbn("111").title("Die Brüder Löwenherz")
+                .authors(List.of("Astrid Lindgren")).subjects(List.of("Kinderbuch")).build()).user(testUser).build();
+        testUser.setBooks(List.of(book));
+        userRepository.save(testUser);
+
+        for (String query : List.of("Brüder", "Bruder", "brueder", "LOEWEN", "Lindgr kinder")) {
+            mockMvc.perform(get("/users/" + testUser.getId() + "/books/search").param("q", query))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.length()").value(1))
+                    .andExpect(jsonPath("$[0].isbn").value("111"));
+        }
+        mockMvc.perform(get("/users/" + testUser.getId() + "/books/search").param("q", "Brüder Astrid Tolkien"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+    }
+
+    @Test
+    void searchBooks_RanksTitleAboveAuthorAboveSubject() throws Exception {
+        Book subject = Book.builder().catalog(CatalogBook.builder().isbn("111").title("Atlas")
+                .subjects(List.of("Drachen")).build()).user(testUser).build();
+        Book title = Book.builder().catalog(CatalogBook.builder().isbn("222").title("Drachenreiter")
+                .authors(List.of("Cornelia Funke")).build()).user(testUser).build();
+        Book author = Book.builder().catalog(CatalogBook.builder().isbn("333").title("Eragon")
+                .authors(List.of("Drachenfels")).build()).user(testUser).build();
+        testUser.setBooks(List.of(subject, title, author));
+        userRepository.save(testUser);
+
+        // Ein Begriff mit je einem Treffer pro Abschnitt: Diese Reihenfolge liefern H2 und ts_rank gleich.
+        mockMvc.perform(get("/users/" + testUser.getId() + "/books/search").param("q", "drachen"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].isbn").value(contains("222", "333", "111")));
+    }
+
+    @Test
+    void searchBooks_PagesThroughHitsWithCursor() throws Exception {
+        List<Book> books = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            books.add(Book.builder().catalog(CatalogBook.builder().isbn("00" + i).title("Testbuch " + i).build())
+                    .user(testUser).build());
+        }
+        testUser.setBooks(books);
+        userRepository.save(testUser);
+
+        String cursor = mockMvc.perform(get("/users/" + testUser.getId() + "/books/search")
+                        .param("q", "testbuch")
+                        .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(header().exists("X-Next-Cursor"))
+                .andReturn().getResponse().getHeader("X-Next-Cursor");
+
+        mockMvc.perform(get("/users/" + testUser.getId() + "/books/search")
+                        .param("q", "testbuch")
+                        .param("limit", "2")
+                        .param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+    }
+
+    @Test
+    void searchBooks_UnknownUser_ReturnsNotFound() throws Exception {
+        mockMvc.perform(get("/users/" + UUID.randomUUID() + "/books/search").param("q", "egal"))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     void updateBook_DetailsOnlyCertainFieldsAreUpdated() throws Exception {
         String isbn = "1234567890";
         Book book = Book.builder()
-                .isbn(isbn)
-                .title("Original Title")
-                .description("Old Desc")
-                .coverUrl("old-url.jpg")
+                .catalog(CatalogBook.builder()
+                        .isbn(isbn)
+                        .title("Original Title")
+                        .description("Old Desc")
+                        .coverUrl("old-url.jpg")
+                        .build())
                 .user(testUser)
                 .build();
 
@@ -333,4 +476,34 @@ class BookIntegrationTest {
                 .andExpect(jsonPath("$.coverUrl").value("https://updated"))
                 .andExpect(jsonPath("$.description").value("Old Desc"));
     }
+
+    @Test
+    void updateBook_Details_ChangeOnlyTheEditorsBook() throws Exception {
+        User other = transactionTemplate.execute(status -> {
+            CatalogBook catalog = catalogBookRepository.save(CatalogBook.builder().isbn("555").title("Katalogtitel")
+                    .authors(new ArrayList<>(List.of("Katalogautor"))).build());
+            testUser.setBooks(new ArrayList<>(List.of(Book.builder().catalog(catalog).user(testUser).build())));
+            userRepository.save(testUser);
+            User second = User.builder().name("Zweiter Besitzer").email("zweiter@book.at").books(new ArrayList<>()).build();
+            second.getBooks().add(Book.builder().catalog(catalog).user(second).build());
+            return userRepository.save(second);
+        });
+
+        mockMvc.perform(put("/users/" + testUser.getId() + "/books/555/details")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\": \"Mein Titel\", \"authors\": [\"Ich\"]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Mein Titel"))
+                .andExpect(jsonPath("$.authors[0]").value("Ich"));
+
+        mockMvc.perform(get("/users/" + testUser.getId() + "/books"))
+                .andExpect(jsonPath("$[0].title").value("Mein Titel"))
+                .andExpect(jsonPath("$[0].authors[0]").value("Ich"));
+        mockMvc.perform(get("/users/" + other.getId() + "/books/555"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Katalogtitel"))
+                .andExpect(jsonPath("$.authors[0]").value("Katalogautor"));
+        assertThat(catalogBookRepository.findById("555")).get()
+                .extracting(CatalogBook::getTitle).isEqualTo("Katalogtitel");
+    }
 }
@@ -0,0 +1,103 @@
+package at.fhburgenland.bookmanager.integration;
+
+import at.fhburgenland.bookmanager.dto.CatalogAuthor;
+import at.fhburgenland.bookmanager.model.Book;
+import at.fhburgenland.bookmanager.model.CatalogBook;
+import at.fhburgenland.bookmanager.model.User;
+import at.fhburgenland.bookmanager.repository.BookRepository;
+import at.fhburgenland.bookmanager.repository.BulkInserter;
+import at.fhburgenland.bookmanager.repository.CatalogBookRepository;
+import at.fhburgenland.bookmanager.repository.ReviewRepository;
+import at.fhburgenland.bookmanager.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Misst über die Hibernate-Statistik, dass der {@link BulkInserter} Bücher gebündelt einfügt
+ * statt mit einer Anweisung pro Zeile.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class BulkInsertIntegrationTest {
+
+    private static final int BOOKS = 1000;
+
+    @Autowired
+    private BulkInserter bulkInserter;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private CatalogBookRepository catalogBookRepository;
+
+    private User user;
+    private List<CatalogBook> catalog;
+
+    @BeforeEach
+    void setUp() {
+        reviewRepository.deleteAll();
+        bookRepository.deleteAll();
+        userRepository.deleteAll();
+        catalogBookRepository.deleteAll();
+        user = userRepository.save(User.builder().name("Vielleser").email("viel@buch.at").build());
+        catalog = new ArrayList<>(BOOKS);
+        for (int i = 0; i < BOOKS; i++) {
+            catalog.add(CatalogBook.builder().isbn(String.format("978%010d", i)).title("Band " + i).build());
+        }
+        catalogBookRepository.saveAll(catalog);
+    }
+
+    @Test
+    void insertAll_ManyBooks_UsesJdbcBatches() {
+        Instant addedAt = Instant.now();
+        List<Book> books = catalog.stream()
+                .map(entry -> Book.builder().catalog(entry).user(user).addedAt(addedAt).build())
+                .toList();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        transactionTemplate.executeWithoutResult(status -> bulkInserter.insertAll(books));
+
+        assertThat(bookRepository.count()).isEqualTo(BOOKS);
+        assertThat(books).allSatisfy(book -> assertThat(book.getId()).isNotNull());
+        // Mit 50 Zeilen pro Batch rund 20 Anweisungen; ohne Batching wären es 1000.
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(BOOKS / 10);
+    }
+
+    @Test
+    void persistAll_NewCatalogEntries_StoresAuthors() {
+        List<CatalogBook> entries = List.of(
+                CatalogBook.builder().isbn("9780140328721").title("Matilda").authors(new ArrayList<>(List.of("Roald Dahl"))).build(),
+                CatalogBook.builder().isbn("9783792000281").title("Der kleine Prinz").build());
+
+        transactionTemplate.executeWithoutResult(status -> bulkInserter.persistAll(entries));
+
+        assertThat(catalogBookRepository.existsById("9783792000281")).isTrue();
+        assertThat(catalogBookRepository.findAuthors(List.of("9780140328721")))
+                .extracting(CatalogAuthor::author).containsExactly("Roald Dahl");
+    }
+}
@@ -0,0 +1,132 @@
+package at.fhburgenland.bookmanager.integration;
+
+import at.fhburgenland.bookmanager.repository.LegacyCatalogMigration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Timestamp;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Überführt eine Datenbank im Schema vor dem gemeinsamen Katalog, ohne Spring-Kontext.
+ */
+class LegacyCatalogMigrationTest {
+
+    private static final UUID FIRST = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private static final UUID SECOND = UUID.fromString("00000000-0000-0000-0000-000000000002");
+    private static final UUID OTHER = UUID.fromString("00000000-0000-0000-0000-000000000003");
+
+    private DriverManagerDataSource dataSource;
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource("jdbc:h2:mem:legacy-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("create table books (id uuid primary key, isbn varchar(255), title varchar(255),"
+                + " publisher varchar(255), published_date varchar(255), description varchar(255),"
+                + " cover_url varchar(255), rating integer, user_id uuid not null)");
+        jdbc.execute("create table book_authors (book_id uuid not null, authors varchar(255))");
+        insertBook(FIRST, "9780140328721", "Matilda", "Roald Dahl");
+        insertBook(SECOND, "9780140328721", "Matilda (Hörbuch)", "Roald Dahl");
+        insertBook(OTHER, "9783792000281", "Der kleine Prinz", "Antoine de Saint-Exupéry");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbc.execute("shutdown");
+    }
+
+    @Test
+    void migrate_MovesMetadataToCatalogAndKeepsDeviatingValuesPerBook() {
+        new LegacyCatalogMigration(dataSource).migrate();
+
+        assertThat(jdbc.queryForList("select title from catalog_books order by isbn", String.class))
+                .containsExactly("Matilda", "Der kleine Prinz");
+        assertThat(jdbc.queryForList("select author from catalog_book_authors order by isbn", String.class))
+                .containsExactly("Roald Dahl", "Antoine de Saint-Exupéry");
+        assertThat(jdbc.queryForObject("select custom_title from books where id = ?", String.class, FIRST)).isNull();
+        assertThat(jdbc.queryForObject("select custom_title from books where id = ?", String.class, SECOND))
+                .isEqualTo("Matilda (Hörbuch)");
+        assertThat(jdbc.queryForObject("select count(*) from book_custom_authors", Integer.class)).isZero();
+        assertThat(jdbc.queryForObject("select count(*) from information_schema.columns"
+                + " where table_name = 'BOOKS' and column_name = 'TITLE'", Integer.class)).isZero();
+        assertThat(jdbc.queryForObject("select count(*) from information_schema.tables"
+                + " where table_name = 'BOOK_AUTHORS'", Integer.class)).isZero();
+    }
+
+    @Test
+    void migrate_AlreadyMigrated_DoesNothing() {
+        LegacyCatalogMigration migration = new LegacyCatalogMigration(dataSource);
+        migration.migrate();
+
+        migration.migrate();
+
+        assertThat(jdbc.queryForObject("select count(*) from catalog_books", Integer.class)).isEqualTo(2);
+    }
+
+    @Test
+    void migrate_NarrowCatalogDescription_WidensColumn() {
+        LegacyCatalogMigration migration = new LegacyCatalogMigration(dataSource);
+        migration.migrate();
+        jdbc.execute("alter table catalog_books alter column description set data type varchar(255)");
+
+        migration.migrate();
+
+        assertThat(jdbc.queryForObject("select character_maximum_length from information_schema.columns"
+                + " where table_name = 'CATALOG_BOOKS' and column_name = 'DESCRIPTION'", Integer.class))
+                .isEqualTo(5000);
+    }
+
+    @Test
+    void migrate_DuplicateBooksOfUser_KeepsOldestWithAllReviews() {
+        UUID user = UUID.randomUUID();
+        UUID oldest = UUID.fromString("00000000-0000-0000-0000-000000000011");
+        UUID duplicate = UUID.fromString("00000000-0000-0000-0000-000000000012");
+        jdbc.execute("create table review (id uuid primary key, book_id uuid, text varchar(255))");
+        insertBook(oldest, "9780140328721", "Matilda", "Roald Dahl", user);
+        insertBook(duplicate, "9780140328721", "Matilda", "Roald Dahl", user);
+        jdbc.update("insert into review (id, book_id, text) values (?, ?, 'Großartig')", UUID.randomUUID(), duplicate);
+
+        new LegacyCatalogMigration(dataSource).migrate();
+
+        assertThat(jdbc.queryForList("select id from books where user_id = ?", UUID.class, user)).containsExactly(oldest);
+        assertThat(jdbc.queryForObject("select book_id from review", UUID.class)).isEqualTo(oldest);
+        assertThat(jdbc.queryForObject("select count(*) from books", Integer.class)).isEqualTo(4);
+    }
+
+    @Test
+    void migrate_DuplicatesInMigratedSchema_KeepsEarliestAdded() {
+        LegacyCatalogMigration migration = new LegacyCatalogMigration(dataSource);
+        migration.migrate();
+        jdbc.execute("alter table books add column added_at timestamp");
+        UUID user = UUID.randomUUID();
+        UUID earlier = UUID.fromString("00000000-0000-0000-0000-000000000022");
+        UUID later = UUID.fromString("00000000-0000-0000-0000-000000000021");
+        jdbc.update("insert into books (id, isbn, user_id, added_at) values (?, '9783792000281', ?, ?)",
+                earlier, user, Timestamp.valueOf("2020-01-01 00:00:00"));
+        jdbc.update("insert into books (id, isbn, user_id, added_at) values (?, '9783792000281', ?, ?)",
+                later, user, Timestamp.valueOf("2024-01-01 00:00:00"));
+        jdbc.update("insert into book_custom_authors (book_id, author) values (?, 'Unbekannt')", later);
+
+        migration.migrate();
+
+        assertThat(jdbc.queryForList("select id from books where user_id = ?", UUID.class, user)).containsExactly(earlier);
+        assertThat(jdbc.queryForObject("select count(*) from book_custom_authors", Integer.class)).isZero();
+    }
+
+    private void insertBook(UUID id, String isbn, String title, String author) {
+        insertBook(id, isbn, title, author, UUID.randomUUID());
+    }
+
+    private void insertBook(UUID id, String isbn, String title, String author, UUID user) {
+        jdbc.update("insert into books (id, isbn, title, publisher, rating, user_id) values (?, ?, ?, 'Verlag', null, ?)",
+                id, isbn, title, user);
+        jdbc.update("insert into book_authors (book_id, authors) values (?, ?)", id, author);
+    }
+}
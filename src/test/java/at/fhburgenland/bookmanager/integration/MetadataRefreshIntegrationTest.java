@@ -0,0 +1,134 @@
+package at.fhburgenland.bookmanager.integration;
+
+import at.fhburgenland.bookmanager.client.OpenLibraryClient;
+import at.fhburgenland.bookmanager.dto.BookMetadata;
+import at.fhburgenland.bookmanager.dto.MetadataRevalidation;
+import at.fhburgenland.bookmanager.model.Book;
+import at.fhburgenland.bookmanager.model.CatalogBook;
+import at.fhburgenland.bookmanager.model.JobLease;
+import at.fhburgenland.bookmanager.model.User;
+import at.fhburgenland.bookmanager.repository.BookRepository;
+import at.fhburgenland.bookmanager.repository.CatalogBookRepository;
+import at.fhburgenland.bookmanager.repository.JobLeaseRepository;
+import at.fhburgenland.bookmanager.repository.UserRepository;
+import at.fhburgenland.bookmanager.service.JobLeaseService;
+import at.fhburgenland.bookmanager.service.MetadataRefreshService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Prüft den Abgleich der Katalog-Metadaten gegen die Datenbank: eigene Angaben der Besitzer
+ * bleiben erhalten, und der geplante Lauf respektiert die Lease anderer Instanzen.
+ */
+@SpringBootTest(properties = "book.metadata.refresh.interval=PT24H")
+@AutoConfigureMockMvc
+class MetadataRefreshIntegrationTest {
+
+    private static final String ISBN = "9780140328721";
+
+    @MockitoBean
+    private OpenLibraryClient openLibraryClient;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MetadataRefreshService refreshService;
+
+    @Autowired
+    private JobLeaseService jobLeaseService;
+
+    @Autowired
+    private JobLeaseRepository jobLeaseRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private CatalogBookRepository catalogBookRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        bookRepository.deleteAll();
+        userRepository.deleteAll();
+        catalogBookRepository.deleteAll();
+        jobLeaseRepository.deleteAll();
+        when(openLibraryClient.revalidate(anyString(), any(), any())).thenReturn(MetadataRevalidation.notModified());
+    }
+
+    @Test
+    void refreshOldest_ModifiedMetadata_KeepsOwnersOwnTitle() throws Exception {
+        List<User> owners = transactionTemplate.execute(status -> {
+            CatalogBook catalog = catalogBookRepository.save(CatalogBook.builder().isbn(ISBN).title("Matilda")
+                    .authors(new ArrayList<>(List.of("Roald Dahl"))).fetchedAt(Instant.EPOCH).build());
+            User editor = User.builder().name("Mit eigenem Titel").email("eigen@book.at").books(new ArrayList<>()).build();
+            editor.getBooks().add(Book.builder().catalog(catalog).user(editor).customTitle("Mein Matilda").build());
+            User reader = User.builder().name("Ohne eigene Angaben").email("katalog@book.at").books(new ArrayList<>()).build();
+            reader.getBooks().add(Book.builder().catalog(catalog).user(reader).build());
+            return userRepository.saveAll(List.of(editor, reader));
+        });
+        // Ohne ETag und Last-Modified gilt jede abweichende Antwort als geändert.
+        when(openLibraryClient.revalidate(ISBN, null, null)).thenReturn(MetadataRevalidation.modified(
+                new BookMetadata(ISBN, "Matilda (Neuauflage)", "Puffin", "2016", null, null), null, null));
+
+        refreshService.refreshOldest();
+
+        mockMvc.perform(get("/users/" + owners.get(0).getId() + "/books/" + ISBN))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Mein Matilda"))
+                .andExpect(jsonPath("$.publisher").value("Puffin"));
+        mockMvc.perform(get("/users/" + owners.get(1).getId() + "/books/" + ISBN))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Matilda (Neuauflage)"));
+    }
+
+    @Test
+    void scheduledRefresh_LeaseHeldByOtherInstance_Skips() {
+        jobLeaseRepository.save(new JobLease(MetadataRefreshService.LEASE, "andere-instanz",
+                Instant.now().plus(Duration.ofMinutes(5))));
+        catalogBookRepository.save(CatalogBook.builder().isbn(ISBN).title("Matilda").build());
+
+        refreshService.scheduledRefresh();
+
+        verifyNoInteractions(openLibraryClient);
+    }
+
+    @Test
+    void tryAcquire_ExpiredLeaseOfOtherInstance_IsTakenOver() {
+        jobLeaseRepository.save(new JobLease("test-job", "andere-instanz", Instant.now().minusSeconds(1)));
+
+        assertThat(jobLeaseService.tryAcquire("test-job", Duration.ofMinutes(5))).isTrue();
+        assertThat(jobLeaseService.tryAcquire("test-job", Duration.ofMinutes(5))).isTrue();
+
+        jobLeaseService.release("test-job");
+        assertThat(jobLeaseRepository.findById("test-job")).get()
+                .extracting(JobLease::getLockedUntil)
+                .matches(until -> !until.isAfter(Instant.now()));
+    }
+}
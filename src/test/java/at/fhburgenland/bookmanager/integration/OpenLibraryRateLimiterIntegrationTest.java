@@ -0,0 +1,140 @@
+package at.fhburgenland.bookmanager.integration;
+
+import at.fhburgenland.bookmanager.BookmanagerApplication;
+import at.fhburgenland.bookmanager.client.OpenLibraryRateLimiter;
+import at.fhburgenland.bookmanager.exception.MetadataUnavailableException;
+import at.fhburgenland.bookmanager.exception.RateLimitExceededException;
+import at.fhburgenland.bookmanager.repository.RateLimitBucketRepository;
+import at.fhburgenland.bookmanager.service.BookMetadataService;
+import at.fhburgenland.bookmanager.service.RequestDeadline;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Prüft, dass zwei Anwendungskontexte auf derselben H2-Datenbank sich ein Budget teilen,
+ * so wie mehrere Pods auf derselben PostgreSQL-Datenbank.
+ */
+@SpringBootTest(properties = {
+        "book.api.rate-limit.requests-per-second=20",
+        "book.api.rate-limit.burst=5",
+        "book.api.rate-limit.max-wait=PT5S"
+})
+class OpenLibraryRateLimiterIntegrationTest {
+
+    private static ConfigurableApplicationContext secondReplica;
+
+    @Autowired
+    private OpenLibraryRateLimiter rateLimiter;
+
+    @Autowired
+    private RateLimitBucketRepository bucketRepository;
+
+    @Autowired
+    private BookMetadataService metadataService;
+
+    @Autowired
+    private CircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void setUp() {
+        bucketRepository.deleteAll();
+        if (secondReplica == null) {
+            // Der Testkontext hat das Schema angelegt, die zweite Instanz nutzt es nur mit.
+            secondReplica = new SpringApplicationBuilder(BookmanagerApplication.class)
+                    .web(WebApplicationType.NONE)
+                    .properties(
+                            "spring.jpa.hibernate.ddl-auto=none",
+                            "book.metadata.refresh.enabled=false",
+                            "book.api.rate-limit.requests-per-second=20",
+                            "book.api.rate-limit.burst=5",
+                            "book.api.rate-limit.max-wait=PT5S")
+                    .run();
+        }
+    }
+
+    @AfterAll
+    static void tearDown() {
+        if (secondReplica != null) {
+            secondReplica.close();
+        }
+    }
+
+    @Test
+    void acquire_TwoReplicas_ShareOneBudget() throws Exception {
+        OpenLibraryRateLimiter otherReplica = secondReplica.getBean(OpenLibraryRateLimiter.class);
+        assertThat(otherReplica).isNotSameAs(rateLimiter);
+
+        long start = System.nanoTime();
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> calls = new ArrayList<>();
+            for (int i = 0; i < 15; i++) {
+                OpenLibraryRateLimiter replica = i % 2 == 0 ? rateLimiter : otherReplica;
+                calls.add(executor.submit(replica::acquire));
+            }
+            for (Future<?> call : calls) {
+                call.get(10, TimeUnit.SECONDS);
+            }
+        }
+
+        // 5 Anfragen aus dem Vorrat, die übrigen 10 mit 20/s: der Cluster braucht mindestens 0,5 s.
+        // Hätte jede Instanz ein eigenes Budget, wären es nur knapp 0,15 s.
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(450));
+    }
+
+    @Test
+    void acquire_BudgetUsedByOtherReplica_FailsInsteadOfWaitingPastDeadline() {
+        OpenLibraryRateLimiter otherReplica = secondReplica.getBean(OpenLibraryRateLimiter.class);
+        for (int i = 0; i < 5; i++) {
+            otherReplica.acquire();
+        }
+
+        // Das nächste Token wird erst in rund 50 ms frei.
+        RequestDeadline.set(RequestDeadline.after(Duration.ofMillis(20)));
+        try {
+            assertThrows(MetadataUnavailableException.class, rateLimiter::acquire);
+        } finally {
+            RequestDeadline.clear();
+        }
+    }
+
+    @Test
+    void lookup_BudgetExhausted_LeavesCircuitClosed() {
+        circuitBreaker.reset();
+        for (int i = 0; i < 5; i++) {
+            rateLimiter.acquire();
+        }
+
+        // So viele Abweisungen, wie der Circuit Breaker zum Öffnen mindestens braucht.
+        for (int i = 0; i < 10; i++) {
+            String isbn = String.format("978%010d", i);
+            // Jedes Token ist gleich wieder verbraucht; das nächste wird erst in rund 50 ms frei.
+            rateLimiter.acquire();
+            RequestDeadline.set(RequestDeadline.after(Duration.ofMillis(20)));
+            try {
+                assertThrows(RateLimitExceededException.class, () -> metadataService.lookup(isbn));
+            } finally {
+                RequestDeadline.clear();
+            }
+        }
+
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(circuitBreaker.getMetrics().getNumberOfFailedCalls()).isZero();
+    }
+}
@@ -2,9 +2,11 @@ package at.fhburgenland.bookmanager.integration;
 
 import at.fhburgenland.bookmanager.dto.ReviewRequest;
 import at.fhburgenland.bookmanager.model.Book;
+import at.fhburgenland.bookmanager.model.CatalogBook;
 import at.fhburgenland.bookmanager.model.Review;
 import at.fhburgenland.bookmanager.model.User;
 import at.fhburgenland.bookmanager.repository.BookRepository;
+import at.fhburgenland.bookmanager.repository.CatalogBookRepository;
 import at.fhburgenland.bookmanager.repository.ReviewRepository;
 import at.fhburgenland.bookmanager.repository.UserRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -38,6 +40,9 @@ class ReviewIntegrationTest {
 
     @Autowired
     private ReviewRepository reviewRepository;
+
+    @Autowired
+    private CatalogBookRepository catalogBookRepository;
     private User testUser;
     private Book testBook;
 
@@ -46,13 +51,16 @@ class ReviewIntegrationTest {
         reviewRepository.deleteAll();
         bookRepository.deleteAll();
         userRepository.deleteAll();
+        catalogBookRepository.deleteAll();
         testUser = userRepository.save(User.builder()
                 .name("Rezensionierer")
                 .email("review@buch.at")
                 .build());
         testBook = Book.builder()
-                .isbn("9780140328721")
-                .title("Matilda")
+                .catalog(CatalogBook.builder()
+                        .isbn("9780140328721")
+                        .title("Matilda")
+                        .build())
                 .user(testUser)
                 .build();
         testBook = bookRepository.save(testBook);
@@ -61,7 +69,7 @@ class ReviewIntegrationTest {
     @Test
     void addReviewToBook_ReturnsCreated() throws Exception {
         ReviewRequest request = new ReviewRequest(5, "Sehr gut!");
-        mockMvc.perform(post("/users/" + testUser.getId() + "/books/" + testBook.getIsbn() + "/reviews")
+        mockMvc.perform(post("/users/" + testUser.getId() + "/books/" + testBook.getCatalog().getIsbn() + "/reviews")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isCreated())
@@ -71,7 +79,7 @@ class ReviewIntegrationTest {
 
     @Test
     void getAllReviews_ReturnsEmptyInitially() throws Exception {
-        mockMvc.perform(get("/users/" + testUser.getId() + "/books/" + testBook.getIsbn() + "/reviews"))
+        mockMvc.perform(get("/users/" + testUser.getId() + "/books/" + testBook.getCatalog().getIsbn() + "/reviews"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$", hasSize(0)));
     }
@@ -84,7 +92,7 @@ class ReviewIntegrationTest {
                 .book(testBook)
                 .build());
         ReviewRequest update = new ReviewRequest(4, "Besser als gedacht");
-        mockMvc.perform(put("/users/" + testUser.getId() + "/books/" + testBook.getIsbn() + "/reviews/" + review.getId())
+        mockMvc.perform(put("/users/" + testUser.getId() + "/books/" + testBook.getCatalog().getIsbn() + "/reviews/" + review.getId())
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(update)))
                 .andExpect(status().isOk())
@@ -92,6 +100,25 @@ class ReviewIntegrationTest {
                 .andExpect(jsonPath("$.reviewText").value("Besser als gedacht"));
     }
 
+    @Test
+    void updateReview_ReviewOfOtherBook_ReturnsNotFound() throws Exception {
+        Book otherBook = bookRepository.save(Book.builder()
+                .catalog(CatalogBook.builder().isbn("9783792000281").title("Der kleine Prinz").build())
+                .user(testUser)
+                .build());
+        Review review = reviewRepository.save(Review.builder()
+                .rating(3)
+                .reviewText("Geht so")
+                .book(otherBook)
+                .build());
+        ReviewRequest update = new ReviewRequest(4, "Besser als gedacht");
+        mockMvc.perform(put("/users/" + testUser.getId() + "/books/" + testBook.getCatalog().getIsbn() + "/reviews/" + review.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(update)))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.title").value("Rezension nicht gefunden"));
+    }
+
     @Test
     void deleteReview_RemovesSuccessfully() throws Exception {
         Review saved = reviewRepository.save(Review.builder()
@@ -99,7 +126,7 @@ class ReviewIntegrationTest {
                 .reviewText("Nicht meins")
                 .book(testBook)
                 .build());
-        mockMvc.perform(delete("/users/" + testUser.getId() + "/books/" + testBook.getIsbn() + "/reviews/" + saved.getId()))
+        mockMvc.perform(delete("/users/" + testUser.getId() + "/books/" + testBook.getCatalog().getIsbn() + "/reviews/" + saved.getId()))
                 .andExpect(status().isNoContent());
         assertThat(reviewRepository.findAll()).isEmpty();
     }
@@ -107,7 +134,7 @@ class ReviewIntegrationTest {
     @Test
     void addReview_InvalidRating_ReturnsValidationError() throws Exception {
         ReviewRequest invalid = new ReviewRequest(6, "Zu gut");
-        mockMvc.perform(post("/users/" + testUser.getId() + "/books/" + testBook.getIsbn() + "/reviews")
+        mockMvc.perform(post("/users/" + testUser.getId() + "/books/" + testBook.getCatalog().getIsbn() + "/reviews")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(invalid)))
                 .andExpect(status().isBadRequest())
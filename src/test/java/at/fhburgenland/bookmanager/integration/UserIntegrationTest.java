@@ -1,7 +1,11 @@
 package at.fhburgenland.bookmanager.integration;
 
+import at.fhburgenland.bookmanager.controller.PageResponses;
 import at.fhburgenland.bookmanager.dto.UserDto;
+import at.fhburgenland.bookmanager.model.Book;
+import at.fhburgenland.bookmanager.model.CatalogBook;
 import at.fhburgenland.bookmanager.model.User;
+import at.fhburgenland.bookmanager.repository.CatalogBookRepository;
 import at.fhburgenland.bookmanager.repository.UserRepository;
 import at.fhburgenland.bookmanager.service.UserService;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -34,12 +38,16 @@ class UserIntegrationTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private CatalogBookRepository catalogBookRepository;
+
     @Autowired
     private ObjectMapper objectMapper;
 
     @BeforeEach
     void cleanUp() {
         userRepository.deleteAll();
+        catalogBookRepository.deleteAll();
     }
 
     @Test
@@ -53,6 +61,20 @@ class UserIntegrationTest {
                 .andExpect(jsonPath("$.email").value("test@integration.at"));
     }
 
+    @Test
+    void saveUserWithBooks_AssignsTimeOrderedIds() {
+        User reader = User.builder().name("Zeit Test").email("zeit@test.at").build();
+        reader.getBooks().add(Book.builder().catalog(CatalogBook.builder().isbn("111").title("Buch 1").build()).user(reader).build());
+        User saved = userRepository.save(reader);
+
+        UUID userId = saved.getId();
+        UUID bookId = saved.getBooks().get(0).getId();
+        Assertions.assertEquals(7, userId.version());
+        Assertions.assertEquals(7, bookId.version());
+        // Der Benutzer wird vor seinen Büchern gespeichert und erhält daher die kleinere ID.
+        Assertions.assertTrue(userId.compareTo(bookId) < 0);
+    }
+
     @Test
     void createUser_MissingFields_ReturnsBadRequest() throws Exception {
         mockMvc.perform(post("/users")
@@ -76,10 +98,47 @@ class UserIntegrationTest {
                 .andExpect(jsonPath("$[1].email").value("bob@test.at"));
     }
 
+    @Test
+    void getAllUsers_WithBooks_ReturnsBookCountInsteadOfLibrary() throws Exception {
+        User reader = User.builder().name("Alice Test").email("alice@test.at").build();
+        reader.getBooks().add(Book.builder().catalog(CatalogBook.builder().isbn("111").title("Buch 1").build()).user(reader).build());
+        reader.getBooks().add(Book.builder().catalog(CatalogBook.builder().isbn("222").title("Buch 2").build()).user(reader).build());
+        userRepository.saveAll(List.of(reader, User.builder().name("Bob Test").email("bob@test.at").build()));
+
+        mockMvc.perform(get("/users"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].bookCount").value(2))
+                .andExpect(jsonPath("$[0].books").doesNotExist())
+                .andExpect(jsonPath("$[1].bookCount").value(0));
+    }
+
+    @Test
+    void getAllUsers_SecondPage_CountsBooksOfItsUsers() throws Exception {
+        User alice = User.builder().name("Alice Test").email("alice@test.at").build();
+        alice.getBooks().add(Book.builder().catalog(CatalogBook.builder().isbn("111").title("Buch 1").build()).user(alice).build());
+        User carol = User.builder().name("Carol Test").email("carol@test.at").build();
+        carol.getBooks().add(Book.builder().catalog(CatalogBook.builder().isbn("222").title("Buch 2").build()).user(carol).build());
+        carol.getBooks().add(Book.builder().catalog(CatalogBook.builder().isbn("333").title("Buch 3").build()).user(carol).build());
+        userRepository.saveAll(List.of(alice, User.builder().name("Bob Test").email("bob@test.at").build(), carol));
+
+        String cursor = mockMvc.perform(get("/users").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].bookCount").value(1))
+                .andExpect(jsonPath("$[1].bookCount").value(0))
+                .andReturn().getResponse().getHeader(PageResponses.NEXT_CURSOR_HEADER);
+
+        mockMvc.perform(get("/users").param("limit", "2").param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].email").value("carol@test.at"))
+                .andExpect(jsonPath("$[0].bookCount").value(2));
+    }
+
     @Test
     void getAllUsers_UnexpectedException_ReturnsInternalServerError() {
         UserService mockService = mock(UserService.class);
-        when(mockService.getAllUsers()).thenThrow(new RuntimeException("Unerwarteter Fehler"));
+        when(mockService.getAllUsers(null, 50)).thenThrow(new RuntimeException("Unerwarteter Fehler"));
     }
 
     @Test
@@ -96,6 +155,20 @@ class UserIntegrationTest {
                 .andExpect(jsonPath("$.email").value("int@user.at"));
     }
 
+    @Test
+    void getUserById_WithRatedBooks_ReturnsLibraryFigures() throws Exception {
+        User reader = User.builder().name("Int User").email("int@user.at").build();
+        reader.getBooks().add(Book.builder().catalog(CatalogBook.builder().isbn("111").build()).rating(4).user(reader).build());
+        reader.getBooks().add(Book.builder().catalog(CatalogBook.builder().isbn("222").build()).rating(5).user(reader).build());
+        reader.getBooks().add(Book.builder().catalog(CatalogBook.builder().isbn("333").build()).user(reader).build());
+        User saved = userRepository.save(reader);
+
+        mockMvc.perform(get("/users/" + saved.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.bookCount").value(3))
+                .andExpect(jsonPath("$.averageRating").value(4.5));
+    }
+
     @Test
     void getUserById_NichtGefunden_ReturnsNotFound() throws Exception {
         mockMvc.perform(get("/users/" + UUID.randomUUID()))
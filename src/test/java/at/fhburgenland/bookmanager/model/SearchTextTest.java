@@ -0,0 +1,46 @@
+package at.fhburgenland.bookmanager.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchTextTest {
+
+    @Test
+    void document_WritesSectionsWithUmlautSpellings() {
+        String text = SearchText.document("Die Brüder Löwenherz", List.of("Astrid Lindgren"), List.of("Fantasy"), "Oetinger");
+
+        assertThat(text).isEqualTo("die bruder brueder lowenherz loewenherz|astrid lindgren|fantasy|oetinger");
+    }
+
+    @Test
+    void document_RemovesAccentsAndPunctuation() {
+        String text = SearchText.document("Le Petit Prince", List.of("Antoine de Saint-Exupéry"), null, "Éditions Gallimard");
+
+        assertThat(text).isEqualTo("le petit prince|antoine de saint exupery||editions gallimard");
+    }
+
+    @Test
+    void document_MissingFields_KeepsAllSections() {
+        assertThat(SearchText.document(null, null, null, null)).isEqualTo("|||");
+    }
+
+    @Test
+    void document_TooLong_IsCutAtWordBoundary() {
+        List<String> subjects = IntStream.range(0, 1000).mapToObj(i -> "wort" + i).toList();
+
+        String text = SearchText.document("Titel", List.of(), subjects, null);
+
+        assertThat(text).hasSizeLessThanOrEqualTo(SearchText.MAX_LENGTH).startsWith("titel||wort").doesNotEndWith(" ");
+    }
+
+    @Test
+    void terms_NormalizesAndRemovesDuplicates() {
+        assertThat(SearchText.terms("Müller, MÜLLER  Straße")).containsExactly("muller", "strasse");
+        assertThat(SearchText.terms("  ")).isEmpty();
+        assertThat(SearchText.terms(null)).isEmpty();
+    }
+}
@@ -0,0 +1,54 @@
+package at.fhburgenland.bookmanager.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UuidV7GeneratorTest {
+
+    @Test
+    void next_SetsVersionVariantAndCurrentTime() {
+        long before = System.currentTimeMillis();
+        UUID id = UuidV7Generator.next();
+        long after = System.currentTimeMillis();
+
+        assertThat(id.version()).isEqualTo(7);
+        assertThat(id.variant()).isEqualTo(2);
+        // Der Zähler kann die Zeit höchstens bei Überlauf minimal vorrücken.
+        assertThat(id.getMostSignificantBits() >>> 16).isBetween(before, after + 1);
+    }
+
+    @Test
+    void next_ManyIdsInSameMillisecond_AreStrictlyAscending() {
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 50_000; i++) {
+            ids.add(UuidV7Generator.next());
+        }
+
+        assertThat(ids).isSorted().doesNotHaveDuplicates();
+        assertThat(ids.get(0).toString().compareTo(ids.get(ids.size() - 1).toString())).isNegative();
+    }
+
+    @Test
+    void next_ConcurrentCallers_NeverCollide() throws Exception {
+        ConcurrentLinkedQueue<UUID> ids = new ConcurrentLinkedQueue<>();
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int t = 0; t < 8; t++) {
+                executor.submit(() -> {
+                    for (int i = 0; i < 5_000; i++) {
+                        ids.add(UuidV7Generator.next());
+                    }
+                });
+            }
+        }
+
+        assertThat(new HashSet<>(ids)).hasSize(40_000);
+    }
+}
@@ -0,0 +1,111 @@
+package at.fhburgenland.bookmanager.offline;
+
+import at.fhburgenland.bookmanager.dto.BookMetadata;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class OfflineIsbnIndexTest {
+
+    @TempDir
+    static Path tempDir;
+
+    private static long built;
+    private static OfflineIsbnIndex index;
+
+    @BeforeAll
+    static void buildIndex() throws IOException, URISyntaxException {
+        Path dump = Path.of(Objects.requireNonNull(
+                OfflineIsbnIndexTest.class.getResource("/openlibrary/ol_dump_editions_fixture.txt")).toURI());
+        Path file = tempDir.resolve("isbn-index.bin");
+        built = new OfflineIsbnIndexBuilder(new ObjectMapper()).build(dump, file);
+        index = OfflineIsbnIndex.open(file);
+    }
+
+    @Test
+    void build_SkipsEditionsWithoutIsbnAndDuplicates() {
+        // Matilda (ISBN-10 und ISBN-13 ergeben denselben Schlüssel), Der kleine Prinz, Clean Code
+        assertThat(built).isEqualTo(3);
+        assertThat(index.size()).isEqualTo(3);
+        assertThat(index.isEnabled()).isTrue();
+    }
+
+    @Test
+    void keyTable_ManyEntries_SortsAndKeepsSmallestOffsetPerIsbn() {
+        Random random = new Random(42);
+        OfflineIsbnIndexBuilder.KeyTable table = new OfflineIsbnIndexBuilder.KeyTable();
+        Map<Long, Long> expected = new TreeMap<>();
+        for (long offset = 0; offset < 20_000; offset++) {
+            long isbn = 9_780_000_000_000L + random.nextInt(5_000);
+            table.add(isbn, offset);
+            expected.putIfAbsent(isbn, offset);
+        }
+
+        table.sortAndRemoveDuplicates();
+
+        assertThat(table.size).isEqualTo(expected.size());
+        assertThat(Arrays.copyOf(table.isbns, table.size))
+                .containsExactly(expected.keySet().stream().mapToLong(Long::longValue).toArray());
+        assertThat(Arrays.copyOf(table.offsets, table.size))
+                .containsExactly(expected.values().stream().mapToLong(Long::longValue).toArray());
+    }
+
+    @Test
+    void find_Isbn13_ReturnsFirstEdition() {
+        BookMetadata metadata = index.find("9780140328721").orElseThrow();
+
+        assertThat(metadata.isbn()).isEqualTo("9780140328721");
+        assertThat(metadata.title()).isEqualTo("Matilda");
+        assertThat(metadata.publisher()).isEqualTo("Puffin");
+        assertThat(metadata.publishedDate()).isEqualTo("October 1, 1988");
+        assertThat(metadata.description()).isEqualTo("A story about a gifted girl");
+    }
+
+    @Test
+    void find_Isbn10OrHyphenated_FindsSameEntry() {
+        assertThat(index.find("0140328726")).map(BookMetadata::title).contains("Matilda");
+        assertThat(index.find("978-0-14-032872-1")).map(BookMetadata::title).contains("Matilda");
+        assertThat(index.find("3-7920-0028-8")).map(BookMetadata::title).contains("Der kleine Prinz");
+    }
+
+    @Test
+    void find_PlainDescription_IsRead() {
+        assertThat(index.find("9780132350884"))
+                .map(BookMetadata::description)
+                .contains("A Handbook of Agile Software Craftsmanship");
+    }
+
+    @Test
+    void find_UnknownOrInvalidIsbn_ReturnsEmpty() {
+        assertThat(index.find("9780000000002")).isEmpty();
+        assertThat(index.find("abc")).isEmpty();
+        assertThat(index.find(null)).isEmpty();
+    }
+
+    @Test
+    void disabled_NeverFinds() {
+        assertThat(OfflineIsbnIndex.disabled().isEnabled()).isFalse();
+        assertThat(OfflineIsbnIndex.disabled().find("9780140328721")).isEmpty();
+    }
+
+    @Test
+    void open_NoIndexFile_Throws() throws IOException {
+        Path other = Files.writeString(tempDir.resolve("kein-index.bin"), "kein Index, nur Text");
+
+        assertThrows(IOException.class, () -> OfflineIsbnIndex.open(other));
+    }
+}
@@ -0,0 +1,172 @@
+package at.fhburgenland.bookmanager.service;
+
+import at.fhburgenland.bookmanager.dto.BookMetadata;
+import at.fhburgenland.bookmanager.dto.BulkImportReport;
+import at.fhburgenland.bookmanager.dto.IsbnImportResult;
+import at.fhburgenland.bookmanager.event.BookAddedEvent;
+import at.fhburgenland.bookmanager.exception.DeadlineExceededException;
+import at.fhburgenland.bookmanager.exception.InvalidBookException;
+import at.fhburgenland.bookmanager.exception.UserNotFoundException;
+import at.fhburgenland.bookmanager.model.Book;
+import at.fhburgenland.bookmanager.model.CatalogBook;
+import at.fhburgenland.bookmanager.model.User;
+import at.fhburgenland.bookmanager.repository.BookRepository;
+import at.fhburgenland.bookmanager.repository.BulkInserter;
+import at.fhburgenland.bookmanager.repository.CatalogBookRepository;
+import at.fhburgenland.bookmanager.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class BookImportServiceTest {
+
+    private static final String MATILDA = "9780140328721";
+    private static final String PRINZ = "9783792000281";
+    private static final String CLEAN_CODE = "9780132350884";
+    private static final String UNKNOWN = "9780000000002";
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private CatalogBookRepository catalogBookRepository;
+
+    @Mock
+    private BookMetadataService metadataService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private CatalogProjectionService catalogProjection;
+
+    @Mock
+    private BulkInserter bulkInserter;
+
+    private ExecutorService executor;
+    private BookImportService importService;
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        userId = UUID.randomUUID();
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        importService = new BookImportService(userRepository, bookRepository, catalogBookRepository,
+                metadataService, catalogProjection, bulkInserter, transactionTemplate, eventPublisher,
+                new BulkWorkScheduler(executor, 2, new SimpleMeterRegistry()), 100, 2);
+        when(userRepository.existsById(userId)).thenReturn(true);
+        when(userRepository.getReferenceById(userId)).thenReturn(User.builder().id(userId).build());
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(catalogProjection.createEntries(anyCollection())).thenAnswer(invocation ->
+                invocation.<Collection<BookMetadata>>getArgument(0).stream().map(CatalogBook::from).toList());
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.close();
+    }
+
+    @Test
+    void importBooks_MixedIsbns_ReportsOutcomePerIsbn() {
+        CatalogBook known = CatalogBook.builder().isbn(PRINZ).title("Bekannt").build();
+        when(bookRepository.findOwnedIsbns(eq(userId), anyCollection())).thenReturn(List.of(MATILDA));
+        when(catalogBookRepository.findAllById(anyCollection())).thenReturn(List.of(known));
+        BookMetadata fetched = new BookMetadata(CLEAN_CODE, "Neu", "", "", "", "");
+        when(metadataService.lookupAll(List.of(CLEAN_CODE, UNKNOWN))).thenReturn(Map.of(CLEAN_CODE, fetched));
+
+        BulkImportReport report = importService.importBooks(userId, List.of(
+                MATILDA, PRINZ, CLEAN_CODE, UNKNOWN, "978-0-13-235088-4", "0140328726", "1234567890"));
+
+        assertThat(report.results()).extracting(IsbnImportResult::isbn).containsExactly(
+                MATILDA, PRINZ, CLEAN_CODE, UNKNOWN, "1234567890");
+        assertThat(report.results()).extracting(IsbnImportResult::status).containsExactly(
+                IsbnImportResult.Status.ALREADY_OWNED,
+                IsbnImportResult.Status.IMPORTED,
+                IsbnImportResult.Status.IMPORTED,
+                IsbnImportResult.Status.NOT_FOUND,
+                IsbnImportResult.Status.INVALID);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Book>> saved = ArgumentCaptor.forClass(List.class);
+        verify(bulkInserter).insertAll(saved.capture());
+        assertThat(saved.getValue()).extracting(book -> book.getCatalog().getIsbn()).containsExactly(PRINZ, CLEAN_CODE);
+        assertThat(saved.getValue().get(0).getCatalog()).isSameAs(known);
+        assertThat(saved.getValue()).allSatisfy(book -> assertThat(book.getAddedAt()).isNotNull());
+        verify(catalogProjection).createEntries(List.of(fetched));
+        verify(eventPublisher).publishEvent(new BookAddedEvent(PRINZ));
+        verify(eventPublisher).publishEvent(new BookAddedEvent(CLEAN_CODE));
+        verify(bookRepository).findOwnedIsbns(userId, List.of(MATILDA, PRINZ, CLEAN_CODE, UNKNOWN));
+    }
+
+    @Test
+    void importBooks_OpenLibraryFails_MarksGroupAsFailed() {
+        when(bookRepository.findOwnedIsbns(eq(userId), anyCollection())).thenReturn(List.of());
+        when(catalogBookRepository.findAllById(anyCollection())).thenReturn(List.of());
+        when(metadataService.lookupAll(List.of(MATILDA, PRINZ)))
+                .thenThrow(new InvalidBookException("Fehler beim Abruf der Buchdaten"));
+        when(metadataService.lookupAll(List.of(CLEAN_CODE)))
+                .thenReturn(Map.of(CLEAN_CODE, new BookMetadata(CLEAN_CODE, "Neu", "", "", "", "")));
+
+        BulkImportReport report = importService.importBooks(userId, List.of(MATILDA, PRINZ, CLEAN_CODE));
+
+        assertThat(report.count(IsbnImportResult.Status.FAILED)).isEqualTo(2);
+        assertThat(report.count(IsbnImportResult.Status.IMPORTED)).isEqualTo(1);
+        assertThat(report.results().get(0).message()).contains("Fehler beim Abruf");
+    }
+
+    @Test
+    void importBooks_ChunkFailsAsWhole_ReportsItsIsbnsAndKeepsOtherChunks() {
+        BookImportService oneIsbnPerChunk = new BookImportService(userRepository, bookRepository, catalogBookRepository,
+                metadataService, catalogProjection, bulkInserter, transactionTemplate, eventPublisher,
+                new BulkWorkScheduler(executor, 2, new SimpleMeterRegistry()), 1, 2);
+        when(bookRepository.findOwnedIsbns(userId, List.of(MATILDA)))
+                .thenThrow(new DeadlineExceededException("Frist abgelaufen"));
+        when(bookRepository.findOwnedIsbns(userId, List.of(PRINZ))).thenReturn(List.of());
+        when(catalogBookRepository.findAllById(anyCollection()))
+                .thenReturn(List.of(CatalogBook.builder().isbn(PRINZ).title("Bekannt").build()));
+
+        BulkImportReport report = oneIsbnPerChunk.importBooks(userId, List.of(MATILDA, PRINZ, "1234567890"));
+
+        assertThat(report.results()).extracting(IsbnImportResult::status).containsExactly(
+                IsbnImportResult.Status.FAILED,
+                IsbnImportResult.Status.IMPORTED,
+                IsbnImportResult.Status.INVALID);
+        assertThat(report.results().get(0).message()).isEqualTo("Frist abgelaufen");
+    }
+
+    @Test
+    void importBooks_UserNotFound_ThrowsException() {
+        UUID unknown = UUID.randomUUID();
+        assertThrows(UserNotFoundException.class, () -> importService.importBooks(unknown, List.of(MATILDA)));
+        verifyNoInteractions(metadataService);
+    }
+}
@@ -0,0 +1,77 @@
+package at.fhburgenland.bookmanager.service;
+
+import at.fhburgenland.bookmanager.dto.BookMetadata;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BookMetadataCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private BookMetadataCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new BookMetadataCache(100, Duration.ofMinutes(5), Duration.ofMinutes(1), meterRegistry);
+    }
+
+    @Test
+    void get_AfterPut_ReturnsMetadataForAnySpelling() {
+        BookMetadata metadata = new BookMetadata("9780140328721", "Matilda", "Puffin", "1988", "", "");
+        cache.put("978-0-14-032872-1", metadata);
+
+        assertThat(cache.get("9780140328721")).contains(metadata);
+        assertThat(cache.get(" 978 0140328721 ")).contains(metadata);
+    }
+
+    @Test
+    void get_UnknownIsbn_ReturnsEmpty() {
+        assertThat(cache.get("0000000000")).isEmpty();
+    }
+
+    @Test
+    void invalidate_RemovesEntry() {
+        cache.put("123456789x", new BookMetadata("123456789X", "Titel", "", "", "", ""));
+        cache.invalidate("123456789X");
+
+        assertThat(cache.get("123456789X")).isEmpty();
+    }
+
+    @Test
+    void markUnknown_IsRememberedUntilMetadataIsPut() {
+        cache.markUnknown("978-0-00-000000-2");
+
+        assertThat(cache.isKnownUnknown("9780000000002")).isTrue();
+
+        cache.put("9780000000002", new BookMetadata("9780000000002", "Titel", "", "", "", ""));
+
+        assertThat(cache.isKnownUnknown("9780000000002")).isFalse();
+    }
+
+    @Test
+    void markUnknown_ExpiresAfterNegativeTtl() throws InterruptedException {
+        cache = new BookMetadataCache(100, Duration.ofMinutes(5), Duration.ofMillis(50), new SimpleMeterRegistry());
+        cache.markUnknown("9780000000002");
+
+        Thread.sleep(100);
+
+        assertThat(cache.isKnownUnknown("9780000000002")).isFalse();
+    }
+
+    @Test
+    void metrics_HitsAndMissesArePublished() {
+        cache.put("111", new BookMetadata("111", "A", "", "", "", ""));
+        cache.get("111");
+        cache.get("222");
+
+        assertThat(meterRegistry.get("cache.gets").tag("cache", BookMetadataCache.CACHE_NAME)
+                .tag("result", "hit").functionCounter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", BookMetadataCache.CACHE_NAME)
+                .tag("result", "miss").functionCounter().count()).isEqualTo(1.0);
+    }
+}
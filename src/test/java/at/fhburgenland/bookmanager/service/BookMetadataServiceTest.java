@@ -0,0 +1,200 @@
+package at.fhburgenland.bookmanager.service;
+
+import at.fhburgenland.bookmanager.client.OpenLibraryClient;
+import at.fhburgenland.bookmanager.client.OpenLibraryRateLimiter;
+import at.fhburgenland.bookmanager.config.OpenLibraryResilienceConfig;
+import at.fhburgenland.bookmanager.dto.BookMetadata;
+import at.fhburgenland.bookmanager.exception.InvalidBookException;
+import at.fhburgenland.bookmanager.exception.MetadataUnavailableException;
+import at.fhburgenland.bookmanager.exception.RateLimitExceededException;
+import at.fhburgenland.bookmanager.exception.UnknownIsbnException;
+import at.fhburgenland.bookmanager.offline.OfflineIsbnIndex;
+import at.fhburgenland.bookmanager.offline.OfflineIsbnIndexBuilder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class BookMetadataServiceTest {
+
+    private static final String ISBN = "9780140328721";
+
+    @Mock
+    private OpenLibraryClient openLibraryClient;
+
+    @Mock
+    private OpenLibraryRateLimiter rateLimiter;
+
+    private CircuitBreaker circuitBreaker;
+    private Bulkhead bulkhead;
+    private BookMetadataService metadataService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(rateLimiter.throttled(any(), any())).thenCallRealMethod();
+        when(rateLimiter.tryAcquire()).thenReturn(true);
+        circuitBreaker = CircuitBreaker.of("test", CircuitBreakerConfig.custom()
+                .slidingWindowSize(2)
+                .minimumNumberOfCalls(2)
+                .failureRateThreshold(50)
+                .waitDurationInOpenState(Duration.ofMinutes(1))
+                .recordExceptions(MetadataUnavailableException.class)
+                .build());
+        bulkhead = Bulkhead.of("test", BulkheadConfig.custom()
+                .maxConcurrentCalls(1)
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+        metadataService = newService(OfflineIsbnIndex.disabled(), true);
+    }
+
+    private BookMetadataService newService(OfflineIsbnIndex offlineIndex, boolean networkFallback) {
+        return new BookMetadataService(
+                new BookMetadataCache(100, Duration.ofMinutes(5), Duration.ofMinutes(1), new SimpleMeterRegistry()),
+                offlineIndex,
+                new HedgedMetadataFetcher(List.of(openLibraryClient), Executors.newVirtualThreadPerTaskExecutor(), bulkhead, rateLimiter,
+                        false, 0.95, Duration.ofMillis(50), Duration.ofSeconds(1), new SimpleMeterRegistry()),
+                circuitBreaker, rateLimiter, Bulkhead.ofDefaults("bulk"),
+                Duration.ofSeconds(5), networkFallback);
+    }
+
+    @Test
+    void lookup_IsbnInOfflineIndex_SkipsOpenLibrary(@TempDir Path tempDir) throws Exception {
+        BookMetadataService service = newService(fixtureIndex(tempDir), true);
+
+        BookMetadata metadata = service.lookup(ISBN);
+
+        assertThat(metadata.title()).isEqualTo("Matilda");
+        verifyNoInteractions(openLibraryClient);
+    }
+
+    @Test
+    void lookup_NotInOfflineIndexWithoutNetworkFallback_ThrowsWithoutCallingOpenLibrary(@TempDir Path tempDir)
+            throws Exception {
+        BookMetadataService service = newService(fixtureIndex(tempDir), false);
+
+        assertThrows(InvalidBookException.class, () -> service.lookup("9780000000002"));
+        assertThat(service.lookupAll(List.of(ISBN, "9780000000002"))).containsOnlyKeys(ISBN);
+        verifyNoInteractions(openLibraryClient);
+    }
+
+    @Test
+    void lookup_CircuitOpen_FailsFastWithoutCallingOpenLibrary() {
+        circuitBreaker.transitionToOpenState();
+
+        assertThrows(MetadataUnavailableException.class, () -> metadataService.lookup(ISBN));
+        verifyNoInteractions(openLibraryClient);
+    }
+
+    @Test
+    void lookup_RepeatedOutages_OpensCircuit() {
+        when(openLibraryClient.fetch(anyString())).thenThrow(new MetadataUnavailableException("Timeout"));
+
+        assertThrows(MetadataUnavailableException.class, () -> metadataService.lookup("1111111111"));
+        assertThrows(MetadataUnavailableException.class, () -> metadataService.lookup("2222222222"));
+
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void lookup_BulkheadSaturated_LeavesCircuitClosed() {
+        circuitBreaker = new OpenLibraryResilienceConfig().openLibraryCircuitBreaker(
+                50, Duration.ofSeconds(3), 2, 2, Duration.ofMinutes(1), new SimpleMeterRegistry());
+        BookMetadataService service = newService(OfflineIsbnIndex.disabled(), true);
+        // Den einzigen Platz hält ein anderer Abruf.
+        assertThat(bulkhead.tryAcquirePermission()).isTrue();
+
+        assertThrows(MetadataUnavailableException.class, () -> service.lookup("1111111111"));
+        assertThrows(MetadataUnavailableException.class, () -> service.lookup("2222222222"));
+        assertThrows(MetadataUnavailableException.class, () -> service.lookup("3333333333"));
+
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(circuitBreaker.getMetrics().getNumberOfFailedCalls()).isZero();
+        verifyNoInteractions(openLibraryClient);
+    }
+
+    @Test
+    void lookup_RateLimitExhausted_LeavesCircuitClosed() {
+        circuitBreaker = new OpenLibraryResilienceConfig().openLibraryCircuitBreaker(
+                50, Duration.ofSeconds(3), 2, 2, Duration.ofMinutes(1), new SimpleMeterRegistry());
+        BookMetadataService service = newService(OfflineIsbnIndex.disabled(), true);
+        doThrow(new RateLimitExceededException("Ratenlimit ausgeschöpft")).when(rateLimiter).acquire();
+
+        assertThrows(RateLimitExceededException.class, () -> service.lookup("1111111111"));
+        assertThrows(RateLimitExceededException.class, () -> service.lookup("2222222222"));
+        assertThrows(RateLimitExceededException.class, () -> service.lookupAll(List.of("3333333333")));
+
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(circuitBreaker.getMetrics().getNumberOfFailedCalls()).isZero();
+        verifyNoInteractions(openLibraryClient);
+    }
+
+    @Test
+    void lookup_CircuitOpen_SpendsNoToken() {
+        circuitBreaker.transitionToOpenState();
+
+        assertThrows(MetadataUnavailableException.class, () -> metadataService.lookup(ISBN));
+        verify(rateLimiter, never()).acquire();
+    }
+
+    @Test
+    void lookup_UnknownIsbn_DoesNotOpenCircuit() {
+        when(openLibraryClient.fetch(anyString())).thenAnswer(invocation -> {
+            throw new UnknownIsbnException(invocation.getArgument(0));
+        });
+
+        assertThrows(UnknownIsbnException.class, () -> metadataService.lookup("1111111111"));
+        assertThrows(UnknownIsbnException.class, () -> metadataService.lookup("2222222222"));
+
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void lookupAll_UnknownIsbn_IsNotRequestedAgainWithinTtl() {
+        BookMetadata matilda = new BookMetadata(ISBN, "Matilda", "Puffin", "1988", "", "");
+        when(openLibraryClient.fetchAll(List.of(ISBN, "9780000000002"))).thenReturn(Map.of(ISBN, matilda));
+
+        assertThat(metadataService.lookupAll(List.of(ISBN, "9780000000002"))).containsOnlyKeys(ISBN);
+        assertThat(metadataService.lookupAll(List.of(ISBN, "9780000000002"))).containsOnlyKeys(ISBN);
+        assertThrows(UnknownIsbnException.class, () -> metadataService.lookup("9780000000002"));
+
+        verify(openLibraryClient, times(1)).fetchAll(anyCollection());
+        verify(openLibraryClient, never()).fetch(anyString());
+    }
+
+    private static OfflineIsbnIndex fixtureIndex(Path tempDir) throws Exception {
+        Path dump = Path.of(Objects.requireNonNull(
+                BookMetadataServiceTest.class.getResource("/openlibrary/ol_dump_editions_fixture.txt")).toURI());
+        Path file = tempDir.resolve("isbn-index.bin");
+        new OfflineIsbnIndexBuilder(new ObjectMapper()).build(dump, file);
+        return OfflineIsbnIndex.open(file);
+    }
+
+    @Test
+    void lookupAll_CircuitOpen_ThrowsInsteadOfReportingNotFound() {
+        circuitBreaker.transitionToOpenState();
+
+        assertThrows(MetadataUnavailableException.class, () -> metadataService.lookupAll(List.of(ISBN)));
+        verify(openLibraryClient, never()).fetchAll(anyCollection());
+    }
+}
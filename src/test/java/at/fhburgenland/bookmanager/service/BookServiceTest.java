@@ -1,21 +1,58 @@
 package at.fhburgenland.bookmanager.service;
 
+import at.fhburgenland.bookmanager.client.OpenLibraryClient;
+import at.fhburgenland.bookmanager.client.OpenLibraryRateLimiter;
+import at.fhburgenland.bookmanager.dto.BookSearch;
+import at.fhburgenland.bookmanager.dto.BookSearchHit;
+import at.fhburgenland.bookmanager.dto.BookSort;
 import at.fhburgenland.bookmanager.dto.BookUpdateRequest;
+import at.fhburgenland.bookmanager.dto.CatalogAuthor;
+import at.fhburgenland.bookmanager.dto.KeysetPage;
+import at.fhburgenland.bookmanager.dto.LibraryBook;
+import at.fhburgenland.bookmanager.dto.LibraryRow;
+import at.fhburgenland.bookmanager.event.BookAddedEvent;
+import at.fhburgenland.bookmanager.exception.BookAlreadyOwnedException;
 import at.fhburgenland.bookmanager.exception.BookNotFoundException;
+import at.fhburgenland.bookmanager.exception.DeadlineExceededException;
 import at.fhburgenland.bookmanager.exception.InvalidBookException;
+import at.fhburgenland.bookmanager.exception.InvalidPageRequestException;
+import at.fhburgenland.bookmanager.exception.MetadataUnavailableException;
+import at.fhburgenland.bookmanager.exception.UnknownIsbnException;
 import at.fhburgenland.bookmanager.exception.UserNotFoundException;
 import at.fhburgenland.bookmanager.model.Book;
+import at.fhburgenland.bookmanager.model.CatalogBook;
 import at.fhburgenland.bookmanager.model.User;
+import at.fhburgenland.bookmanager.offline.OfflineIsbnIndex;
 import at.fhburgenland.bookmanager.repository.BookRepository;
+import at.fhburgenland.bookmanager.repository.BookSearchRepository;
+import at.fhburgenland.bookmanager.repository.BulkInserter;
+import at.fhburgenland.bookmanager.repository.CatalogBookRepository;
+import at.fhburgenland.bookmanager.repository.CatalogPayloadRepository;
 import at.fhburgenland.bookmanager.repository.UserRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpMethod;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.ResponseExtractor;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.client.RestTemplate;
+import java.nio.charset.StandardCharsets;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -28,9 +65,24 @@ class BookServiceTest {
     @Mock
     private BookRepository bookRepository;
 
+    @Mock
+    private BookSearchRepository bookSearchRepository;
+
+    @Mock
+    private CatalogBookRepository catalogBookRepository;
+
     @Mock
     private RestTemplate restTemplate;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private OpenLibraryRateLimiter rateLimiter;
+
+    @Mock
+    private CatalogPayloadRepository payloadRepository;
+
     private ObjectMapper objectMapper;
 
     private BookService bookService;
@@ -49,23 +101,82 @@ class BookServiceTest {
                 .email("service@test.at")
                 .books(new ArrayList<>())
                 .build();
+        when(catalogBookRepository.save(any(CatalogBook.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        stubBookTableOfMockUser();
+        when(rateLimiter.throttled(any(), any())).thenCallRealMethod();
+        when(rateLimiter.tryAcquire()).thenReturn(true);
+        OpenLibraryClient openLibraryClient =
+                new OpenLibraryClient(restTemplate, "https://openlibrary.org/api/books", objectMapper);
         bookService = new BookService(
-                "https://openlibrary.org/api/books",
                 userRepository,
                 bookRepository,
-                objectMapper
+                bookSearchRepository,
+                catalogBookRepository,
+                new BookMetadataService(
+                        new BookMetadataCache(100, Duration.ofMinutes(5), Duration.ofMinutes(1), new SimpleMeterRegistry()),
+                        OfflineIsbnIndex.disabled(),
+                        new HedgedMetadataFetcher(List.of(openLibraryClient), Executors.newVirtualThreadPerTaskExecutor(),
+                                Bulkhead.ofDefaults("test"), rateLimiter, false, 0.95, Duration.ofMillis(50), Duration.ofSeconds(1),
+                                new SimpleMeterRegistry()),
+                        CircuitBreaker.ofDefaults("test"),
+                        rateLimiter,
+                        Bulkhead.ofDefaults("bulk"),
+                        Duration.ofSeconds(5),
+                        true
+                ),
+                new CatalogProjectionService(catalogBookRepository, payloadRepository, mock(BulkInserter.class),
+                        mock(TransactionTemplate.class),
+                        mock(BulkWorkScheduler.class), mock(ExecutorService.class), false, 200),
+                eventPublisher
         );
-        injectMockRestTemplate(bookService, restTemplate);
     }
 
-    private void injectMockRestTemplate(BookService service, RestTemplate mock) {
-        try {
-            var field = BookService.class.getDeclaredField("restTemplate");
-            field.setAccessible(true);
-            field.set(service, mock);
-        } catch (Exception e) {
-            throw new RuntimeException("Fehler beim Injecten des RestTemplates", e);
-        }
+    /**
+     * Lässt die Abfragen des BookRepository auf den Büchern von {@code mockUser} arbeiten,
+     * so als lägen diese in der Tabelle. Der Benutzer existiert, solange findById ihn liefert.
+     */
+    private void stubBookTableOfMockUser() {
+        when(userRepository.existsById(userId)).thenAnswer(invocation -> userRepository.findById(userId).isPresent());
+        when(bookRepository.findFirstByUserIdAndCatalogIsbnIn(eq(userId), anyCollection())).thenAnswer(invocation -> {
+            Collection<String> isbns = invocation.getArgument(1);
+            return mockUser.getBooks().stream().filter(b -> isbns.contains(b.getCatalog().getIsbn())).findFirst();
+        });
+        when(bookRepository.findDetailByUserIdAndCatalogIsbnIn(eq(userId), anyCollection())).thenAnswer(invocation ->
+                bookRepository.findFirstByUserIdAndCatalogIsbnIn(userId, invocation.getArgument(1)).stream().toList());
+        when(bookRepository.existsByUserIdAndCatalogIsbn(eq(userId), anyString())).thenAnswer(invocation ->
+                mockUser.getBooks().stream().anyMatch(b -> b.getCatalog().getIsbn().equals(invocation.getArgument(1))));
+        when(catalogBookRepository.findAuthors(anyCollection())).thenAnswer(invocation -> {
+            Collection<String> isbns = invocation.getArgument(0);
+            return mockUser.getBooks().stream()
+                    .map(Book::getCatalog)
+                    .filter(catalog -> isbns.contains(catalog.getIsbn()))
+                    .flatMap(catalog -> catalog.getAuthors().stream().map(a -> new CatalogAuthor(catalog.getIsbn(), a)))
+                    .toList();
+        });
+        when(bookRepository.save(any(Book.class))).thenAnswer(invocation -> {
+            Book book = invocation.getArgument(0);
+            if (book.getUser() == mockUser && mockUser.getBooks().stream().noneMatch(b -> b == book)) {
+                mockUser.getBooks().add(book);
+            }
+            return book;
+        });
+        doAnswer(invocation -> mockUser.getBooks().removeIf(b -> b == invocation.getArgument(0)))
+                .when(bookRepository).delete(any(Book.class));
+    }
+
+    private static LibraryRow row(Book book) {
+        CatalogBook catalog = book.getCatalog();
+        return new LibraryRow(book.getId(), catalog.getIsbn(), catalog.getTitle(), catalog.getPublisher(),
+                catalog.getPublishedDate(), catalog.getCoverUrl(), book.getRating(), book.getAddedAt());
+    }
+
+    private void stubOpenLibraryResponse(String body, HttpStatus status) {
+        byte[] bytes = body == null ? new byte[0] : body.getBytes(StandardCharsets.UTF_8);
+        when(restTemplate.execute(anyString(), eq(HttpMethod.GET), isNull(), any(ResponseExtractor.class)))
+                .thenAnswer(invocation -> {
+                    ResponseExtractor<?> extractor = invocation.getArgument(3);
+                    return extractor.extractData(new MockClientHttpResponse(bytes, status));
+                });
     }
 
     @Test
@@ -83,16 +194,114 @@ class BookServiceTest {
           }
         }
         """;
-        when(restTemplate.getForEntity(anyString(), eq(String.class)))
-                .thenReturn(new ResponseEntity<>(jsonResponse, HttpStatus.OK));
+        stubOpenLibraryResponse(jsonResponse, HttpStatus.OK);
         Book created = bookService.addBookToUserByIsbn(userId, isbn);
-        assertEquals("Matilda", created.getTitle());
-        assertEquals("9780140328721", created.getIsbn());
-        assertEquals("Puffin", created.getPublisher());
-        assertEquals("1988", created.getPublishedDate());
-        assertEquals("A story about a gifted girl", created.getDescription());
-        verify(userRepository).save(mockUser);
+        assertEquals("Matilda", created.getCatalog().getTitle());
+        assertEquals("9780140328721", created.getCatalog().getIsbn());
+        assertEquals("Puffin", created.getCatalog().getPublisher());
+        assertEquals("1988", created.getCatalog().getPublishedDate());
+        assertEquals("A story about a gifted girl", created.getCatalog().getDescription());
+        verify(bookRepository).save(created);
         assertEquals(1, mockUser.getBooks().size());
+        verify(eventPublisher).publishEvent(new BookAddedEvent(isbn));
+    }
+
+    @Test
+    void addBookToUserByIsbn_DeadlineExpired_AbandonsBeforeOpenLibraryAndSave() {
+        when(userRepository.findById(userId)).thenReturn(Optional.of(mockUser));
+        RequestDeadline.set(RequestDeadline.after(Duration.ZERO));
+        try {
+            assertThrows(DeadlineExceededException.class,
+                    () -> bookService.addBookToUserByIsbn(userId, "9780140328721"));
+        } finally {
+            RequestDeadline.clear();
+        }
+        verifyNoInteractions(restTemplate);
+        verify(bookRepository, never()).save(any());
+    }
+
+    @Test
+    void addBookToUserByIsbn_StoresPayloadAndDerivesAuthorsFromIt() {
+        when(userRepository.findById(userId)).thenReturn(Optional.of(mockUser));
+        stubOpenLibraryResponse("""
+        {
+          "ISBN:9780140328721": {
+            "title": "Matilda",
+            "authors": [{"url": "https://openlibrary.org/authors/OL34184A", "name": "Roald Dahl"}],
+            "subjects": [{"name": "Schools"}],
+            "number_of_pages": 232
+          }
+        }
+        """, HttpStatus.OK);
+
+        Book created = bookService.addBookToUserByIsbn(userId, "9780140328721");
+
+        assertThat(created.getCatalog().getAuthors()).containsExactly("Roald Dahl");
+        assertThat(created.getCatalog().getSubjects()).containsExactly("Schools");
+        assertThat(created.getCatalog().getNumberOfPages()).isEqualTo(232);
+        verify(payloadRepository).save(argThat(payload -> payload.getIsbn().equals("9780140328721")));
+    }
+
+    @Test
+    void addBookToUserByIsbn_SameIsbnForTwoUsers_FetchesOnlyOnce() {
+        UUID otherId = UUID.randomUUID();
+        User other = User.builder().id(otherId).name("Zweiter Leser").email("zweiter@test.at").build();
+        when(userRepository.findById(userId)).thenReturn(Optional.of(mockUser));
+        when(userRepository.findById(otherId)).thenReturn(Optional.of(other));
+        String jsonResponse = """
+        {
+          "ISBN:9780140328721": {
+            "title": "Matilda",
+            "publishers": ["Puffin"]
+          }
+        }
+        """;
+        stubOpenLibraryResponse(jsonResponse, HttpStatus.OK);
+
+        bookService.addBookToUserByIsbn(userId, "9780140328721");
+        Book second = bookService.addBookToUserByIsbn(otherId, "978-0140328721");
+
+        assertEquals("Matilda", second.getCatalog().getTitle());
+        assertEquals("9780140328721", second.getCatalog().getIsbn());
+        verify(restTemplate, times(1)).execute(anyString(), eq(HttpMethod.GET), isNull(), any(ResponseExtractor.class));
+    }
+
+    @Test
+    void addBookToUserByIsbn_AlreadyOwned_ThrowsConflictWithoutLookup() {
+        Book owned = Book.builder().catalog(CatalogBook.builder().isbn("9780140328721").build()).user(mockUser).build();
+        mockUser.getBooks().add(owned);
+        when(userRepository.findById(userId)).thenReturn(Optional.of(mockUser));
+
+        assertThrows(BookAlreadyOwnedException.class, () -> bookService.addBookToUserByIsbn(userId, "0-14-032872-6"));
+
+        verifyNoInteractions(catalogBookRepository, restTemplate);
+        verify(bookRepository, never()).save(any());
+    }
+
+    @Test
+    void addBookToUserByIsbn_AddedConcurrently_ThrowsConflict() {
+        CatalogBook catalog = CatalogBook.builder().isbn("9780140328721").title("Matilda").build();
+        when(userRepository.findById(userId)).thenReturn(Optional.of(mockUser));
+        when(catalogBookRepository.findById("9780140328721")).thenReturn(Optional.of(catalog));
+        // Die Prüfung findet das Buch noch nicht, der eindeutige Index (user_id, isbn) schlägt danach an.
+        when(bookRepository.existsByUserIdAndCatalogIsbn(userId, "9780140328721")).thenReturn(false, true);
+        doThrow(new DataIntegrityViolationException("uk_books_user_isbn")).when(bookRepository).save(any(Book.class));
+
+        assertThrows(BookAlreadyOwnedException.class, () -> bookService.addBookToUserByIsbn(userId, "9780140328721"));
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void addBookToUserByIsbn_IsbnInCatalog_SkipsOpenLibrary() {
+        CatalogBook catalog = CatalogBook.builder().isbn("9780140328721").title("Matilda").build();
+        when(userRepository.findById(userId)).thenReturn(Optional.of(mockUser));
+        when(catalogBookRepository.findById("9780140328721")).thenReturn(Optional.of(catalog));
+
+        Book created = bookService.addBookToUserByIsbn(userId, "9780140328721");
+
+        assertThat(created.getCatalog()).isSameAs(catalog);
+        verifyNoInteractions(restTemplate);
+        verify(catalogBookRepository, never()).save(any());
     }
 
     @Test
@@ -105,8 +314,7 @@ class BookServiceTest {
     @Test
     void addBookToUserByIsbn_InvalidApiResponse_ThrowsException() {
         when(userRepository.findById(userId)).thenReturn(Optional.of(mockUser));
-        when(restTemplate.getForEntity(anyString(), eq(String.class)))
-                .thenReturn(new ResponseEntity<>("{}", HttpStatus.OK));
+        stubOpenLibraryResponse("{}", HttpStatus.OK);
         assertThrows(InvalidBookException.class,
                 () -> bookService.addBookToUserByIsbn(userId, "0000000000"));
     }
@@ -114,18 +322,63 @@ class BookServiceTest {
     @Test
     void addBookToUserByIsbn_BadHttpResponse_ThrowsException() {
         when(userRepository.findById(userId)).thenReturn(Optional.of(mockUser));
-        when(restTemplate.getForEntity(anyString(), eq(String.class)))
-                .thenReturn(new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR));
+        stubOpenLibraryResponse(null, HttpStatus.INTERNAL_SERVER_ERROR);
         assertThrows(InvalidBookException.class,
-                () -> bookService.addBookToUserByIsbn(userId, "123"));
+                () -> bookService.addBookToUserByIsbn(userId, "9780140328721"));
+    }
+
+    @Test
+    void addBookToUserByIsbn_InvalidChecksum_ThrowsBeforeAnyLookup() {
+        when(userRepository.findById(userId)).thenReturn(Optional.of(mockUser));
+
+        InvalidBookException ex = assertThrows(InvalidBookException.class,
+                () -> bookService.addBookToUserByIsbn(userId, "978-0-14-032872-2"));
+
+        assertThat(ex.getMessage()).contains("Ungültige ISBN");
+        verifyNoInteractions(catalogBookRepository, restTemplate);
+    }
+
+    @Test
+    void addBookToUserByIsbn_Isbn10_UsesCanonicalIsbn13() {
+        CatalogBook catalog = CatalogBook.builder().isbn("9780140328721").title("Matilda").build();
+        when(userRepository.findById(userId)).thenReturn(Optional.of(mockUser));
+        when(catalogBookRepository.findById("9780140328721")).thenReturn(Optional.of(catalog));
+
+        Book created = bookService.addBookToUserByIsbn(userId, "0-14-032872-6");
+
+        assertThat(created.getCatalog()).isSameAs(catalog);
+        assertThat(bookService.getBookByUserIdAndIsbn(userId, "0140328726")).isSameAs(created);
+        verifyNoInteractions(restTemplate);
+    }
+
+    @Test
+    void addBookToUserByIsbn_UnknownIsbn_IsNotRequestedAgain() {
+        when(userRepository.findById(userId)).thenReturn(Optional.of(mockUser));
+        stubOpenLibraryResponse("{}", HttpStatus.OK);
+
+        assertThrows(UnknownIsbnException.class, () -> bookService.addBookToUserByIsbn(userId, "9780000000002"));
+        assertThrows(UnknownIsbnException.class, () -> bookService.addBookToUserByIsbn(userId, "978-0-00-000000-2"));
+
+        verify(restTemplate, times(1)).execute(anyString(), eq(HttpMethod.GET), isNull(), any(ResponseExtractor.class));
+    }
+
+    @Test
+    void addBookToUserByIsbn_ApiTimeout_ThrowsMetadataUnavailable() {
+        when(userRepository.findById(userId)).thenReturn(Optional.of(mockUser));
+        when(restTemplate.execute(anyString(), eq(HttpMethod.GET), isNull(), any(ResponseExtractor.class)))
+                .thenThrow(new ResourceAccessException("Read timed out", new SocketTimeoutException("Read timed out")));
+        assertThrows(MetadataUnavailableException.class,
+                () -> bookService.addBookToUserByIsbn(userId, "9780140328721"));
     }
 
     @Test
     void getBookByUserIdAndIsbn_ExistingBook_ReturnsBook() {
         String isbn = "1234567890";
         Book book = Book.builder()
-                .isbn(isbn)
-                .title("Unit Test Book")
+                .catalog(CatalogBook.builder()
+                        .isbn(isbn)
+                        .title("Unit Test Book")
+                        .build())
                 .user(mockUser)
                 .build();
 
@@ -135,8 +388,8 @@ class BookServiceTest {
         Book result = bookService.getBookByUserIdAndIsbn(userId, isbn);
 
         assertNotNull(result);
-        assertEquals(isbn, result.getIsbn());
-        assertEquals("Unit Test Book", result.getTitle());
+        assertEquals(isbn, result.getCatalog().getIsbn());
+        assertEquals("Unit Test Book", result.getCatalog().getTitle());
     }
 
     @Test
@@ -158,7 +411,9 @@ class BookServiceTest {
     @Test
     void updateBookRating_ValidRating_UpdatesSuccessfully() {
         Book book = Book.builder()
-                .isbn("9780140328721")
+                .catalog(CatalogBook.builder()
+                        .isbn("9780140328721")
+                        .build())
                 .rating(2)
                 .user(mockUser)
                 .build();
@@ -170,7 +425,8 @@ class BookServiceTest {
         Book updated = bookService.updateBookRating(userId, "9780140328721", 5);
 
         assertEquals(5, updated.getRating());
-        verify(userRepository).save(mockUser);
+        verify(bookRepository).save(book);
+        verify(userRepository, never()).findById(userId);
     }
 
     @Test
@@ -194,16 +450,17 @@ class BookServiceTest {
     @Test
     void updateBookDetails_ValidFields_UpdatesOnlyProvidedFields() {
         Book book = Book.builder()
-                .isbn("123")
-                .title("Alt")
-                .description("Alt Desc")
-                .coverUrl("oldUrl")
+                .catalog(CatalogBook.builder()
+                        .isbn("123")
+                        .title("Alt")
+                        .description("Alt Desc")
+                        .coverUrl("oldUrl")
+                        .build())
                 .user(mockUser)
                 .build();
 
         mockUser.getBooks().add(book);
         when(userRepository.findById(userId)).thenReturn(Optional.of(mockUser));
-        when(bookRepository.save(any(Book.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         BookUpdateRequest request = new BookUpdateRequest();
         request.setTitle("Neu");
@@ -211,16 +468,43 @@ class BookServiceTest {
 
         Book result = bookService.updateBookDetails(userId, "123", request);
 
-        assertThat(result.getTitle()).isEqualTo("Neu");
-        assertThat(result.getCoverUrl()).isEqualTo("https://neu");
-        assertThat(result.getDescription()).isEqualTo("Alt Desc"); // nicht verändert
+        assertThat(result.getDisplayedCatalog().getTitle()).isEqualTo("Neu");
+        assertThat(result.getDisplayedCatalog().getCoverUrl()).isEqualTo("https://neu");
+        assertThat(result.getDisplayedCatalog().getDescription()).isEqualTo("Alt Desc"); // nicht verändert
+        // Der gemeinsame Katalogeintrag bleibt für andere Besitzer unverändert.
+        assertThat(result.getCatalog().getTitle()).isEqualTo("Alt");
+        assertThat(result.getCatalog().getCoverUrl()).isEqualTo("oldUrl");
+    }
+
+    @Test
+    void updateBookDetails_BlankValues_RestoreCatalogData() {
+        Book book = Book.builder()
+                .catalog(CatalogBook.builder().isbn("123").title("Alt").authors(List.of("Katalog")).build())
+                .customTitle("Eigener Titel")
+                .customAuthors(new ArrayList<>(List.of("Eigener Autor")))
+                .user(mockUser)
+                .build();
+        mockUser.getBooks().add(book);
+        when(userRepository.findById(userId)).thenReturn(Optional.of(mockUser));
+
+        BookUpdateRequest request = new BookUpdateRequest();
+        request.setTitle("");
+        request.setAuthors(List.of());
+
+        Book result = bookService.updateBookDetails(userId, "123", request);
+
+        assertThat(result.getCustomTitle()).isNull();
+        assertThat(result.getDisplayedCatalog()).isSameAs(book.getCatalog());
+        assertThat(result.getDisplayedCatalog().getAuthors()).containsExactly("Katalog");
     }
 
 
     @Test
     void deleteBookByUserIdAndIsbn_BookExists_DeletesSuccessfully() {
         Book book = Book.builder()
-                .isbn("1234567890")
+                .catalog(CatalogBook.builder()
+                        .isbn("1234567890")
+                        .build())
                 .user(mockUser)
                 .build();
 
@@ -247,100 +531,156 @@ class BookServiceTest {
 
     @Test
     void getBooksByUserIdAndOptionalRating_NoRating_ReturnsAllBooks() {
-        Book book1 = Book.builder().isbn("111").title("Buch 1").rating(3).build();
-        Book book2 = Book.builder().isbn("222").title("Buch 2").rating(5).build();
+        Book book1 = Book.builder().catalog(CatalogBook.builder().isbn("111").title("Buch 1").authors(List.of("Anna")).build()).rating(3).build();
+        Book book2 = Book.builder().catalog(CatalogBook.builder().isbn("222").title("Buch 2").build()).rating(5).build();
         mockUser.setBooks(List.of(book1, book2));
         when(userRepository.findById(userId)).thenReturn(Optional.of(mockUser));
+        when(bookRepository.findFirstByAdded(userId, null, PageRequest.of(0, 51))).thenReturn(List.of(row(book1), row(book2)));
 
-        List<Book> result = bookService.getBooksByUserIdAndOptionalRating(userId, null);
+        KeysetPage<LibraryBook> result = bookService.getBooksByUserIdAndOptionalRating(userId, null, BookSort.ADDED, null, 50);
 
-        assertThat(result).hasSize(2);
+        assertThat(result.items()).extracting(LibraryBook::isbn).containsExactly("111", "222");
+        assertThat(result.items().get(0).authors()).containsExactly("Anna");
+        assertThat(result.items().get(1).authors()).isEmpty();
+        assertThat(result.nextCursor()).isNull();
+        verify(catalogBookRepository, times(1)).findAuthors(anyCollection());
     }
 
     @Test
     void getBooksByUserIdAndOptionalRating_ValidRating_ReturnsMatchingBooks() {
-        Book book1 = Book.builder().isbn("111").title("Buch 1").rating(2).build();
-        Book book2 = Book.builder().isbn("222").title("Buch 2").rating(5).build();
-        mockUser.setBooks(List.of(book1, book2));
+        Book book1 = Book.builder().catalog(CatalogBook.builder().isbn("111").title("Buch 1").build()).rating(2).build();
         when(userRepository.findById(userId)).thenReturn(Optional.of(mockUser));
+        when(bookRepository.findFirstByTitle(userId, 2, PageRequest.of(0, 51))).thenReturn(List.of(row(book1)));
 
-        List<Book> result = bookService.getBooksByUserIdAndOptionalRating(userId, 2);
+        KeysetPage<LibraryBook> result = bookService.getBooksByUserIdAndOptionalRating(userId, 2, BookSort.TITLE, null, 50);
 
-        assertThat(result).hasSize(1);
-        assertThat(result.get(0).getRating()).isEqualTo(2);
+        assertThat(result.items()).hasSize(1);
+        assertThat(result.items().get(0).rating()).isEqualTo(2);
     }
 
     @Test
-    void getBooksByUserIdAndOptionalRating_InvalidRating_ThrowsException() {
+    void getBooksByUserIdAndOptionalRating_FullPage_ContinuesAfterLastBook() {
+        LibraryRow newest = new LibraryRow(UUID.randomUUID(), "111", null, null, null, null, null,
+                Instant.parse("2026-03-02T10:00:00Z"));
+        LibraryRow older = new LibraryRow(UUID.randomUUID(), "222", null, null, null, null, null,
+                Instant.parse("2026-03-01T10:00:00Z"));
         when(userRepository.findById(userId)).thenReturn(Optional.of(mockUser));
+        when(bookRepository.findFirstByAdded(userId, null, PageRequest.of(0, 2))).thenReturn(List.of(newest, older));
+        when(bookRepository.findByAddedAfter(userId, null, newest.addedAt(), newest.id(), PageRequest.of(0, 2)))
+                .thenReturn(List.of(older));
 
-        assertThrows(InvalidBookException.class,
-                () -> bookService.getBooksByUserIdAndOptionalRating(userId, 10));
+        KeysetPage<LibraryBook> first = bookService.getBooksByUserIdAndOptionalRating(userId, null, BookSort.ADDED, null, 1);
+        KeysetPage<LibraryBook> second = bookService.getBooksByUserIdAndOptionalRating(userId, null, BookSort.ADDED, first.nextCursor(), 1);
+
+        assertThat(first.items()).extracting(LibraryBook::id).containsExactly(newest.id());
+        assertThat(second.items()).extracting(LibraryBook::id).containsExactly(older.id());
+        assertThat(second.nextCursor()).isNull();
     }
 
     @Test
-    void getBooksByUserIdAndOptionalRating_UserNotFound_ThrowsException() {
-        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+    void getBooksByUserIdAndOptionalRating_SortByRating_ContinuesWithUnratedBooks() {
+        LibraryRow rated = new LibraryRow(UUID.randomUUID(), "111", null, null, null, null, 5, Instant.now());
+        LibraryRow unrated1 = new LibraryRow(UUID.randomUUID(), "222", null, null, null, null, null, Instant.now());
+        LibraryRow unrated2 = new LibraryRow(UUID.randomUUID(), "333", null, null, null, null, null, Instant.now());
+        when(userRepository.findById(userId)).thenReturn(Optional.of(mockUser));
+        when(bookRepository.findFirstRated(userId, null, PageRequest.of(0, 3))).thenReturn(List.of(rated));
+        when(bookRepository.findFirstUnrated(userId, PageRequest.of(0, 2))).thenReturn(List.of(unrated1, unrated2));
+        when(bookRepository.findUnratedAfter(userId, unrated1.id(), PageRequest.of(0, 3))).thenReturn(List.of(unrated2));
 
-        assertThrows(UserNotFoundException.class,
-                () -> bookService.getBooksByUserIdAndOptionalRating(userId, 3));
+        KeysetPage<LibraryBook> first = bookService.getBooksByUserIdAndOptionalRating(userId, null, BookSort.RATING, null, 2);
+        KeysetPage<LibraryBook> second = bookService.getBooksByUserIdAndOptionalRating(userId, null, BookSort.RATING, first.nextCursor(), 2);
+
+        assertThat(first.items()).extracting(LibraryBook::id).containsExactly(rated.id(), unrated1.id());
+        assertThat(second.items()).extracting(LibraryBook::id).containsExactly(unrated2.id());
+        assertThat(second.nextCursor()).isNull();
+        verify(bookRepository, never()).findRatedAfter(any(), any(), anyInt(), any(), any());
     }
 
     @Test
-    void searchBooks_WithAllFilters_ReturnsMatchingBooks() {
-        Book book1 = Book.builder().isbn("111").title("Der Hobbit").authors(List.of("Tolkien")).publishedDate("1937").build();
-        Book book2 = Book.builder().isbn("222").title("Der Herr der Ringe").authors(List.of("Tolkien")).publishedDate("1954").build();
-        mockUser.setBooks(List.of(book1, book2));
+    void getBooksByUserIdAndOptionalRating_InvalidRating_ThrowsException() {
         when(userRepository.findById(userId)).thenReturn(Optional.of(mockUser));
 
-        List<Book> result = bookService.searchBooks(userId, "Herr", "Tolkien", 1954);
-
-        assertThat(result).hasSize(1);
-        assertThat(result.get(0).getTitle()).contains("Herr");
+        assertThrows(InvalidBookException.class,
+                () -> bookService.getBooksByUserIdAndOptionalRating(userId, 10, BookSort.ADDED, null, 50));
     }
 
     @Test
-    void searchBooks_WithoutFilters_ReturnsAllBooks() {
-        Book book1 = Book.builder().isbn("111").title("Buch A").build();
-        Book book2 = Book.builder().isbn("222").title("Buch B").build();
-        mockUser.setBooks(List.of(book1, book2));
+    void getBooksByUserIdAndOptionalRating_CursorOfOtherSort_ThrowsException() {
         when(userRepository.findById(userId)).thenReturn(Optional.of(mockUser));
+        String titleCursor = new KeysetCursor("Matilda", UUID.randomUUID()).encode();
 
-        List<Book> result = bookService.searchBooks(userId, null, null, null);
-
-        assertThat(result).hasSize(2);
+        assertThrows(InvalidPageRequestException.class,
+                () -> bookService.getBooksByUserIdAndOptionalRating(userId, null, BookSort.ADDED, titleCursor, 50));
     }
 
     @Test
-    void searchBooks_UserNotFound_ThrowsException() {
+    void getBooksByUserIdAndOptionalRating_UserNotFound_ThrowsException() {
         when(userRepository.findById(userId)).thenReturn(Optional.empty());
 
-        assertThrows(UserNotFoundException.class, () -> bookService.searchBooks(userId, null, null, null));
+        assertThrows(UserNotFoundException.class,
+                () -> bookService.getBooksByUserIdAndOptionalRating(userId, 3, BookSort.ADDED, null, 50));
     }
 
     @Test
-    void searchBooks_FilterByAuthorOnly_ReturnsCorrectBooks() {
-        Book book1 = Book.builder().isbn("111").title("A").authors(List.of("Max Mustermann")).build();
-        Book book2 = Book.builder().isbn("222").title("B").authors(List.of("Erika Musterfrau")).build();
-        mockUser.setBooks(List.of(book1, book2));
-        when(userRepository.findById(userId)).thenReturn(Optional.of(mockUser));
+    void searchBooks_NormalizesTermsAndAddsAuthors() {
+        Book book = Book.builder().id(UUID.randomUUID())
+                .catalog(CatalogBook.builder().isbn("111").title("Der Herr der Ringe").authors(List.of("Tolkien")).publishedDate("1954").build())
+                .build();
+        mockUser.setBooks(List.of(book));
+        when(bookSearchRepository.search(eq(userId), any(BookSearch.class), isNull(), isNull(), eq(51)))
+                .thenReturn(List.of(new BookSearchHit(row(book), 6)));
+
+        KeysetPage<LibraryBook> result = bookService.searchBooks(userId, "Ringe", "HERR der", "Tolkien", 1954, null, 50);
+
+        assertThat(result.items()).extracting(LibraryBook::title).containsExactly("Der Herr der Ringe");
+        assertThat(result.items().get(0).authors()).containsExactly("Tolkien");
+        assertThat(result.nextCursor()).isNull();
+        verify(bookSearchRepository).search(userId,
+                new BookSearch(List.of("ringe"), List.of("herr", "der"), List.of("tolkien"), 1954), null, null, 51);
+        verify(userRepository, never()).existsById(userId);
+    }
 
-        List<Book> result = bookService.searchBooks(userId, null, "Erika", null);
+    @Test
+    void searchBooks_MoreHitsThanLimit_ContinuesAfterScoreAndId() {
+        Book first = Book.builder().id(UUID.randomUUID()).catalog(CatalogBook.builder().isbn("111").title("Buch A").build()).build();
+        Book second = Book.builder().id(UUID.randomUUID()).catalog(CatalogBook.builder().isbn("222").title("Buch B").build()).build();
+        mockUser.setBooks(List.of(first, second));
+        when(bookSearchRepository.search(eq(userId), any(BookSearch.class), isNull(), isNull(), eq(2)))
+                .thenReturn(List.of(new BookSearchHit(row(first), 4), new BookSearchHit(row(second), 1)));
+        when(bookSearchRepository.search(eq(userId), any(BookSearch.class), eq(4L), eq(first.getId()), eq(2)))
+                .thenReturn(List.of(new BookSearchHit(row(second), 1)));
+
+        KeysetPage<LibraryBook> page1 = bookService.searchBooks(userId, "buch", null, null, null, null, 1);
+        KeysetPage<LibraryBook> page2 = bookService.searchBooks(userId, "buch", null, null, null, page1.nextCursor(), 1);
+
+        assertThat(page1.items()).extracting(LibraryBook::isbn).containsExactly("111");
+        assertThat(page2.items()).extracting(LibraryBook::isbn).containsExactly("222");
+        assertThat(page2.nextCursor()).isNull();
+    }
+
+    @Test
+    void searchBooks_CursorOfOtherSort_ThrowsException() {
+        String cursor = new KeysetCursor("Der Hobbit", UUID.randomUUID()).encode();
 
-        assertThat(result).hasSize(1);
-        assertThat(result.get(0).getAuthors()).contains("Erika Musterfrau");
+        assertThrows(InvalidPageRequestException.class,
+                () -> bookService.searchBooks(userId, "hobbit", null, null, null, cursor, 50));
     }
 
     @Test
-    void searchBooks_FilterByYear_ReturnsCorrectBooks() {
-        Book book1 = Book.builder().isbn("111").title("A").publishedDate("2020").build();
-        Book book2 = Book.builder().isbn("222").title("B").publishedDate("2019").build();
-        mockUser.setBooks(List.of(book1, book2));
+    void searchBooks_NoHits_ReturnsEmptyPage() {
         when(userRepository.findById(userId)).thenReturn(Optional.of(mockUser));
 
-        List<Book> result = bookService.searchBooks(userId, null, null, 2020);
+        KeysetPage<LibraryBook> result = bookService.searchBooks(userId, "gibtsnicht", null, null, null, null, 50);
+
+        assertThat(result.items()).isEmpty();
+        assertThat(result.nextCursor()).isNull();
+    }
+
+    @Test
+    void searchBooks_UserNotFound_ThrowsException() {
+        when(userRepository.findById(userId)).thenReturn(Optional.empty());
 
-        assertThat(result).hasSize(1);
-        assertThat(result.get(0).getPublishedDate()).contains("2020");
+        assertThrows(UserNotFoundException.class,
+                () -> bookService.searchBooks(userId, null, null, null, null, null, 50));
     }
 }
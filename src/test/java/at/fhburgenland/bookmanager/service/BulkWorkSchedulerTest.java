@@ -0,0 +1,107 @@
+package at.fhburgenland.bookmanager.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BulkWorkSchedulerTest {
+
+    private static final UUID ALICE = UUID.randomUUID();
+    private static final UUID BOB = UUID.randomUUID();
+
+    private ExecutorService executor;
+    private SimpleMeterRegistry meterRegistry;
+    private BulkWorkScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        meterRegistry = new SimpleMeterRegistry();
+        scheduler = new BulkWorkScheduler(executor, 1, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.close();
+    }
+
+    @Test
+    void submit_LargeImportQueued_OtherUserIsServedNext() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> order = new CopyOnWriteArrayList<>();
+        CompletableFuture<Void> blocker = scheduler.submit(ALICE, () -> {
+            await(release);
+            order.add("alice-0");
+            return null;
+        });
+        CompletableFuture<?>[] queued = {
+                scheduler.submit(ALICE, () -> order.add("alice-1")),
+                scheduler.submit(ALICE, () -> order.add("alice-2")),
+                scheduler.submit(ALICE, () -> order.add("alice-3")),
+                scheduler.submit(BOB, () -> order.add("bob-1"))
+        };
+
+        assertThat(scheduler.queued()).isEqualTo(4);
+        assertThat(meterRegistry.get(BulkWorkScheduler.QUEUED_METRIC).gauge().value()).isEqualTo(4.0);
+        release.countDown();
+        blocker.get(5, TimeUnit.SECONDS);
+        CompletableFuture.allOf(queued).get(5, TimeUnit.SECONDS);
+
+        assertThat(order).containsExactly("alice-0", "alice-1", "bob-1", "alice-2", "alice-3");
+        assertThat(meterRegistry.get(BulkWorkScheduler.WAIT_METRIC).timer().count()).isEqualTo(5);
+    }
+
+    @Test
+    void submit_NeverRunsMoreThanMaxConcurrent() throws Exception {
+        scheduler = new BulkWorkScheduler(executor, 2, meterRegistry);
+        CountDownLatch started = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        List<CompletableFuture<Void>> tasks = List.of(ALICE, BOB, ALICE).stream()
+                .map(owner -> scheduler.submit(owner, () -> {
+                    started.countDown();
+                    await(release);
+                    return (Void) null;
+                }))
+                .toList();
+
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(scheduler.running()).isEqualTo(2);
+        assertThat(scheduler.queued()).isEqualTo(1);
+        release.countDown();
+        CompletableFuture.allOf(tasks.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+        assertThat(scheduler.running()).isZero();
+    }
+
+    @Test
+    void submit_FailingTask_CompletesFutureExceptionallyAndFreesSlot() throws Exception {
+        CompletableFuture<Object> failing = scheduler.submit(ALICE, () -> {
+            throw new IllegalStateException("DB weg");
+        });
+
+        CompletionException ex = assertThrows(CompletionException.class, failing::join);
+        assertThat(ex.getCause()).isInstanceOf(IllegalStateException.class);
+        assertThat(scheduler.submit(BOB, () -> "ok").get(5, TimeUnit.SECONDS)).isEqualTo("ok");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package at.fhburgenland.bookmanager.service;
+
+import at.fhburgenland.bookmanager.client.OpenLibraryPayloads;
+import at.fhburgenland.bookmanager.dto.BookMetadata;
+import at.fhburgenland.bookmanager.dto.CatalogProjection;
+import at.fhburgenland.bookmanager.model.CatalogBook;
+import at.fhburgenland.bookmanager.model.CatalogPayload;
+import at.fhburgenland.bookmanager.repository.BulkInserter;
+import at.fhburgenland.bookmanager.repository.CatalogBookRepository;
+import at.fhburgenland.bookmanager.repository.CatalogPayloadRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class CatalogProjectionServiceTest {
+
+    private static final String MATILDA = "9780140328721";
+    private static final String PRINZ = "9783792000281";
+
+    @Mock
+    private CatalogBookRepository catalogBookRepository;
+
+    @Mock
+    private CatalogPayloadRepository payloadRepository;
+
+    @Mock
+    private BulkInserter bulkInserter;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private ExecutorService executor;
+    private CatalogProjectionService service;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        doCallRealMethod().when(transactionTemplate).executeWithoutResult(any());
+        service = new CatalogProjectionService(catalogBookRepository, payloadRepository, bulkInserter, transactionTemplate,
+                new BulkWorkScheduler(executor, 2, new SimpleMeterRegistry()), executor, false, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.close();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void createEntries_StoresEntriesAndPayloadsInBulk() {
+        byte[] compressed = payload(MATILDA, "{\"authors\": [{\"name\": \"Roald Dahl\"}]}").getPayload();
+
+        List<CatalogBook> entries = service.createEntries(List.of(
+                new BookMetadata(MATILDA, "Matilda", "Puffin", "1988", null, null, compressed),
+                new BookMetadata(PRINZ, "Der kleine Prinz", null, null, null, null)));
+
+        assertThat(entries).extracting(CatalogBook::getIsbn).containsExactly(MATILDA, PRINZ);
+        assertThat(entries.get(0).getAuthors()).containsExactly("Roald Dahl");
+        verify(bulkInserter).persistAll(entries);
+        ArgumentCaptor<List<CatalogPayload>> payloads = ArgumentCaptor.forClass(List.class);
+        verify(bulkInserter).insertAll(payloads.capture());
+        assertThat(payloads.getValue()).extracting(CatalogPayload::getIsbn).containsExactly(MATILDA);
+        verifyNoInteractions(payloadRepository);
+    }
+
+    @Test
+    void reprojectOutdated_DerivesFieldsFromStoredPayloadsInBatches() {
+        CatalogBook matilda = CatalogBook.builder().isbn(MATILDA).title("Matilda").build();
+        CatalogBook prinz = CatalogBook.builder().isbn(PRINZ).title("Der kleine Prinz").build();
+        when(catalogBookRepository.findIsbnsWithOutdatedProjection(eq(CatalogProjection.VERSION), eq(""), any()))
+                .thenReturn(List.of(MATILDA));
+        when(catalogBookRepository.findIsbnsWithOutdatedProjection(eq(CatalogProjection.VERSION), eq(MATILDA), any()))
+                .thenReturn(List.of(PRINZ));
+        when(catalogBookRepository.findIsbnsWithOutdatedProjection(eq(CatalogProjection.VERSION), eq(PRINZ), any()))
+                .thenReturn(List.of());
+        when(catalogBookRepository.findAllById(List.of(MATILDA))).thenReturn(List.of(matilda));
+        when(catalogBookRepository.findAllById(List.of(PRINZ))).thenReturn(List.of(prinz));
+        when(payloadRepository.findAllById(List.of(MATILDA))).thenReturn(List.of(payload(MATILDA,
+                "{\"authors\": [{\"name\": \"Roald Dahl\"}], \"number_of_pages\": 232}")));
+        when(payloadRepository.findAllById(List.of(PRINZ))).thenReturn(List.of(payload(PRINZ,
+                "{\"authors\": [{\"name\": \"Antoine de Saint-Exupéry\"}], \"subjects\": [\"Fabel\"]}")));
+
+        int reprojected = service.reprojectOutdated();
+
+        assertThat(reprojected).isEqualTo(2);
+        assertThat(matilda.getAuthors()).containsExactly("Roald Dahl");
+        assertThat(matilda.getNumberOfPages()).isEqualTo(232);
+        assertThat(matilda.getProjectionVersion()).isEqualTo(CatalogProjection.VERSION);
+        assertThat(prinz.getAuthors()).containsExactly("Antoine de Saint-Exupéry");
+        assertThat(prinz.getSubjects()).containsExactly("Fabel");
+        assertThat(prinz.getNumberOfPages()).isNull();
+    }
+
+    @Test
+    void reprojectOutdated_UnreadablePayload_IsSkipped() {
+        CatalogBook matilda = CatalogBook.builder().isbn(MATILDA).build();
+        when(catalogBookRepository.findIsbnsWithOutdatedProjection(eq(CatalogProjection.VERSION), eq(""), any()))
+                .thenReturn(List.of(MATILDA));
+        when(catalogBookRepository.findIsbnsWithOutdatedProjection(eq(CatalogProjection.VERSION), eq(MATILDA), any()))
+                .thenReturn(List.of());
+        when(catalogBookRepository.findAllById(anyCollection())).thenReturn(List.of(matilda));
+        when(payloadRepository.findAllById(anyCollection()))
+                .thenReturn(List.of(new CatalogPayload(MATILDA, new byte[]{1, 2, 3}, Instant.now())));
+
+        assertThat(service.reprojectOutdated()).isZero();
+        assertThat(matilda.getProjectionVersion()).isNull();
+    }
+
+    @Test
+    void indexSearchText_FillsMissingSearchTextInBatches() {
+        CatalogBook matilda = CatalogBook.builder().isbn(MATILDA).title("Matilda").authors(List.of("Roald Dahl")).build();
+        CatalogBook prinz = CatalogBook.builder().isbn(PRINZ).title("Der kleine Prinz").publisher("Rauch Verlag").build();
+        when(catalogBookRepository.findIsbnsWithoutSearchText(eq(""), any())).thenReturn(List.of(MATILDA));
+        when(catalogBookRepository.findIsbnsWithoutSearchText(eq(MATILDA), any())).thenReturn(List.of(PRINZ));
+        when(catalogBookRepository.findIsbnsWithoutSearchText(eq(PRINZ), any())).thenReturn(List.of());
+        when(catalogBookRepository.findAllById(List.of(MATILDA))).thenReturn(List.of(matilda));
+        when(catalogBookRepository.findAllById(List.of(PRINZ))).thenReturn(List.of(prinz));
+
+        assertThat(service.indexSearchText()).isEqualTo(2);
+        assertThat(matilda.getSearchText()).isEqualTo("matilda|roald dahl||");
+        assertThat(prinz.getSearchText()).isEqualTo("der kleine prinz|||rauch verlag");
+    }
+
+    private static CatalogPayload payload(String isbn, String json) {
+        byte[] compressed = OpenLibraryPayloads.compress(json.getBytes(StandardCharsets.UTF_8));
+        return new CatalogPayload(isbn, compressed, Instant.now());
+    }
+}
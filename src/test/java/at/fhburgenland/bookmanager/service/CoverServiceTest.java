@@ -0,0 +1,68 @@
+package at.fhburgenland.bookmanager.service;
+
+import at.fhburgenland.bookmanager.client.OpenLibraryCoverClient;
+import at.fhburgenland.bookmanager.dto.CoverImage;
+import at.fhburgenland.bookmanager.exception.CoverNotFoundException;
+import at.fhburgenland.bookmanager.exception.MetadataUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+class CoverServiceTest {
+
+    private static final String ISBN = "9780140328721";
+
+    @TempDir
+    Path cacheDir;
+
+    private OpenLibraryCoverClient coverClient;
+    private CoverService coverService;
+
+    @BeforeEach
+    void setUp() {
+        coverClient = mock(OpenLibraryCoverClient.class);
+        coverService = new CoverService(new CoverStore(cacheDir, DataSize.ofMegabytes(1), Duration.ZERO), coverClient,
+                Duration.ofSeconds(5), 100, Duration.ofHours(1), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void getCover_FetchesOnceAndServesFromStore() {
+        when(coverClient.fetch(ISBN)).thenReturn(Optional.of(new CoverImage(new byte[]{1, 2, 3}, "image/jpeg")));
+
+        CoverStore.StoredCover first = coverService.getCover(ISBN);
+        CoverStore.StoredCover second = coverService.getCover("0-14-032872-8");
+
+        assertThat(second.hash()).isEqualTo(first.hash());
+        verify(coverClient, times(1)).fetch(ISBN);
+    }
+
+    @Test
+    void getCover_NoCover_IsRememberedWithoutFurtherRequests() {
+        when(coverClient.fetch(ISBN)).thenReturn(Optional.empty());
+
+        assertThrows(CoverNotFoundException.class, () -> coverService.getCover(ISBN));
+        assertThrows(CoverNotFoundException.class, () -> coverService.getCover(ISBN));
+
+        assertThat(coverService.isKnownMissing(ISBN)).isTrue();
+        verify(coverClient, times(1)).fetch(ISBN);
+    }
+
+    @Test
+    void getCover_OpenLibraryUnavailable_IsNotRememberedAsMissing() {
+        when(coverClient.fetch(ISBN)).thenThrow(new MetadataUnavailableException("Timeout"));
+
+        assertThrows(MetadataUnavailableException.class, () -> coverService.getCover(ISBN));
+
+        assertThat(coverService.isKnownMissing(ISBN)).isFalse();
+    }
+}
@@ -0,0 +1,113 @@
+package at.fhburgenland.bookmanager.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CoverStoreTest {
+
+    @TempDir
+    Path cacheDir;
+
+    @Test
+    void store_ThenFind_ReturnsSameFile() throws IOException {
+        CoverStore store = new CoverStore(cacheDir, DataSize.ofMegabytes(1), Duration.ZERO);
+
+        CoverStore.StoredCover stored = store.store("9780140328721", new byte[]{1, 2, 3}, "image/jpeg");
+        CoverStore.StoredCover found = store.find("9780140328721").orElseThrow();
+
+        assertThat(found.hash()).isEqualTo(stored.hash());
+        assertThat(found.contentType()).isEqualTo("image/jpeg");
+        assertThat(found.size()).isEqualTo(3);
+        assertThat(Files.readAllBytes(found.file())).containsExactly(1, 2, 3);
+    }
+
+    @Test
+    void store_SameContentForTwoIsbns_StoresBlobOnce() {
+        CoverStore store = new CoverStore(cacheDir, DataSize.ofMegabytes(1), Duration.ZERO);
+
+        CoverStore.StoredCover first = store.store("1111111111", new byte[100], "image/jpeg");
+        CoverStore.StoredCover second = store.store("2222222222", new byte[100], "image/jpeg");
+
+        assertThat(second.file()).isEqualTo(first.file());
+        assertThat(store.totalBytes()).isEqualTo(100);
+    }
+
+    @Test
+    void store_OverMaxSize_EvictsLeastRecentlyReadCover() {
+        CoverStore store = new CoverStore(cacheDir, DataSize.ofBytes(250), Duration.ZERO);
+        store.store("1111111111", filled(100, 1), "image/jpeg");
+        store.store("2222222222", filled(100, 2), "image/jpeg");
+        store.find("1111111111");
+
+        store.store("3333333333", filled(100, 3), "image/jpeg");
+
+        assertThat(store.find("1111111111")).isPresent();
+        assertThat(store.find("2222222222")).isEmpty();
+        assertThat(store.find("3333333333")).isPresent();
+        assertThat(store.totalBytes()).isEqualTo(200);
+    }
+
+    @Test
+    void store_EvictsLeasedCover_DeletesFileOnlyAfterLeaseIsClosed() {
+        CoverStore store = new CoverStore(cacheDir, DataSize.ofBytes(150), Duration.ZERO);
+        CoverStore.StoredCover first = store.store("1111111111", filled(100, 1), "image/jpeg");
+        CoverStore.Lease lease = store.lease(first);
+
+        store.store("2222222222", filled(100, 2), "image/jpeg");
+
+        assertThat(store.find("1111111111")).isEmpty();
+        assertThat(first.file()).exists();
+        lease.close();
+        assertThat(first.file()).doesNotExist();
+    }
+
+    @Test
+    void store_EvictsCover_KeepsFileForDeleteDelay() {
+        CoverStore store = new CoverStore(cacheDir, DataSize.ofBytes(150), Duration.ofMinutes(1));
+        CoverStore.StoredCover first = store.store("1111111111", filled(100, 1), "image/jpeg");
+
+        store.store("2222222222", filled(100, 2), "image/jpeg");
+        store.store("3333333333", filled(100, 3), "image/jpeg");
+
+        assertThat(store.find("1111111111")).isEmpty();
+        assertThat(first.file()).exists();
+        assertThat(store.totalBytes()).isEqualTo(100);
+    }
+
+    @Test
+    void store_SameContentAsRetiredCover_ReusesFile() {
+        CoverStore store = new CoverStore(cacheDir, DataSize.ofBytes(150), Duration.ofMinutes(1));
+        store.store("1111111111", filled(100, 1), "image/jpeg");
+        store.store("2222222222", filled(100, 2), "image/jpeg");
+
+        CoverStore.StoredCover again = store.store("3333333333", filled(100, 1), "image/jpeg");
+
+        assertThat(store.find("3333333333")).isPresent();
+        assertThat(again.file()).exists();
+    }
+
+    @Test
+    void constructor_ExistingCache_IsReloaded() {
+        new CoverStore(cacheDir, DataSize.ofMegabytes(1), Duration.ZERO).store("9780140328721", new byte[]{4, 5}, "image/png");
+
+        CoverStore reopened = new CoverStore(cacheDir, DataSize.ofMegabytes(1), Duration.ZERO);
+
+        assertThat(reopened.find("9780140328721")).map(CoverStore.StoredCover::contentType).contains("image/png");
+        assertThat(reopened.totalBytes()).isEqualTo(2);
+    }
+
+    private static byte[] filled(int size, int value) {
+        byte[] content = new byte[size];
+        Arrays.fill(content, (byte) value);
+        return content;
+    }
+}
@@ -0,0 +1,246 @@
+package at.fhburgenland.bookmanager.service;
+
+import at.fhburgenland.bookmanager.client.BookMetadataProvider;
+import at.fhburgenland.bookmanager.client.OpenLibraryRateLimiter;
+import at.fhburgenland.bookmanager.dto.BookMetadata;
+import at.fhburgenland.bookmanager.exception.MetadataUnavailableException;
+import at.fhburgenland.bookmanager.exception.UnknownIsbnException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class HedgedMetadataFetcherTest {
+
+    private static final String ISBN = "9780140328721";
+
+    private ExecutorService executor;
+    private SimpleMeterRegistry meterRegistry;
+    private OpenLibraryRateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        meterRegistry = new SimpleMeterRegistry();
+        rateLimiter = mock(OpenLibraryRateLimiter.class);
+        when(rateLimiter.tryAcquire()).thenReturn(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.close();
+    }
+
+    private HedgedMetadataFetcher newFetcher(BookMetadataProvider... providers) {
+        return newFetcherWith(Bulkhead.ofDefaults("test"), providers);
+    }
+
+    private HedgedMetadataFetcher newFetcherWith(Bulkhead bulkhead, BookMetadataProvider... providers) {
+        return new HedgedMetadataFetcher(List.of(providers), executor, bulkhead, rateLimiter, true, 0.95,
+                Duration.ofMillis(20), Duration.ofMillis(100), meterRegistry);
+    }
+
+    @Test
+    void fetch_SlowPrimary_ReturnsHedgedAnswer() {
+        StubProvider slow = new StubProvider("slow", isbn -> {
+            sleep(2000);
+            return metadata("Langsam");
+        });
+        StubProvider fast = new StubProvider("fast", isbn -> metadata("Schnell"));
+
+        long start = System.nanoTime();
+        BookMetadata result = newFetcher(slow, fast).fetch(ISBN);
+
+        assertThat(result.title()).isEqualTo("Schnell");
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(1));
+        assertThat(hedges("fired")).isEqualTo(1.0);
+        assertThat(hedges("won")).isEqualTo(1.0);
+    }
+
+    @Test
+    void fetch_FastPrimary_DoesNotAskSecondProvider() {
+        StubProvider primary = new StubProvider("primary", isbn -> metadata("Matilda"));
+        StubProvider secondary = new StubProvider("secondary", isbn -> metadata("Anders"));
+
+        assertThat(newFetcher(primary, secondary).fetch(ISBN).title()).isEqualTo("Matilda");
+        assertThat(secondary.calls.get()).isZero();
+        assertThat(hedges("fired")).isZero();
+    }
+
+    @Test
+    void fetch_PrimaryFailsFast_AsksSecondProviderImmediately() {
+        StubProvider failing = new StubProvider("failing", isbn -> {
+            throw new MetadataUnavailableException("down");
+        });
+        StubProvider secondary = new StubProvider("secondary", isbn -> metadata("Matilda"));
+
+        assertThat(newFetcher(failing, secondary).fetch(ISBN).title()).isEqualTo("Matilda");
+    }
+
+    @Test
+    void fetch_BothFail_ThrowsErrorOfPrimary() {
+        StubProvider unknown = new StubProvider("primary", isbn -> {
+            throw new UnknownIsbnException(isbn);
+        });
+        StubProvider down = new StubProvider("secondary", isbn -> {
+            throw new MetadataUnavailableException("down");
+        });
+
+        assertThrows(UnknownIsbnException.class, () -> newFetcher(unknown, down).fetch(ISBN));
+    }
+
+    @Test
+    void fetch_SingleProvider_HedgesAgainstItself() {
+        AtomicInteger attempt = new AtomicInteger();
+        StubProvider flaky = new StubProvider("flaky", isbn -> {
+            if (attempt.incrementAndGet() == 1) {
+                sleep(2000);
+            }
+            return metadata("Matilda");
+        });
+
+        assertThat(newFetcher(flaky).fetch(ISBN).title()).isEqualTo("Matilda");
+        assertThat(flaky.calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    void fetch_HedgeWins_InterruptsSlowPrimary() throws InterruptedException {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        StubProvider slow = new StubProvider("slow", isbn -> {
+            try {
+                Thread.sleep(5000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw new MetadataUnavailableException("abgebrochen");
+            }
+            return metadata("Langsam");
+        });
+        StubProvider fast = new StubProvider("fast", isbn -> metadata("Schnell"));
+
+        assertThat(newFetcher(slow, fast).fetch(ISBN).title()).isEqualTo("Schnell");
+
+        assertThat(interrupted.await(1, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void fetch_BulkheadFull_SkipsHedgeAndWaitsForPrimary() {
+        Bulkhead bulkhead = Bulkhead.of("single", BulkheadConfig.custom()
+                .maxConcurrentCalls(1)
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+        StubProvider slow = new StubProvider("slow", isbn -> {
+            sleep(300);
+            return metadata("Langsam");
+        });
+        StubProvider fast = new StubProvider("fast", isbn -> metadata("Schnell"));
+
+        assertThat(newFetcherWith(bulkhead, slow, fast).fetch(ISBN).title()).isEqualTo("Langsam");
+        assertThat(fast.calls.get()).isZero();
+        assertThat(bulkhead.getMetrics().getAvailableConcurrentCalls()).isEqualTo(1);
+    }
+
+    @Test
+    void fetch_NoTokenForHedge_SkipsHedgeAndWaitsForPrimary() {
+        when(rateLimiter.tryAcquire()).thenReturn(false);
+        StubProvider slow = new StubProvider("slow", isbn -> {
+            sleep(300);
+            return metadata("Langsam");
+        });
+        StubProvider fast = new StubProvider("fast", isbn -> metadata("Schnell"));
+
+        assertThat(newFetcher(slow, fast).fetch(ISBN).title()).isEqualTo("Langsam");
+        assertThat(fast.calls.get()).isZero();
+    }
+
+    @Test
+    void hedgeDelay_CountsFailedPrimaryCalls() {
+        StubProvider failing = new StubProvider("failing", isbn -> {
+            sleep(40);
+            throw new MetadataUnavailableException("down");
+        });
+        HedgedMetadataFetcher fetcher = newFetcher(failing, new StubProvider("secondary", isbn -> metadata("Matilda")));
+
+        for (int i = 0; i < 20; i++) {
+            fetcher.fetch(ISBN);
+        }
+
+        assertThat(fetcher.hedgeDelay()).isGreaterThanOrEqualTo(Duration.ofMillis(40)).isLessThan(Duration.ofMillis(100));
+    }
+
+    @Test
+    void hedgeDelay_FollowsObservedLatencyWithinBounds() {
+        HedgedMetadataFetcher fetcher = newFetcher(new StubProvider("fast", isbn -> metadata("Matilda")));
+        assertThat(fetcher.hedgeDelay()).isEqualTo(Duration.ofMillis(100));
+
+        for (int i = 0; i < 20; i++) {
+            fetcher.fetch(ISBN);
+        }
+
+        assertThat(fetcher.hedgeDelay()).isEqualTo(Duration.ofMillis(20));
+    }
+
+    private double hedges(String result) {
+        return meterRegistry.get(HedgedMetadataFetcher.HEDGE_METRIC).tag("result", result).counter().count();
+    }
+
+    private static BookMetadata metadata(String title) {
+        return new BookMetadata(ISBN, title, "", "", "", "");
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Stellvertretender Anbieter, dessen Verhalten der Test vorgibt.
+     */
+    private static final class StubProvider implements BookMetadataProvider {
+
+        private final String name;
+        private final Function<String, BookMetadata> behaviour;
+        private final AtomicInteger calls = new AtomicInteger();
+
+        StubProvider(String name, Function<String, BookMetadata> behaviour) {
+            this.name = name;
+            this.behaviour = behaviour;
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public BookMetadata fetch(String isbn) {
+            calls.incrementAndGet();
+            return behaviour.apply(isbn);
+        }
+
+        @Override
+        public Map<String, BookMetadata> fetchAll(Collection<String> isbns) {
+            return Map.of();
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package at.fhburgenland.bookmanager.service;
+
+import at.fhburgenland.bookmanager.dto.ImportJobStatus;
+import at.fhburgenland.bookmanager.dto.IsbnImportResult;
+import at.fhburgenland.bookmanager.exception.ImportJobNotFoundException;
+import at.fhburgenland.bookmanager.exception.UserNotFoundException;
+import at.fhburgenland.bookmanager.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+class ImportJobServiceTest {
+
+    @Mock
+    private BookImportService bookImportService;
+
+    @Mock
+    private UserRepository userRepository;
+
+    private ExecutorService executor;
+    private ImportJobService importJobService;
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        importJobService = new ImportJobService(bookImportService, userRepository, executor,
+                new BulkWorkScheduler(executor, 2, new SimpleMeterRegistry()), Duration.ofHours(1));
+        userId = UUID.randomUUID();
+        when(userRepository.existsById(userId)).thenReturn(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.close();
+    }
+
+    @Test
+    void submit_ProcessesAllChunksInBackground() throws Exception {
+        when(bookImportService.chunks(anyList())).thenReturn(List.of(List.of("111", "222"), List.of("333")));
+        when(bookImportService.importChunk(userId, List.of("111", "222"))).thenReturn(List.of(
+                IsbnImportResult.of("111", IsbnImportResult.Status.IMPORTED),
+                IsbnImportResult.of("222", IsbnImportResult.Status.ALREADY_OWNED)));
+        when(bookImportService.importChunk(userId, List.of("333"))).thenReturn(List.of(
+                IsbnImportResult.failed("333", "Timeout")));
+
+        ImportJobStatus accepted = importJobService.submit(userId, List.of("111", "222", "333"));
+        assertThat(accepted.total()).isEqualTo(3);
+
+        ImportJobStatus finished = awaitCompletion(accepted.jobId());
+        assertThat(finished.state()).isEqualTo(ImportJobStatus.State.COMPLETED);
+        assertThat(finished.processed()).isEqualTo(3);
+        assertThat(finished.imported()).isEqualTo(1);
+        assertThat(finished.alreadyOwned()).isEqualTo(1);
+        assertThat(finished.failed()).isEqualTo(1);
+        assertThat(finished.failures()).extracting(IsbnImportResult::isbn).containsExactly("333");
+        assertThat(finished.finishedAt()).isNotNull();
+    }
+
+    @Test
+    void submit_OnlyChunkThrows_MarksJobAsFailed() throws Exception {
+        when(bookImportService.chunks(anyList())).thenReturn(List.of(List.of("9780140328721")));
+        when(bookImportService.importChunk(eq(userId), anyList())).thenThrow(new IllegalStateException("DB weg"));
+
+        ImportJobStatus accepted = importJobService.submit(userId, List.of("9780140328721"));
+
+        ImportJobStatus finished = awaitCompletion(accepted.jobId());
+        assertThat(finished.state()).isEqualTo(ImportJobStatus.State.FAILED);
+        assertThat(finished.failed()).isEqualTo(1);
+    }
+
+    @Test
+    void submit_OneChunkThrows_RecordsItsIsbnsAndCompletesOthers() throws Exception {
+        List<String> broken = List.of("9780140328721", "111");
+        when(bookImportService.chunks(anyList())).thenReturn(List.of(List.of("222"), broken, List.of("333")));
+        when(bookImportService.importChunk(userId, List.of("222"))).thenReturn(List.of(
+                IsbnImportResult.of("222", IsbnImportResult.Status.IMPORTED)));
+        when(bookImportService.importChunk(userId, broken)).thenThrow(new IllegalStateException("DB weg"));
+        when(bookImportService.importChunk(userId, List.of("333"))).thenReturn(List.of(
+                IsbnImportResult.of("333", IsbnImportResult.Status.IMPORTED)));
+
+        ImportJobStatus accepted = importJobService.submit(userId, List.of("222", "9780140328721", "111", "333"));
+
+        ImportJobStatus finished = awaitCompletion(accepted.jobId());
+        assertThat(finished.state()).isEqualTo(ImportJobStatus.State.COMPLETED);
+        assertThat(finished.processed()).isEqualTo(4);
+        assertThat(finished.imported()).isEqualTo(2);
+        assertThat(finished.failed()).isEqualTo(1);
+        assertThat(finished.invalid()).isEqualTo(1);
+        assertThat(finished.failures()).extracting(IsbnImportResult::isbn).contains("9780140328721");
+    }
+
+    @Test
+    void submit_UserNotFound_ThrowsException() {
+        assertThrows(UserNotFoundException.class,
+                () -> importJobService.submit(UUID.randomUUID(), List.of("111")));
+    }
+
+    @Test
+    void getStatus_OtherUsersJob_ThrowsNotFound() {
+        when(bookImportService.chunks(anyList())).thenReturn(List.of());
+        ImportJobStatus accepted = importJobService.submit(userId, List.of("111"));
+
+        assertThrows(ImportJobNotFoundException.class,
+                () -> importJobService.getStatus(UUID.randomUUID(), accepted.jobId()));
+    }
+
+    @Test
+    void evictFinishedJobs_RetentionExpired_ForgetsJobWithoutNewSubmit() throws Exception {
+        importJobService = new ImportJobService(bookImportService, userRepository, executor,
+                new BulkWorkScheduler(executor, 2, new SimpleMeterRegistry()), Duration.ofMillis(200));
+        when(bookImportService.chunks(anyList())).thenReturn(List.of());
+        ImportJobStatus accepted = importJobService.submit(userId, List.of("111"));
+        awaitCompletion(accepted.jobId());
+        Thread.sleep(300);
+
+        importJobService.evictFinishedJobs();
+
+        assertThrows(ImportJobNotFoundException.class,
+                () -> importJobService.getStatus(userId, accepted.jobId()));
+    }
+
+    private ImportJobStatus awaitCompletion(UUID jobId) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            ImportJobStatus status = importJobService.getStatus(userId, jobId);
+            if (status.finishedAt() != null) {
+                return status;
+            }
+            Thread.sleep(20);
+        }
+        throw new AssertionError("Import-Auftrag wurde nicht rechtzeitig abgeschlossen");
+    }
+}
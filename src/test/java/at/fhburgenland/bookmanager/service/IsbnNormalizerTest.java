@@ -0,0 +1,49 @@
+package at.fhburgenland.bookmanager.service;
+
+import at.fhburgenland.bookmanager.exception.InvalidBookException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class IsbnNormalizerTest {
+
+    @Test
+    void toIsbn13_Isbn10_IsConvertedToIsbn13() {
+        assertThat(IsbnNormalizer.toIsbn13("0-14-032872-6")).isEqualTo("9780140328721");
+        assertThat(IsbnNormalizer.toIsbn13("3792000288")).isEqualTo("9783792000281");
+    }
+
+    @Test
+    void toIsbn13_Isbn10WithCheckCharacterX_IsConverted() {
+        assertThat(IsbnNormalizer.toIsbn13("0-8044-2957-x")).isEqualTo("9780804429573");
+    }
+
+    @Test
+    void toIsbn13_Isbn13WithSeparators_IsStripped() {
+        assertThat(IsbnNormalizer.toIsbn13(" 978-0-13-235088-4 ")).isEqualTo("9780132350884");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"1234567890", "978-0-14-032872-2", "97801403287", "notarealisbn", "X123456789", ""})
+    void toIsbn13_InvalidInput_ThrowsException(String isbn) {
+        InvalidBookException ex = assertThrows(InvalidBookException.class, () -> IsbnNormalizer.toIsbn13(isbn));
+        assertThat(ex.getMessage()).startsWith("Ungültige ISBN");
+    }
+
+    @Test
+    void canonical_InvalidInput_ReturnsStrippedInput() {
+        assertThat(IsbnNormalizer.canonical("123-456-789-0")).isEqualTo("1234567890");
+        assertThat(IsbnNormalizer.canonical("0140328726")).isEqualTo("9780140328721");
+    }
+
+    @Test
+    void lookupKeys_ContainCanonicalAndLegacySpellings() {
+        assertThat(IsbnNormalizer.lookupKeys("0-14-032872-6"))
+                .containsExactly("9780140328721", "0140328726", "0-14-032872-6");
+        assertThat(IsbnNormalizer.lookupKeys("123-456-789-0")).containsExactly("1234567890", "123-456-789-0");
+        assertThat(IsbnNormalizer.lookupKeys("9780140328721")).containsExactly("9780140328721");
+    }
+}
@@ -0,0 +1,145 @@
+package at.fhburgenland.bookmanager.service;
+
+import at.fhburgenland.bookmanager.client.OpenLibraryClient;
+import at.fhburgenland.bookmanager.client.OpenLibraryRateLimiter;
+import at.fhburgenland.bookmanager.dto.BookMetadata;
+import at.fhburgenland.bookmanager.dto.MetadataRevalidation;
+import at.fhburgenland.bookmanager.exception.MetadataUnavailableException;
+import at.fhburgenland.bookmanager.model.CatalogBook;
+import at.fhburgenland.bookmanager.repository.CatalogBookRepository;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class MetadataRefreshServiceTest {
+
+    private static final String MATILDA = "9780140328721";
+    private static final String PRINZ = "9783792000281";
+
+    @Mock
+    private CatalogBookRepository catalogBookRepository;
+
+    @Mock
+    private OpenLibraryClient openLibraryClient;
+
+    @Mock
+    private CatalogProjectionService catalogProjection;
+
+    @Mock
+    private JobLeaseService jobLeases;
+
+    @Mock
+    private OpenLibraryRateLimiter rateLimiter;
+
+    private BookMetadataCache metadataCache;
+    private CircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        metadataCache = new BookMetadataCache(100, Duration.ofMinutes(5), Duration.ofMinutes(1), new SimpleMeterRegistry());
+        circuitBreaker = CircuitBreaker.ofDefaults("test");
+        when(jobLeases.tryAcquire(eq(MetadataRefreshService.LEASE), any())).thenReturn(true);
+        when(rateLimiter.throttled(any(), any())).thenCallRealMethod();
+    }
+
+    private MetadataRefreshService newService(int batchSize, int maxRequestsPerRun) {
+        return new MetadataRefreshService(catalogBookRepository, openLibraryClient, metadataCache, catalogProjection,
+                circuitBreaker, rateLimiter, jobLeases, true, batchSize, maxRequestsPerRun, Duration.ofDays(7), Duration.ofMinutes(30));
+    }
+
+    @Test
+    void refreshOldest_UpdatesChangedEntriesAndMarksUnchangedInOneStatement() {
+        CatalogBook matilda = CatalogBook.builder().isbn(MATILDA).title("Matilda").etag("\"v1\"").build();
+        CatalogBook prinz = CatalogBook.builder().isbn(PRINZ).title("Der kleine Prinz").build();
+        when(catalogBookRepository.findFetchedBefore(any(), any())).thenReturn(List.of(matilda, prinz), List.of());
+        when(openLibraryClient.revalidate(MATILDA, "\"v1\"", null)).thenReturn(MetadataRevalidation.notModified());
+        BookMetadata updated = new BookMetadata(PRINZ, "Der Kleine Prinz", "Rauch", "1956", "", "");
+        when(openLibraryClient.revalidate(PRINZ, null, null))
+                .thenReturn(MetadataRevalidation.modified(updated, "\"v2\"", null));
+
+        int requests = newService(20, 100).refreshOldest();
+
+        assertThat(requests).isEqualTo(2);
+        verify(catalogBookRepository).markFetched(eq(List.of(MATILDA)), any());
+        verify(catalogBookRepository).updateMetadata(eq(PRINZ), eq("Der Kleine Prinz"), eq("Rauch"), eq("1956"),
+                eq(""), eq("\"v2\""), isNull(), any());
+        assertThat(metadataCache.get(PRINZ)).contains(updated);
+        verify(catalogProjection).replacePayload(updated);
+    }
+
+    @Test
+    void refreshOldest_StopsWhenRequestBudgetIsUsedUp() {
+        when(catalogBookRepository.findFetchedBefore(any(), any())).thenAnswer(invocation -> {
+            PageRequest page = invocation.getArgument(1);
+            return IntStream.range(0, page.getPageSize())
+                    .mapToObj(i -> CatalogBook.builder().isbn("isbn-" + i).build())
+                    .toList();
+        });
+        when(openLibraryClient.revalidate(anyString(), any(), any())).thenReturn(MetadataRevalidation.notModified());
+
+        int requests = newService(2, 5).refreshOldest();
+
+        assertThat(requests).isEqualTo(5);
+        verify(catalogBookRepository).findFetchedBefore(any(), eq(PageRequest.of(0, 1)));
+        verify(catalogBookRepository, times(3)).markFetched(any(), any());
+    }
+
+    @Test
+    void refreshOldest_OpenLibraryUnavailable_EndsRun() {
+        CatalogBook matilda = CatalogBook.builder().isbn(MATILDA).build();
+        CatalogBook prinz = CatalogBook.builder().isbn(PRINZ).build();
+        when(catalogBookRepository.findFetchedBefore(any(), any())).thenReturn(List.of(matilda, prinz));
+        when(openLibraryClient.revalidate(MATILDA, null, null)).thenReturn(MetadataRevalidation.notModified());
+        when(openLibraryClient.revalidate(PRINZ, null, null)).thenThrow(new MetadataUnavailableException("Timeout"));
+
+        int requests = newService(20, 100).refreshOldest();
+
+        assertThat(requests).isEqualTo(2);
+        verify(catalogBookRepository, times(1)).findFetchedBefore(any(), any());
+        verify(catalogBookRepository).markFetched(eq(List.of(MATILDA)), any());
+        verify(catalogBookRepository, never()).updateMetadata(any(), any(), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void scheduledRefresh_Disabled_DoesNothing() {
+        new MetadataRefreshService(catalogBookRepository, openLibraryClient, metadataCache, catalogProjection,
+                circuitBreaker, rateLimiter, jobLeases, false, 20, 100, Duration.ofDays(7), Duration.ofMinutes(30)).scheduledRefresh();
+
+        verifyNoInteractions(catalogBookRepository, openLibraryClient);
+    }
+
+    @Test
+    void scheduledRefresh_LeaseHeldByOtherInstance_Skips() {
+        when(jobLeases.tryAcquire(eq(MetadataRefreshService.LEASE), any())).thenReturn(false);
+
+        newService(20, 100).scheduledRefresh();
+
+        verifyNoInteractions(catalogBookRepository, openLibraryClient);
+        verify(jobLeases, never()).release(anyString());
+    }
+
+    @Test
+    void scheduledRefresh_ReleasesLeaseAfterRun() {
+        when(catalogBookRepository.findFetchedBefore(any(), any())).thenReturn(List.of());
+
+        newService(20, 100).scheduledRefresh();
+
+        verify(catalogBookRepository).findFetchedBefore(any(), any());
+        verify(jobLeases).release(MetadataRefreshService.LEASE);
+    }
+}
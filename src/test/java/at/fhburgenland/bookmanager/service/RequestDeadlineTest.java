@@ -0,0 +1,64 @@
+package at.fhburgenland.bookmanager.service;
+
+import at.fhburgenland.bookmanager.exception.DeadlineExceededException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RequestDeadlineTest {
+
+    @AfterEach
+    void tearDown() {
+        RequestDeadline.clear();
+    }
+
+    @Test
+    void bound_NoDeadline_ReturnsConfiguredTimeout() {
+        assertThat(RequestDeadline.bound(Duration.ofSeconds(5))).isEqualTo(Duration.ofSeconds(5));
+        assertDoesNotThrow(RequestDeadline::checkNotExpired);
+    }
+
+    @Test
+    void bound_ShorterDeadline_ReturnsRemainingTime() {
+        RequestDeadline.set(RequestDeadline.after(Duration.ofSeconds(2)));
+
+        assertThat(RequestDeadline.bound(Duration.ofSeconds(5)))
+                .isLessThanOrEqualTo(Duration.ofSeconds(2))
+                .isPositive();
+        assertThat(RequestDeadline.bound(Duration.ofMillis(500))).isEqualTo(Duration.ofMillis(500));
+    }
+
+    @Test
+    void expiredDeadline_AbandonsWork() {
+        RequestDeadline.set(RequestDeadline.after(Duration.ZERO));
+
+        assertThrows(DeadlineExceededException.class, RequestDeadline::checkNotExpired);
+        assertThrows(DeadlineExceededException.class, () -> RequestDeadline.bound(Duration.ofSeconds(5)));
+    }
+
+    @Test
+    void propagate_CarriesDeadlineToOtherThread() {
+        RequestDeadline deadline = RequestDeadline.after(Duration.ofSeconds(2));
+        RequestDeadline.set(deadline);
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Optional<RequestDeadline> seen = CompletableFuture
+                    .supplyAsync(RequestDeadline.propagate(RequestDeadline::current), executor)
+                    .join();
+            Optional<RequestDeadline> unpropagated = CompletableFuture
+                    .supplyAsync(RequestDeadline::current, executor)
+                    .join();
+
+            assertThat(seen).containsSame(deadline);
+            assertThat(unpropagated).isEmpty();
+        }
+    }
+}
@@ -1,18 +1,21 @@
 package at.fhburgenland.bookmanager.service;
 
+import at.fhburgenland.bookmanager.dto.KeysetPage;
 import at.fhburgenland.bookmanager.dto.ReviewRequest;
 import at.fhburgenland.bookmanager.exception.BookNotFoundException;
 import at.fhburgenland.bookmanager.exception.ReviewNotFoundException;
 import at.fhburgenland.bookmanager.exception.UserNotFoundException;
 import at.fhburgenland.bookmanager.model.Book;
+import at.fhburgenland.bookmanager.model.CatalogBook;
 import at.fhburgenland.bookmanager.model.Review;
-import at.fhburgenland.bookmanager.model.User;
 import at.fhburgenland.bookmanager.repository.BookRepository;
+import at.fhburgenland.bookmanager.repository.BulkInserter;
 import at.fhburgenland.bookmanager.repository.ReviewRepository;
 import at.fhburgenland.bookmanager.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import org.springframework.data.domain.PageRequest;
 
 import java.util.*;
 
@@ -31,11 +34,13 @@ class ReviewServiceTest {
     @Mock
     private ReviewRepository reviewRepository;
 
+    @Mock
+    private BulkInserter bulkInserter;
+
     @InjectMocks
     private ReviewService reviewService;
 
     private UUID userId;
-    private User user;
     private Book book;
     private Review review;
 
@@ -43,68 +48,85 @@ class ReviewServiceTest {
     void setUp() {
         MockitoAnnotations.openMocks(this);
         userId = UUID.randomUUID();
-        book = Book.builder().isbn("1234567890").reviews(new ArrayList<>()).build();
-        user = User.builder().id(userId).books(List.of(book)).build();
+        book = Book.builder().catalog(CatalogBook.builder().isbn("1234567890").build()).reviews(new ArrayList<>()).build();
         review = Review.builder().id(UUID.randomUUID()).rating(3).reviewText("Nice").book(book).build();
     }
 
+    private void ownsBook() {
+        when(bookRepository.findFirstByUserIdAndCatalogIsbnIn(userId, IsbnNormalizer.lookupKeys(book.getCatalog().getIsbn())))
+                .thenReturn(Optional.of(book));
+    }
+
     @Test
     void addReview_ValidInput_SavesReview() {
         ReviewRequest request = new ReviewRequest(4, "Top Buch!");
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        ownsBook();
         when(reviewRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
-        Review result = reviewService.addReview(userId, book.getIsbn(), request);
+        Review result = reviewService.addReview(userId, book.getCatalog().getIsbn(), request);
         assertEquals(4, result.getRating());
         assertEquals("Top Buch!", result.getReviewText());
         assertEquals(book, result.getBook());
         verify(reviewRepository).save(result);
     }
 
+    @Test
+    void addReviews_ValidInput_InsertsAllInOneBatchInGivenOrder() {
+        ownsBook();
+        List<Review> result = reviewService.addReviews(userId, book.getCatalog().getIsbn(),
+                List.of(new ReviewRequest(5, "Erste"), new ReviewRequest(2, "Zweite")));
+
+        assertThat(result).extracting(Review::getReviewText).containsExactly("Erste", "Zweite");
+        assertThat(result).allSatisfy(created -> assertEquals(book, created.getBook()));
+        assertThat(result.get(1).getCreatedAt()).isAfter(result.get(0).getCreatedAt());
+        verify(bulkInserter).insertAll(result);
+        verify(reviewRepository, never()).save(any());
+    }
+
     @Test
     void getAllReviews_ReturnsList() {
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(reviewRepository.findByBook(book)).thenReturn(List.of(review));
-        List<Review> result = reviewService.getAllReviews(userId, book.getIsbn());
-        assertThat(result).hasSize(1).contains(review);
+        ownsBook();
+        when(reviewRepository.findFirstByBook(book, PageRequest.of(0, 51))).thenReturn(List.of(review));
+        KeysetPage<Review> result = reviewService.getAllReviews(userId, book.getCatalog().getIsbn(), null, 50);
+        assertThat(result.items()).hasSize(1).contains(review);
+        assertThat(result.nextCursor()).isNull();
     }
 
     @Test
     void updateReview_ValidRequest_UpdatesReview() {
         ReviewRequest update = new ReviewRequest(5, "Wahnsinn!");
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(reviewRepository.findById(review.getId())).thenReturn(Optional.of(review));
+        ownsBook();
+        when(reviewRepository.findByIdAndBook(review.getId(), book)).thenReturn(Optional.of(review));
         when(reviewRepository.save(any())).thenAnswer(i -> i.getArgument(0));
-        Review result = reviewService.updateReview(userId, book.getIsbn(), review.getId(), update);
+        Review result = reviewService.updateReview(userId, book.getCatalog().getIsbn(), review.getId(), update);
         assertEquals(5, result.getRating());
         assertEquals("Wahnsinn!", result.getReviewText());
     }
 
     @Test
     void deleteReview_ExistingReview_DeletesSuccessfully() {
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(reviewRepository.findById(review.getId())).thenReturn(Optional.of(review));
-        reviewService.deleteReview(userId, book.getIsbn(), review.getId());
+        ownsBook();
+        when(reviewRepository.findByIdAndBook(review.getId(), book)).thenReturn(Optional.of(review));
+        reviewService.deleteReview(userId, book.getCatalog().getIsbn(), review.getId());
         verify(reviewRepository).delete(review);
     }
 
     @Test
     void addReview_UserNotFound_ThrowsException() {
-        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+        when(userRepository.existsById(userId)).thenReturn(false);
         assertThrows(UserNotFoundException.class, () -> reviewService.addReview(userId, "isbn", new ReviewRequest(5, "text")));
     }
 
     @Test
     void updateReview_ReviewNotFound_ThrowsException() {
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(reviewRepository.findById(any())).thenReturn(Optional.empty());
+        ownsBook();
+        when(reviewRepository.findByIdAndBook(any(), any())).thenReturn(Optional.empty());
         assertThrows(ReviewNotFoundException.class, () ->
-                reviewService.updateReview(userId, book.getIsbn(), UUID.randomUUID(), new ReviewRequest(1, "neu")));
+                reviewService.updateReview(userId, book.getCatalog().getIsbn(), UUID.randomUUID(), new ReviewRequest(1, "neu")));
     }
 
     @Test
     void getBookForUser_BookNotFound_ThrowsException() {
-        user.setBooks(List.of()); // kein Buch
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        assertThrows(BookNotFoundException.class, () -> reviewService.getAllReviews(userId, "fakeisbn"));
+        when(userRepository.existsById(userId)).thenReturn(true); // Benutzer ohne dieses Buch
+        assertThrows(BookNotFoundException.class, () -> reviewService.getAllReviews(userId, "fakeisbn", null, 50));
     }
 }
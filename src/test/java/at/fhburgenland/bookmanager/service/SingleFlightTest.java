@@ -0,0 +1,160 @@
+package at.fhburgenland.bookmanager.service;
+
+import at.fhburgenland.bookmanager.exception.InvalidBookException;
+import at.fhburgenland.bookmanager.exception.MetadataUnavailableException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SingleFlightTest {
+
+    private static final Duration WAIT = Duration.ofSeconds(5);
+
+    private SingleFlight<String, String> singleFlight;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        singleFlight = new SingleFlight<>();
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void execute_ConcurrentCallersSameKey_LoadsOnce() throws Exception {
+        CountDownLatch loaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+
+        Future<String> leader = executor.submit(() -> singleFlight.execute("isbn", () -> {
+            loads.incrementAndGet();
+            loaderStarted.countDown();
+            await(release);
+            return "Matilda";
+        }, WAIT));
+        assertTrue(loaderStarted.await(5, TimeUnit.SECONDS));
+
+        List<Future<String>> waiters = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            waiters.add(executor.submit(() -> singleFlight.execute("isbn", () -> {
+                loads.incrementAndGet();
+                return "anderer Wert";
+            }, WAIT)));
+        }
+        letWaitersQueueUp();
+        release.countDown();
+
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("Matilda");
+        for (Future<String> waiter : waiters) {
+            assertThat(waiter.get(5, TimeUnit.SECONDS)).isEqualTo("Matilda");
+        }
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(singleFlight.inFlightCount()).isZero();
+    }
+
+    @Test
+    void execute_LoaderFails_WaitersReceiveSameException() throws Exception {
+        CountDownLatch loaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> leader = executor.submit(() -> singleFlight.execute("isbn", () -> {
+            loaderStarted.countDown();
+            await(release);
+            throw new InvalidBookException("Keine Daten gefunden für ISBN: isbn");
+        }, WAIT));
+        assertTrue(loaderStarted.await(5, TimeUnit.SECONDS));
+        Future<String> waiter = executor.submit(() -> singleFlight.execute("isbn", () -> "unerwartet", WAIT));
+        letWaitersQueueUp();
+        release.countDown();
+
+        assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(InvalidBookException.class);
+        assertThatThrownBy(() -> waiter.get(5, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(InvalidBookException.class)
+                .hasMessageContaining("Keine Daten gefunden");
+    }
+
+    @Test
+    void execute_WaiterTimesOut_LeaderStillCompletes() throws Exception {
+        CountDownLatch loaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> leader = executor.submit(() -> singleFlight.execute("isbn", () -> {
+            loaderStarted.countDown();
+            await(release);
+            return "Matilda";
+        }, WAIT));
+        assertTrue(loaderStarted.await(5, TimeUnit.SECONDS));
+
+        assertThatThrownBy(() -> singleFlight.execute("isbn", () -> "unerwartet", Duration.ofMillis(50)))
+                .isInstanceOf(MetadataUnavailableException.class);
+
+        release.countDown();
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("Matilda");
+    }
+
+    @Test
+    void execute_WaiterInterrupted_DoesNotCancelSharedLoad() throws Exception {
+        CountDownLatch loaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> leader = executor.submit(() -> singleFlight.execute("isbn", () -> {
+            loaderStarted.countDown();
+            await(release);
+            return "Matilda";
+        }, WAIT));
+        assertTrue(loaderStarted.await(5, TimeUnit.SECONDS));
+
+        Future<String> cancelled = executor.submit(() -> singleFlight.execute("isbn", () -> "unerwartet", WAIT));
+        Future<String> patient = executor.submit(() -> singleFlight.execute("isbn", () -> "unerwartet", WAIT));
+        letWaitersQueueUp();
+        cancelled.cancel(true);
+        release.countDown();
+
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("Matilda");
+        assertThat(patient.get(5, TimeUnit.SECONDS)).isEqualTo("Matilda");
+    }
+
+    @Test
+    void execute_AfterCompletion_NextCallLoadsAgain() {
+        AtomicInteger loads = new AtomicInteger();
+
+        singleFlight.execute("isbn", () -> String.valueOf(loads.incrementAndGet()), WAIT);
+        singleFlight.execute("isbn", () -> String.valueOf(loads.incrementAndGet()), WAIT);
+
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    /**
+     * Gibt den nebenläufig gestarteten Aufrufern Zeit, sich als Wartende einzureihen,
+     * bevor der führende Ladevorgang abgeschlossen wird.
+     */
+    private static void letWaitersQueueUp() throws InterruptedException {
+        Thread.sleep(200);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package at.fhburgenland.bookmanager.service;
+
+import at.fhburgenland.bookmanager.dto.CoverSize;
+import at.fhburgenland.bookmanager.event.BookAddedEvent;
+import at.fhburgenland.bookmanager.exception.CoverNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.Mockito.*;
+
+class ThumbnailServiceTest {
+
+    private static final String ISBN = "9780140328721";
+
+    @TempDir
+    Path cacheDir;
+
+    private CoverStore coverStore;
+    private CoverService coverService;
+
+    @BeforeEach
+    void setUp() {
+        coverStore = new CoverStore(cacheDir, DataSize.ofMegabytes(10), Duration.ZERO);
+        coverService = mock(CoverService.class);
+    }
+
+    @Test
+    void generate_StoresAllThumbnailSizesKeepingAspectRatio() throws IOException {
+        when(coverService.getCover(ISBN)).thenReturn(coverStore.store(ISBN, jpeg(500, 800), "image/jpeg"));
+        ThumbnailService service = new ThumbnailService(coverService, coverStore, Executors.newSingleThreadExecutor());
+
+        service.generate(ISBN);
+
+        BufferedImage small = read(service.findOrSchedule(ISBN, CoverSize.S).orElseThrow());
+        BufferedImage medium = read(service.findOrSchedule(ISBN, CoverSize.M).orElseThrow());
+        assertThat(small.getWidth()).isEqualTo(96);
+        assertThat(small.getHeight()).isEqualTo(154);
+        assertThat(medium.getWidth()).isEqualTo(240);
+        assertThat(medium.getHeight()).isEqualTo(384);
+    }
+
+    @Test
+    void resize_SmallerThanTarget_DoesNotUpscale() {
+        BufferedImage resized = ThumbnailService.resize(new BufferedImage(80, 120, BufferedImage.TYPE_INT_RGB), 240);
+
+        assertThat(resized.getWidth()).isEqualTo(80);
+        assertThat(resized.getHeight()).isEqualTo(120);
+    }
+
+    @Test
+    void onBookAdded_RunsOnExecutorNotOnCallerThread() throws IOException {
+        when(coverService.getCover(ISBN)).thenReturn(coverStore.store(ISBN, jpeg(300, 450), "image/jpeg"));
+        List<Runnable> queued = new ArrayList<>();
+        ExecutorService executor = mock(ExecutorService.class);
+        doAnswer(invocation -> queued.add(invocation.getArgument(0))).when(executor).execute(any(Runnable.class));
+        ThumbnailService service = new ThumbnailService(coverService, coverStore, executor);
+
+        service.onBookAdded(new BookAddedEvent(ISBN));
+        service.onBookAdded(new BookAddedEvent(ISBN));
+
+        assertThat(queued).hasSize(1);
+        verify(coverService, never()).getCover(anyString());
+        queued.get(0).run();
+        assertThat(coverStore.find(ISBN + "-S")).isPresent();
+    }
+
+    @Test
+    void schedule_QueueFull_IsDroppedAndCanBeRescheduled() {
+        ExecutorService executor = mock(ExecutorService.class);
+        doThrow(new RejectedExecutionException()).doNothing().when(executor).execute(any(Runnable.class));
+        ThumbnailService service = new ThumbnailService(coverService, coverStore, executor);
+
+        assertThatCode(() -> service.schedule(ISBN)).doesNotThrowAnyException();
+        service.schedule(ISBN);
+
+        verify(executor, times(2)).execute(any(Runnable.class));
+    }
+
+    @Test
+    void findOrSchedule_KnownWithoutCover_SchedulesNothing() {
+        ExecutorService executor = mock(ExecutorService.class);
+        when(coverService.isKnownMissing(ISBN)).thenReturn(true);
+        ThumbnailService service = new ThumbnailService(coverService, coverStore, executor);
+
+        assertThat(service.findOrSchedule(ISBN, CoverSize.S)).isEmpty();
+        service.onBookAdded(new BookAddedEvent(ISBN));
+
+        verifyNoInteractions(executor);
+    }
+
+    @Test
+    void generate_NoCover_StoresNothing() {
+        when(coverService.getCover(ISBN)).thenThrow(new CoverNotFoundException(ISBN));
+        ThumbnailService service = new ThumbnailService(coverService, coverStore, Executors.newSingleThreadExecutor());
+
+        service.generate(ISBN);
+
+        assertThat(coverStore.find(ISBN + "-S")).isEmpty();
+    }
+
+    private static byte[] jpeg(int width, int height) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "jpg", out);
+        return out.toByteArray();
+    }
+
+    private static BufferedImage read(CoverStore.StoredCover cover) throws IOException {
+        return ImageIO.read(new ByteArrayInputStream(Files.readAllBytes(cover.file())));
+    }
+}
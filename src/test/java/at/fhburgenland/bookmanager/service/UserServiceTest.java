@@ -1,6 +1,10 @@
 package at.fhburgenland.bookmanager.service;
 
+import at.fhburgenland.bookmanager.dto.KeysetPage;
+import at.fhburgenland.bookmanager.dto.UserDetail;
 import at.fhburgenland.bookmanager.dto.UserDto;
+import at.fhburgenland.bookmanager.dto.UserSummary;
+import at.fhburgenland.bookmanager.exception.InvalidPageRequestException;
 import at.fhburgenland.bookmanager.exception.UserAlreadyExistsException;
 import at.fhburgenland.bookmanager.exception.UserNotFoundException;
 import at.fhburgenland.bookmanager.model.User;
@@ -8,6 +12,7 @@ import at.fhburgenland.bookmanager.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import org.springframework.data.domain.PageRequest;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -62,43 +67,64 @@ class UserServiceTest {
 
     @Test
     void getAllUsers_GibtListeZurück() {
-        List<User> mockUsers = List.of(
-                User.builder().name("User1").email("user1@example.com").build(),
-                User.builder().name("User2").email("user2@example.com").build()
+        List<UserSummary> mockUsers = List.of(
+                new UserSummary(UUID.randomUUID(), "User1", "user1@example.com", 3),
+                new UserSummary(UUID.randomUUID(), "User2", "user2@example.com", 0)
         );
-        when(userRepository.findAll()).thenReturn(mockUsers);
+        when(userRepository.findFirstSummaries(PageRequest.of(0, 51))).thenReturn(mockUsers);
 
-        List<User> result = userService.getAllUsers();
+        KeysetPage<UserSummary> result = userService.getAllUsers(null, 50);
 
-        assertEquals(2, result.size());
-        assertEquals("user1@example.com", result.get(0).getEmail());
+        assertEquals(2, result.items().size());
+        assertEquals("user1@example.com", result.items().get(0).email());
+        assertEquals(3, result.items().get(0).bookCount());
+        assertNull(result.nextCursor());
     }
 
     @Test
-    void getUserById_Vorhanden_ReturnsUser() {
-        UUID id = UUID.randomUUID();
-        User mock = User.builder()
-                .id(id)
-                .name("Service Test")
-                .email("service@test.at")
-                .books(new ArrayList<>()) // <<< wichtig!
-                .build();
+    void getAllUsers_SeiteVoll_BlättertAbLetzterEmailWeiter() {
+        UserSummary first = new UserSummary(UUID.randomUUID(), "User1", "user1@example.com", 0);
+        UserSummary second = new UserSummary(UUID.randomUUID(), "User2", "user2@example.com", 0);
+        when(userRepository.findFirstSummaries(PageRequest.of(0, 2))).thenReturn(List.of(first, second));
+        when(userRepository.findSummariesAfter("user1@example.com", PageRequest.of(0, 2)))
+                .thenReturn(List.of(second));
+
+        KeysetPage<UserSummary> page1 = userService.getAllUsers(null, 1);
+        KeysetPage<UserSummary> page2 = userService.getAllUsers(page1.nextCursor(), 1);
+
+        assertEquals(List.of(first), page1.items());
+        assertNotNull(page1.nextCursor());
+        assertEquals(List.of(second), page2.items());
+        assertNull(page2.nextCursor());
+    }
 
-        when(userRepository.findById(id)).thenReturn(Optional.of(mock));
+    @Test
+    void getAllUsers_UngültigeSeitenanfrage_LöstExceptionAus() {
+        assertThrows(InvalidPageRequestException.class, () -> userService.getAllUsers(null, 0));
+        assertThrows(InvalidPageRequestException.class, () -> userService.getAllUsers("kein-cursor", 10));
+        verifyNoInteractions(userRepository);
+    }
 
-        User result = userService.getUserById(id);
+    @Test
+    void getUserDetail_Vorhanden_ReturnsDetail() {
+        UUID id = UUID.randomUUID();
+        when(userRepository.findDetail(id))
+                .thenReturn(Optional.of(new UserDetail(id, "Service Test", "service@test.at", 2, 4.5)));
 
-        assertEquals("Service Test", result.getName());
-        assertEquals("service@test.at", result.getEmail());
-    }
+        UserDetail result = userService.getUserDetail(id);
 
+        assertEquals("Service Test", result.name());
+        assertEquals("service@test.at", result.email());
+        assertEquals(2, result.bookCount());
+        assertEquals(4.5, result.averageRating());
+    }
 
     @Test
-    void getUserById_NichtGefunden_WirftException() {
+    void getUserDetail_NichtGefunden_WirftException() {
         UUID id = UUID.randomUUID();
-        when(userRepository.findById(id)).thenReturn(Optional.empty());
+        when(userRepository.findDetail(id)).thenReturn(Optional.empty());
 
-        assertThrows(UserNotFoundException.class, () -> userService.getUserById(id));
+        assertThrows(UserNotFoundException.class, () -> userService.getUserDetail(id));
     }
 
     @Test